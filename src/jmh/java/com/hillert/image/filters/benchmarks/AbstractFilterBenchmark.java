@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.util.concurrent.TimeUnit;
+
+import com.jhlabs.image.AbstractBufferedImageOp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Common setup of the filter benchmarks. Each benchmark filters a generated square image of
+ * the given size and raster type; subclasses choose the filters of one filter family.
+ *
+ * @author Gunnar Hillert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractFilterBenchmark {
+
+	/**
+	 * The width and height of the image.
+	 */
+	@Param({ "256", "1024", "4096" })
+	public int size;
+
+	/**
+	 * The raster type of the image, see {@link BenchmarkImages#getType}.
+	 */
+	@Param({ "INT_RGB", "INT_ARGB", "3BYTE_BGR", "4BYTE_ABGR" })
+	public String imageType;
+
+	/**
+	 * Whether filters which support it run in parallel.
+	 */
+	@Param({ "false" })
+	public boolean parallel;
+
+	private BufferedImage image;
+
+	private BufferedImageOp filter;
+
+	/**
+	 * Create the image and the filter.
+	 */
+	@Setup
+	public void setUp() {
+		this.image = BenchmarkImages.create(this.size, this.size, BenchmarkImages.getType(this.imageType));
+		this.filter = createFilter();
+		if (this.filter instanceof AbstractBufferedImageOp op) {
+			op.setParallel(this.parallel);
+		}
+	}
+
+	/**
+	 * Filter the image into a new destination image.
+	 * @return the filtered image
+	 */
+	@Benchmark
+	public BufferedImage filter() {
+		return this.filter.filter(this.image, null);
+	}
+
+	/**
+	 * Create the filter selected by the benchmark parameters.
+	 * @return the filter
+	 */
+	protected abstract BufferedImageOp createFilter();
+
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with {@code -rf csv}, typically of two releases, and
+ * prints one line per benchmark and parameter combination with both scores and the relative
+ * change. Usage:
+ *
+ * <pre>
+ * java -cp ... com.hillert.image.filters.benchmarks.BenchmarkComparison baseline.csv current.csv
+ * </pre>
+ *
+ * @author Gunnar Hillert
+ */
+public final class BenchmarkComparison {
+
+	private BenchmarkComparison() {
+	}
+
+	/**
+	 * Print the comparison of two result files.
+	 * @param args the baseline and the current result file
+	 * @throws IOException if a file cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: BenchmarkComparison <baseline.csv> <current.csv>");
+			System.exit(1);
+		}
+		Map<String, Double> baseline = readScores(Path.of(args[0]));
+		Map<String, Double> current = readScores(Path.of(args[1]));
+
+		int width = "Benchmark".length();
+		for (String key : current.keySet()) {
+			width = Math.max(width, key.length());
+		}
+		for (String key : baseline.keySet()) {
+			width = Math.max(width, key.length());
+		}
+		String name = "%-" + width + "s";
+		System.out.printf(Locale.ROOT, name + " %12s %12s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+		for (Map.Entry<String, Double> entry : current.entrySet()) {
+			Double before = baseline.get(entry.getKey());
+			double after = entry.getValue();
+			if (before == null) {
+				System.out.printf(Locale.ROOT, name + " %12s %12.3f %9s%n", entry.getKey(), "-", after, "new");
+			}
+			else {
+				double change = (after - before) / before * 100;
+				System.out.printf(Locale.ROOT, name + " %12.3f %12.3f %+8.1f%%%n", entry.getKey(), before, after, change);
+			}
+		}
+		for (Map.Entry<String, Double> entry : baseline.entrySet()) {
+			if (!current.containsKey(entry.getKey())) {
+				System.out.printf(Locale.ROOT, name + " %12.3f %12s %9s%n", entry.getKey(), entry.getValue(), "-", "removed");
+			}
+		}
+	}
+
+	/**
+	 * Read the scores of a JMH CSV result file, keyed by the benchmark name followed by its
+	 * parameters.
+	 * @param file the result file
+	 * @return the scores in file order
+	 * @throws IOException if the file cannot be read
+	 */
+	static Map<String, Double> readScores(Path file) throws IOException {
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		Map<String, Double> scores = new LinkedHashMap<>();
+		if (lines.isEmpty()) {
+			return scores;
+		}
+		List<String> header = parseLine(lines.get(0));
+		int benchmarkColumn = header.indexOf("Benchmark");
+		int scoreColumn = header.indexOf("Score");
+		int unitColumn = header.indexOf("Unit");
+		for (String line : lines.subList(1, lines.size())) {
+			if (line.isBlank()) {
+				continue;
+			}
+			List<String> values = parseLine(line);
+			String benchmark = values.get(benchmarkColumn);
+			// Drop the package, keeping class and method
+			int method = benchmark.lastIndexOf('.');
+			StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1));
+			for (int i = 0; i < header.size(); i++) {
+				if (header.get(i).startsWith("Param: ")) {
+					key.append(' ').append(header.get(i).substring(7)).append('=').append(values.get(i));
+				}
+			}
+			key.append(" [").append(values.get(unitColumn)).append(']');
+			scores.put(key.toString(), Double.parseDouble(values.get(scoreColumn)));
+		}
+		return scores;
+	}
+
+	private static List<String> parseLine(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append(c);
+					i++;
+				}
+				else {
+					quoted = !quoted;
+				}
+			}
+			else if (c == ',' && !quoted) {
+				values.add(value.toString());
+				value.setLength(0);
+			}
+			else {
+				value.append(c);
+			}
+		}
+		values.add(value.toString());
+		return values;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Creates the images used by the benchmarks. The images are generated rather than loaded, so
+ * every size is available, and they are seeded, so runs on different releases filter exactly
+ * the same pixels.
+ *
+ * @author Gunnar Hillert
+ */
+public final class BenchmarkImages {
+
+	private static final long SEED = 42;
+
+	private BenchmarkImages() {
+	}
+
+	/**
+	 * Map a raster type name as used in benchmark parameters to its {@link BufferedImage} type.
+	 * @param name the name, for example {@code INT_ARGB} or {@code 3BYTE_BGR}
+	 * @return the image type
+	 */
+	public static int getType(String name) {
+		switch (name) {
+			case "INT_RGB":
+				return BufferedImage.TYPE_INT_RGB;
+			case "INT_ARGB":
+				return BufferedImage.TYPE_INT_ARGB;
+			case "INT_ARGB_PRE":
+				return BufferedImage.TYPE_INT_ARGB_PRE;
+			case "3BYTE_BGR":
+				return BufferedImage.TYPE_3BYTE_BGR;
+			case "4BYTE_ABGR":
+				return BufferedImage.TYPE_4BYTE_ABGR;
+			case "BYTE_GRAY":
+				return BufferedImage.TYPE_BYTE_GRAY;
+			default:
+				throw new IllegalArgumentException("Unknown image type: " + name);
+		}
+	}
+
+	/**
+	 * Create an image with smooth gradients, hard edges and noise, so that filters which
+	 * behave differently on flat and detailed areas see both.
+	 * @param width  the width of the image
+	 * @param height the height of the image
+	 * @param type   the image type
+	 * @return the image
+	 */
+	public static BufferedImage create(int width, int height, int type) {
+		BufferedImage image = new BufferedImage(width, height, type);
+		Random random = new Random(SEED);
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int r = x * 255 / width;
+				int g = y * 255 / height;
+				int b = (x + y) * 127 / (width + height) + random.nextInt(64);
+				int a = 255 - (x * 64 / width);
+				row[x] = (a << 24) | (r << 16) | (g << 8) | b;
+			}
+			image.setRGB(0, y, width, 1, row, 0, width);
+		}
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		for (int i = 0; i < 32; i++) {
+			g.setColor(new Color(random.nextInt(), true));
+			int size = 1 + random.nextInt(Math.max(1, width / 4));
+			g.fillOval(random.nextInt(width), random.nextInt(height), size, size);
+		}
+		g.dispose();
+		return image;
+	}
+
+}
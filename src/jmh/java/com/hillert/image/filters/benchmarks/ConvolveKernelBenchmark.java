@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.awt.image.BufferedImageOp;
+import java.awt.image.Kernel;
+import java.util.Arrays;
+
+import com.jhlabs.image.ConvolveFilter;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of the scalar {@link ConvolveFilter} engine over kernel shapes from 3 to 101 taps,
+ * in one row, one column and two dimensions, for each edge action.
+ *
+ * @author Gunnar Hillert
+ */
+public class ConvolveKernelBenchmark extends AbstractFilterBenchmark {
+
+	/**
+	 * The width and height of the kernel.
+	 */
+	@Param({ "3x1", "9x1", "25x1", "101x1", "1x25", "1x101", "3x3", "5x5", "9x9" })
+	public String kernelSize;
+
+	/**
+	 * The edge action, see {@link ConvolveFilter#setEdgeAction}.
+	 */
+	@Param({ "0", "1", "2" })
+	public int edgeAction;
+
+	@Override
+	protected BufferedImageOp createFilter() {
+		String[] dimensions = this.kernelSize.split("x");
+		int kernelWidth = Integer.parseInt(dimensions[0]);
+		int kernelHeight = Integer.parseInt(dimensions[1]);
+		float[] matrix = new float[kernelWidth * kernelHeight];
+		Arrays.fill(matrix, 1.0f / matrix.length);
+		ConvolveFilter filter = new ConvolveFilter(new Kernel(kernelWidth, kernelHeight, matrix));
+		filter.setEngine(ConvolveFilter.SCALAR_ENGINE);
+		filter.setEdgeAction(this.edgeAction);
+		return filter;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.jhlabs.math.FFT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the two dimensional {@link FFT}, for powers of two and for lengths with factors
+ * of 3 and 5, as a forward and inverse transform of complex data and of real data.
+ *
+ * @author Gunnar Hillert
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FFTBenchmark {
+
+	/**
+	 * The width and height of the array.
+	 */
+	@Param({ "128", "240", "256", "1024" })
+	public int size;
+
+	/**
+	 * Whether the row and column passes run in parallel.
+	 */
+	@Param({ "false" })
+	public boolean parallel;
+
+	private final FFT fft = new FFT();
+
+	private float[] input;
+
+	private float[] real;
+
+	private float[] imag;
+
+	private float[] output;
+
+	/**
+	 * Create the data.
+	 */
+	@Setup
+	public void setUp() {
+		this.fft.setParallel(this.parallel);
+		Random random = new Random(42);
+		this.input = new float[this.size * this.size];
+		for (int i = 0; i < this.input.length; i++) {
+			this.input[i] = random.nextFloat();
+		}
+		this.real = new float[this.size * this.size];
+		this.imag = new float[this.size * this.size];
+		this.output = new float[this.size * this.size];
+	}
+
+	/**
+	 * Transform complex data forwards and back.
+	 * @return the real parts
+	 */
+	@Benchmark
+	public float[] complex() {
+		System.arraycopy(this.input, 0, this.real, 0, this.input.length);
+		Arrays.fill(this.imag, 0);
+		this.fft.transform2D(this.real, this.imag, this.size, this.size, true);
+		this.fft.transform2D(this.real, this.imag, this.size, this.size, false);
+		return this.real;
+	}
+
+	/**
+	 * Transform real data forwards and back, keeping half of the spectrum.
+	 * @return the real values
+	 */
+	@Benchmark
+	public float[] real() {
+		this.fft.realTransform2D(this.input, this.real, this.imag, this.size, this.size);
+		this.fft.inverseRealTransform2D(this.real, this.imag, this.output, this.size, this.size);
+		return this.output;
+	}
+
+}
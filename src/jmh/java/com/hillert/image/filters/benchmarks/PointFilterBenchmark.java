@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.awt.image.BufferedImageOp;
+
+import com.jhlabs.image.ContrastFilter;
+import com.jhlabs.image.GrayscaleFilter;
+import com.jhlabs.image.HSBAdjustFilter;
+import com.jhlabs.image.PointFilter;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of filters derived from {@link PointFilter}.
+ *
+ * @author Gunnar Hillert
+ */
+public class PointFilterBenchmark extends AbstractFilterBenchmark {
+
+	/**
+	 * The filter to benchmark.
+	 */
+	@Param({ "Grayscale", "HSBAdjust", "Contrast" })
+	public String filterName;
+
+	@Override
+	protected BufferedImageOp createFilter() {
+		switch (this.filterName) {
+			case "Grayscale":
+				return new GrayscaleFilter();
+			case "HSBAdjust":
+				return new HSBAdjustFilter(0.1f, 0.2f, 0.1f);
+			case "Contrast":
+				ContrastFilter contrast = new ContrastFilter();
+				contrast.setContrast(1.5f);
+				return contrast;
+			default:
+				throw new IllegalArgumentException("Unknown filter: " + this.filterName);
+		}
+	}
+
+}
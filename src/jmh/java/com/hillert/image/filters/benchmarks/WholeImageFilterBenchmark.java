@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.benchmarks;
+
+import java.awt.image.BufferedImageOp;
+
+import com.jhlabs.image.EdgeFilter;
+import com.jhlabs.image.EmbossFilter;
+import com.jhlabs.image.MedianFilter;
+import com.jhlabs.image.WholeImageFilter;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks of filters derived from {@link WholeImageFilter}.
+ *
+ * @author Gunnar Hillert
+ */
+public class WholeImageFilterBenchmark extends AbstractFilterBenchmark {
+
+	/**
+	 * The filter to benchmark.
+	 */
+	@Param({ "Edge", "Emboss", "Median" })
+	public String filterName;
+
+	@Override
+	protected BufferedImageOp createFilter() {
+		switch (this.filterName) {
+			case "Edge":
+				return new EdgeFilter();
+			case "Emboss":
+				return new EmbossFilter();
+			case "Median":
+				return new MedianFilter();
+			default:
+				throw new IllegalArgumentException("Unknown filter: " + this.filterName);
+		}
+	}
+
+}
@@ -11,23 +11,233 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
 import java.awt.image.ColorModel;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * A convenience class which implements those methods of BufferedImageOp which are rarely changed.
+ * <p>
+ * Filters keep the state of a single invocation, such as image dimensions, lookup tables and
+ * scratch space, in fields. The filter methods of {@link PointFilter} and
+ * {@link WholeImageFilter} therefore run on a {@link #snapshot} of the filter, so that one
+ * configured instance may be shared by several threads which filter at the same time. The
+ * configuration must not be changed while another thread is filtering, and objects passed in
+ * as configuration, such as colormaps, functions or displacement maps, must not be modified
+ * either. Filters whose own helper objects keep scratch state, such as {@link LightFilter} or
+ * {@link CellularFilter}, give each snapshot fresh copies of them.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
  */
 public abstract class AbstractBufferedImageOp implements BufferedImageOp, Cloneable {
 
+	/**
+	 * Whether the per-pixel work of this filter is free of shared mutable state, so that the
+	 * image may be split into bands which are processed concurrently. Subclasses which keep
+	 * scratch state in fields or consume a random number stream clear this flag.
+	 */
+	protected boolean canFilterInParallel = true;
+
+	private boolean parallel = false;
+
+	private Executor executor;
+
+	private int minimumBandHeight = ParallelSupport.DEFAULT_MINIMUM_BAND_HEIGHT;
+
+	private static volatile PixelBufferPool defaultBufferPool = PixelBufferPool.NONE;
+
+	private PixelBufferPool bufferPool;
+
+	/**
+	 * Set whether filters which support it should process the image in parallel bands. The
+	 * output is identical to the serial path.
+	 * @param parallel true to enable parallel execution
+	 * @see #isParallel
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Get whether parallel execution is enabled.
+	 * @return true if parallel execution is enabled
+	 * @see #setParallel
+	 */
+	public boolean isParallel() {
+		return this.parallel;
+	}
+
+	/**
+	 * Set the executor used for parallel execution. A {@link java.util.concurrent.ForkJoinPool}
+	 * is recommended; if null, the common fork-join pool is used.
+	 * @param executor the executor
+	 * @see #getExecutor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Get the executor used for parallel execution.
+	 * @return the executor, or null for the common fork-join pool
+	 * @see #setExecutor
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Set the minimum number of rows in a band when executing in parallel. Images with fewer
+	 * rows than twice this value are processed on the calling thread.
+	 * @param minimumBandHeight the minimum band height
+	 * @see #getMinimumBandHeight
+	 */
+	public void setMinimumBandHeight(int minimumBandHeight) {
+		if (minimumBandHeight < 1) {
+			throw new IllegalArgumentException("minimumBandHeight must be at least 1");
+		}
+		this.minimumBandHeight = minimumBandHeight;
+	}
+
+	/**
+	 * Get the minimum number of rows in a band when executing in parallel.
+	 * @return the minimum band height
+	 * @see #setMinimumBandHeight
+	 */
+	public int getMinimumBandHeight() {
+		return this.minimumBandHeight;
+	}
+
+	/**
+	 * Set the pool used for this filter's intermediate pixel buffers.
+	 * @param bufferPool the pool, or null to use the default pool
+	 * @see #getBufferPool
+	 * @see #setDefaultBufferPool
+	 */
+	public void setBufferPool(PixelBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * Get the pool used for this filter's intermediate pixel buffers.
+	 * @return the pool, or null if the default pool is used
+	 * @see #setBufferPool
+	 */
+	public PixelBufferPool getBufferPool() {
+		return this.bufferPool;
+	}
+
+	/**
+	 * Set the pool used by all filters which have no pool of their own. Initially this is
+	 * {@link PixelBufferPool#NONE}, which allocates every buffer.
+	 * @param bufferPool the pool
+	 * @see #getDefaultBufferPool
+	 */
+	public static void setDefaultBufferPool(PixelBufferPool bufferPool) {
+		if (bufferPool == null) {
+			throw new IllegalArgumentException("bufferPool must not be null");
+		}
+		defaultBufferPool = bufferPool;
+	}
+
+	/**
+	 * Get the pool used by all filters which have no pool of their own.
+	 * @return the pool
+	 * @see #setDefaultBufferPool
+	 */
+	public static PixelBufferPool getDefaultBufferPool() {
+		return defaultBufferPool;
+	}
+
+	/**
+	 * Acquire an int buffer from this filter's pool. The buffer may be longer than requested
+	 * and its contents are undefined.
+	 * @param size the minimum length of the buffer
+	 * @return the buffer
+	 */
+	protected int[] acquireInts(int size) {
+		return effectiveBufferPool().acquireInts(size);
+	}
+
+	/**
+	 * Acquire a float buffer from this filter's pool. The buffer may be longer than requested
+	 * and its contents are undefined.
+	 * @param size the minimum length of the buffer
+	 * @return the buffer
+	 */
+	protected float[] acquireFloats(int size) {
+		return effectiveBufferPool().acquireFloats(size);
+	}
+
+	/**
+	 * Return int buffers acquired with {@link #acquireInts} to this filter's pool.
+	 * @param buffers the buffers, which may be null
+	 */
+	protected void release(int[]... buffers) {
+		PixelBufferPool pool = effectiveBufferPool();
+		for (int[] buffer : buffers) {
+			pool.release(buffer);
+		}
+	}
+
+	/**
+	 * Return float buffers acquired with {@link #acquireFloats} to this filter's pool.
+	 * @param buffers the buffers, which may be null
+	 */
+	protected void release(float[]... buffers) {
+		PixelBufferPool pool = effectiveBufferPool();
+		for (float[] buffer : buffers) {
+			pool.release(buffer);
+		}
+	}
+
+	private PixelBufferPool effectiveBufferPool() {
+		return (this.bufferPool != null) ? this.bufferPool : defaultBufferPool;
+	}
+
+	/**
+	 * Run a task over the rows {@code 0..height-1}, split into concurrent bands if parallel
+	 * execution is enabled and this filter supports it, otherwise as a single band on the
+	 * calling thread.
+	 * @param height the number of rows
+	 * @param task   the task to run for each band
+	 */
+	protected void forEachBand(int height, ParallelSupport.BandTask task) {
+		if (this.parallel && this.canFilterInParallel) {
+			ParallelSupport.forEachBand(this.executor, height, this.minimumBandHeight, task);
+		}
+		else {
+			task.run(0, height);
+		}
+	}
+
 	@Override
 	public BufferedImage createCompatibleDestImage(BufferedImage src, ColorModel dstCM) {
 		if (dstCM == null) {
-			dstCM = src.getColorModel();
+			return createCompatibleDestImage(src, src.getWidth(), src.getHeight());
 		}
 		return new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(src.getWidth(), src.getHeight()), dstCM.isAlphaPremultiplied(), null);
 	}
 
+	/**
+	 * Create a destination image of the given size with the color model of the source. Standard
+	 * image types are kept, as a raster created from the color model alone may order its bands
+	 * differently and end up as {@code TYPE_CUSTOM}, which would miss the fast paths of
+	 * {@link RasterAccess}.
+	 * @param src    the source image
+	 * @param width  the width of the destination
+	 * @param height the height of the destination
+	 * @return the destination image
+	 */
+	protected BufferedImage createCompatibleDestImage(BufferedImage src, int width, int height) {
+		int type = src.getType();
+		if (type != BufferedImage.TYPE_CUSTOM && type != BufferedImage.TYPE_BYTE_INDEXED && type != BufferedImage.TYPE_BYTE_BINARY) {
+			return new BufferedImage(width, height, type);
+		}
+		ColorModel dstCM = src.getColorModel();
+		return new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(width, height), dstCM.isAlphaPremultiplied(), null);
+	}
+
 	@Override
 	public Rectangle2D getBounds2D(BufferedImage src) {
 		return new Rectangle(0, 0, src.getWidth(), src.getHeight());
@@ -47,9 +257,28 @@ public abstract class AbstractBufferedImageOp implements BufferedImageOp, Clonea
 		return null;
 	}
 
+	/**
+	 * Run tasks over the rectangle {@code 0..width-1, 0..height-1}, split into tiles which are
+	 * processed concurrently if parallel execution is enabled and this filter supports it,
+	 * otherwise as a single tile on the calling thread.
+	 * @param width       the width of the area
+	 * @param height      the height of the area
+	 * @param tileSize    the width and height of a tile
+	 * @param taskFactory creates a task, with its own scratch state, for each worker
+	 */
+	protected void forEachTile(int width, int height, int tileSize, Supplier<ParallelSupport.TileTask> taskFactory) {
+		if (this.parallel && this.canFilterInParallel) {
+			ParallelSupport.forEachTile(this.executor, width, height, tileSize, taskFactory);
+		}
+		else {
+			taskFactory.get().run(0, 0, width, height);
+		}
+	}
+
 	/**
 	 * A convenience method for getting ARGB pixels from an image. This tries to avoid the performance
-	 * penalty of BufferedImage.getRGB unmanaging the image.
+	 * penalty of BufferedImage.getRGB unmanaging the image, and reads the common int and byte
+	 * raster layouts directly, see {@link RasterAccess}.
 	 * @param image  the image to read
 	 * @param x      the x coordinate of the upper-left pixel
 	 * @param y      the y coordinate of the upper-left pixel
@@ -59,16 +288,13 @@ public abstract class AbstractBufferedImageOp implements BufferedImageOp, Clonea
 	 * @return an array of ARGB pixels.
 	 */
 	public int[] getRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels) {
-		int type = image.getType();
-		if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
-			return (int[]) image.getRaster().getDataElements(x, y, width, height, pixels);
-		}
-		return image.getRGB(x, y, width, height, pixels, 0, width);
+		return RasterAccess.getRGB(image, x, y, width, height, pixels);
 	}
 
 	/**
 	 * A convenience method for setting ARGB pixels in an image. This tries to avoid the performance
-	 * penalty of BufferedImage.setRGB unmanaging the image.
+	 * penalty of BufferedImage.setRGB unmanaging the image, and writes the common int and byte
+	 * raster layouts directly, see {@link RasterAccess}.
 	 * @param image  the image to modify
 	 * @param x      the x coordinate of the upper left corner
 	 * @param y      the y coordinate of the upper left corner
@@ -77,13 +303,18 @@ public abstract class AbstractBufferedImageOp implements BufferedImageOp, Clonea
 	 * @param pixels the array of ARGB pixels to set
 	 */
 	public void setRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels) {
-		int type = image.getType();
-		if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
-			image.getRaster().setDataElements(x, y, width, height, pixels);
-		}
-		else {
-			image.setRGB(x, y, width, height, pixels, 0, width);
-		}
+		RasterAccess.setRGB(image, x, y, width, height, pixels);
+	}
+
+	/**
+	 * Get the copy of this filter which performs a single invocation of {@code filter}. The
+	 * copy shares the configuration of this filter but none of its per-invocation state, so
+	 * that several invocations can run at once. The default is a {@link #clone}; subclasses
+	 * holding mutable helper objects copy them in their clone method.
+	 * @return a copy of this filter
+	 */
+	protected AbstractBufferedImageOp snapshot() {
+		return (AbstractBufferedImageOp) clone();
 	}
 
 	@Override
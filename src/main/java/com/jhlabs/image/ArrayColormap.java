@@ -82,6 +82,21 @@ public class ArrayColormap implements Colormap, Cloneable, java.io.Serializable
 		return this.map[n];
 	}
 
+	@Override
+	public void getColors(float[] v, int[] out, int count) {
+		int[] map = this.map;
+		for (int i = 0; i < count; i++) {
+			int n = (int) (v[i] * 255);
+			if (n < 0) {
+				n = 0;
+			}
+			else if (n > 255) {
+				n = 255;
+			}
+			out[i] = map[n];
+		}
+	}
+
 	/**
 	 * Set the color at "index" to "color". Entries are interpolated linearly from
 	 * the existing entries at "firstIndex" and "lastIndex" to the new entry.
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+/**
+ * A thread-safe {@link PixelBufferPool} shared by all threads, which retains released buffers
+ * up to a fixed number of bytes. Buffers released beyond that cap are left to the garbage
+ * collector.
+ *
+ * @author Gunnar Hillert
+ */
+public class BoundedPixelBufferPool implements PixelBufferPool {
+
+	private final PixelBufferStore store;
+
+	private long acquisitions;
+
+	private long hits;
+
+	private long releases;
+
+	private long discards;
+
+	/**
+	 * Create a pool.
+	 * @param maxRetainedBytes the maximum number of bytes held by released buffers
+	 */
+	public BoundedPixelBufferPool(long maxRetainedBytes) {
+		if (maxRetainedBytes < 0) {
+			throw new IllegalArgumentException("maxRetainedBytes must not be negative");
+		}
+		this.store = new PixelBufferStore(maxRetainedBytes);
+	}
+
+	@Override
+	public int[] acquireInts(int size) {
+		int length = this.store.lengthFor(size);
+		synchronized (this) {
+			this.acquisitions++;
+			int[] buffer = this.store.pollInts(length);
+			if (buffer != null) {
+				this.hits++;
+				return buffer;
+			}
+		}
+		return new int[length];
+	}
+
+	@Override
+	public float[] acquireFloats(int size) {
+		int length = this.store.lengthFor(size);
+		synchronized (this) {
+			this.acquisitions++;
+			float[] buffer = this.store.pollFloats(length);
+			if (buffer != null) {
+				this.hits++;
+				return buffer;
+			}
+		}
+		return new float[length];
+	}
+
+	@Override
+	public synchronized void release(int[] buffer) {
+		if (buffer != null) {
+			this.releases++;
+			if (!this.store.offer(buffer)) {
+				this.discards++;
+			}
+		}
+	}
+
+	@Override
+	public synchronized void release(float[] buffer) {
+		if (buffer != null) {
+			this.releases++;
+			if (!this.store.offer(buffer)) {
+				this.discards++;
+			}
+		}
+	}
+
+	@Override
+	public synchronized Statistics getStatistics() {
+		return new Statistics(this.acquisitions, this.hits, this.releases, this.discards, this.store.getRetainedBytes());
+	}
+
+	@Override
+	public String toString() {
+		return "BoundedPixelBufferPool[" + getStatistics() + "]";
+	}
+}
@@ -28,8 +28,8 @@ public class BoxBlurFilter extends AbstractBufferedImageOp {
 			dst = createCompatibleDestImage(src, null);
 		}
 
-		int[] inPixels = new int[width * height];
-		int[] outPixels = new int[width * height];
+		int[] inPixels = acquireInts(width * height);
+		int[] outPixels = acquireInts(width * height);
 		getRGB(src, 0, 0, width, height, inPixels);
 
 		for (int i = 0; i < this.iterations; i++) {
@@ -38,6 +38,7 @@ public class BoxBlurFilter extends AbstractBufferedImageOp {
 		}
 
 		setRGB(dst, 0, 0, width, height, inPixels);
+		release(inPixels, outPixels);
 		return dst;
 	}
 
@@ -11,10 +11,13 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
 import java.awt.image.ColorModel;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+import com.jhlabs.math.RandomStreams;
 
 /**
- * A filter which produces an image simulating brushed metal.
+ * A filter which produces an image simulating brushed metal. The noise of each row is drawn
+ * from a stream derived from the seed and the row, so the result is reproducible.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -26,7 +29,7 @@ public class BrushedMetalFilter implements BufferedImageOp {
 	private int color = 0xff888888;
 	private float shine = 0;
 	private boolean monochrome = false;
-	private Random randomNumbers;
+	private long seed = 0;
 
 	public BrushedMetalFilter() {
 	}
@@ -51,12 +54,12 @@ public class BrushedMetalFilter implements BufferedImageOp {
 		int[] inPixels = new int[width];
 		int[] outPixels = new int[width];
 
-		this.randomNumbers = new Random(0);
 		int a = this.color & 0xff000000;
 		int r = (this.color >> 16) & 0xff;
 		int g = (this.color >> 8) & 0xff;
 		int b = this.color & 0xff;
 		for (int y = 0; y < height; y++) {
+			SplittableRandom randomNumbers = RandomStreams.stream(this.seed, 0, y);
 			for (int x = 0; x < width; x++) {
 				int tr = r;
 				int tg = g;
@@ -68,11 +71,11 @@ public class BrushedMetalFilter implements BufferedImageOp {
 					tb += f;
 				}
 				if (this.monochrome) {
-					int n = (int) (255 * (2 * this.randomNumbers.nextFloat() - 1) * this.amount);
+					int n = (int) (255 * (2 * randomNumbers.nextFloat() - 1) * this.amount);
 					inPixels[x] = a | (clamp(tr + n) << 16) | (clamp(tg + n) << 8) | clamp(tb + n);
 				}
 				else {
-					inPixels[x] = a | (random(tr) << 16) | (random(tg) << 8) | random(tb);
+					inPixels[x] = a | (random(randomNumbers, tr) << 16) | (random(randomNumbers, tg) << 8) | random(randomNumbers, tb);
 				}
 			}
 
@@ -87,8 +90,8 @@ public class BrushedMetalFilter implements BufferedImageOp {
 		return dst;
 	}
 
-	private int random(int x) {
-		x += (int) (255 * (2 * this.randomNumbers.nextFloat() - 1) * this.amount);
+	private int random(SplittableRandom randomNumbers, int x) {
+		x += (int) (255 * (2 * randomNumbers.nextFloat() - 1) * this.amount);
 		if (x < 0) {
 			x = 0;
 		}
@@ -198,6 +201,14 @@ public class BrushedMetalFilter implements BufferedImageOp {
 		return this.shine;
 	}
 
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
 	@Override
 	public BufferedImage createCompatibleDestImage(BufferedImage src, ColorModel dstCM) {
 		if (dstCM == null) {
@@ -236,13 +247,7 @@ public class BrushedMetalFilter implements BufferedImageOp {
 	 * @param pixels the array of ARGB pixels to set
 	 */
 	public void setRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels) {
-		int type = image.getType();
-		if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
-			image.getRaster().setDataElements(x, y, width, height, pixels);
-		}
-		else {
-			image.setRGB(x, y, width, height, pixels, 0, width);
-		}
+		RasterAccess.setRGB(image, x, y, width, height, pixels);
 	}
 
 	@Override
@@ -6,6 +6,7 @@ package com.jhlabs.image;
 
 import java.awt.Rectangle;
 import java.awt.image.BufferedImageOp;
+import java.util.Arrays;
 import java.util.Random;
 
 import com.jhlabs.math.Function2D;
@@ -13,6 +14,10 @@ import com.jhlabs.math.Noise;
 
 /**
  * A filter which produces cellular patterns (also known as Worley noise or Voronoi diagrams).
+ * <p>
+ * The search for the nearest feature points keeps its results in fields. Filtering runs on a
+ * snapshot with its own results, so one instance may filter on several threads at once, but
+ * calls to {@link #evaluate} on the instance itself must not overlap.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -39,10 +44,33 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 	protected Point[] results = null;
 	protected float randomness = 0;
 	protected int gridType = HEXAGONAL;
+	protected long seed = 0;
 
 	private float min;
 	private float max;
-	private static byte[] probabilities;
+	private static final byte[] probabilities = makeProbabilities();
+	private static final int MAX_POINTS = 10;
+
+	// Whether a class inherits getPixel from this class, looked up once per class
+	private static final ClassValue<Boolean> INHERITS_GET_PIXEL = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("getPixel", int.class, int.class, int[].class, int.class, int.class)
+					.getDeclaringClass() == CellularFilter.class;
+			}
+			catch (NoSuchMethodException ex) {
+				return false;
+			}
+		}
+	};
+	private float[] cubePoints = new float[MAX_POINTS * 3];
+	private int gridX;
+	private int gridY;
+	private int gridWidth;
+	private int gridHeight;
+	private int[] gridOffsets;
+	private float[] gridPoints;
 	private float gradientCoefficient;
 
 	/**
@@ -83,28 +111,37 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 	 * Constructor for CellularFilter.
 	 */
 	public CellularFilter() {
-		this.results = new Point[3];
-		for (int j = 0; j < this.results.length; j++) {
-			this.results[j] = new Point();
-		}
-		if (probabilities == null) {
-			probabilities = new byte[8192];
-			float factorial = 1;
-			float total = 0;
-			float mean = 2.5f;
-			for (int i = 0; i < 10; i++) {
-				if (i > 1) {
-					factorial *= i;
-				}
-				float probability = (float) Math.pow(mean, i) * (float) Math.exp(-mean) / factorial;
-				int start = (int) (total * 8192);
-				total += probability;
-				int end = (int) (total * 8192);
-				for (int j = start; j < end; j++) {
-					probabilities[j] = (byte) i;
-				}
+		this.results = newResults();
+	}
+
+	// Distances to the nearest feature points, written by evaluate
+	private static Point[] newResults() {
+		Point[] results = new Point[3];
+		for (int j = 0; j < results.length; j++) {
+			results[j] = new Point();
+		}
+		return results;
+	}
+
+	// Poisson distribution of the number of feature points per cube
+	private static byte[] makeProbabilities() {
+		byte[] probabilities = new byte[8192];
+		float factorial = 1;
+		float total = 0;
+		float mean = 2.5f;
+		for (int i = 0; i < 10; i++) {
+			if (i > 1) {
+				factorial *= i;
+			}
+			float probability = (float) Math.pow(mean, i) * (float) Math.exp(-mean) / factorial;
+			int start = (int) (total * 8192);
+			total += probability;
+			int end = (int) (total * 8192);
+			for (int j = start; j < end; j++) {
+				probabilities[j] = (byte) i;
 			}
 		}
+		return probabilities;
 	}
 
 	public void setScale(float scale) {
@@ -209,6 +246,19 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 		return this.randomness;
 	}
 
+	/**
+	 * Set the seed from which the feature points are placed. Every seed gives a different
+	 * pattern, and the same seed always gives the same pattern.
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
 	public void setGridType(int gridType) {
 		this.gridType = gridType;
 	}
@@ -268,9 +318,10 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 		}
 	*/
 
-	private float checkCube(float x, float y, int cubeX, int cubeY, Point[] results) {
+	// Generate the feature points of a cube as x, y and weight triples and return their number
+	private int generateCube(int cubeX, int cubeY, float[] points, int offset) {
 		int numPoints;
-		this.random.setSeed(571L * cubeX + 23L * cubeY);
+		this.random.setSeed((571L * cubeX + 23L * cubeY) ^ (this.seed * 0x9e3779b97f4a7c15L));
 		switch (this.gridType) {
 			case RANDOM:
 			default:
@@ -366,6 +417,83 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 					}
 					break;
 			}
+			points[offset++] = px;
+			points[offset++] = py;
+			points[offset++] = weight;
+		}
+		return numPoints;
+	}
+
+	// Generate the feature points of all cubes the image maps to, so that each cube is only
+	// generated once per render instead of once per visit
+	private void buildFeatureGrid(int width, int height) {
+		float minX = Float.POSITIVE_INFINITY;
+		float minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY;
+		float maxY = Float.NEGATIVE_INFINITY;
+		for (int corner = 0; corner < 4; corner++) {
+			int x = ((corner & 1) == 0) ? 0 : width;
+			int y = ((corner & 2) == 0) ? 0 : height;
+			float nx = (this.m00 * x + this.m01 * y) / this.scale + 1000;
+			float ny = (this.m10 * x + this.m11 * y) / (this.scale * this.stretch) + 1000;
+			minX = Math.min(minX, nx);
+			minY = Math.min(minY, ny);
+			maxX = Math.max(maxX, nx);
+			maxY = Math.max(maxY, ny);
+		}
+		// Neighbouring cubes are searched too, so add a margin of one cube
+		int x0 = (int) Math.floor(minX) - 1;
+		int y0 = (int) Math.floor(minY) - 1;
+		int gridWidth = (int) Math.floor(maxX) + 2 - x0;
+		int gridHeight = (int) Math.floor(maxY) + 2 - y0;
+		// With cubes smaller than pixels most cubes are never visited
+		if ((long) gridWidth * gridHeight > (long) width * height) {
+			this.gridOffsets = null;
+			return;
+		}
+
+		int[] offsets = new int[gridWidth * gridHeight + 1];
+		float[] points = new float[gridWidth * gridHeight * 3 * 3];
+		int offset = 0;
+		for (int gy = 0; gy < gridHeight; gy++) {
+			for (int gx = 0; gx < gridWidth; gx++) {
+				if (points.length - offset < MAX_POINTS * 3) {
+					points = Arrays.copyOf(points, points.length * 2);
+				}
+				offsets[gy * gridWidth + gx] = offset;
+				offset += 3 * generateCube(x0 + gx, y0 + gy, points, offset);
+			}
+		}
+		offsets[gridWidth * gridHeight] = offset;
+		this.gridX = x0;
+		this.gridY = y0;
+		this.gridWidth = gridWidth;
+		this.gridHeight = gridHeight;
+		this.gridOffsets = offsets;
+		this.gridPoints = points;
+	}
+
+	private float checkCube(float x, float y, int cubeX, int cubeY, Point[] results, int depth) {
+		float[] points;
+		int offset;
+		int numPoints;
+		int gx = cubeX - this.gridX;
+		int gy = cubeY - this.gridY;
+		if (this.gridOffsets != null && gx >= 0 && gy >= 0 && gx < this.gridWidth && gy < this.gridHeight) {
+			int cube = gy * this.gridWidth + gx;
+			points = this.gridPoints;
+			offset = this.gridOffsets[cube];
+			numPoints = (this.gridOffsets[cube + 1] - offset) / 3;
+		}
+		else {
+			points = this.cubePoints;
+			offset = 0;
+			numPoints = generateCube(cubeX, cubeY, points, 0);
+		}
+		for (int i = 0; i < numPoints; i++) {
+			float px = points[offset++];
+			float py = points[offset++];
+			float weight = points[offset++];
 			float dx = Math.abs(x - px);
 			float dy = Math.abs(y - py);
 			float d;
@@ -412,11 +540,47 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 				p.y = cubeY + py;
 			}
 		}
-		return results[2].distance;
+		return results[depth].distance;
+	}
+
+	/**
+	 * Get the number of nearest feature points which are used for a pixel. The search for
+	 * feature points stops at neighbouring cubes which cannot hold a point nearer than the
+	 * last of these, so subclasses which read more of the {@link #results} than the
+	 * coefficients use must override this.
+	 * @return the number of nearest feature points, from 1 to 3
+	 */
+	protected int getFeatureCount() {
+		int count = 1;
+		for (int i = 1; i < 3; i++) {
+			if (this.coefficients[i] != 0) {
+				count = i + 1;
+			}
+		}
+		if (this.useColor) {
+			count = Math.max(count, 2);
+		}
+		return count;
+	}
+
+	// Whether every feature point lies inside its cube, which is what makes it safe to skip
+	// the neighbouring cubes that are further away than the last feature point needed
+	private boolean hasPointsInCubes() {
+		switch (this.gridType) {
+			case SQUARE:
+				return Math.abs(this.randomness) <= 1;
+			case HEXAGONAL:
+			case OCTAGONAL:
+			case TRIANGULAR:
+				return this.randomness == 0;
+			default:
+				return true;
+		}
 	}
 
 	@Override
 	public float evaluate(float x, float y) {
+		int depth = hasPointsInCubes() ? getFeatureCount() - 1 : 2;
 		for (int j = 0; j < this.results.length; j++) {
 			this.results[j].distance = Float.POSITIVE_INFINITY;
 		}
@@ -426,35 +590,38 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 		float fx = x - ix;
 		float fy = y - iy;
 
-		float d = checkCube(fx, fy, ix, iy, this.results);
+		float d = checkCube(fx, fy, ix, iy, this.results, depth);
 		if (d > fy) {
-			d = checkCube(fx, fy + 1, ix, iy - 1, this.results);
+			d = checkCube(fx, fy + 1, ix, iy - 1, this.results, depth);
 		}
 		if (d > 1 - fy) {
-			d = checkCube(fx, fy - 1, ix, iy + 1, this.results);
+			d = checkCube(fx, fy - 1, ix, iy + 1, this.results, depth);
 		}
 		if (d > fx) {
-			checkCube(fx + 1, fy, ix - 1, iy, this.results);
+			checkCube(fx + 1, fy, ix - 1, iy, this.results, depth);
 			if (d > fy) {
-				d = checkCube(fx + 1, fy + 1, ix - 1, iy - 1, this.results);
+				d = checkCube(fx + 1, fy + 1, ix - 1, iy - 1, this.results, depth);
 			}
 			if (d > 1 - fy) {
-				d = checkCube(fx + 1, fy - 1, ix - 1, iy + 1, this.results);
+				d = checkCube(fx + 1, fy - 1, ix - 1, iy + 1, this.results, depth);
 			}
 		}
 		if (d > 1 - fx) {
-			d = checkCube(fx - 1, fy, ix + 1, iy, this.results);
+			d = checkCube(fx - 1, fy, ix + 1, iy, this.results, depth);
 			if (d > fy) {
-				d = checkCube(fx - 1, fy + 1, ix + 1, iy - 1, this.results);
+				d = checkCube(fx - 1, fy + 1, ix + 1, iy - 1, this.results, depth);
 			}
 			if (d > 1 - fy) {
-				d = checkCube(fx - 1, fy - 1, ix + 1, iy + 1, this.results);
+				d = checkCube(fx - 1, fy - 1, ix + 1, iy + 1, this.results, depth);
 			}
 		}
 
 		float t = 0;
 		for (int i = 0; i < 3; i++) {
-			t += this.coefficients[i] * this.results[i].distance;
+			// The results beyond the feature count may not have been found
+			if (this.coefficients[i] != 0) {
+				t += this.coefficients[i] * this.results[i].distance;
+			}
 		}
 		if (this.angleCoefficient != 0) {
 			float angle = (float) Math.atan2(y - this.results[0].y, x - this.results[0].x);
@@ -480,19 +647,36 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 		return t;
 	}
 
+	// Evaluate the cell pattern at a pixel and scale it to the colormap range
+	private float level(int x, int y) {
+		float nx = this.m00 * x + this.m01 * y;
+		float ny = this.m10 * x + this.m11 * y;
+		nx /= this.scale;
+		ny /= this.scale * this.stretch;
+		nx += 1000;
+		ny += 1000;    // Reduce artifacts around 0,0
+		float f = (this.turbulence == 1.0f) ? evaluate(nx, ny) : turbulence2(nx, ny, this.turbulence);
+		// Normalize to 0..1
+		//		f = (f-min)/(max-min);
+		f *= 2;
+		f *= this.amount;
+		return f;
+	}
+
+	/**
+	 * Whether a pixel is just the colormap color of its level, so that the levels of a row
+	 * can be colored at once instead of calling {@link #getPixel} for every pixel. This is only
+	 * the case while {@code getPixel} is the one of this class, so subclasses which override it
+	 * are filtered pixel by pixel unless they override this method too.
+	 * @return true if rows may be colored in one batch
+	 */
+	protected boolean canColorRows() {
+		return this.colormap != null && !this.useColor && INHERITS_GET_PIXEL.get(getClass());
+	}
+
 	public int getPixel(int x, int y, int[] inPixels, int width, int height) {
 		try {
-			float nx = this.m00 * x + this.m01 * y;
-			float ny = this.m10 * x + this.m11 * y;
-			nx /= this.scale;
-			ny /= this.scale * this.stretch;
-			nx += 1000;
-			ny += 1000;    // Reduce artifacts around 0,0
-			float f = (this.turbulence == 1.0f) ? evaluate(nx, ny) : turbulence2(nx, ny, this.turbulence);
-			// Normalize to 0..1
-			//		f = (f-min)/(max-min);
-			f *= 2;
-			f *= this.amount;
+			float f = level(x, y);
 			int a = 0xff000000;
 			int v;
 			if (this.colormap != null) {
@@ -527,12 +711,27 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 //		min = minmax[0];
 //		max = minmax[1];
 
+		buildFeatureGrid(width, height);
+
 		int index = 0;
 		int[] outPixels = new int[width * height];
 
+		boolean batchColors = canColorRows();
+		float[] levels = new float[width];
+		int[] colors = new int[width];
 		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				outPixels[index++] = getPixel(x, y, inPixels, width, height);
+			if (batchColors) {
+				for (int x = 0; x < width; x++) {
+					levels[x] = level(x, y);
+				}
+				this.colormap.getColors(levels, colors, width);
+				System.arraycopy(colors, 0, outPixels, index, width);
+				index += width;
+			}
+			else {
+				for (int x = 0; x < width; x++) {
+					outPixels[index++] = getPixel(x, y, inPixels, width, height);
+				}
 			}
 		}
 		return outPixels;
@@ -604,7 +803,8 @@ public class CellularFilter extends WholeImageFilter implements Function2D, Muta
 	public Object clone() {
 		CellularFilter f = (CellularFilter) super.clone();
 		f.coefficients = this.coefficients.clone();
-		f.results = this.results.clone();
+		f.results = newResults();
+		f.cubePoints = new float[MAX_POINTS * 3];
 		f.random = new Random();
 //		if (colormap != null)
 //			f.colormap = (Colormap)colormap.clone();
@@ -34,7 +34,6 @@ public class ChromeFilter extends LightFilter {
 
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
-		setColorSource(LightFilter.COLORS_CONSTANT);
 		dst = super.filter(src, dst);
 		TransferFilter tf = new TransferFilter() {
 			@Override
@@ -46,6 +45,13 @@ public class ChromeFilter extends LightFilter {
 		return tf.filter(dst, dst);
 	}
 
+	@Override
+	protected AbstractBufferedImageOp snapshot() {
+		ChromeFilter filter = (ChromeFilter) super.snapshot();
+		filter.setColorSource(LightFilter.COLORS_CONSTANT);
+		return filter;
+	}
+
 	@Override
 	public String toString() {
 		return "Effects/Chrome...";
@@ -18,5 +18,18 @@ public interface Colormap {
 	 * @return an RGB color
 	 */
 	int getColor(float v);
+
+	/**
+	 * Convert a batch of values in the range 0..1 to RGB colors. The results must be the same
+	 * as those of {@link #getColor(float)}.
+	 * @param v     the values in the range 0..1
+	 * @param out   the array which receives the RGB colors
+	 * @param count the number of values
+	 */
+	default void getColors(float[] v, int[] out, int count) {
+		for (int i = 0; i < count; i++) {
+			out[i] = getColor(v[i]);
+		}
+	}
 }
 
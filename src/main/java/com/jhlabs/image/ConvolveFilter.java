@@ -9,8 +9,8 @@ import java.awt.RenderingHints;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
 import java.awt.image.Kernel;
+import java.util.Arrays;
 
 /**
  * A filter which applies a convolution kernel to an image.
@@ -46,9 +46,30 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 	 */
 	public static final int WRAP_EDGES = 2;
 
+	/**
+	 * Convolve packed ARGB pixels one pixel at a time. This is the original implementation and
+	 * the default.
+	 */
+	public static final int SCALAR_ENGINE = 0;
+
+	/**
+	 * Convolve odd-sized two-dimensional kernels on planar channels, with the Vector API if the
+	 * {@code jdk.incubator.vector} module is enabled and with a portable planar loop otherwise.
+	 * Rank-1 kernels are split into a horizontal and a vertical pass. Other kernels use the
+	 * scalar engine.
+	 */
+	public static final int VECTOR_ENGINE = 1;
+
+	/**
+	 * The tolerance, relative to the largest kernel element, within which a kernel must equal
+	 * the outer product of its factors to be treated as separable.
+	 */
+	private static final float SEPARABLE_TOLERANCE = 1e-6f;
+
 	protected Kernel kernel = null;
 	private boolean alpha = true;
 	private int edgeAction = CLAMP_EDGES;
+	private int engine = SCALAR_ENGINE;
 
 	/**
 	 * Construct a filter with a null kernel. This is only useful if you're going to change the kernel later on.
@@ -101,6 +122,37 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 		return this.edgeAction;
 	}
 
+	/**
+	 * Set the convolution engine. The planar engine gives the same result as the scalar one,
+	 * except that splitting a separable kernel into two passes may change the rounding of a
+	 * channel by one level. Kernels with one row or column, or with an even size, always use
+	 * the scalar engine.
+	 * @param engine the engine, one of {@link #SCALAR_ENGINE} or {@link #VECTOR_ENGINE}
+	 * @see #getEngine
+	 */
+	public void setEngine(int engine) {
+		this.engine = engine;
+	}
+
+	/**
+	 * Get the convolution engine.
+	 * @return the engine
+	 * @see #setEngine
+	 */
+	public int getEngine() {
+		return this.engine;
+	}
+
+	/**
+	 * Get whether the Vector API is available to the planar engine. This requires the
+	 * {@code jdk.incubator.vector} module to be enabled, for example with
+	 * {@code --add-modules jdk.incubator.vector}.
+	 * @return true if the Vector API is used
+	 */
+	public static boolean isVectorApiAvailable() {
+		return RowAccumulator.getVector() != null;
+	}
+
 	public boolean isAlpha() {
 		return this.alpha;
 	}
@@ -118,22 +170,227 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 			dst = createCompatibleDestImage(src, null);
 		}
 
-		int[] inPixels = new int[width * height];
-		int[] outPixels = new int[width * height];
+		int[] inPixels = acquireInts(width * height);
+		int[] outPixels = acquireInts(width * height);
 		getRGB(src, 0, 0, width, height, inPixels);
 
-		convolve(this.kernel, inPixels, outPixels, width, height, this.alpha, this.edgeAction);
+		if (this.engine == VECTOR_ENGINE && isPlanarKernel(this.kernel)) {
+			RowAccumulator accumulator = RowAccumulator.getVector();
+			convolvePlanar(inPixels, outPixels, width, height, (accumulator != null) ? accumulator : RowAccumulator.SCALAR);
+		}
+		else {
+			convolve(this.kernel, inPixels, outPixels, width, height, this.alpha, this.edgeAction);
+		}
 
 		setRGB(dst, 0, 0, width, height, outPixels);
+		release(inPixels, outPixels);
 		return dst;
 	}
 
-	@Override
-	public BufferedImage createCompatibleDestImage(BufferedImage src, ColorModel dstCM) {
-		if (dstCM == null) {
-			dstCM = src.getColorModel();
+	private static boolean isPlanarKernel(Kernel kernel) {
+		int rows = kernel.getHeight();
+		int cols = kernel.getWidth();
+		return rows > 1 && cols > 1 && (rows & 1) == 1 && (cols & 1) == 1;
+	}
+
+	/**
+	 * Convolve with the planar engine. The pixels are split into one float plane per channel.
+	 * Output pixels whose taps all lie inside the image are computed a row at a time, tap by tap,
+	 * in the same order as {@link #convolveHV} so the sums are identical; the remaining border
+	 * pixels are computed by the scalar code to keep its edge semantics.
+	 * @param inPixels    the input pixels
+	 * @param outPixels   the output pixels
+	 * @param width       the width of the image
+	 * @param height      the height of the image
+	 * @param accumulator the inner loop to use
+	 */
+	private void convolvePlanar(int[] inPixels, int[] outPixels, int width, int height, RowAccumulator accumulator) {
+		float[] matrix = this.kernel.getKernelData(null);
+		int rows = this.kernel.getHeight();
+		int cols = this.kernel.getWidth();
+		int rows2 = rows / 2;
+		int cols2 = cols / 2;
+		int x0 = cols2;
+		int x1 = Math.max(x0, width - cols2);
+		int y0 = Math.min(rows2, height);
+		int y1 = Math.max(y0, height - rows2);
+		int channels = this.alpha ? 4 : 3;
+
+		if (x1 > x0 && y1 > y0) {
+			float[][] planes = new float[channels][];
+			for (int c = 0; c < channels; c++) {
+				planes[c] = acquireFloats(width * height);
+			}
+			forEachBand(height, (startY, endY) -> toPlanes(inPixels, planes, width, startY, endY));
+
+			float[] columnFactors = new float[rows];
+			float[] rowFactors = new float[cols];
+			if (factorize(matrix, rows, cols, columnFactors, rowFactors)) {
+				float[][] rowPasses = new float[channels][];
+				for (int c = 0; c < channels; c++) {
+					rowPasses[c] = acquireFloats(width * height);
+				}
+				forEachBand(height, (startY, endY) -> {
+					for (int y = startY; y < endY; y++) {
+						int offset = y * width + x0;
+						for (int c = 0; c < channels; c++) {
+							Arrays.fill(rowPasses[c], offset, offset + x1 - x0, 0);
+							for (int col = -cols2; col <= cols2; col++) {
+								float f = rowFactors[col + cols2];
+								if (f != 0) {
+									accumulator.accumulate(f, planes[c], offset + col, rowPasses[c], offset, x1 - x0);
+								}
+							}
+						}
+					}
+				});
+				forEachBand(y1 - y0, (startY, endY) -> {
+					float[][] sums = new float[channels][x1 - x0];
+					for (int y = y0 + startY; y < y0 + endY; y++) {
+						for (int c = 0; c < channels; c++) {
+							Arrays.fill(sums[c], 0);
+							for (int row = -rows2; row <= rows2; row++) {
+								float f = columnFactors[row + rows2];
+								if (f != 0) {
+									accumulator.accumulate(f, rowPasses[c], (y + row) * width + x0, sums[c], 0, x1 - x0);
+								}
+							}
+						}
+						fromSums(sums, outPixels, y * width + x0, x1 - x0);
+					}
+				});
+				for (float[] rowPass : rowPasses) {
+					release(rowPass);
+				}
+			}
+			else {
+				forEachBand(y1 - y0, (startY, endY) -> {
+					float[][] sums = new float[channels][x1 - x0];
+					for (int y = y0 + startY; y < y0 + endY; y++) {
+						for (int c = 0; c < channels; c++) {
+							convolveRow(matrix, rows, cols, planes[c], width, y, x0, sums[c], x1 - x0, accumulator);
+						}
+						fromSums(sums, outPixels, y * width + x0, x1 - x0);
+					}
+				});
+			}
+			for (float[] plane : planes) {
+				release(plane);
+			}
+		}
+
+		boolean hasInterior = x1 > x0 && y1 > y0;
+		forEachBand(height, (startY, endY) -> {
+			for (int y = startY; y < endY; y++) {
+				if (hasInterior && y >= y0 && y < y1) {
+					convolveSpan(matrix, rows, cols, inPixels, outPixels, width, height, y, 0, x0);
+					convolveSpan(matrix, rows, cols, inPixels, outPixels, width, height, y, x1, width);
+				}
+				else {
+					convolveSpan(matrix, rows, cols, inPixels, outPixels, width, height, y, 0, width);
+				}
+			}
+		});
+	}
+
+	private void convolveSpan(float[] matrix, int rows, int cols, int[] inPixels, int[] outPixels, int width, int height, int y, int startX, int endX) {
+		for (int x = startX; x < endX; x++) {
+			outPixels[y * width + x] = convolvePixel(matrix, rows, cols, inPixels, width, height, x, y, this.alpha, this.edgeAction);
+		}
+	}
+
+	/**
+	 * Sum the taps of a 2D kernel for a run of output pixels of one channel, in the same order
+	 * as {@link #convolvePixel}.
+	 * @param matrix      the kernel elements, row by row
+	 * @param rows        the number of rows of the kernel
+	 * @param cols        the number of columns of the kernel
+	 * @param plane       the channel plane
+	 * @param width       the width of the image
+	 * @param y           the row of the output pixels
+	 * @param x0          the column of the first output pixel
+	 * @param sums        receives the sums
+	 * @param length      the number of output pixels
+	 * @param accumulator the inner loop to use
+	 */
+	private static void convolveRow(float[] matrix, int rows, int cols, float[] plane, int width, int y, int x0, float[] sums, int length, RowAccumulator accumulator) {
+		int rows2 = rows / 2;
+		int cols2 = cols / 2;
+		Arrays.fill(sums, 0, length, 0);
+		for (int row = -rows2; row <= rows2; row++) {
+			int moffset = cols * (row + rows2) + cols2;
+			int ioffset = (y + row) * width + x0;
+			for (int col = -cols2; col <= cols2; col++) {
+				float f = matrix[moffset + col];
+				if (f != 0) {
+					accumulator.accumulate(f, plane, ioffset + col, sums, 0, length);
+				}
+			}
 		}
-		return new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(src.getWidth(), src.getHeight()), dstCM.isAlphaPremultiplied(), null);
+	}
+
+	private static void toPlanes(int[] inPixels, float[][] planes, int width, int startY, int endY) {
+		boolean alpha = planes.length == 4;
+		for (int i = startY * width; i < endY * width; i++) {
+			int rgb = inPixels[i];
+			planes[0][i] = (rgb >> 16) & 0xff;
+			planes[1][i] = (rgb >> 8) & 0xff;
+			planes[2][i] = rgb & 0xff;
+			if (alpha) {
+				planes[3][i] = (rgb >> 24) & 0xff;
+			}
+		}
+	}
+
+	private static void fromSums(float[][] sums, int[] outPixels, int offset, int length) {
+		boolean alpha = sums.length == 4;
+		for (int i = 0; i < length; i++) {
+			int ia = alpha ? PixelUtils.clamp((int) (sums[3][i] + 0.5)) : 0xff;
+			int ir = PixelUtils.clamp((int) (sums[0][i] + 0.5));
+			int ig = PixelUtils.clamp((int) (sums[1][i] + 0.5));
+			int ib = PixelUtils.clamp((int) (sums[2][i] + 0.5));
+			outPixels[offset + i] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
+		}
+	}
+
+	/**
+	 * Split a kernel into a column and a row vector whose outer product is the kernel, if the
+	 * kernel has rank one.
+	 * @param matrix        the kernel elements, row by row
+	 * @param rows          the number of rows
+	 * @param cols          the number of columns
+	 * @param columnFactors receives the factors of the rows
+	 * @param rowFactors    receives the factors of the columns
+	 * @return true if the kernel is separable
+	 */
+	static boolean factorize(float[] matrix, int rows, int cols, float[] columnFactors, float[] rowFactors) {
+		int pivot = 0;
+		for (int i = 1; i < matrix.length; i++) {
+			if (Math.abs(matrix[i]) > Math.abs(matrix[pivot])) {
+				pivot = i;
+			}
+		}
+		float max = matrix[pivot];
+		if (max == 0) {
+			return false;
+		}
+		int pivotRow = pivot / cols;
+		int pivotCol = pivot % cols;
+		for (int col = 0; col < cols; col++) {
+			rowFactors[col] = matrix[pivotRow * cols + col];
+		}
+		for (int row = 0; row < rows; row++) {
+			columnFactors[row] = matrix[row * cols + pivotCol] / max;
+		}
+		float tolerance = SEPARABLE_TOLERANCE * Math.abs(max);
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < cols; col++) {
+				if (Math.abs(columnFactors[row] * rowFactors[col] - matrix[row * cols + col]) > tolerance) {
+					return false;
+				}
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -172,7 +429,9 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 	}
 
 	/**
-	 * Convolve with a 2D kernel.
+	 * Convolve with a 2D kernel. Pixels whose taps all lie inside the image are summed over the
+	 * non-zero taps without any edge tests; only the border pixels take the edge action into
+	 * account.
 	 * @param kernel the convolution kernel
 	 * @param inPixels the input pixel array
 	 * @param outPixels the output pixel array
@@ -182,71 +441,120 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 	 * @param edgeAction the edge action to use
 	 */
 	public static void convolveHV(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height, boolean alpha, int edgeAction) {
-		int index = 0;
 		float[] matrix = kernel.getKernelData(null);
 		int rows = kernel.getHeight();
 		int cols = kernel.getWidth();
 		int rows2 = rows / 2;
 		int cols2 = cols / 2;
 
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				float r = 0;
-				float g = 0;
-				float b = 0;
-				float a = 0;
-
-				for (int row = -rows2; row <= rows2; row++) {
-					int iy = y + row;
-					int ioffset;
-					if (0 <= iy && iy < height) {
-						ioffset = iy * width;
-					}
-					else if (edgeAction == CLAMP_EDGES) {
-						ioffset = y * width;
-					}
-					else if (edgeAction == WRAP_EDGES) {
-						ioffset = ((iy + height) % height) * width;
-					}
-					else {
-						continue;
+		int x0 = Math.min(cols2, width);
+		int x1 = Math.max(x0, width - cols2);
+		int y0 = Math.min(rows2, height);
+		int y1 = Math.max(y0, height - rows2);
+
+		// Only collect the taps if there is an interior, as the per-pixel code only reaches every
+		// tap of an even-sized kernel, which lies partly outside the matrix, from an interior pixel
+		int[] offsets = new int[matrix.length];
+		float[] weights = new float[matrix.length];
+		int taps = 0;
+		if (x0 < x1 && y0 < y1) {
+			for (int row = -rows2; row <= rows2; row++) {
+				for (int col = -cols2; col <= cols2; col++) {
+					float f = matrix[cols * (row + rows2) + cols2 + col];
+					if (f != 0) {
+						offsets[taps] = row * width + col;
+						weights[taps++] = f;
 					}
-					int moffset = cols * (row + rows2) + cols2;
-					for (int col = -cols2; col <= cols2; col++) {
-						float f = matrix[moffset + col];
-
-						if (f != 0) {
-							int ix = x + col;
-							if (!(0 <= ix && ix < width)) {
-								if (edgeAction == CLAMP_EDGES) {
-									ix = x;
-								}
-								else if (edgeAction == WRAP_EDGES) {
-									ix = (x + width) % width;
-								}
-								else {
-									continue;
-								}
-							}
-							int rgb = inPixels[ioffset + ix];
-							a += f * ((rgb >> 24) & 0xff);
-							r += f * ((rgb >> 16) & 0xff);
-							g += f * ((rgb >> 8) & 0xff);
-							b += f * (rgb & 0xff);
+				}
+			}
+		}
+		for (int y = 0; y < height; y++) {
+			int index = y * width;
+			if (y < y0 || y >= y1) {
+				for (int x = 0; x < width; x++) {
+					outPixels[index + x] = convolvePixel(matrix, rows, cols, inPixels, width, height, x, y, alpha, edgeAction);
+				}
+				continue;
+			}
+			for (int x = 0; x < x0; x++) {
+				outPixels[index + x] = convolvePixel(matrix, rows, cols, inPixels, width, height, x, y, alpha, edgeAction);
+			}
+			convolveInterior(offsets, weights, taps, inPixels, index + x0, 1, outPixels, index + x0, 1, x1 - x0, alpha);
+			for (int x = x1; x < width; x++) {
+				outPixels[index + x] = convolvePixel(matrix, rows, cols, inPixels, width, height, x, y, alpha, edgeAction);
+			}
+		}
+	}
+
+	/**
+	 * Convolve a single pixel with a 2D kernel, applying the edge action to taps outside the
+	 * image.
+	 * @param matrix     the kernel elements, row by row
+	 * @param rows       the number of rows of the kernel
+	 * @param cols       the number of columns of the kernel
+	 * @param inPixels   the input pixel array
+	 * @param width      the width of the image
+	 * @param height     the height of the image
+	 * @param x          the x coordinate of the pixel
+	 * @param y          the y coordinate of the pixel
+	 * @param alpha      whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 * @return the convolved pixel
+	 */
+	private static int convolvePixel(float[] matrix, int rows, int cols, int[] inPixels, int width, int height, int x, int y, boolean alpha, int edgeAction) {
+		int rows2 = rows / 2;
+		int cols2 = cols / 2;
+		float r = 0;
+		float g = 0;
+		float b = 0;
+		float a = 0;
+
+		for (int row = -rows2; row <= rows2; row++) {
+			int iy = y + row;
+			int ioffset;
+			if (0 <= iy && iy < height) {
+				ioffset = iy * width;
+			}
+			else if (edgeAction == CLAMP_EDGES) {
+				ioffset = y * width;
+			}
+			else if (edgeAction == WRAP_EDGES) {
+				ioffset = ((iy + height) % height) * width;
+			}
+			else {
+				continue;
+			}
+			int moffset = cols * (row + rows2) + cols2;
+			for (int col = -cols2; col <= cols2; col++) {
+				float f = matrix[moffset + col];
+
+				if (f != 0) {
+					int ix = x + col;
+					if (!(0 <= ix && ix < width)) {
+						if (edgeAction == CLAMP_EDGES) {
+							ix = x;
+						}
+						else if (edgeAction == WRAP_EDGES) {
+							ix = (x + width) % width;
+						}
+						else {
+							continue;
 						}
 					}
+					int rgb = inPixels[ioffset + ix];
+					a += f * ((rgb >> 24) & 0xff);
+					r += f * ((rgb >> 16) & 0xff);
+					g += f * ((rgb >> 8) & 0xff);
+					b += f * (rgb & 0xff);
 				}
-				int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
-				int ir = PixelUtils.clamp((int) (r + 0.5));
-				int ig = PixelUtils.clamp((int) (g + 0.5));
-				int ib = PixelUtils.clamp((int) (b + 0.5));
-				outPixels[index++] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
 			}
 		}
+		return toARGB(a, r, g, b, alpha);
 	}
 
 	/**
-	 * Convolve with a kernel consisting of one row.
+	 * Convolve with a kernel consisting of one row. Pixels whose taps all lie inside the row
+	 * are summed over the non-zero taps without any edge tests.
 	 * @param kernel the convolution kernel
 	 * @param inPixels the input pixel array
 	 * @param outPixels the output pixel array
@@ -256,58 +564,94 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 	 * @param edgeAction the edge action to use
 	 */
 	public static void convolveH(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height, boolean alpha, int edgeAction) {
-		int index = 0;
 		float[] matrix = kernel.getKernelData(null);
 		int cols = kernel.getWidth();
-		int cols2 = cols / 2;
+		int[] offsets = new int[cols];
+		float[] weights = new float[cols];
+		int taps = compactTaps(matrix, cols, 1, offsets, weights);
 
 		for (int y = 0; y < height; y++) {
-			int ioffset = y * width;
-			for (int x = 0; x < width; x++) {
-				float r = 0;
-				float g = 0;
-				float b = 0;
-				float a = 0;
-				int moffset = cols2;
-				for (int col = -cols2; col <= cols2; col++) {
-					float f = matrix[moffset + col];
+			convolveRow(matrix, cols, offsets, weights, taps, inPixels, y * width, width, alpha, edgeAction, outPixels, y * width, 1);
+		}
+	}
 
-					if (f != 0) {
-						int ix = x + col;
-						if (ix < 0) {
-							if (edgeAction == CLAMP_EDGES) {
-								ix = 0;
-							}
-							else if (edgeAction == WRAP_EDGES) {
-								ix = (x + width) % width;
-							}
-						}
-						else if (ix >= width) {
-							if (edgeAction == CLAMP_EDGES) {
-								ix = width - 1;
-							}
-							else if (edgeAction == WRAP_EDGES) {
-								ix = (x + width) % width;
-							}
-						}
-						int rgb = inPixels[ioffset + ix];
-						a += f * ((rgb >> 24) & 0xff);
-						r += f * ((rgb >> 16) & 0xff);
-						g += f * ((rgb >> 8) & 0xff);
-						b += f * (rgb & 0xff);
+	/**
+	 * Convolve one row with a kernel consisting of one row, writing the output pixels at a
+	 * given stride so that the result may be transposed.
+	 * @param matrix     the kernel elements
+	 * @param cols       the number of kernel elements
+	 * @param offsets    the offsets of the non-zero taps, see {@link #compactTaps}
+	 * @param weights    the weights of the non-zero taps
+	 * @param taps       the number of non-zero taps
+	 * @param inPixels   the input pixel array
+	 * @param ioffset    the index of the first pixel of the row
+	 * @param width      the width of the row
+	 * @param alpha      whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 * @param outPixels  the output pixel array
+	 * @param outIndex   the index of the first output pixel
+	 * @param outStride  the distance between consecutive output pixels
+	 */
+	static void convolveRow(float[] matrix, int cols, int[] offsets, float[] weights, int taps, int[] inPixels, int ioffset, int width,
+			boolean alpha, int edgeAction, int[] outPixels, int outIndex, int outStride) {
+		int cols2 = cols / 2;
+		int x0 = Math.min(cols2, width);
+		int x1 = Math.max(x0, width - cols2);
+		for (int x = 0; x < x0; x++) {
+			outPixels[outIndex + x * outStride] = convolveRowPixel(matrix, cols, inPixels, ioffset, width, x, alpha, edgeAction);
+		}
+		convolveInterior(offsets, weights, taps, inPixels, ioffset + x0, 1, outPixels, outIndex + x0 * outStride, outStride, x1 - x0, alpha);
+		for (int x = x1; x < width; x++) {
+			outPixels[outIndex + x * outStride] = convolveRowPixel(matrix, cols, inPixels, ioffset, width, x, alpha, edgeAction);
+		}
+	}
+
+	private static int convolveRowPixel(float[] matrix, int cols, int[] inPixels, int ioffset, int width, int x, boolean alpha, int edgeAction) {
+		int cols2 = cols / 2;
+		float r = 0;
+		float g = 0;
+		float b = 0;
+		float a = 0;
+		for (int col = -cols2; col <= cols2; col++) {
+			float f = matrix[cols2 + col];
+
+			if (f != 0) {
+				int ix = x + col;
+				if (ix < 0) {
+					if (edgeAction == CLAMP_EDGES) {
+						ix = 0;
+					}
+					else if (edgeAction == WRAP_EDGES) {
+						ix = (x + width) % width;
+					}
+					else {
+						continue;
 					}
 				}
-				int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
-				int ir = PixelUtils.clamp((int) (r + 0.5));
-				int ig = PixelUtils.clamp((int) (g + 0.5));
-				int ib = PixelUtils.clamp((int) (b + 0.5));
-				outPixels[index++] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
+				else if (ix >= width) {
+					if (edgeAction == CLAMP_EDGES) {
+						ix = width - 1;
+					}
+					else if (edgeAction == WRAP_EDGES) {
+						ix = (x + width) % width;
+					}
+					else {
+						continue;
+					}
+				}
+				int rgb = inPixels[ioffset + ix];
+				a += f * ((rgb >> 24) & 0xff);
+				r += f * ((rgb >> 16) & 0xff);
+				g += f * ((rgb >> 8) & 0xff);
+				b += f * (rgb & 0xff);
 			}
 		}
+		return toARGB(a, r, g, b, alpha);
 	}
 
 	/**
-	 * Convolve with a kernel consisting of one column.
+	 * Convolve with a kernel consisting of one column. Rows whose taps all lie inside the image
+	 * are summed over the non-zero taps without any edge tests.
 	 * @param kernel the convolution kernel
 	 * @param inPixels the input pixel array
 	 * @param outPixels the output pixel array
@@ -317,64 +661,141 @@ public class ConvolveFilter extends AbstractBufferedImageOp {
 	 * @param edgeAction the edge action to use
 	 */
 	public static void convolveV(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height, boolean alpha, int edgeAction) {
-		int index = 0;
 		float[] matrix = kernel.getKernelData(null);
 		int rows = kernel.getHeight();
 		int rows2 = rows / 2;
+		int[] offsets = new int[rows];
+		float[] weights = new float[rows];
+		int taps = compactTaps(matrix, rows, width, offsets, weights);
 
+		int y0 = Math.min(rows2, height);
+		int y1 = Math.max(y0, height - rows2);
 		for (int y = 0; y < height; y++) {
+			int index = y * width;
+			if (y >= y0 && y < y1) {
+				convolveInterior(offsets, weights, taps, inPixels, index, 1, outPixels, index, 1, width, alpha);
+				continue;
+			}
 			for (int x = 0; x < width; x++) {
-				float r = 0;
-				float g = 0;
-				float b = 0;
-				float a = 0;
-
-				for (int row = -rows2; row <= rows2; row++) {
-					int iy = y + row;
-					int ioffset;
-					if (iy < 0) {
-						if (edgeAction == CLAMP_EDGES) {
-							ioffset = 0;
-						}
-						else if (edgeAction == WRAP_EDGES) {
-							ioffset = ((y + height) % height) * width;
-						}
-						else {
-							ioffset = iy * width;
-						}
-					}
-					else if (iy >= height) {
-						if (edgeAction == CLAMP_EDGES) {
-							ioffset = (height - 1) * width;
-						}
-						else if (edgeAction == WRAP_EDGES) {
-							ioffset = ((y + height) % height) * width;
-						}
-						else {
-							ioffset = iy * width;
-						}
-					}
-					else {
-						ioffset = iy * width;
-					}
-
-					float f = matrix[row + rows2];
+				outPixels[index + x] = convolveColumnPixel(matrix, rows, inPixels, width, height, x, y, alpha, edgeAction);
+			}
+		}
+	}
 
-					if (f != 0) {
-						int rgb = inPixels[ioffset + x];
-						a += f * ((rgb >> 24) & 0xff);
-						r += f * ((rgb >> 16) & 0xff);
-						g += f * ((rgb >> 8) & 0xff);
-						b += f * (rgb & 0xff);
-					}
+	private static int convolveColumnPixel(float[] matrix, int rows, int[] inPixels, int width, int height, int x, int y, boolean alpha, int edgeAction) {
+		int rows2 = rows / 2;
+		float r = 0;
+		float g = 0;
+		float b = 0;
+		float a = 0;
+
+		for (int row = -rows2; row <= rows2; row++) {
+			int iy = y + row;
+			int ioffset;
+			if (iy < 0) {
+				if (edgeAction == CLAMP_EDGES) {
+					ioffset = 0;
 				}
-				int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
-				int ir = PixelUtils.clamp((int) (r + 0.5));
-				int ig = PixelUtils.clamp((int) (g + 0.5));
-				int ib = PixelUtils.clamp((int) (b + 0.5));
-				outPixels[index++] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
+				else if (edgeAction == WRAP_EDGES) {
+					ioffset = ((y + height) % height) * width;
+				}
+				else {
+					continue;
+				}
+			}
+			else if (iy >= height) {
+				if (edgeAction == CLAMP_EDGES) {
+					ioffset = (height - 1) * width;
+				}
+				else if (edgeAction == WRAP_EDGES) {
+					ioffset = ((y + height) % height) * width;
+				}
+				else {
+					continue;
+				}
+			}
+			else {
+				ioffset = iy * width;
+			}
+
+			float f = matrix[row + rows2];
+
+			if (f != 0) {
+				int rgb = inPixels[ioffset + x];
+				a += f * ((rgb >> 24) & 0xff);
+				r += f * ((rgb >> 16) & 0xff);
+				g += f * ((rgb >> 8) & 0xff);
+				b += f * (rgb & 0xff);
 			}
 		}
+		return toARGB(a, r, g, b, alpha);
+	}
+
+	/**
+	 * Collect the non-zero elements of a one-dimensional kernel, in order, together with their
+	 * offsets from the centre pixel.
+	 * @param matrix  the kernel elements
+	 * @param length  the number of kernel elements
+	 * @param stride  the distance between the pixels of consecutive elements
+	 * @param offsets receives the offsets of the non-zero elements
+	 * @param weights receives the non-zero elements
+	 * @return the number of non-zero elements
+	 */
+	static int compactTaps(float[] matrix, int length, int stride, int[] offsets, float[] weights) {
+		int half = length / 2;
+		int taps = 0;
+		for (int i = -half; i <= half; i++) {
+			float f = matrix[half + i];
+			if (f != 0) {
+				offsets[taps] = i * stride;
+				weights[taps++] = f;
+			}
+		}
+		return taps;
+	}
+
+	/**
+	 * Convolve a run of pixels whose taps all lie inside the image. The taps are summed in the
+	 * order given, which must be the order of the edge-handling code for identical results.
+	 * @param offsets   the offsets of the taps from the centre pixel
+	 * @param weights   the weights of the taps
+	 * @param taps      the number of taps
+	 * @param inPixels  the input pixel array
+	 * @param inIndex   the index of the centre pixel of the first output pixel
+	 * @param inStride  the distance between consecutive centre pixels
+	 * @param outPixels the output pixel array
+	 * @param outIndex  the index of the first output pixel
+	 * @param outStride the distance between consecutive output pixels
+	 * @param length    the number of output pixels
+	 * @param alpha     whether to process the alpha channel
+	 */
+	static void convolveInterior(int[] offsets, float[] weights, int taps, int[] inPixels, int inIndex, int inStride,
+			int[] outPixels, int outIndex, int outStride, int length, boolean alpha) {
+		for (int i = 0; i < length; i++) {
+			float r = 0;
+			float g = 0;
+			float b = 0;
+			float a = 0;
+			for (int k = 0; k < taps; k++) {
+				float f = weights[k];
+				int rgb = inPixels[inIndex + offsets[k]];
+				a += f * ((rgb >> 24) & 0xff);
+				r += f * ((rgb >> 16) & 0xff);
+				g += f * ((rgb >> 8) & 0xff);
+				b += f * (rgb & 0xff);
+			}
+			outPixels[outIndex] = toARGB(a, r, g, b, alpha);
+			inIndex += inStride;
+			outIndex += outStride;
+		}
+	}
+
+	private static int toARGB(float a, float r, float g, float b, boolean alpha) {
+		int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
+		int ir = PixelUtils.clamp((int) (r + 0.5));
+		int ig = PixelUtils.clamp((int) (g + 0.5));
+		int ib = PixelUtils.clamp((int) (b + 0.5));
+		return (ia << 24) | (ir << 16) | (ig << 8) | ib;
 	}
 
 	@Override
@@ -45,6 +45,12 @@ public class CrystallizeFilter extends CellularFilter {
 		return this.edgeColor;
 	}
 
+	@Override
+	protected int getFeatureCount() {
+		// The edges lie where the two nearest feature points are equally far away
+		return Math.max(super.getFeatureCount(), 2);
+	}
+
 	@Override
 	public int getPixel(int x, int y, int[] inPixels, int width, int height) {
 		float nx = this.m00 * x + this.m01 * y;
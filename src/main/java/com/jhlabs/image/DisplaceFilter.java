@@ -4,7 +4,9 @@
 
 package com.jhlabs.image;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 /**
  * A filter which simulates the appearance of looking through glass. A separate grayscale displacement image is provided and
@@ -42,17 +44,18 @@ public class DisplaceFilter extends TransformFilter {
 	}
 
 	@Override
-	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
-		int w = src.getWidth();
-		int h = src.getHeight();
-
-		BufferedImage dm = (this.displacementMap != null) ? this.displacementMap : src;
-
-		this.dw = dm.getWidth();
-		this.dh = dm.getHeight();
-
-		int[] mapPixels = new int[this.dw * this.dh];
-		getRGB(dm, 0, 0, this.dw, this.dh, mapPixels);
+	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
+		int[] mapPixels;
+		if (this.displacementMap != null) {
+			this.dw = this.displacementMap.getWidth();
+			this.dh = this.displacementMap.getHeight();
+			mapPixels = getRGB(this.displacementMap, 0, 0, this.dw, this.dh, null);
+		}
+		else {
+			this.dw = width;
+			this.dh = height;
+			mapPixels = Arrays.copyOf(inPixels, width * height);
+		}
 		this.xmap = new int[this.dw * this.dh];
 		this.ymap = new int[this.dw * this.dh];
 
@@ -82,11 +85,7 @@ public class DisplaceFilter extends TransformFilter {
 				i++;
 			}
 		}
-		mapPixels = null;
-		dst = super.filter(src, dst);
-		this.xmap = null;
-		this.ymap = null;
-		return dst;
+		return super.filterPixels(width, height, inPixels, transformedSpace);
 	}
 
 	@Override
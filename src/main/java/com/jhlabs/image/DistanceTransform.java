@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+/**
+ * The exact Euclidean distance transform of Felzenszwalb and Huttenlocher, which runs in
+ * linear time. It replaces every value {@code f(p)} of a sampled function by the minimum over
+ * all samples {@code q} of {@code |p - q|² + f(q)}. With zero at the features and
+ * {@link Float#POSITIVE_INFINITY} everywhere else, this is the squared distance to the
+ * nearest feature. The squared distances are held in floats, so they are exact integers only
+ * below 2<sup>24</sup>, that is for distances up to 4096 pixels; beyond that they are rounded.
+ * <p>
+ * The transform is separable: a pass over the rows followed by a pass over the columns.
+ * Rows and columns are independent of each other, so callers can split each pass into bands,
+ * for example with {@link ParallelSupport#forEachBand}, as long as the row pass completes
+ * before the column pass starts.
+ *
+ * @author Gunnar Hillert
+ */
+public final class DistanceTransform {
+
+	private DistanceTransform() {
+	}
+
+	/**
+	 * Compute the squared distance transform of a sampled function in place.
+	 * @param f      the function values in row order
+	 * @param width  the number of columns
+	 * @param height the number of rows
+	 */
+	public static void transform(float[] f, int width, int height) {
+		transformRows(f, width, height, 0, height);
+		transformColumns(f, width, height, 0, width);
+	}
+
+	/**
+	 * Compute a distance image, holding the Euclidean distance of every pixel to the nearest
+	 * feature pixel.
+	 * @param features whether each pixel, in row order, is a feature
+	 * @param width    the width of the image
+	 * @param height   the height of the image
+	 * @return the distances in row order, {@link Float#POSITIVE_INFINITY} for all pixels if
+	 *         there are no features
+	 */
+	public static float[] distances(boolean[] features, int width, int height) {
+		float[] f = new float[width * height];
+		for (int i = 0; i < f.length; i++) {
+			f[i] = (features[i]) ? 0 : Float.POSITIVE_INFINITY;
+		}
+		transform(f, width, height);
+		for (int i = 0; i < f.length; i++) {
+			f[i] = (float) Math.sqrt(f[i]);
+		}
+		return f;
+	}
+
+	/**
+	 * Transform a band of rows in place, the first pass of the transform.
+	 * @param f      the function values in row order
+	 * @param width  the number of columns
+	 * @param height the number of rows
+	 * @param startY the first row (inclusive)
+	 * @param endY   the last row (exclusive)
+	 */
+	public static void transformRows(float[] f, int width, int height, int startY, int endY) {
+		float[] line = new float[width];
+		int[] vertices = new int[width];
+		double[] bounds = new double[width + 1];
+		for (int y = startY; y < endY; y++) {
+			transformLine(f, y * width, 1, width, line, vertices, bounds);
+		}
+	}
+
+	/**
+	 * Transform a band of columns in place, the second pass of the transform.
+	 * @param f      the function values in row order
+	 * @param width  the number of columns
+	 * @param height the number of rows
+	 * @param startX the first column (inclusive)
+	 * @param endX   the last column (exclusive)
+	 */
+	public static void transformColumns(float[] f, int width, int height, int startX, int endX) {
+		float[] line = new float[height];
+		int[] vertices = new int[height];
+		double[] bounds = new double[height + 1];
+		for (int x = startX; x < endX; x++) {
+			transformLine(f, x, width, height, line, vertices, bounds);
+		}
+	}
+
+	// Replace a line by the lower envelope of the parabolas rooted at its samples. Infinite
+	// samples contribute no parabola, so a line without finite samples stays infinite
+	private static void transformLine(float[] f, int offset, int stride, int n, float[] line, int[] vertices, double[] bounds) {
+		for (int q = 0, i = offset; q < n; q++, i += stride) {
+			line[q] = f[i];
+		}
+
+		int k = -1;
+		for (int q = 0; q < n; q++) {
+			if (line[q] == Float.POSITIVE_INFINITY) {
+				continue;
+			}
+			if (k < 0) {
+				k = 0;
+				vertices[0] = q;
+				bounds[0] = Double.NEGATIVE_INFINITY;
+				bounds[1] = Double.POSITIVE_INFINITY;
+				continue;
+			}
+			double s = intersection(line, vertices[k], q);
+			while (s <= bounds[k]) {
+				k--;
+				s = intersection(line, vertices[k], q);
+			}
+			k++;
+			vertices[k] = q;
+			bounds[k] = s;
+			bounds[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		if (k < 0) {
+			return;
+		}
+
+		k = 0;
+		for (int q = 0, i = offset; q < n; q++, i += stride) {
+			while (bounds[k + 1] < q) {
+				k++;
+			}
+			int d = q - vertices[k];
+			f[i] = (float) ((double) d * d + line[vertices[k]]);
+		}
+	}
+
+	// The position at which the parabolas rooted at p and at q > p intersect
+	private static double intersection(float[] line, int p, int q) {
+		return (((double) line[q] + (double) q * q) - ((double) line[p] + (double) p * p)) / (2.0 * (q - p));
+	}
+}
@@ -236,6 +236,7 @@ public class DitherFilter extends PointFilter implements java.io.Serializable {
 	 */
 	public void setMatrix(int[] matrix) {
 		this.matrix = matrix;
+		this.initialized = false;
 	}
 
 	public int[] getMatrix() {
@@ -244,6 +245,7 @@ public class DitherFilter extends PointFilter implements java.io.Serializable {
 
 	public void setLevels(int levels) {
 		this.levels = levels;
+		this.initialized = false;
 	}
 
 	public int getLevels() {
@@ -276,11 +278,30 @@ public class DitherFilter extends PointFilter implements java.io.Serializable {
 		}
 	}
 
+	private synchronized void ensureInitialized() {
+		if (!this.initialized) {
+			initialize();
+			this.initialized = true;
+		}
+	}
+
+	@Override
+	protected AbstractBufferedImageOp snapshot() {
+		// Build the tables on this filter, so that every call made with it shares them
+		ensureInitialized();
+		return super.snapshot();
+	}
+
+	@Override
+	public void setDimensions(int width, int height) {
+		ensureInitialized();
+		super.setDimensions(width, height);
+	}
+
 	@Override
 	public int filterRGB(int x, int y, int rgb) {
 		if (!this.initialized) {
-			this.initialized = true;
-			initialize();
+			ensureInitialized();
 		}
 		int a = rgb & 0xff000000;
 		int r = (rgb >> 16) & 0xff;
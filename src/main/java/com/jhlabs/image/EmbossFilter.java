@@ -68,7 +68,7 @@ public class EmbossFilter extends WholeImageFilter {
 		bumpMapWidth = width;
 		bumpMapHeight = height;
 		bumpPixels = new int[bumpMapWidth * bumpMapHeight];
-		for (int i = 0; i < inPixels.length; i++) {
+		for (int i = 0; i < bumpPixels.length; i++) {
 			bumpPixels[i] = PixelUtils.brightness(inPixels[i]);
 		}
 
@@ -17,6 +17,9 @@ import com.jhlabs.math.VLNoise;
 
 /**
  * A filter which produces textures from fractal Brownian motion.
+ * <p>
+ * A {@link CellularFunction2D} basis keeps scratch state while it is evaluated, so each call
+ * to {@code filter} works on a snapshot with its own copy of it.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -224,9 +227,11 @@ public class FBMFilter extends PointFilter implements Cloneable {
 	}
 
 	@Override
-	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+	public void setDimensions(int width, int height) {
 		this.fBm = makeFBM(this.H, this.lacunarity, this.octaves);
-		return super.filter(src, dst);
+		// The cellular basis keeps scratch state, so it must run serially
+		this.canFilterInParallel = !(this.basis instanceof CellularFunction2D);
+		super.setDimensions(width, height);
 	}
 
 	@Override
@@ -235,16 +240,56 @@ public class FBMFilter extends PointFilter implements Cloneable {
 		float ny = this.m10 * x + this.m11 * y;
 		nx /= this.scale;
 		ny /= this.scale * this.stretch;
-		float f = this.fBm.evaluate(nx, ny);
+		float f = level(this.fBm.evaluate(nx, ny));
+		return shade(rgb, f, (this.colormap != null) ? this.colormap.getColor(f) : 0);
+	}
+
+	@Override
+	protected void filterRows(BufferedImage src, BufferedImage dst, int startY, int endY) {
+		if (!TextureRows.inheritsFilterRGB(this, FBMFilter.class)) {
+			super.filterRows(src, dst, startY, endY);
+			return;
+		}
+		// Evaluate and color the whole row at once so the octaves and colors are computed in batches
+		new TextureRows(this.m00, this.m01, this.m10, this.m11, this.scale, this.scale * this.stretch, this.colormap) {
+			@Override
+			void evaluate(float[] nxs, float[] nys, boolean straight, float[] values, int width) {
+				if (straight) {
+					FBMFilter.this.fBm.evaluateRow(nxs, nys[0], values, width);
+				}
+				else {
+					FBMFilter.this.fBm.evaluate(nxs, nys, values, width);
+				}
+			}
+
+			@Override
+			float level(float nx, float ny, float noise) {
+				return FBMFilter.this.level(noise);
+			}
+
+			@Override
+			int shade(int rgb, float nx, float ny, float level, int color) {
+				return FBMFilter.this.shade(rgb, level, color);
+			}
+		}.filter(src, dst, startY, endY);
+	}
+
+	// Map a raw fBm value to a level in 0..1, shared by filterRGB and filterRows
+	private float level(float f) {
 		// Normalize to 0..1
 		f = (f - this.min) / (this.max - this.min);
 		f = ImageMath.gain(f, this.gain);
 		f = ImageMath.bias(f, this.bias);
 		f *= this.amount;
+		return f;
+	}
+
+	// Color a pixel at a level, using the colormap color when there is a colormap
+	private int shade(int rgb, float f, int color) {
 		int a = rgb & 0xff000000;
 		int v;
 		if (this.colormap != null) {
-			v = this.colormap.getColor(f);
+			v = color;
 		}
 		else {
 			v = PixelUtils.clamp((int) (f * 255));
@@ -259,6 +304,15 @@ public class FBMFilter extends PointFilter implements Cloneable {
 		return v;
 	}
 
+	@Override
+	public Object clone() {
+		FBMFilter filter = (FBMFilter) super.clone();
+		if (this.basis instanceof CellularFunction2D cellular) {
+			filter.basis = cellular.clone();
+		}
+		return filter;
+	}
+
 	@Override
 	public String toString() {
 		return "Texture/Fractal Brownian Motion...";
@@ -0,0 +1,281 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ColorModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A filter which applies a sequence of filters, one after the other. Runs of consecutive
+ * {@link PointFilter}s are fused into a single pass which calls {@link PointFilter#filterRGB}
+ * of every filter in the run for each pixel, so the image is only read and written once per
+ * run rather than once per filter. The remaining filters are applied in turn, and their
+ * intermediate results alternate between two reused images where the sizes allow it.
+ * <p>
+ * The result is the same as applying the filters one by one, provided the intermediate
+ * images can represent every pixel exactly. For images without an alpha channel, alpha is
+ * forced to opaque between fused filters just as an intermediate image would do. Parallel
+ * execution settings of the chain are used for the fused passes; the other filters use
+ * their own settings. The fused passes work on snapshots of the member filters, so a chain can
+ * be shared between threads just like its members.
+ *
+ * @author Gunnar Hillert
+ */
+public class FilterChain extends AbstractBufferedImageOp {
+
+	private final List<BufferedImageOp> filters = new ArrayList<>();
+
+	/**
+	 * Construct a FilterChain.
+	 * @param filters the filters to apply, in order
+	 */
+	public FilterChain(BufferedImageOp... filters) {
+		this.filters.addAll(Arrays.asList(filters));
+	}
+
+	/**
+	 * Add a filter to the end of the chain.
+	 * @param filter the filter to add
+	 * @return this chain
+	 */
+	public FilterChain add(BufferedImageOp filter) {
+		this.filters.add(filter);
+		return this;
+	}
+
+	/**
+	 * Get the filters in this chain.
+	 * @return an unmodifiable view of the filters, in order
+	 */
+	public List<BufferedImageOp> getFilters() {
+		return Collections.unmodifiableList(this.filters);
+	}
+
+	@Override
+	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+		List<BufferedImageOp> stages = fuse(src.getColorModel().hasAlpha());
+		if (stages.isEmpty()) {
+			if (dst == null) {
+				dst = createCompatibleDestImage(src, null);
+			}
+			setRGB(dst, 0, 0, src.getWidth(), src.getHeight(), getRGB(src, 0, 0, src.getWidth(), src.getHeight(), null));
+			return dst;
+		}
+
+		BufferedImage current = src;
+		BufferedImage[] buffers = new BufferedImage[2];
+		for (BufferedImageOp stage : stages.subList(0, stages.size() - 1)) {
+			// Never write into the image we are reading from
+			int slot = (current == buffers[0]) ? 1 : 0;
+			buffers[slot] = stage.filter(current, reusableBuffer(stage, current, buffers[slot]));
+			current = buffers[slot];
+		}
+		return stages.get(stages.size() - 1).filter(current, dst);
+	}
+
+	@Override
+	public Rectangle2D getBounds2D(BufferedImage src) {
+		if (this.filters.isEmpty()) {
+			return super.getBounds2D(src);
+		}
+		// Each filter measures an image of the size its predecessor produces, which only needs
+		// to be created when a filter changes the size
+		BufferedImage current = src;
+		Rectangle2D bounds = null;
+		for (BufferedImageOp filter : this.filters) {
+			if (bounds != null) {
+				current = imageOfSize(current, (int) bounds.getWidth(), (int) bounds.getHeight());
+			}
+			bounds = filter.getBounds2D(current);
+		}
+		return bounds;
+	}
+
+	private static BufferedImage imageOfSize(BufferedImage image, int width, int height) {
+		if (image.getWidth() == width && image.getHeight() == height) {
+			return image;
+		}
+		ColorModel colorModel = image.getColorModel();
+		return new BufferedImage(colorModel,
+				colorModel.createCompatibleWritableRaster(Math.max(width, 1), Math.max(height, 1)),
+				colorModel.isAlphaPremultiplied(), null);
+	}
+
+	@Override
+	public Point2D getPoint2D(Point2D srcPt, Point2D dstPt) {
+		Point2D point = srcPt;
+		for (BufferedImageOp filter : this.filters) {
+			point = filter.getPoint2D(point, null);
+		}
+		return super.getPoint2D(point, dstPt);
+	}
+
+	/**
+	 * Group consecutive fusable point filters into single stages.
+	 * @param hasAlpha whether intermediate images would keep an alpha channel
+	 * @return the stages to run
+	 */
+	private List<BufferedImageOp> fuse(boolean hasAlpha) {
+		List<BufferedImageOp> stages = new ArrayList<>();
+		List<PointFilter> run = new ArrayList<>();
+		for (BufferedImageOp filter : this.filters) {
+			if (filter instanceof PointFilter pointFilter && pointFilter.canFuse) {
+				run.add(pointFilter);
+			}
+			else {
+				addRun(stages, run, hasAlpha);
+				stages.add(filter);
+			}
+		}
+		addRun(stages, run, hasAlpha);
+		return stages;
+	}
+
+	private void addRun(List<BufferedImageOp> stages, List<PointFilter> run, boolean hasAlpha) {
+		List<PointFilter> filters = composeTransfers(run);
+		if (filters.size() == 1) {
+			stages.add(filters.get(0));
+		}
+		else if (filters.size() > 1) {
+			stages.add(withParallelSettings(new FusedPointFilter(filters.toArray(new PointFilter[0]), hasAlpha)));
+		}
+		run.clear();
+	}
+
+	/**
+	 * Replace adjacent transfer filters in a run by a single composite transfer filter.
+	 * @param run the run of point filters
+	 * @return the run with its transfer filters composed
+	 */
+	private List<PointFilter> composeTransfers(List<PointFilter> run) {
+		List<PointFilter> filters = new ArrayList<>();
+		List<TransferFilter> transfers = new ArrayList<>();
+		for (PointFilter filter : run) {
+			if (filter instanceof TransferFilter transferFilter) {
+				transfers.add(transferFilter);
+				continue;
+			}
+			addTransfers(filters, transfers);
+			filters.add(filter);
+		}
+		addTransfers(filters, transfers);
+		return filters;
+	}
+
+	private void addTransfers(List<PointFilter> filters, List<TransferFilter> transfers) {
+		if (transfers.size() == 1) {
+			filters.add(transfers.get(0));
+		}
+		else if (transfers.size() > 1) {
+			filters.add(withParallelSettings(TransferFilter.compose(transfers.toArray(new TransferFilter[0]))));
+		}
+		transfers.clear();
+	}
+
+	private <T extends AbstractBufferedImageOp> T withParallelSettings(T filter) {
+		filter.setParallel(isParallel());
+		filter.setExecutor(getExecutor());
+		filter.setMinimumBandHeight(getMinimumBandHeight());
+		return filter;
+	}
+
+	/**
+	 * Get an intermediate image which can receive the output of a stage, if the buffer is
+	 * exactly what the stage would have allocated itself. This is known for the filter families
+	 * whose destination always has the color model of the source.
+	 * @param stage  the stage about to run
+	 * @param src    the input of the stage
+	 * @param buffer the candidate buffer, or null
+	 * @return the buffer, or null to let the stage allocate its destination
+	 */
+	private static BufferedImage reusableBuffer(BufferedImageOp stage, BufferedImage src, BufferedImage buffer) {
+		if (buffer == null || !(stage instanceof PointFilter || stage instanceof WholeImageFilter || stage instanceof ConvolveFilter)) {
+			return null;
+		}
+		Rectangle2D bounds = stage.getBounds2D(src);
+		if (buffer.getWidth() == (int) bounds.getWidth() && buffer.getHeight() == (int) bounds.getHeight()
+				&& buffer.getColorModel().equals(src.getColorModel())) {
+			return buffer;
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "Filter Chain";
+	}
+
+	/**
+	 * A point filter which applies a run of point filters to each pixel in turn.
+	 */
+	private static final class FusedPointFilter extends PointFilter {
+
+		private PointFilter[] filters;
+
+		private final int opaque;
+
+		FusedPointFilter(PointFilter[] filters, boolean hasAlpha) {
+			this.filters = filters;
+			this.opaque = hasAlpha ? 0 : 0xff000000;
+		}
+
+		@Override
+		public void setDimensions(int width, int height) {
+			boolean parallel = true;
+			for (PointFilter filter : this.filters) {
+				filter.setDimensions(width, height);
+				parallel &= filter.canFilterInParallel;
+			}
+			this.canFilterInParallel = parallel;
+		}
+
+		@Override
+		public int filterRGB(int x, int y, int rgb) {
+			for (PointFilter filter : this.filters) {
+				rgb = filter.filterRGB(x, y, rgb | this.opaque);
+			}
+			return rgb;
+		}
+
+		@Override
+		public Object clone() {
+			FusedPointFilter filter = (FusedPointFilter) super.clone();
+			filter.filters = new PointFilter[this.filters.length];
+			for (int i = 0; i < this.filters.length; i++) {
+				filter.filters[i] = (PointFilter) this.filters[i].snapshot();
+			}
+			return filter;
+		}
+
+	}
+
+}
@@ -89,10 +89,6 @@ public class GradientFilter extends AbstractBufferedImageOp {
 	private Point p1 = new Point(0, 0);
 	private Point p2 = new Point(64, 64);
 	private boolean repeat = false;
-	private float x1;
-	private float y1;
-	private float dx;
-	private float dy;
 	private Colormap colormap = null;
 	private int type;
 	private int interpolation = INT_LINEAR;
@@ -221,8 +217,6 @@ public class GradientFilter extends AbstractBufferedImageOp {
 		float dx = x2 - x1;
 		float dy = y2 - y1;
 		float lenSq = dx * dx + dy * dy;
-		this.x1 = x1;
-		this.y1 = y1;
 		if (lenSq >= Float.MIN_VALUE) {
 			dx = dx / lenSq;
 			dy = dy / lenSq;
@@ -231,26 +225,26 @@ public class GradientFilter extends AbstractBufferedImageOp {
 				dy = dy % 1.0f;
 			}
 		}
-		this.dx = dx;
-		this.dy = dy;
 
 		int[] pixels = new int[width];
+		float[] levels = new float[width];
+		int[] colors = new int[width];
 		for (int y = 0; y < height; y++) {
 			getRGB(src, 0, y, width, 1, pixels);
 			switch (this.type) {
 				case LINEAR:
 				case BILINEAR:
-					linearGradient(pixels, y, width, 1);
+					linearGradient(pixels, y, width, 1, x1, y1, dx, dy, levels, colors);
 					break;
 				case RADIAL:
-					radialGradient(pixels, y, width, 1);
+					radialGradient(pixels, y, width, 1, levels, colors);
 					break;
 				case CONICAL:
 				case BICONICAL:
-					conicalGradient(pixels, y, width, 1);
+					conicalGradient(pixels, y, width, 1, levels, colors);
 					break;
 				case SQUARE:
-					squareGradient(pixels, y, width, 1);
+					squareGradient(pixels, y, width, 1, levels, colors);
 					break;
 			}
 			setRGB(dst, 0, y, width, 1, pixels);
@@ -258,28 +252,26 @@ public class GradientFilter extends AbstractBufferedImageOp {
 		return dst;
 	}
 
-	private void repeatGradient(int[] pixels, int w, int h, float rowrel, float dx, float dy) {
+	private void repeatGradient(int[] pixels, int w, int h, float rowrel, float dx, float dy, float[] levels, int[] colors) {
 		int off = 0;
 		for (int y = 0; y < h; y++) {
 			float colrel = rowrel;
-			int j = w;
-			int rgb;
-			while (--j >= 0) {
+			for (int x = 0; x < w; x++) {
 				if (this.type == BILINEAR) {
-					rgb = this.colormap.getColor(map(ImageMath.triangle(colrel)));
+					levels[x] = map(ImageMath.triangle(colrel));
 				}
 				else {
-					rgb = this.colormap.getColor(map(ImageMath.mod(colrel, 1.0f)));
+					levels[x] = map(ImageMath.mod(colrel, 1.0f));
 				}
-				pixels[off] = PixelUtils.combinePixels(rgb, pixels[off], this.paintMode);
-				off++;
 				colrel += dx;
 			}
+			paint(pixels, off, levels, colors, w);
+			off += w;
 			rowrel += dy;
 		}
 	}
 
-	private void singleGradient(int[] pixels, int w, int h, float rowrel, float dx, float dy) {
+	private void singleGradient(int[] pixels, int w, int h, float rowrel, float dx, float dy, float[] levels, int[] colors) {
 		int off = 0;
 		for (int y = 0; y < h; y++) {
 			float colrel = rowrel;
@@ -293,17 +285,19 @@ public class GradientFilter extends AbstractBufferedImageOp {
 					colrel += dx;
 				} while (--j > 0 && colrel <= 0.0);
 			}
+			int start = off;
+			int count = 0;
 			while (colrel < 1.0 && --j >= 0) {
 				if (this.type == BILINEAR) {
-					rgb = this.colormap.getColor(map(ImageMath.triangle(colrel)));
+					levels[count++] = map(ImageMath.triangle(colrel));
 				}
 				else {
-					rgb = this.colormap.getColor(map(colrel));
+					levels[count++] = map(colrel);
 				}
-				pixels[off] = PixelUtils.combinePixels(rgb, pixels[off], this.paintMode);
 				off++;
 				colrel += dx;
 			}
+			paint(pixels, start, levels, colors, count);
 			if (j > 0) {
 				if (this.type == BILINEAR) {
 					rgb = this.colormap.getColor(0.0f);
@@ -320,19 +314,18 @@ public class GradientFilter extends AbstractBufferedImageOp {
 		}
 	}
 
-	private void linearGradient(int[] pixels, int y, int w, int h) {
+	private void linearGradient(int[] pixels, int y, int w, int h, float x1, float y1, float dx, float dy, float[] levels, int[] colors) {
 		int x = 0;
-		float rowrel = (x - this.x1) * this.dx + (y - this.y1) * this.dy;
+		float rowrel = (x - x1) * dx + (y - y1) * dy;
 		if (this.repeat) {
-			repeatGradient(pixels, w, h, rowrel, this.dx, this.dy);
+			repeatGradient(pixels, w, h, rowrel, dx, dy, levels, colors);
 		}
 		else {
-			singleGradient(pixels, w, h, rowrel, this.dx, this.dy);
+			singleGradient(pixels, w, h, rowrel, dx, dy, levels, colors);
 		}
 	}
 
-	private void radialGradient(int[] pixels, int y, int w, int h) {
-		int off = 0;
+	private void radialGradient(int[] pixels, int y, int w, int h, float[] levels, int[] colors) {
 		float radius = distance(this.p2.x - this.p1.x, this.p2.y - this.p1.y);
 		for (int x = 0; x < w; x++) {
 			float distance = distance(x - this.p1.x, y - this.p1.y);
@@ -343,14 +336,12 @@ public class GradientFilter extends AbstractBufferedImageOp {
 			else if (ratio > 1.0) {
 				ratio = 1.0f;
 			}
-			int rgb = this.colormap.getColor(map(ratio));
-			pixels[off] = PixelUtils.combinePixels(rgb, pixels[off], this.paintMode);
-			off++;
+			levels[x] = map(ratio);
 		}
+		paint(pixels, 0, levels, colors, w);
 	}
 
-	private void squareGradient(int[] pixels, int y, int w, int h) {
-		int off = 0;
+	private void squareGradient(int[] pixels, int y, int w, int h, float[] levels, int[] colors) {
 		float radius = Math.max(Math.abs(this.p2.x - this.p1.x), Math.abs(this.p2.y - this.p1.y));
 		for (int x = 0; x < w; x++) {
 			float distance = Math.max(Math.abs(x - this.p1.x), Math.abs(y - this.p1.y));
@@ -361,14 +352,12 @@ public class GradientFilter extends AbstractBufferedImageOp {
 			else if (ratio > 1.0) {
 				ratio = 1.0f;
 			}
-			int rgb = this.colormap.getColor(map(ratio));
-			pixels[off] = PixelUtils.combinePixels(rgb, pixels[off], this.paintMode);
-			off++;
+			levels[x] = map(ratio);
 		}
+		paint(pixels, 0, levels, colors, w);
 	}
 
-	private void conicalGradient(int[] pixels, int y, int w, int h) {
-		int off = 0;
+	private void conicalGradient(int[] pixels, int y, int w, int h, float[] levels, int[] colors) {
 		float angle0 = (float) Math.atan2(this.p2.x - this.p1.x, this.p2.y - this.p1.y);
 		for (int x = 0; x < w; x++) {
 			float localAngle = (float) (Math.atan2(x - this.p1.x, y - this.p1.y) - angle0) / (ImageMath.TWO_PI);
@@ -377,9 +366,16 @@ public class GradientFilter extends AbstractBufferedImageOp {
 			if (this.type == BICONICAL) {
 				localAngle = ImageMath.triangle(localAngle);
 			}
-			int rgb = this.colormap.getColor(map(localAngle));
-			pixels[off] = PixelUtils.combinePixels(rgb, pixels[off], this.paintMode);
-			off++;
+			levels[x] = map(localAngle);
+		}
+		paint(pixels, 0, levels, colors, w);
+	}
+
+	// Look up the colors of a run of levels in one batch and paint them over the pixels
+	private void paint(int[] pixels, int off, float[] levels, int[] colors, int count) {
+		this.colormap.getColors(levels, colors, count);
+		for (int i = 0; i < count; i++) {
+			pixels[off + i] = PixelUtils.combinePixels(colors[i], pixels[off + i], this.paintMode);
 		}
 	}
 
@@ -17,7 +17,6 @@ public class HSBAdjustFilter extends PointFilter {
 	private float hFactor;
 	private float sFactor;
 	private float bFactor;
-	private final float[] hsb = new float[3];
 
 	public HSBAdjustFilter() {
 		this(0, 0, 0);
@@ -60,26 +59,26 @@ public class HSBAdjustFilter extends PointFilter {
 		int r = (rgb >> 16) & 0xff;
 		int g = (rgb >> 8) & 0xff;
 		int b = rgb & 0xff;
-		Color.RGBtoHSB(r, g, b, this.hsb);
-		this.hsb[0] += this.hFactor;
-		while (this.hsb[0] < 0) {
-			this.hsb[0] += Math.PI * 2;
+		float[] hsb = Color.RGBtoHSB(r, g, b, null);
+		hsb[0] += this.hFactor;
+		while (hsb[0] < 0) {
+			hsb[0] += Math.PI * 2;
 		}
-		this.hsb[1] += this.sFactor;
-		if (this.hsb[1] < 0) {
-			this.hsb[1] = 0;
+		hsb[1] += this.sFactor;
+		if (hsb[1] < 0) {
+			hsb[1] = 0;
 		}
-		else if (this.hsb[1] > 1.0) {
-			this.hsb[1] = 1.0f;
+		else if (hsb[1] > 1.0) {
+			hsb[1] = 1.0f;
 		}
-		this.hsb[2] += this.bFactor;
-		if (this.hsb[2] < 0) {
-			this.hsb[2] = 0;
+		hsb[2] += this.bFactor;
+		if (hsb[2] < 0) {
+			hsb[2] = 0;
 		}
-		else if (this.hsb[2] > 1.0) {
-			this.hsb[2] = 1.0f;
+		else if (hsb[2] > 1.0) {
+			hsb[2] = 1.0f;
 		}
-		rgb = Color.HSBtoRGB(this.hsb[0], this.hsb[1], this.hsb[2]);
+		rgb = Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]);
 		return a | (rgb & 0xffffff);
 	}
 
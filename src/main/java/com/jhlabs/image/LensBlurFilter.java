@@ -5,11 +5,20 @@
 package com.jhlabs.image;
 
 import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.jhlabs.math.FFT;
 
 /**
  * A filter which use FFTs to simulate lens blur on an image.
+ * <p>
+ * The image is blurred in overlapping square tiles, which are processed concurrently if
+ * {@link #setParallel parallel} execution is enabled. Each worker has its own FFT buffers. The
+ * transformed aperture kernel depends only on the radius, number of sides, angle and tile size,
+ * so the most recently used ones are cached and shared between filters and threads.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -22,6 +31,20 @@ public class LensBlurFilter extends AbstractBufferedImageOp {
 	private final float angle = 0;
 	private int sides = 5;
 
+	/**
+	 * The number of transformed aperture kernels kept for reuse.
+	 */
+	private static final int MAXIMUM_CACHED_APERTURES = 8;
+
+	private static final Map<ApertureKey, Aperture> APERTURES = new LinkedHashMap<>(16, 0.75f, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ApertureKey, Aperture> eldest) {
+			return size() > MAXIMUM_CACHED_APERTURES;
+		}
+
+	};
+
 	/**
 	 * Set the radius of the kernel, and hence the amount of blur.
 	 * @param radius the radius of the blur in pixels.
@@ -67,61 +90,201 @@ public class LensBlurFilter extends AbstractBufferedImageOp {
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
 		int width = src.getWidth();
 		int height = src.getHeight();
-		int rows = 1;
-		int cols = 1;
-		int log2rows = 0;
-		int log2cols = 0;
 		int iradius = (int) Math.ceil(this.radius);
-		int tileWidth = 128;
-		int tileHeight = tileWidth;
-
-		int adjustedWidth = width + iradius * 2;
-		int adjustedHeight = height + iradius * 2;
 
-		tileWidth = (iradius < 32) ? Math.min(128, width + 2 * iradius) : Math.min(256, width + 2 * iradius);
-		tileHeight = (iradius < 32) ? Math.min(128, height + 2 * iradius) : Math.min(256, height + 2 * iradius);
+		// Tiles are square and overlap by the radius on each side, so that the wrap around of the
+		// FFT convolution never reaches the part of a tile which is kept
+		int maximumSize = (iradius < 32) ? 128 : 256;
+		while (maximumSize < 4 * iradius) {
+			maximumSize *= 2;
+		}
+		// The FFT is fastest for lengths with small factors, and the kernel is centred on an even length
+		int size = 2 * FFT.nextFastLength((Math.min(maximumSize, Math.max(width, height) + 2 * iradius) + 1) / 2);
+		int step = size - 2 * iradius;
 
 		if (dst == null) {
 			dst = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 		}
+		BufferedImage target = dst;
+
+		Aperture aperture = getAperture(this.radius, this.sides, this.angle, size);
+		float bloomToUse = this.bloom;
+		float bloomThresholdToUse = this.bloomThreshold;
+		Queue<TileScratch> scratches = new ConcurrentLinkedQueue<>();
+		forEachTile(width, height, step, () -> {
+			TileScratch scratch = new TileScratch(size);
+			scratches.add(scratch);
+			return (startX, startY, endX, endY) -> {
+				for (int y = startY; y < endY; y += step) {
+					for (int x = startX; x < endX; x += step) {
+						blurTile(src, target, aperture, scratch, x, y, Math.min(step, endX - x), Math.min(step, endY - y),
+								iradius, bloomToUse, bloomThresholdToUse);
+					}
+				}
+			};
+		});
+		for (TileScratch scratch : scratches) {
+			release(scratch.rgb);
+			release(scratch.ar[0], scratch.ar[1], scratch.gb[0], scratch.gb[1]);
+		}
+		return dst;
+	}
 
-		while (rows < tileHeight) {
-			rows *= 2;
-			log2rows++;
+	// Blur one tile, whose unpadded part starts at outX, outY in the destination
+	private void blurTile(BufferedImage src, BufferedImage dst, Aperture aperture, TileScratch scratch, int outX,
+			int outY, int outWidth, int outHeight, int iradius, float bloom, float bloomThreshold) {
+		int width = src.getWidth();
+		int height = src.getHeight();
+		int size = aperture.size;
+		int[] rgb = scratch.rgb;
+		float[][] ar = scratch.ar;
+		float[][] gb = scratch.gb;
+		int tileX = outX - iradius;
+		int tileY = outY - iradius;
+
+		// Clip the tile to the image bounds
+		int tx = Math.max(tileX, 0);
+		int ty = Math.max(tileY, 0);
+		int fx = tx - tileX;
+		int fy = ty - tileY;
+		int tw = Math.min(tileX + size, width) - tx;
+		int th = Math.min(tileY + size, height) - ty;
+		RasterAccess.getRGB(src, tx, ty, tw, th, rgb, fy * size + fx, size);
+
+		// Create a float array from the pixels. Any pixels off the edge of the source image get duplicated from the edge.
+		int i = 0;
+		for (int y = 0; y < size; y++) {
+			int j = Math.min(Math.max(y, fy), fy + th - 1) * size;
+			for (int x = 0; x < size; x++) {
+				int k = j + Math.min(Math.max(x, fx), fx + tw - 1);
+
+				ar[0][i] = ((rgb[k] >> 24) & 0xff);
+				float r = ((rgb[k] >> 16) & 0xff);
+				float g = ((rgb[k] >> 8) & 0xff);
+				float b = (rgb[k] & 0xff);
+
+				// Bloom...
+				if (r > bloomThreshold) {
+					r *= bloom;
+				}
+				if (g > bloomThreshold) {
+					g *= bloom;
+				}
+				if (b > bloomThreshold) {
+					b *= bloom;
+				}
+
+				ar[1][i] = r;
+				gb[0][i] = g;
+				gb[1][i] = b;
+
+				i++;
+			}
 		}
-		while (cols < tileWidth) {
-			cols *= 2;
-			log2cols++;
+
+		// Transform into frequency space
+		scratch.fft.transform2D(ar[0], ar[1], size, size, true);
+		scratch.fft.transform2D(gb[0], gb[1], size, size, true);
+
+		// Multiply the transformed pixels by the transformed kernel. Only half of the kernel's
+		// spectrum is kept, the other half is its complex conjugate, mirrored.
+		int half = size / 2 + 1;
+		float[] kernelRe = aperture.real;
+		float[] kernelIm = aperture.imag;
+		i = 0;
+		for (int y = 0; y < size; y++) {
+			int k = y * half;
+			for (int x = 0; x < half; x++) {
+				multiply(ar, gb, i++, kernelRe[k], kernelIm[k]);
+				k++;
+			}
+			k = ((size - y) % size) * half + half - 2;
+			for (int x = half; x < size; x++) {
+				multiply(ar, gb, i++, kernelRe[k], -kernelIm[k]);
+				k--;
+			}
+		}
+
+		// Transform back
+		scratch.fft.transform2D(ar[0], ar[1], size, size, false);
+		scratch.fft.transform2D(gb[0], gb[1], size, size, false);
+
+		// Convert the unpadded part back to RGB pixels, with quadrant remapping
+		int flip = size >> 1;
+		for (int y = iradius; y < iradius + outHeight; y++) {
+			int yi = ((y + flip) % size) * size;
+			int index = y * size + iradius;
+			for (int x = iradius; x < iradius + outWidth; x++) {
+				int xm = yi + (x + flip) % size;
+				int a = (int) ar[0][xm];
+				int r = (int) ar[1][xm];
+				int g = (int) gb[0][xm];
+				int b = (int) gb[1][xm];
+
+				// Clamp high pixels due to blooming
+				if (r > 255) {
+					r = 255;
+				}
+				if (g > 255) {
+					g = 255;
+				}
+				if (b > 255) {
+					b = 255;
+				}
+				rgb[index++] = (a << 24) | (r << 16) | (g << 8) | b;
+			}
 		}
-		int w = cols;
-		int h = rows;
 
-		tileWidth = w;
-		tileHeight = h; //FIXME-tileWidth, w, and cols are always all the same
+		RasterAccess.setRGB(dst, outX, outY, outWidth, outHeight, rgb, iradius * size + iradius, size);
+	}
 
-		FFT fft = new FFT(Math.max(log2rows, log2cols));
+	private static void multiply(float[][] ar, float[][] gb, int i, float rem, float imm) {
+		float re = ar[0][i];
+		float im = ar[1][i];
+		ar[0][i] = re * rem - im * imm;
+		ar[1][i] = re * imm + im * rem;
 
-		int[] rgb = new int[w * h];
-		float[][] mask = new float[2][w * h];
-		float[][] gb = new float[2][w * h];
-		float[][] ar = new float[2][w * h];
+		re = gb[0][i];
+		im = gb[1][i];
+		gb[0][i] = re * rem - im * imm;
+		gb[1][i] = re * imm + im * rem;
+	}
+
+	// Get the transformed kernel for a polygonal aperture, from the cache if it was used recently
+	private static Aperture getAperture(float radius, int sides, float angle, int size) {
+		ApertureKey key = new ApertureKey(radius, sides, angle, size);
+		Aperture aperture;
+		synchronized (APERTURES) {
+			aperture = APERTURES.get(key);
+		}
+		if (aperture == null) {
+			aperture = createAperture(radius, sides, angle, size);
+			synchronized (APERTURES) {
+				APERTURES.put(key, aperture);
+			}
+		}
+		return aperture;
+	}
+
+	private static Aperture createAperture(float radius, int sides, float angle, int size) {
+		float[] mask = new float[size * size];
 
 		// Create the kernel
-		double polyAngle = Math.PI / this.sides;
+		double polyAngle = Math.PI / sides;
 		double polyScale = 1.0f / Math.cos(polyAngle);
-		double r2 = this.radius * this.radius;
-		double rangle = Math.toRadians(this.angle);
+		double r2 = radius * radius;
+		double rangle = Math.toRadians(angle);
 		float total = 0;
 		int i = 0;
-		for (int y = 0; y < h; y++) {
-			for (int x = 0; x < w; x++) {
-				double dx = x - w / 2f;
-				double dy = y - h / 2f;
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				double dx = x - size / 2f;
+				double dy = y - size / 2f;
 				double r = dx * dx + dy * dy;
 				double f = (r < r2) ? 1 : 0;
 				if (f != 0) {
 					r = Math.sqrt(r);
-					if (this.sides != 0) {
+					if (sides != 0) {
 						double a = Math.atan2(dy, dx) + rangle;
 						a = ImageMath.mod(a, polyAngle * 2) - polyAngle;
 						f = Math.cos(a) * polyScale;
@@ -129,190 +292,76 @@ public class LensBlurFilter extends AbstractBufferedImageOp {
 					else {
 						f = 1;
 					}
-					f = ((f * r) < this.radius) ? 1 : 0;
+					f = ((f * r) < radius) ? 1 : 0;
 				}
 				total += (float) f;
 
-				mask[0][i] = (float) f;
-				mask[1][i] = 0;
+				mask[i] = (float) f;
 				i++;
 			}
 		}
 
 		// Normalize the kernel
-		i = 0;
-		for (int y = 0; y < h; y++) {
-			for (int x = 0; x < w; x++) {
-				mask[0][i] /= total;
-				i++;
-			}
+		for (i = 0; i < size * size; i++) {
+			mask[i] /= total;
 		}
 
-		fft.transform2D(mask[0], mask[1], w, h, true);
-
-		for (int tileY = -iradius; tileY < height; tileY += tileHeight - 2 * iradius) {
-			for (int tileX = -iradius; tileX < width; tileX += tileWidth - 2 * iradius) {
-//                System.out.println("Tile: "+tileX+" "+tileY+" "+tileWidth+" "+tileHeight);
-
-				// Clip the tile to the image bounds
-				int tx = tileX;
-				int ty = tileY;
-				int tw = tileWidth;
-				int th = tileHeight;
-				int fx = 0;
-				int fy = 0;
-				if (tx < 0) {
-					tw += tx;
-					fx -= tx;
-					tx = 0;
-				}
-				if (ty < 0) {
-					th += ty;
-					fy -= ty;
-					ty = 0;
-				}
-				if (tx + tw > width) {
-					tw = width - tx;
-				}
-				if (ty + th > height) {
-					th = height - ty;
-				}
-				src.getRGB(tx, ty, tw, th, rgb, fy * w + fx, w);
-
-				// Create a float array from the pixels. Any pixels off the edge of the source image get duplicated from the edge.
-				i = 0;
-				for (int y = 0; y < h; y++) {
-					int imageY = y + tileY;
-					int j;
-					if (imageY < 0) {
-						j = fy;
-					}
-					else if (imageY > height) {
-						j = fy + th - 1;
-					}
-					else {
-						j = y;
-					}
-					j *= w;
-					for (int x = 0; x < w; x++) {
-						int imageX = x + tileX;
-						int k;
-						if (imageX < 0) {
-							k = fx;
-						}
-						else if (imageX > width) {
-							k = fx + tw - 1;
-						}
-						else {
-							k = x;
-						}
-						k += j;
-
-						ar[0][i] = ((rgb[k] >> 24) & 0xff);
-						float r = ((rgb[k] >> 16) & 0xff);
-						float g = ((rgb[k] >> 8) & 0xff);
-						float b = (rgb[k] & 0xff);
-
-						// Bloom...
-						if (r > this.bloomThreshold) {
-							r *= this.bloom;
-						}
-//							r = bloomThreshold + (r-bloomThreshold) * bloom;
-						if (g > this.bloomThreshold) {
-							g *= this.bloom;
-						}
-//							g = bloomThreshold + (g-bloomThreshold) * bloom;
-						if (b > this.bloomThreshold) {
-							b *= this.bloom;
-						}
-//							b = bloomThreshold + (b-bloomThreshold) * bloom;
-
-						ar[1][i] = r;
-						gb[0][i] = g;
-						gb[1][i] = b;
-
-						i++;
-						k++;
-					}
-				}
+		// The kernel is real, so its spectrum is conjugate symmetric and only the columns up to
+		// and including the Nyquist frequency need to be kept
+		int half = size / 2 + 1;
+		float[] real = new float[size * half];
+		float[] imag = new float[size * half];
+		new FFT().realTransform2D(mask, real, imag, size, size);
+		return new Aperture(size, real, imag);
+	}
 
-				// Transform into frequency space
-				fft.transform2D(ar[0], ar[1], cols, rows, true);
-				fft.transform2D(gb[0], gb[1], cols, rows, true);
-
-				// Multiply the transformed pixels by the transformed kernel
-				i = 0;
-				for (int y = 0; y < h; y++) {
-					for (int x = 0; x < w; x++) {
-						float re = ar[0][i];
-						float im = ar[1][i];
-						float rem = mask[0][i];
-						float imm = mask[1][i];
-						ar[0][i] = re * rem - im * imm;
-						ar[1][i] = re * imm + im * rem;
-
-						re = gb[0][i];
-						im = gb[1][i];
-						gb[0][i] = re * rem - im * imm;
-						gb[1][i] = re * imm + im * rem;
-						i++;
-					}
-				}
+	@Override
+	public String toString() {
+		return "Blur/Lens Blur...";
+	}
 
-				// Transform back
-				fft.transform2D(ar[0], ar[1], cols, rows, false);
-				fft.transform2D(gb[0], gb[1], cols, rows, false);
-
-				// Convert back to RGB pixels, with quadrant remapping
-				int row_flip = w >> 1;
-				int col_flip = h >> 1;
-				int index = 0;
-
-				//FIXME-don't bother converting pixels off image edges
-				for (int y = 0; y < w; y++) {
-					int ym = y ^ row_flip;
-					int yi = ym * cols;
-					for (int x = 0; x < w; x++) {
-						int xm = yi + (x ^ col_flip);
-						int a = (int) ar[0][xm];
-						int r = (int) ar[1][xm];
-						int g = (int) gb[0][xm];
-						int b = (int) gb[1][xm];
-
-						// Clamp high pixels due to blooming
-						if (r > 255) {
-							r = 255;
-						}
-						if (g > 255) {
-							g = 255;
-						}
-						if (b > 255) {
-							b = 255;
-						}
-						int argb = (a << 24) | (r << 16) | (g << 8) | b;
-						rgb[index++] = argb;
-					}
-				}
+	private record ApertureKey(float radius, int sides, float angle, int size) {
+	}
 
-				// Clip to the output image
-				tx = tileX + iradius;
-				ty = tileY + iradius;
-				tw = tileWidth - 2 * iradius;
-				th = tileHeight - 2 * iradius;
-				if (tx + tw > width) {
-					tw = width - tx;
-				}
-				if (ty + th > height) {
-					th = height - ty;
-				}
-				dst.setRGB(tx, ty, tw, th, rgb, iradius * w + iradius, w);
-			}
+	/**
+	 * The transformed kernel of an aperture, holding the left half of its spectrum.
+	 */
+	private static final class Aperture {
+
+		private final int size;
+
+		private final float[] real;
+
+		private final float[] imag;
+
+		Aperture(int size, float[] real, float[] imag) {
+			this.size = size;
+			this.real = real;
+			this.imag = imag;
 		}
-		return dst;
+
 	}
 
-	@Override
-	public String toString() {
-		return "Blur/Lens Blur...";
+	/**
+	 * The buffers of one worker, which blurs one tile at a time.
+	 */
+	private final class TileScratch {
+
+		private final FFT fft;
+
+		private final int[] rgb;
+
+		private final float[][] ar;
+
+		private final float[][] gb;
+
+		TileScratch(int size) {
+			this.fft = new FFT();
+			this.rgb = acquireInts(size * size);
+			this.ar = new float[][] { acquireFloats(size * size), acquireFloats(size * size) };
+			this.gb = new float[][] { acquireFloats(size * size), acquireFloats(size * size) };
+		}
+
 	}
+
 }
@@ -10,6 +10,7 @@ import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.Kernel;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Vector;
 
 import com.jhlabs.math.Function2D;
@@ -30,6 +31,13 @@ import com.jhlabs.vecmath.Vector3f;
  * - Support for different bump mapping methods, including using images or predefined functions.
  * - Control over lighting parameters such as view distance and material properties.
  * - Integration of an environment map for reflection and advanced shading.
+ * <p>
+ * Every call to {@code filter} shades on a snapshot of the filter with its own scratch vectors
+ * and prepared lights, so a configured instance may be shared between threads. The lights,
+ * material, bump function and environment map are shared by the snapshots and must not be
+ * changed while an image is being filtered. Within one call a bump function set with
+ * {@link #setBumpFunction} is only evaluated on a single thread, even if the filter runs in
+ * parallel. The normal map cache is synchronized.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -110,11 +118,27 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 	 */
 	public static final int SPOT = 3;
 
+	/**
+	 * Shade every pixel in turn with {@link #phongShade}.
+	 */
+	public static final int SHADE_PIXELS = 0;
+
+	/**
+	 * Shade from precomputed planes of normals and per-light constants, looking up the
+	 * specular highlight in a table, in parallel bands if enabled. The result is within 1 level
+	 * of {@link #SHADE_PIXELS}. An environment map is only supported by {@link #SHADE_PIXELS},
+	 * which is used instead when the material is reflective and a map is set.
+	 */
+	public static final int SHADE_PLANES = 1;
+
+	// The number of intervals in the table of specular powers
+	private static final int SPECULAR_TABLE_SIZE = 1024;
+
 	private float bumpHeight;
 	private float bumpSoftness;
 	private float viewDistance = 10000.0f;
 	private Material material;
-	private final Vector lights;
+	private final Vector<Light> lights;
 	private int colorSource = COLORS_FROM_IMAGE;
 	private int bumpSource = BUMPS_FROM_IMAGE;
 	private Function2D bumpFunction;
@@ -122,22 +146,29 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 	private int[] envPixels;
 	private int envWidth = 1;
 	private int envHeight = 1;
-	private final Vector3f l;
-	private final Vector3f v;
-	private final Vector3f n;
-	private final Color4f shadedColor;
-	private final Color4f diffuse_color;
-	private final Color4f specular_color;
-	private final Vector3f tmpv;
-	private final Vector3f tmpv2;
+	private Vector3f l;
+	private Vector3f v;
+	private Vector3f n;
+	private Color4f shadedColor;
+	private Color4f diffuse_color;
+	private Color4f specular_color;
+	private Vector3f tmpv;
+	private Vector3f tmpv2;
 	private NormalEvaluator normalEvaluator = new NormalEvaluator();
+	private int shadingMode = SHADE_PIXELS;
+	private final NormalMapCache normalCache = new NormalMapCache();
 
 	public LightFilter() {
-		this.lights = new Vector();
+		this.lights = new Vector<>();
 		addLight(new DistantLight());
 		this.bumpHeight = 1.0f;
 		this.bumpSoftness = 5.0f;
 		this.material = new Material();
+		initializeScratch();
+	}
+
+	// Scratch space of phongShade and the environment map lookup, which every copy allocates anew
+	private void initializeScratch() {
 		this.l = new Vector3f();
 		this.v = new Vector3f();
 		this.n = new Vector3f();
@@ -146,6 +177,7 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		this.specular_color = new Color4f();
 		this.tmpv = new Vector3f();
 		this.tmpv2 = new Vector3f();
+		this.rgb = new int[4];
 	}
 
 	public void setBumpFunction(Function2D bumpFunction) {
@@ -230,7 +262,7 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		this.lights.removeElement(light);
 	}
 
-	public Vector getLights() {
+	public Vector<Light> getLights() {
 		return this.lights;
 	}
 
@@ -242,6 +274,61 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		this.normalEvaluator = normalEvaluator;
 	}
 
+	/**
+	 * Set the shading engine.
+	 * @param shadingMode the engine, one of {@link #SHADE_PIXELS} or {@link #SHADE_PLANES}
+	 * @see #getShadingMode
+	 */
+	public void setShadingMode(int shadingMode) {
+		if (shadingMode != SHADE_PIXELS && shadingMode != SHADE_PLANES) {
+			throw new IllegalArgumentException("Unknown shading mode: " + shadingMode);
+		}
+		this.shadingMode = shadingMode;
+	}
+
+	/**
+	 * Get the shading engine.
+	 * @return the engine
+	 * @see #setShadingMode
+	 */
+	public int getShadingMode() {
+		return this.shadingMode;
+	}
+
+	/**
+	 * Set how many bytes of normal planes {@link #SHADE_PLANES} may keep between calls, so that
+	 * changing only the lights or the material skips working out the normals again. Bumps from
+	 * the image are recognized by their pixels, a bump function or normal evaluator by identity
+	 * together with its settings; call {@link #invalidateNormalCache} after changing the
+	 * contents of a bump map. The cache is shared with clones of this filter. Initially this is
+	 * 0, which disables caching.
+	 * @param maxBytes the maximum number of bytes held by cached normals
+	 * @see #getNormalCacheBytes
+	 */
+	public void setNormalCacheBytes(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("maxBytes must not be negative");
+		}
+		this.normalCache.setMaxBytes(maxBytes);
+	}
+
+	/**
+	 * Get how many bytes of normal planes may be cached.
+	 * @return the maximum number of bytes held by cached normals
+	 * @see #setNormalCacheBytes
+	 */
+	public long getNormalCacheBytes() {
+		return this.normalCache.getMaxBytes();
+	}
+
+	/**
+	 * Discard all cached normals.
+	 * @see #setNormalCacheBytes
+	 */
+	public void invalidateNormalCache() {
+		this.normalCache.clear();
+	}
+
 	protected static final float r255 = 1.0f / 255.0f;
 
 	protected void setFromRGB(Color4f c, int argb) {
@@ -250,6 +337,9 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 
 	@Override
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
+		if (this.shadingMode == SHADE_PLANES && (this.material.reflectivity == 0 || this.environmentMap == null)) {
+			return shadePlanes(width, height, inPixels);
+		}
 		int index = 0;
 		int[] outPixels = new int[width * height];
 		float width45 = Math.abs(6.0f * this.bumpHeight);
@@ -260,29 +350,7 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		Color4f envColor = new Color4f();
 		Color4f diffuseColor = new Color4f(new Color(this.material.diffuseColor));
 		Color4f specularColor = new Color4f(new Color(this.material.specularColor));
-		Function2D bump = this.bumpFunction;
-
-		if (this.bumpSource == BUMPS_FROM_IMAGE || this.bumpSource == BUMPS_FROM_IMAGE_ALPHA || this.bumpSource == BUMPS_FROM_MAP || bump == null) {
-			if (this.bumpSoftness != 0) {
-				int bumpWidth = width;
-				int bumpHeight = height;
-				int[] bumpPixels = inPixels;
-				if (this.bumpSource == BUMPS_FROM_MAP && this.bumpFunction instanceof ImageFunction2D if2d) {
-					bumpWidth = if2d.getWidth();
-					bumpHeight = if2d.getHeight();
-					bumpPixels = if2d.getPixels();
-				}
-				Kernel kernel = GaussianFilter.makeKernel(this.bumpSoftness);
-				int[] tmpPixels = new int[bumpWidth * bumpHeight];
-				int[] softPixels = new int[bumpWidth * bumpHeight];
-				GaussianFilter.convolveAndTranspose(kernel, bumpPixels, tmpPixels, bumpWidth, bumpHeight, true, ConvolveFilter.CLAMP_EDGES);
-				GaussianFilter.convolveAndTranspose(kernel, tmpPixels, softPixels, bumpHeight, bumpWidth, true, ConvolveFilter.CLAMP_EDGES);
-				bump = new ImageFunction2D(softPixels, bumpWidth, bumpHeight, ImageFunction2D.CLAMP, this.bumpSource == BUMPS_FROM_IMAGE_ALPHA);
-			}
-			else {
-				bump = new ImageFunction2D(inPixels, width, height, ImageFunction2D.CLAMP, this.bumpSource == BUMPS_FROM_IMAGE_ALPHA);
-			}
-		}
+		Function2D bump = bumpFunction(width, height, inPixels);
 
 		float reflectivity = this.material.reflectivity;
 		float areflectivity = (1 - reflectivity);
@@ -292,6 +360,7 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		Light[] lightsArray = new Light[this.lights.size()];
 		this.lights.copyInto(lightsArray);
 		for (int i = 0; i < lightsArray.length; i++) {
+			lightsArray[i] = (Light) lightsArray[i].clone();
 			lightsArray[i].prepare(width, height);
 		}
 
@@ -437,6 +506,295 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		return outPixels;
 	}
 
+	// The function giving the bump height at each pixel, softened if asked to
+	private Function2D bumpFunction(int width, int height, int[] inPixels) {
+		Function2D bump = this.bumpFunction;
+		if (this.bumpSource == BUMPS_FROM_IMAGE || this.bumpSource == BUMPS_FROM_IMAGE_ALPHA
+				|| this.bumpSource == BUMPS_FROM_MAP || bump == null) {
+			if (this.bumpSoftness != 0) {
+				int bumpWidth = width;
+				int bumpHeight = height;
+				int[] bumpPixels = inPixels;
+				if (this.bumpSource == BUMPS_FROM_MAP && this.bumpFunction instanceof ImageFunction2D if2d) {
+					bumpWidth = if2d.getWidth();
+					bumpHeight = if2d.getHeight();
+					bumpPixels = if2d.getPixels();
+				}
+				Kernel kernel = GaussianFilter.makeKernel(this.bumpSoftness);
+				int[] tmpPixels = new int[bumpWidth * bumpHeight];
+				int[] softPixels = new int[bumpWidth * bumpHeight];
+				GaussianFilter.convolveAndTranspose(kernel, bumpPixels, tmpPixels, bumpWidth, bumpHeight, true,
+						ConvolveFilter.CLAMP_EDGES);
+				GaussianFilter.convolveAndTranspose(kernel, tmpPixels, softPixels, bumpHeight, bumpWidth, true,
+						ConvolveFilter.CLAMP_EDGES);
+				bump = new ImageFunction2D(softPixels, bumpWidth, bumpHeight, ImageFunction2D.CLAMP,
+						this.bumpSource == BUMPS_FROM_IMAGE_ALPHA);
+			}
+			else {
+				bump = new ImageFunction2D(inPixels, width, height, ImageFunction2D.CLAMP,
+						this.bumpSource == BUMPS_FROM_IMAGE_ALPHA);
+			}
+		}
+		return bump;
+	}
+
+	// Shade from planes of normals computed up front, with everything that only depends on a
+	// light worked out once per light and the specular power read from a table
+	private int[] shadePlanes(int width, int height, int[] inPixels) {
+		int size = width * height;
+		NormalMapCache.Key key = (this.normalCache.getMaxBytes() > 0) ? normalKey(width, height, inPixels) : null;
+		float[] normals = (key != null) ? this.normalCache.get(key) : null;
+		if (normals == null) {
+			normals = (key != null) ? new float[3 * size] : acquireFloats(3 * size);
+			computeNormals(width, height, inPixels, normals);
+			if (key != null) {
+				this.normalCache.put(key, normals);
+			}
+		}
+		float[] normalPlanes = normals;
+		ShadingLights shadingLights = new ShadingLights(this.lights, this.material, width, height);
+		float[] specularTable = (this.material.highlight >= 1) ? specularTable(this.material.highlight) : null;
+		int[] outPixels = new int[size];
+		forEachBand(height, (startY, endY) -> shadeRows(width, height, inPixels, normalPlanes, shadingLights,
+				specularTable, outPixels, startY, endY));
+		if (key == null) {
+			release(normals);
+		}
+		return outPixels;
+	}
+
+	// The key of the normals for the current bump settings, referring to the pixels if the bumps
+	// are taken from the image. The cache copies them only when it stores the key
+	private NormalMapCache.Key normalKey(int width, int height, int[] inPixels) {
+		Object source = null;
+		int[] pixels = null;
+		int[] shape = null;
+		if (this.bumpSource == BUMPS_FROM_BEVEL) {
+			NormalEvaluator evaluator = this.normalEvaluator;
+			source = evaluator;
+			if (evaluator != null) {
+				shape = new int[] { evaluator.shape, evaluator.bevel, evaluator.margin, evaluator.cornerRadius };
+			}
+		}
+		else if (this.bumpSource != BUMPS_FROM_IMAGE && this.bumpSource != BUMPS_FROM_IMAGE_ALPHA
+				&& this.bumpSource != BUMPS_FROM_MAP && this.bumpFunction != null) {
+			source = this.bumpFunction;
+		}
+		else if (this.bumpSource == BUMPS_FROM_MAP && this.bumpSoftness != 0
+				&& this.bumpFunction instanceof ImageFunction2D) {
+			source = this.bumpFunction;
+		}
+		else {
+			pixels = inPixels;
+		}
+		return new NormalMapCache.Key(width, height, this.bumpSource, this.bumpHeight, this.bumpSoftness, source, pixels,
+				shape);
+	}
+
+	// Fill the x, y and z planes of the normals with the same normals as the per-pixel path
+	private void computeNormals(int width, int height, int[] inPixels, float[] normals) {
+		int size = width * height;
+		boolean invertBumps = this.bumpHeight < 0;
+		if (this.bumpSource == BUMPS_FROM_BEVEL) {
+			NormalEvaluator evaluator = this.normalEvaluator;
+			forEachBand(height, (startY, endY) -> {
+				Vector3f normal = new Vector3f();
+				for (int y = startY; y < endY; y++) {
+					for (int x = 0; x < width; x++) {
+						if (evaluator != null) {
+							evaluator.getNormalAt(x, y, width, height, normal);
+						}
+						int index = y * width + x;
+						normals[index] = (invertBumps) ? -normal.x : normal.x;
+						normals[size + index] = (invertBumps) ? -normal.y : normal.y;
+						normals[2 * size + index] = normal.z;
+					}
+				}
+			});
+			return;
+		}
+		Function2D bump = bumpFunction(width, height, inPixels);
+		float width45 = Math.abs(6.0f * this.bumpHeight);
+		float[] heights = acquireFloats(size);
+		ParallelSupport.BandTask heightRows = (startY, endY) -> {
+			for (int y = startY; y < endY; y++) {
+				for (int x = 0; x < width; x++) {
+					heights[y * width + x] = width45 * bump.evaluate(x, y);
+				}
+			}
+		};
+		// A bump function set by the caller, such as a CellularFunction2D, may keep scratch state
+		// while it is evaluated, so only the image functions made here are evaluated in bands
+		if (bump == this.bumpFunction) {
+			heightRows.run(0, height);
+		}
+		else {
+			forEachBand(height, heightRows);
+		}
+		forEachBand(height, (startY, endY) -> {
+			float[] normal = new float[3];
+			for (int y = startY; y < endY; y++) {
+				for (int x = 0; x < width; x++) {
+					int index = y * width + x;
+					float m0 = heights[index];
+					float m1 = (x > 0) ? (heights[index - 1] - m0) : -2;
+					float m2 = (y > 0) ? (heights[index - width] - m0) : -2;
+					float m3 = (x < (width - 1)) ? (heights[index + 1] - m0) : -2;
+					float m4 = (y < (height - 1)) ? (heights[index + width] - m0) : -2;
+					normal[0] = 0;
+					normal[1] = 0;
+					normal[2] = 0;
+					int count = 0;
+					if (m1 != -2 && m4 != -2) {
+						addNormal(-1.0f, 0.0f, m1, 0.0f, 1.0f, m4, normal);
+						count++;
+					}
+					if (m1 != -2 && m2 != -2) {
+						addNormal(-1.0f, 0.0f, m1, 0.0f, -1.0f, m2, normal);
+						count++;
+					}
+					if (m2 != -2 && m3 != -2) {
+						addNormal(0.0f, -1.0f, m2, 1.0f, 0.0f, m3, normal);
+						count++;
+					}
+					if (m3 != -2 && m4 != -2) {
+						addNormal(1.0f, 0.0f, m3, 0.0f, 1.0f, m4, normal);
+						count++;
+					}
+					float nx = normal[0] / count;
+					float ny = normal[1] / count;
+					normals[index] = (invertBumps) ? -nx : nx;
+					normals[size + index] = (invertBumps) ? -ny : ny;
+					normals[2 * size + index] = normal[2] / count;
+				}
+			}
+		});
+		release(heights);
+	}
+
+	// Add the normalized cross product of two tangents, facing up, to a normal
+	private static void addNormal(float x1, float y1, float z1, float x2, float y2, float z2, float[] normal) {
+		float x = y1 * z2 - z1 * y2;
+		float y = z1 * x2 - x1 * z2;
+		float z = x1 * y2 - y1 * x2;
+		float d = 1.0f / (float) Math.sqrt(x * x + y * y + z * z);
+		x *= d;
+		y *= d;
+		z *= d;
+		if (z < 0.0) {
+			z = -z;
+		}
+		normal[0] += x;
+		normal[1] += y;
+		normal[2] += z;
+	}
+
+	// The specular power at SPECULAR_TABLE_SIZE + 1 evenly spaced cosines from 0 to 1, with a
+	// repeated last entry so that interpolation never reads past the end
+	private static float[] specularTable(float highlight) {
+		float[] table = new float[SPECULAR_TABLE_SIZE + 2];
+		for (int i = 0; i <= SPECULAR_TABLE_SIZE; i++) {
+			table[i] = (float) Math.pow((double) i / SPECULAR_TABLE_SIZE, highlight);
+		}
+		table[SPECULAR_TABLE_SIZE + 1] = table[SPECULAR_TABLE_SIZE];
+		return table;
+	}
+
+	private void shadeRows(int width, int height, int[] inPixels, float[] normals, ShadingLights lights,
+			float[] specularTable, int[] outPixels, int startY, int endY) {
+		int size = width * height;
+		float viewX = (float) width / 2.0f;
+		float viewY = (float) height / 2.0f;
+		float viewZ = this.viewDistance;
+		float ambient = this.material.ambientIntensity;
+		float highlight = this.material.highlight;
+		boolean fromImage = this.colorSource == COLORS_FROM_IMAGE;
+		int constantColor = this.material.diffuseColor;
+		for (int y = startY; y < endY; y++) {
+			for (int x = 0; x < width; x++) {
+				int index = y * width + x;
+				float nx = normals[index];
+				float ny = normals[size + index];
+				float nz = normals[2 * size + index];
+				if (nz < 0) {
+					outPixels[index] = 0;
+					continue;
+				}
+				int argb = (fromImage) ? inPixels[index] : constantColor;
+				float diffuseR = ((argb >> 16) & 0xff) * r255;
+				float diffuseG = ((argb >> 8) & 0xff) * r255;
+				float diffuseB = (argb & 0xff) * r255;
+				float r = diffuseR * ambient;
+				float g = diffuseG * ambient;
+				float b = diffuseB * ambient;
+
+				float vx = viewX - x;
+				float vy = viewY - y;
+				float vz = viewZ;
+				float vd = 1.0f / (float) Math.sqrt(vx * vx + vy * vy + vz * vz);
+				vx *= vd;
+				vy *= vd;
+				vz *= vd;
+
+				for (int i = 0; i < lights.count; i++) {
+					float lx = lights.x[i];
+					float ly = lights.y[i];
+					float lz = lights.z[i];
+					if (lights.type[i] != DISTANT) {
+						lx -= x;
+						ly -= y;
+						float ld = 1.0f / (float) Math.sqrt(lx * lx + ly * ly + lz * lz);
+						lx *= ld;
+						ly *= ld;
+						lz *= ld;
+					}
+					float nDotL = lx * nx + ly * ny + lz * nz;
+					if (nDotL < 0.0) {
+						continue;
+					}
+					float dDotL = 0;
+					if (lights.type[i] == SPOT) {
+						dDotL = lx * lights.directionX[i] + ly * lights.directionY[i] + lz * lights.directionZ[i];
+						if (dDotL < lights.cosConeAngle[i]) {
+							continue;
+						}
+					}
+					float rDotV = vx * (nx * 2.0f * nDotL - lx) + vy * (ny * 2.0f * nDotL - ly) + vz * (nz * 2.0f * nDotL - lz);
+					float rv;
+					if (rDotV < 0.0) {
+						rv = 0.0f;
+					}
+					else if (specularTable != null) {
+						float t = Math.min(rDotV, 1.0f) * SPECULAR_TABLE_SIZE;
+						int k = (int) t;
+						rv = specularTable[k] + (t - k) * (specularTable[k + 1] - specularTable[k]);
+					}
+					else {
+						rv = (float) Math.pow(rDotV, highlight);
+					}
+					if (lights.type[i] == SPOT) {
+						dDotL = lights.cosConeAngle[i] / dDotL;
+						float e = dDotL;
+						e *= e;
+						e *= e;
+						e *= e;
+						e = (float) Math.pow(dDotL, lights.focus[i] * 10) * (1 - e);
+						rv *= e;
+						nDotL *= e;
+					}
+					r += ImageMath.clamp(diffuseR * lights.diffuseR[i] * nDotL + lights.specularR[i] * rv, 0, 1);
+					g += ImageMath.clamp(diffuseG * lights.diffuseG[i] * nDotL + lights.specularG[i] * rv, 0, 1);
+					b += ImageMath.clamp(diffuseB * lights.diffuseB[i] * nDotL + lights.specularB[i] * rv, 0, 1);
+				}
+				r = ImageMath.clamp(r, 0, 1);
+				g = ImageMath.clamp(g, 0, 1);
+				b = ImageMath.clamp(b, 0, 1);
+				outPixels[index] = (inPixels[index] & 0xff000000) | ((int) (r * 255) << 16) | ((int) (g * 255) << 8)
+						| (int) (b * 255);
+			}
+		}
+	}
+
 	public Color4f phongShade(Vector3f position, Vector3f viewpoint, Vector3f normal, Color4f diffuseColor, Color4f specularColor, Material material, Light[] lightsArray) {
 		this.shadedColor.set(diffuseColor);
 		this.shadedColor.scale(material.ambientIntensity);
@@ -508,7 +866,7 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		return this.shadedColor;
 	}
 
-	private final int[] rgb = new int[4];
+	private int[] rgb;
 
 	private int getEnvironmentMap(Vector3f normal, int[] inPixels, int width, int height) {
 		if (this.environmentMap != null) {
@@ -555,6 +913,13 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		return 0;
 	}
 
+	@Override
+	public Object clone() {
+		LightFilter filter = (LightFilter) super.clone();
+		filter.initializeScratch();
+		return filter;
+	}
+
 	@Override
 	public String toString() {
 		return "Stylize/Light Effects...";
@@ -973,6 +1338,7 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 		public Object clone() {
 			try {
 				Light copy = (Light) super.clone();
+				copy.realColor = new Color4f(this.realColor);
 				return copy;
 			}
 			catch (CloneNotSupportedException ex) {
@@ -1026,4 +1392,86 @@ public class LightFilter extends WholeImageFilter implements Serializable {
 			return "Spotlight";
 		}
 	}
+
+	// The lights of one filter call as parallel arrays, with the light colour folded into the
+	// diffuse and specular reflectivity of the material, and the direction of distant lights
+	// normalized up front
+	private static final class ShadingLights {
+
+		final int count;
+
+		final int[] type;
+
+		final float[] x;
+
+		final float[] y;
+
+		final float[] z;
+
+		final float[] diffuseR;
+
+		final float[] diffuseG;
+
+		final float[] diffuseB;
+
+		final float[] specularR;
+
+		final float[] specularG;
+
+		final float[] specularB;
+
+		final float[] directionX;
+
+		final float[] directionY;
+
+		final float[] directionZ;
+
+		final float[] cosConeAngle;
+
+		final float[] focus;
+
+		ShadingLights(List<Light> lights, Material material, int width, int height) {
+			this.count = lights.size();
+			this.type = new int[this.count];
+			this.x = new float[this.count];
+			this.y = new float[this.count];
+			this.z = new float[this.count];
+			this.diffuseR = new float[this.count];
+			this.diffuseG = new float[this.count];
+			this.diffuseB = new float[this.count];
+			this.specularR = new float[this.count];
+			this.specularG = new float[this.count];
+			this.specularB = new float[this.count];
+			this.directionX = new float[this.count];
+			this.directionY = new float[this.count];
+			this.directionZ = new float[this.count];
+			this.cosConeAngle = new float[this.count];
+			this.focus = new float[this.count];
+			Color4f specularColor = new Color4f(new Color(material.specularColor));
+			for (int i = 0; i < this.count; i++) {
+				Light light = (Light) lights.get(i).clone();
+				light.prepare(width, height);
+				Vector3f position = new Vector3f(light.position);
+				if (light.type == DISTANT) {
+					position.normalize();
+				}
+				this.type[i] = light.type;
+				this.x[i] = position.x;
+				this.y[i] = position.y;
+				this.z[i] = position.z;
+				this.diffuseR[i] = material.diffuseReflectivity * light.realColor.x;
+				this.diffuseG[i] = material.diffuseReflectivity * light.realColor.y;
+				this.diffuseB[i] = material.diffuseReflectivity * light.realColor.z;
+				this.specularR[i] = specularColor.x * material.specularReflectivity * light.realColor.x;
+				this.specularG[i] = specularColor.y * material.specularReflectivity * light.realColor.y;
+				this.specularB[i] = specularColor.z * material.specularReflectivity * light.realColor.z;
+				this.directionX[i] = light.direction.x;
+				this.directionY[i] = light.direction.y;
+				this.directionZ[i] = light.direction.z;
+				this.cosConeAngle[i] = light.cosConeAngle;
+				this.focus[i] = light.focus;
+			}
+		}
+
+	}
 }
@@ -77,4 +77,13 @@ public class LinearColormap implements Colormap, java.io.Serializable {
 		return ImageMath.mixColors(ImageMath.clamp(v, 0, 1.0f), this.color1, this.color2);
 	}
 
+	@Override
+	public void getColors(float[] v, int[] out, int count) {
+		int color1 = this.color1;
+		int color2 = this.color2;
+		for (int i = 0; i < count; i++) {
+			out[i] = ImageMath.mixColors(ImageMath.clamp(v[i], 0, 1.0f), color1, color2);
+		}
+	}
+
 }
@@ -24,6 +24,8 @@ public class MapFilter extends TransformFilter {
 	private Function2D yMapFunction;
 
 	public MapFilter() {
+		// The map functions are supplied by the caller and may keep scratch state
+		this.canFilterInParallel = false;
 	}
 
 	public void setXMapFunction(Function2D xMapFunction) {
@@ -22,6 +22,8 @@ public class MarbleFilter extends TransformFilter {
 	private float yScale = 4;
 	private float amount = 1;
 	private float turbulence = 1;
+	private byte[] displacements;
+	private Rectangle displacementSpace;
 
 	public MarbleFilter() {
 		setEdgeAction(CLAMP);
@@ -73,9 +75,38 @@ public class MarbleFilter extends TransformFilter {
 		return PixelUtils.clamp((int) (127 * (1 + Noise.noise2(x / this.xScale, y / this.xScale))));
 	}
 
+	// Fill the displacement map for the output pixels, a row of noise at a time
+	private void initializeDisplacements(Rectangle transformedSpace) {
+		int width = transformedSpace.width;
+		this.displacements = new byte[width * transformedSpace.height];
+		this.displacementSpace = transformedSpace;
+		forEachBand(transformedSpace.height, (startY, endY) -> {
+			float[] xs = new float[width];
+			float[] values = new float[width];
+			for (int x = 0; x < width; x++) {
+				xs[x] = (transformedSpace.x + x) / this.xScale;
+			}
+			for (int y = startY; y < endY; y++) {
+				Noise.noise2Row(xs, (transformedSpace.y + y) / this.xScale, values, width);
+				int index = y * width;
+				for (int x = 0; x < width; x++) {
+					this.displacements[index + x] = (byte) PixelUtils.clamp((int) (127 * (1 + values[x])));
+				}
+			}
+		});
+	}
+
 	@Override
 	protected void transformInverse(int x, int y, float[] out) {
-		int displacement = displacementMap(x, y);
+		int displacement;
+		int mapX = x - this.displacementSpace.x;
+		int mapY = y - this.displacementSpace.y;
+		if (mapX >= 0 && mapY >= 0 && mapX < this.displacementSpace.width && mapY < this.displacementSpace.height) {
+			displacement = this.displacements[mapY * this.displacementSpace.width + mapX] & 0xff;
+		}
+		else {
+			displacement = displacementMap(x, y);
+		}
 		out[0] = x + this.sinTable[displacement];
 		out[1] = y + this.cosTable[displacement];
 	}
@@ -83,6 +114,7 @@ public class MarbleFilter extends TransformFilter {
 	@Override
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
 		initialize();
+		initializeDisplacements(transformedSpace);
 		return super.filterPixels(width, height, inPixels, transformedSpace);
 	}
 
@@ -4,6 +4,8 @@
 
 package com.jhlabs.image;
 
+import java.awt.image.BufferedImage;
+
 import com.jhlabs.math.Noise;
 
 /**
@@ -106,60 +108,99 @@ public class MarbleTexFilter extends PointFilter implements java.io.Serializable
 		nx /= this.scale * this.stretch;
 		ny /= this.scale;
 
-		int a = rgb & 0xff000000;
+		float noise = Noise.turbulence2(nx, ny, this.turbulence);
 		if (this.colormap != null) {
-//			float f = Noise.turbulence2(nx, ny, turbulence);
-//			f = 3*turbulenceFactor*f+ny;
-//			f = Math.sin(f*Math.PI);
-			float chaos = this.turbulenceFactor * Noise.turbulence2(nx, ny, this.turbulence);
-//			float f = Math.sin(Math.sin(8.*chaos + 7*nx +3.*ny));
-			float f = 3 * this.turbulenceFactor * chaos + ny;
-			f = (float) Math.sin(f * Math.PI);
-			float perturb = (float) Math.sin(40. * chaos);
-			f += .2 * perturb;
-			return this.colormap.getColor(f);
+			return this.colormap.getColor(level(ny, noise));
 		}
-		else {
-			float red;
-			float grn;
-			float blu;
-			float chaos;
-			float brownLayer;
-			float greenLayer;
-			float perturb;
-			float brownPerturb;
-			float greenPerturb;
-			float grnPerturb;
-			float t;
-
-			chaos = this.turbulenceFactor * Noise.turbulence2(nx, ny, this.turbulence);
-			t = (float) Math.sin(Math.sin(8. * chaos + 7 * nx + 3. * ny));
-
-			final float layer = Math.abs(t);
-			greenLayer = layer;
-			brownLayer = layer;
-
-			perturb = (float) Math.sin(40. * chaos);
-			perturb = Math.abs(perturb);
-
-			brownPerturb = .6f * perturb + 0.3f;
-			greenPerturb = .2f * perturb + 0.8f;
-			grnPerturb = .15f * perturb + 0.85f;
-			grn = 0.5f * (float) Math.pow(Math.abs(brownLayer), 0.3);
-			brownLayer = (float) Math.pow(0.5 * (brownLayer + 1.0), 0.6) * brownPerturb;
-			greenLayer = (float) Math.pow(0.5 * (greenLayer + 1.0), 0.6) * greenPerturb;
-
-			red = (0.5f * brownLayer + 0.35f * greenLayer) * 2.0f * grn;
-			blu = (0.25f * brownLayer + 0.35f * greenLayer) * 2.0f * grn;
-			grn *= Math.max(brownLayer, greenLayer) * grnPerturb;
-			int r = (rgb >> 16) & 0xff;
-			int g = (rgb >> 8) & 0xff;
-			int b = rgb & 0xff;
-			r = PixelUtils.clamp((int) (r * red));
-			g = PixelUtils.clamp((int) (g * grn));
-			b = PixelUtils.clamp((int) (b * blu));
-			return (rgb & 0xff000000) | (r << 16) | (g << 8) | b;
+		return marble(rgb, nx, ny, noise);
+	}
+
+	@Override
+	protected void filterRows(BufferedImage src, BufferedImage dst, int startY, int endY) {
+		if (!TextureRows.inheritsFilterRGB(this, MarbleTexFilter.class)) {
+			super.filterRows(src, dst, startY, endY);
+			return;
 		}
+		boolean colored = this.colormap != null;
+		new TextureRows(this.m00, this.m01, this.m10, this.m11, this.scale * this.stretch, this.scale, this.colormap) {
+			@Override
+			void evaluate(float[] nxs, float[] nys, boolean straight, float[] values, int width) {
+				if (straight) {
+					Noise.turbulence2Row(nxs, nys[0], MarbleTexFilter.this.turbulence, values, width);
+				}
+				else {
+					Noise.turbulence2(nxs, nys, MarbleTexFilter.this.turbulence, values, width);
+				}
+			}
+
+			// Without a colormap the marble layers are tinted from the turbulence itself
+			@Override
+			float level(float nx, float ny, float noise) {
+				return colored ? MarbleTexFilter.this.level(ny, noise) : noise;
+			}
+
+			@Override
+			int shade(int rgb, float nx, float ny, float level, int color) {
+				return colored ? color : marble(rgb, nx, ny, level);
+			}
+		}.filter(src, dst, startY, endY);
+	}
+
+	// The colormap level for the turbulence at a point
+	private float level(float ny, float noise) {
+//		float f = Noise.turbulence2(nx, ny, turbulence);
+//		f = 3*turbulenceFactor*f+ny;
+//		f = Math.sin(f*Math.PI);
+		float chaos = this.turbulenceFactor * noise;
+//		float f = Math.sin(Math.sin(8.*chaos + 7*nx +3.*ny));
+		float f = 3 * this.turbulenceFactor * chaos + ny;
+		f = (float) Math.sin(f * Math.PI);
+		float perturb = (float) Math.sin(40. * chaos);
+		f += .2 * perturb;
+		return f;
+	}
+
+	// Tint a pixel with the brown and green marble layers for the turbulence at a point
+	private int marble(int rgb, float nx, float ny, float noise) {
+		float red;
+		float grn;
+		float blu;
+		float chaos;
+		float brownLayer;
+		float greenLayer;
+		float perturb;
+		float brownPerturb;
+		float greenPerturb;
+		float grnPerturb;
+		float t;
+
+		chaos = this.turbulenceFactor * noise;
+		t = (float) Math.sin(Math.sin(8. * chaos + 7 * nx + 3. * ny));
+
+		final float layer = Math.abs(t);
+		greenLayer = layer;
+		brownLayer = layer;
+
+		perturb = (float) Math.sin(40. * chaos);
+		perturb = Math.abs(perturb);
+
+		brownPerturb = .6f * perturb + 0.3f;
+		greenPerturb = .2f * perturb + 0.8f;
+		grnPerturb = .15f * perturb + 0.85f;
+		grn = 0.5f * (float) Math.pow(Math.abs(brownLayer), 0.3);
+		brownLayer = (float) Math.pow(0.5 * (brownLayer + 1.0), 0.6) * brownPerturb;
+		greenLayer = (float) Math.pow(0.5 * (greenLayer + 1.0), 0.6) * greenPerturb;
+
+		red = (0.5f * brownLayer + 0.35f * greenLayer) * 2.0f * grn;
+		blu = (0.25f * brownLayer + 0.35f * greenLayer) * 2.0f * grn;
+		grn *= Math.max(brownLayer, greenLayer) * grnPerturb;
+		int r = (rgb >> 16) & 0xff;
+		int g = (rgb >> 8) & 0xff;
+		int b = rgb & 0xff;
+		r = PixelUtils.clamp((int) (r * red));
+		g = PixelUtils.clamp((int) (g * grn));
+		b = PixelUtils.clamp((int) (b * blu));
+		return (rgb & 0xff000000) | (r << 16) | (g << 8) | b;
 	}
 
 	@Override
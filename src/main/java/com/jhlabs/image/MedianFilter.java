@@ -7,16 +7,88 @@ package com.jhlabs.image;
 import java.awt.Rectangle;
 
 /**
- * A filter which performs a 3x3 median operation. Useful for removing dust and noise.
+ * A filter which performs a median operation. Useful for removing dust and noise.
+ * <p>
+ * By default the filter picks, within a 3x3 window, the pixel whose color is closest to all
+ * others. For larger windows, the median of each channel, or the mean color of the pixels
+ * with the median luminance, is found with a sliding histogram, so the cost per pixel does not
+ * grow with the radius.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
  */
 public class MedianFilter extends WholeImageFilter {
 
+	/**
+	 * Pick the pixel of the 3x3 window whose color has the smallest summed distance to all
+	 * others. For a radius above 1, {@link #CHANNEL_MEDIAN} is used instead.
+	 */
+	public static final int VECTOR_MEDIAN = 0;
+
+	/**
+	 * Take the median of each channel separately.
+	 */
+	public static final int CHANNEL_MEDIAN = 1;
+
+	/**
+	 * Take the mean color of the pixels whose luminance is the median luminance, which keeps
+	 * colors that occur in the window.
+	 */
+	public static final int LUMINANCE_MEDIAN = 2;
+
+	private int radius = 1;
+
+	private int mode = VECTOR_MEDIAN;
+
 	public MedianFilter() {
 	}
 
+	/**
+	 * Set the radius of the window, which is {@code 2 * radius + 1} pixels wide and high.
+	 * {@link #VECTOR_MEDIAN} only supports a radius of 1; for larger radii that mode takes the
+	 * {@link #CHANNEL_MEDIAN} instead.
+	 * @param radius the radius, at least 1
+	 * @see #getRadius
+	 */
+	public void setRadius(int radius) {
+		if (radius < 1) {
+			throw new IllegalArgumentException("radius must be at least 1");
+		}
+		this.radius = radius;
+	}
+
+	/**
+	 * Get the radius of the window.
+	 * @return the radius
+	 * @see #setRadius
+	 */
+	public int getRadius() {
+		return this.radius;
+	}
+
+	/**
+	 * Set how the median of the colors is taken. {@link #VECTOR_MEDIAN} is only used for a
+	 * radius of 1, and {@link #CHANNEL_MEDIAN} is taken for larger radii.
+	 * @param mode the mode, one of {@link #VECTOR_MEDIAN}, {@link #CHANNEL_MEDIAN} or
+	 * {@link #LUMINANCE_MEDIAN}
+	 * @see #getMode
+	 */
+	public void setMode(int mode) {
+		if (mode != VECTOR_MEDIAN && mode != CHANNEL_MEDIAN && mode != LUMINANCE_MEDIAN) {
+			throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		this.mode = mode;
+	}
+
+	/**
+	 * Get how the median of the colors is taken.
+	 * @return the mode
+	 * @see #setMode
+	 */
+	public int getMode() {
+		return this.mode;
+	}
+
 	private int median(int[] array) {
 		int max;
 		int maxIndex;
@@ -63,6 +135,12 @@ public class MedianFilter extends WholeImageFilter {
 
 	@Override
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
+		if (this.mode == LUMINANCE_MEDIAN) {
+			return luminanceMedian(width, height, inPixels);
+		}
+		if (this.mode == CHANNEL_MEDIAN || this.radius > 1) {
+			return channelMedian(width, height, inPixels);
+		}
 		int index = 0;
 		int[] argb = new int[9];
 		int[] r = new int[9];
@@ -103,6 +181,110 @@ public class MedianFilter extends WholeImageFilter {
 		return outPixels;
 	}
 
+	private int[] channelMedian(int width, int height, int[] inPixels) {
+		int[] outPixels = new int[width * height];
+		SlidingMedianHistogram[] histograms = new SlidingMedianHistogram[4];
+		for (int c = 0; c < 4; c++) {
+			histograms[c] = new SlidingMedianHistogram(this, width, this.radius, 0);
+		}
+		for (int y = -this.radius; y < height; y++) {
+			updateColumns(histograms, null, inPixels, width, height, y, false);
+			if (y < 0) {
+				continue;
+			}
+			int rows = Math.min(height - 1, y + this.radius) - Math.max(0, y - this.radius) + 1;
+			for (SlidingMedianHistogram histogram : histograms) {
+				histogram.startRow();
+			}
+			int index = y * width;
+			for (int x = 0; x < width; x++) {
+				int cols = Math.min(width - 1, x + this.radius) - Math.max(0, x - this.radius) + 1;
+				int rank = (rows * cols - 1) / 2;
+				int argb = 0;
+				for (int c = 0; c < 4; c++) {
+					histograms[c].moveTo(x);
+					argb |= histograms[c].find(rank) << (24 - 8 * c);
+				}
+				outPixels[index++] = argb;
+			}
+		}
+		for (SlidingMedianHistogram histogram : histograms) {
+			histogram.release();
+		}
+		return outPixels;
+	}
+
+	private int[] luminanceMedian(int width, int height, int[] inPixels) {
+		int[] outPixels = new int[width * height];
+		SlidingMedianHistogram[] histograms = { new SlidingMedianHistogram(this, width, this.radius, 4) };
+		int[] payload = new int[4];
+		for (int y = -this.radius; y < height; y++) {
+			updateColumns(histograms, payload, inPixels, width, height, y, true);
+			if (y < 0) {
+				continue;
+			}
+			int rows = Math.min(height - 1, y + this.radius) - Math.max(0, y - this.radius) + 1;
+			SlidingMedianHistogram histogram = histograms[0];
+			histogram.startRow();
+			int index = y * width;
+			for (int x = 0; x < width; x++) {
+				int cols = Math.min(width - 1, x + this.radius) - Math.max(0, x - this.radius) + 1;
+				histogram.moveTo(x);
+				int key = histogram.find((rows * cols - 1) / 2);
+				int count = histogram.getCount(key);
+				int argb = 0;
+				for (int c = 0; c < 4; c++) {
+					argb |= (int) ((histogram.getSum(c, key) + count / 2) / count) << (24 - 8 * c);
+				}
+				outPixels[index++] = argb;
+			}
+		}
+		histograms[0].release();
+		return outPixels;
+	}
+
+	/**
+	 * Update the column histograms for the window centred on row y: the row entering at the
+	 * bottom is added and the row leaving at the top removed.
+	 * @param histograms the histograms, one per channel or a single one keyed by luminance
+	 * @param payload    scratch space for the channels of a pixel, if keyed by luminance
+	 * @param inPixels   the input pixels
+	 * @param width      the width of the image
+	 * @param height     the height of the image
+	 * @param y          the row the window is centred on
+	 * @param luminance  whether the histogram is keyed by luminance
+	 */
+	private void updateColumns(SlidingMedianHistogram[] histograms, int[] payload, int[] inPixels, int width, int height,
+			int y, boolean luminance) {
+		int entering = y + this.radius;
+		int leaving = y - this.radius - 1;
+		if (entering < height) {
+			updateRow(histograms, payload, inPixels, entering * width, width, luminance, 1);
+		}
+		if (leaving >= 0) {
+			updateRow(histograms, payload, inPixels, leaving * width, width, luminance, -1);
+		}
+	}
+
+	private static void updateRow(SlidingMedianHistogram[] histograms, int[] payload, int[] inPixels, int offset,
+			int width, boolean luminance, int sign) {
+		for (int x = 0; x < width; x++) {
+			int argb = inPixels[offset + x];
+			if (luminance) {
+				for (int c = 0; c < 4; c++) {
+					payload[c] = (argb >> (24 - 8 * c)) & 0xff;
+				}
+				int key = (payload[1] * 77 + payload[2] * 151 + payload[3] * 28) >> 8;
+				histograms[0].updateColumn(x, key, payload, sign);
+			}
+			else {
+				for (int c = 0; c < 4; c++) {
+					histograms[c].updateColumn(x, (argb >> (24 - 8 * c)) & 0xff, null, sign);
+				}
+			}
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "Blur/Median";
@@ -12,6 +12,9 @@ import java.awt.Rectangle;
  * (including itself) within a 3x3 grid. The filter is designed to reduce intensity
  * values in the image, effectively darkening regions or removing higher intensity noise.
  * <p>
+ * Larger rectangular or disc shaped neighbourhoods can be set. Each color channel is eroded
+ * with the van Herk/Gil-Werman algorithm, whose cost per pixel does not depend on the radius.
+ * <p>
  * This class extends the {@link WholeImageFilter}, which provides the necessary framework to
  * process an entire image by keeping all pixels in memory.
  *
@@ -22,33 +25,98 @@ public class MinimumFilter extends WholeImageFilter {
 
 	static final long serialVersionUID = 1925266438370819998L;
 
+	/**
+	 * A rectangular neighbourhood of {@code 2 * hRadius + 1} by {@code 2 * vRadius + 1} pixels.
+	 */
+	public static final int RECTANGLE = StructuringElement.RECTANGLE;
+
+	/**
+	 * A disc shaped neighbourhood of the pixels within the radius of the centre.
+	 */
+	public static final int DISC = StructuringElement.DISC;
+
+	private StructuringElement element = StructuringElement.SQUARE;
+
 	public MinimumFilter() {
 	}
 
+	/**
+	 * Set the horizontal radius of the neighbourhood, which is also the radius of a disc.
+	 * @param hRadius the radius, at least 0
+	 * @see #getHRadius
+	 */
+	public void setHRadius(int hRadius) {
+		this.element = this.element.withHRadius(hRadius);
+	}
+
+	/**
+	 * Get the horizontal radius of the neighbourhood.
+	 * @return the radius
+	 * @see #setHRadius
+	 */
+	public int getHRadius() {
+		return this.element.hRadius;
+	}
+
+	/**
+	 * Set the vertical radius of the neighbourhood. This is ignored for a disc.
+	 * @param vRadius the radius, at least 0
+	 * @see #getVRadius
+	 */
+	public void setVRadius(int vRadius) {
+		this.element = this.element.withVRadius(vRadius);
+	}
+
+	/**
+	 * Get the vertical radius of the neighbourhood.
+	 * @return the radius
+	 * @see #setVRadius
+	 */
+	public int getVRadius() {
+		return this.element.vRadius;
+	}
+
+	/**
+	 * Set both the horizontal and vertical radius of the neighbourhood. The default of 1 gives
+	 * a 3x3 neighbourhood. The cost per pixel does not depend on the radius.
+	 * @param radius the radius, at least 0
+	 * @see #getRadius
+	 */
+	public void setRadius(int radius) {
+		this.element = this.element.withRadius(radius);
+	}
+
+	/**
+	 * Get the radius of the neighbourhood, which is its horizontal radius.
+	 * @return the radius
+	 * @see #setRadius
+	 */
+	public int getRadius() {
+		return this.element.hRadius;
+	}
+
+	/**
+	 * Set the shape of the neighbourhood.
+	 * @param shape the shape, one of {@link #RECTANGLE} or {@link #DISC}
+	 * @see #getShape
+	 */
+	public void setShape(int shape) {
+		this.element = this.element.withShape(shape);
+	}
+
+	/**
+	 * Get the shape of the neighbourhood.
+	 * @return the shape
+	 * @see #setShape
+	 */
+	public int getShape() {
+		return this.element.shape;
+	}
+
 	@Override
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
-		int index = 0;
 		int[] outPixels = new int[width * height];
-
-		for (int y = 0; y < height; y++) {
-			for (int x = 0; x < width; x++) {
-				int pixel = 0xffffffff;
-				for (int dy = -1; dy <= 1; dy++) {
-					int iy = y + dy;
-					int ioffset;
-					if (0 <= iy && iy < height) {
-						ioffset = iy * width;
-						for (int dx = -1; dx <= 1; dx++) {
-							int ix = x + dx;
-							if (0 <= ix && ix < width) {
-								pixel = PixelUtils.combinePixels(pixel, inPixels[ioffset + ix], PixelUtils.MIN);
-							}
-						}
-					}
-				}
-				outPixels[index++] = pixel;
-			}
-		}
+		this.element.erodeChannels(this, inPixels, outPixels, width, height, false);
 		return outPixels;
 	}
 
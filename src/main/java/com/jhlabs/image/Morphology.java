@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.Arrays;
+
+/**
+ * Grey-level erosion with flat rectangular and disc structuring elements, after van Herk and
+ * Gil and Werman.
+ * <p>
+ * A rectangle is separable, so it is eroded by a horizontal and a vertical line. Each line is
+ * split into blocks as long as the structuring element, and running minima are taken forwards
+ * and backwards within every block. Any window then covers the tail of one block and the head
+ * of the next, so its minimum is that of two precomputed values. This takes about three
+ * comparisons per pixel and pass, however large the radius. Like {@link GaussianFilter}, each
+ * pass transposes its output, so both passes read along rows.
+ * <p>
+ * A disc is the union of the rectangles spanned by its chords, so it is eroded by each of these
+ * and the results combined. Its cost grows with the number of distinct chord lengths rather
+ * than with its area.
+ * <p>
+ * Values hold three 8-bit lanes, ten bits apart, so that the three color channels of a pixel
+ * are eroded together. The minimum of each lane is found without branches, using the spare bit
+ * above each lane to hold the borrow of a subtraction. Dilation is erosion of the inverted
+ * values, so only erosion is implemented. The structuring element is clipped to the image, as
+ * though the image were surrounded by the largest value.
+ *
+ * @author Gunnar Hillert
+ */
+final class Morphology {
+
+	/**
+	 * The largest value, with all lanes set to 255.
+	 */
+	static final int LANES = 0xff | (0xff << 10) | (0xff << 20);
+
+	private static final int GUARDS = (1 << 8) | (1 << 18) | (1 << 28);
+
+	private Morphology() {
+	}
+
+	/**
+	 * Erode by a rectangle of {@code 2 * hRadius + 1} by {@code 2 * vRadius + 1} pixels, or by a
+	 * disc of radius {@code hRadius}.
+	 * @param op      the filter whose buffer pool provides intermediate buffers
+	 * @param in      the input values
+	 * @param out     the output values, which may be the same array as {@code in}
+	 * @param width   the width of the image
+	 * @param height  the height of the image
+	 * @param hRadius the horizontal radius, which is also the radius of a disc
+	 * @param vRadius the vertical radius, which is ignored for a disc
+	 * @param disc    whether to erode by a disc rather than a rectangle
+	 */
+	static void erode(AbstractBufferedImageOp op, int[] in, int[] out, int width, int height, int hRadius, int vRadius,
+			boolean disc) {
+		int size = width * height;
+		int[] scratch = op.acquireInts(size);
+		if (disc) {
+			int[] rectangle = op.acquireInts(size);
+			int[] result = (in == out) ? op.acquireInts(size) : out;
+			erodeDisc(in, result, scratch, rectangle, width, height, hRadius);
+			if (result != out) {
+				System.arraycopy(result, 0, out, 0, size);
+				op.release(result);
+			}
+			op.release(rectangle);
+		}
+		else {
+			erodeRectangle(in, out, scratch, width, height, hRadius, vRadius);
+		}
+		op.release(scratch);
+	}
+
+	/**
+	 * Erode the color channels of packed pixels, or dilate them if {@code dilate} is set. The
+	 * result is opaque.
+	 * @param op        the filter whose buffer pool provides intermediate buffers
+	 * @param inPixels  the input pixels
+	 * @param outPixels the output pixels
+	 * @param width     the width of the image
+	 * @param height    the height of the image
+	 * @param hRadius   the horizontal radius, which is also the radius of a disc
+	 * @param vRadius   the vertical radius, which is ignored for a disc
+	 * @param disc      whether to use a disc rather than a rectangle
+	 * @param dilate    whether to dilate rather than erode
+	 */
+	static void erodeChannels(AbstractBufferedImageOp op, int[] inPixels, int[] outPixels, int width, int height,
+			int hRadius, int vRadius, boolean disc, boolean dilate) {
+		int size = width * height;
+		int invert = (dilate) ? LANES : 0;
+		for (int i = 0; i < size; i++) {
+			int rgb = inPixels[i];
+			outPixels[i] = (((rgb & 0xff0000) << 4) | ((rgb & 0xff00) << 2) | (rgb & 0xff)) ^ invert;
+		}
+		erode(op, outPixels, outPixels, width, height, hRadius, vRadius, disc);
+		for (int i = 0; i < size; i++) {
+			int value = outPixels[i] ^ invert;
+			outPixels[i] = 0xff000000 | ((value >> 4) & 0xff0000) | ((value >> 2) & 0xff00) | (value & 0xff);
+		}
+	}
+
+	/**
+	 * Return the minimum of each lane of two values.
+	 * @param a the first value
+	 * @param b the second value
+	 * @return the lane-wise minimum
+	 */
+	static int min(int a, int b) {
+		int greater = ((a | GUARDS) - b) & GUARDS;
+		int mask = greater - (greater >>> 8);
+		return a ^ ((a ^ b) & mask);
+	}
+
+	private static void erodeRectangle(int[] in, int[] out, int[] scratch, int width, int height, int hRadius,
+			int vRadius) {
+		erodeAndTranspose(in, scratch, width, height, hRadius);
+		erodeAndTranspose(scratch, out, height, width, vRadius);
+	}
+
+	private static void erodeDisc(int[] in, int[] out, int[] scratch, int[] rectangle, int width, int height,
+			int radius) {
+		int size = width * height;
+		int radius2 = radius * radius;
+		Arrays.fill(out, 0, size, LANES);
+		int halfWidth = radius;
+		for (int dy = 0; dy <= radius; dy++) {
+			int nextHalfWidth = (dy < radius) ? (int) Math.sqrt(radius2 - (dy + 1) * (dy + 1)) : -1;
+			if (nextHalfWidth < halfWidth) {
+				erodeRectangle(in, rectangle, scratch, width, height, halfWidth, dy);
+				for (int i = 0; i < size; i++) {
+					out[i] = min(out[i], rectangle[i]);
+				}
+			}
+			halfWidth = nextHalfWidth;
+		}
+	}
+
+	private static void erodeAndTranspose(int[] in, int[] out, int width, int height, int radius) {
+		int length = 2 * radius + 1;
+		int padded = width + 2 * radius;
+		int[] line = new int[padded];
+		int[] forward = new int[padded];
+		int[] backward = new int[padded];
+		Arrays.fill(line, LANES);
+		for (int y = 0; y < height; y++) {
+			System.arraycopy(in, y * width, line, radius, width);
+			for (int start = 0; start < padded; start += length) {
+				int end = Math.min(start + length, padded);
+				int min = line[start];
+				forward[start] = min;
+				for (int i = start + 1; i < end; i++) {
+					min = min(min, line[i]);
+					forward[i] = min;
+				}
+				min = line[end - 1];
+				backward[end - 1] = min;
+				for (int i = end - 2; i >= start; i--) {
+					min = min(min, line[i]);
+					backward[i] = min;
+				}
+			}
+			int outIndex = y;
+			for (int x = 0; x < width; x++) {
+				out[outIndex] = min(backward[x], forward[x + length - 1]);
+				outIndex += height;
+			}
+		}
+	}
+
+}
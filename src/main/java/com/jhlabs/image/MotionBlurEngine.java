@@ -0,0 +1,542 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.Arrays;
+
+/**
+ * The array engine behind the analytic modes of {@link MotionBlurFilter} and
+ * {@link MotionBlurOp}. A linear blur averages a run of pixels along a digital line in the
+ * direction of motion, read from prefix sums along each line, so its cost does not depend on
+ * the distance. Zoom and spin blurs average along the radius and around the circumference of
+ * a polar resampling of the image, again from prefix sums, and are resampled back. The polar
+ * grid halves its number of angles each time the radius halves, only holds the cells near
+ * the image, and is sampled more coarsely where it would otherwise hold more than two cells
+ * per pixel of the image. A translation combined with zoom or spin becomes, to first order,
+ * a zoom and spin about the point it holds still; if the polar grid about that point would be
+ * larger than the one about the centre, the linear blur is applied first instead, then the
+ * zoom and then the spin.
+ *
+ * @author Gunnar Hillert
+ */
+final class MotionBlurEngine {
+
+	private static final int CHANNELS = 4;
+
+	// The most polar grid cells per pixel of the image, which keeps the grid and its valid
+	// flags within four times the memory of the image however far away the centre lies
+	private static final int MAX_CELLS_PER_PIXEL = 2;
+
+	// The fewest angles of a band of the polar grid
+	private static final int MIN_ANGLES = 8;
+
+	private final AbstractBufferedImageOp op;
+
+	MotionBlurEngine(AbstractBufferedImageOp op) {
+		this.op = op;
+	}
+
+	// Blur each pixel p of in into out by averaging the samples at c + s * R(-rotation * f) *
+	// (p + f * t - c) for f in [0, 1), where s = 1 - zoom * f, c is the centre and t the
+	// translation. Samples outside the image are left out of the average
+	void blur(int[] in, int[] out, int width, int height, float centreX, float centreY, float translateX,
+			float translateY, float zoom, float rotation, float quality) {
+		int size = width * height;
+		long maxCells = (long) MAX_CELLS_PER_PIXEL * size;
+		boolean linear = Math.round(Math.max(Math.abs(translateX), Math.abs(translateY))) > 1;
+		boolean polar = (zoom != 0 || rotation != 0);
+		if (linear && polar) {
+			// To first order the combined motion is a zoom and spin about the point which the
+			// translation holds still. Blur about that point unless its polar grid is larger than
+			// the one about the centre
+			float det = zoom * zoom + rotation * rotation;
+			float fixedX = centreX + (zoom * translateX + rotation * translateY) / det;
+			float fixedY = centreY + (zoom * translateY - rotation * translateX) / det;
+			PolarGrid fixed = PolarGrid.create(width, height, fixedX, fixedY, quality, maxCells);
+			PolarGrid centred = PolarGrid.create(width, height, centreX, centreY, quality, maxCells);
+			if (fixed.cells <= centred.cells) {
+				polar(in, out, width, height, fixedX, fixedY, zoom, rotation, fixed);
+				return;
+			}
+			int[] tmp = this.op.acquireInts(size);
+			linear(in, tmp, width, height, translateX, translateY);
+			polar(tmp, out, width, height, centreX, centreY, zoom, rotation, centred);
+			this.op.release(tmp);
+		}
+		else if (linear) {
+			linear(in, out, width, height, translateX, translateY);
+		}
+		else if (polar) {
+			polar(in, out, width, height, centreX, centreY, zoom, rotation,
+					PolarGrid.create(width, height, centreX, centreY, quality, maxCells));
+		}
+		else {
+			System.arraycopy(in, 0, out, 0, size);
+		}
+	}
+
+	// Average runs along the digital lines v = c + round(u * slope), where u runs along the
+	// major axis of the translation and v along the minor one, both flipped as needed so that
+	// the motion heads towards increasing u and v. Every pixel lies on exactly one line, so the
+	// prefix sums of all lines fit in one image-sized buffer
+	private void linear(int[] in, int[] out, int width, int height, float translateX, float translateY) {
+		boolean horizontal = Math.abs(translateX) >= Math.abs(translateY);
+		float major = (horizontal) ? translateX : translateY;
+		float minor = (horizontal) ? translateY : translateX;
+		int length = (horizontal) ? width : height;
+		int lines = (horizontal) ? height : width;
+		int samples = Math.max(1, Math.round(Math.abs(major)));
+		float slope = Math.abs(minor) / Math.abs(major);
+
+		int[] uOffsets = new int[length];
+		int[] steps = new int[length];
+		for (int u = 0; u < length; u++) {
+			int axis = (major < 0) ? length - 1 - u : u;
+			uOffsets[u] = (horizontal) ? axis : axis * width;
+			steps[u] = Math.round(u * slope);
+		}
+		int[] vOffsets = new int[lines];
+		for (int v = 0; v < lines; v++) {
+			int axis = (minor < 0) ? lines - 1 - v : v;
+			vOffsets[v] = (horizontal) ? axis * width : axis;
+		}
+
+		// firstU[d] is the first u whose step is at least d, so line c enters the image at
+		// firstU[-c] and leaves it at firstU[lines - c]
+		int rise = steps[length - 1];
+		int[] firstU = new int[rise + 2];
+		for (int d = 0, u = 0; d < firstU.length; d++) {
+			while (u < length && steps[u] < d) {
+				u++;
+			}
+			firstU[d] = u;
+		}
+
+		int size = width * height;
+		int[] prefix = this.op.acquireInts(size);
+		Arrays.fill(out, 0, size, 0);
+		for (int shift = 0; shift < 32; shift += 8) {
+			int channelShift = shift;
+			this.op.forEachBand(lines + rise, (startC, endC) -> {
+				for (int c = startC - rise; c < endC - rise; c++) {
+					int end = lineBound(firstU, lines - c);
+					int sum = 0;
+					for (int u = lineBound(firstU, -c); u < end; u++) {
+						int index = uOffsets[u] + vOffsets[c + steps[u]];
+						sum += (in[index] >>> channelShift) & 0xff;
+						prefix[index] = sum;
+					}
+				}
+			});
+			this.op.forEachBand(lines, (startV, endV) -> {
+				for (int v = startV; v < endV; v++) {
+					for (int u = 0; u < length; u++) {
+						int c = v - steps[u];
+						int last = Math.min(u + samples, lineBound(firstU, lines - c)) - 1;
+						int sum = prefix[uOffsets[last] + vOffsets[c + steps[last]]];
+						if (u > lineBound(firstU, -c)) {
+							sum -= prefix[uOffsets[u - 1] + vOffsets[c + steps[u - 1]]];
+						}
+						out[uOffsets[u] + vOffsets[v]] |= (sum / (last - u + 1)) << channelShift;
+					}
+				}
+			});
+		}
+		this.op.release(prefix);
+	}
+
+	private static int lineBound(int[] firstU, int d) {
+		return firstU[Math.min(Math.max(d, 0), firstU.length - 1)];
+	}
+
+	// Resample the image onto a polar grid around the centre, laid out for it with quality
+	// samples per pixel of radius and of circumference at the outer radius of each band, box
+	// blur the grid along the radius for the zoom and around the circle for the spin, and
+	// resample it back
+	private void polar(int[] in, int[] out, int width, int height, float centreX, float centreY, float zoom,
+			float rotation, PolarGrid polar) {
+		int radii = polar.radii;
+		float radiusStep = polar.radiusStep;
+		int[] grid = this.op.acquireInts(polar.cells);
+		int[] valid = this.op.acquireInts(polar.cells);
+
+		for (int band = 0; band < polar.bands; band++) {
+			int b = band;
+			float angleStep = ImageMath.TWO_PI / polar.angles[b];
+			this.op.forEachBand(polar.angles[b], (startA, endA) -> {
+				int[] corners = new int[4];
+				for (int a = startA; a < endA; a++) {
+					int ray = polar.rayBase[b] + a;
+					float cos = (float) Math.cos(a * angleStep);
+					float sin = (float) Math.sin(a * angleStep);
+					for (int r = polar.lo[ray]; r < polar.hi[ray]; r++) {
+						int index = polar.offsets[ray] + r - polar.lo[ray];
+						float x = centreX + r * radiusStep * cos;
+						float y = centreY + r * radiusStep * sin;
+						if (x < 0 || y < 0 || x > width - 1 || y > height - 1) {
+							grid[index] = 0;
+							valid[index] = 0;
+							continue;
+						}
+						int ix = Math.min((int) x, width - 1);
+						int iy = Math.min((int) y, height - 1);
+						int ix1 = Math.min(ix + 1, width - 1);
+						int iy1 = Math.min(iy + 1, height - 1);
+						corners[0] = in[iy * width + ix];
+						corners[1] = in[iy * width + ix1];
+						corners[2] = in[iy1 * width + ix];
+						corners[3] = in[iy1 * width + ix1];
+						grid[index] = ImageMath.bilinearInterpolate(x - ix, y - iy, corners);
+						valid[index] = 1;
+					}
+				}
+			});
+		}
+
+		if (zoom != 0) {
+			// A ray reads the cells of the bands it passes on its way in or out, so the bands are
+			// blurred one after the other, each before those whose cells it reads
+			for (int i = 0; i < polar.bands; i++) {
+				int b = (zoom > 0) ? i : polar.bands - 1 - i;
+				this.op.forEachBand(polar.angles[b], (startA, endA) -> {
+					int[] path = new int[radii];
+					int[] sums = new int[(radii + 1) * (CHANNELS + 1)];
+					int[] total = new int[CHANNELS + 1];
+					for (int a = startA; a < endA; a++) {
+						int ray = polar.rayBase[b] + a;
+						if (polar.lo[ray] == polar.hi[ray]) {
+							continue;
+						}
+						int from = (zoom > 0) ? 0 : polar.lo[ray];
+						int to = (zoom > 0) ? polar.hi[ray] : radii;
+						for (int r = from; r < to; r++) {
+							path[r - from] = polar.rayCell(b, a, r);
+						}
+						accumulate(grid, valid, path, to - from, sums);
+						for (int r = polar.lo[ray]; r < polar.hi[ray]; r++) {
+							float reach = r * (1 - zoom);
+							int lo = (zoom > 0) ? Math.max(0, Math.min(r, (int) Math.ceil(reach))) : r;
+							int hi = (zoom > 0) ? r : Math.min(radii - 1, (int) reach);
+							average(sums, lo - from, hi + 1 - from, 0, total, grid, valid, path[r - from]);
+						}
+					}
+				});
+			}
+		}
+
+		if (rotation != 0) {
+			this.op.forEachBand(radii, (startR, endR) -> {
+				int[] row = new int[polar.angles[0]];
+				int[] sums = new int[(polar.angles[0] + 1) * (CHANNELS + 1)];
+				int[] total = new int[CHANNELS + 1];
+				for (int r = startR; r < endR; r++) {
+					int b = polar.bandOf[r];
+					int angles = polar.angles[b];
+					int span = Math.min(angles - 1, Math.round(Math.abs(rotation) * angles / ImageMath.TWO_PI));
+					for (int a = 0; a < angles; a++) {
+						row[a] = polar.cell(b, a, r);
+					}
+					accumulate(grid, valid, row, angles, sums);
+					for (int a = 0; a < angles; a++) {
+						if (row[a] < 0) {
+							continue;
+						}
+						int from = (rotation > 0) ? a - span : a;
+						int to = from + span + 1;
+						average(sums, from, to, angles, total, grid, valid, row[a]);
+					}
+				}
+			});
+		}
+
+		this.op.forEachBand(height, (startY, endY) -> {
+			float[] weights = new float[4];
+			int[] cells = new int[4];
+			for (int y = startY; y < endY; y++) {
+				for (int x = 0; x < width; x++) {
+					float dx = x - centreX;
+					float dy = y - centreY;
+					float r = (float) Math.sqrt(dx * dx + dy * dy) / radiusStep;
+					float turn = (float) Math.atan2(dy, dx) / ImageMath.TWO_PI;
+					if (turn < 0) {
+						turn += 1;
+					}
+					int r0 = Math.min((int) r, radii - 2);
+					float fr = Math.min(r - r0, 1);
+					float fa0 = polar.locate(r0, turn, cells, 0);
+					float fa1 = polar.locate(r0 + 1, turn, cells, 1);
+					int index = y * width + x;
+					weights[0] = (1 - fr) * (1 - fa0);
+					weights[1] = fr * (1 - fa1);
+					weights[2] = (1 - fr) * fa0;
+					weights[3] = fr * fa1;
+					out[index] = resample(grid, valid, cells, weights, in[index]);
+				}
+			}
+		});
+		this.op.release(grid, valid);
+	}
+
+	// The distance from a point to the furthest corner of the image
+	private static float maxRadius(int width, int height, float centreX, float centreY) {
+		float maxRadius = 0;
+		for (int corner = 0; corner < 4; corner++) {
+			float dx = ((corner & 1) == 0) ? centreX : width - 1 - centreX;
+			float dy = ((corner & 2) == 0) ? centreY : height - 1 - centreY;
+			maxRadius = Math.max(maxRadius, (float) Math.sqrt(dx * dx + dy * dy));
+		}
+		return maxRadius;
+	}
+
+	// Store the prefix sums of the four channels and of the valid flags of the first count
+	// grid cells listed in cells, in sums[i * 5 + channel]. Cells listed as -1 are not held by
+	// the grid and count as invalid
+	private static void accumulate(int[] grid, int[] valid, int[] cells, int count, int[] sums) {
+		Arrays.fill(sums, 0, CHANNELS + 1, 0);
+		for (int i = 0; i < count; i++) {
+			int index = cells[i];
+			int argb = (index < 0) ? 0 : grid[index];
+			int weight = (index < 0) ? 0 : valid[index];
+			int base = i * (CHANNELS + 1);
+			int next = base + CHANNELS + 1;
+			sums[next] = sums[base] + weight * ((argb >>> 24) & 0xff);
+			sums[next + 1] = sums[base + 1] + weight * ((argb >> 16) & 0xff);
+			sums[next + 2] = sums[base + 2] + weight * ((argb >> 8) & 0xff);
+			sums[next + 3] = sums[base + 3] + weight * (argb & 0xff);
+			sums[next + 4] = sums[base + 4] + weight;
+		}
+	}
+
+	// Average the valid cells from (inclusive) to to (exclusive) into a grid cell. If period is
+	// not 0 the cells wrap around, and from may be negative or to beyond the period
+	private static void average(int[] sums, int from, int to, int period, int[] total, int[] grid, int[] valid,
+			int index) {
+		Arrays.fill(total, 0);
+		if (period != 0 && from < 0) {
+			addRange(sums, from + period, period, total);
+			addRange(sums, 0, to, total);
+		}
+		else if (period != 0 && to > period) {
+			addRange(sums, from, period, total);
+			addRange(sums, 0, to - period, total);
+		}
+		else {
+			addRange(sums, from, to, total);
+		}
+		int count = total[CHANNELS];
+		if (count == 0) {
+			valid[index] = 0;
+			return;
+		}
+		grid[index] = ((total[0] / count) << 24) | ((total[1] / count) << 16) | ((total[2] / count) << 8)
+				| (total[3] / count);
+		valid[index] = 1;
+	}
+
+	private static void addRange(int[] sums, int from, int to, int[] total) {
+		for (int channel = 0; channel <= CHANNELS; channel++) {
+			total[channel] += sums[to * (CHANNELS + 1) + channel] - sums[from * (CHANNELS + 1) + channel];
+		}
+	}
+
+	// Bilinearly interpolate the four grid cells around a pixel, leaving out those without
+	// valid samples or not held by the grid, or keep the original pixel if there are none
+	private static int resample(int[] grid, int[] valid, int[] cells, float[] weights, int original) {
+		float a = 0;
+		float r = 0;
+		float g = 0;
+		float b = 0;
+		float total = 0;
+		for (int i = 0; i < 4; i++) {
+			if (cells[i] < 0 || valid[cells[i]] == 0) {
+				continue;
+			}
+			int argb = grid[cells[i]];
+			float weight = weights[i];
+			a += weight * ((argb >>> 24) & 0xff);
+			r += weight * ((argb >> 16) & 0xff);
+			g += weight * ((argb >> 8) & 0xff);
+			b += weight * (argb & 0xff);
+			total += weight;
+		}
+		if (total <= 0) {
+			return original;
+		}
+		return (PixelUtils.clamp((int) (a / total + 0.5f)) << 24) | (PixelUtils.clamp((int) (r / total + 0.5f)) << 16)
+				| (PixelUtils.clamp((int) (g / total + 0.5f)) << 8) | PixelUtils.clamp((int) (b / total + 0.5f));
+	}
+
+	// The layout of a polar grid. The radii are split into bands, each reaching half as far out
+	// as the one outside it and with half as many angles, down to MIN_ANGLES. Each ray of a
+	// band only holds the radii at which it passes over the image, or close enough to it for
+	// the resampling to read them; its cells are stored next to each other, ray after ray
+	private static final class PolarGrid {
+
+		final int radii;
+
+		final float radiusStep;
+
+		final int bands;
+
+		final int[] angles;
+
+		final int[] rayBase;
+
+		final int[] bandOf;
+
+		final int[] lo;
+
+		final int[] hi;
+
+		final int[] offsets;
+
+		final int rays;
+
+		final int cells;
+
+		private PolarGrid(int width, int height, float centreX, float centreY, float quality) {
+			float maxRadius = maxRadius(width, height, centreX, centreY);
+			this.radii = Math.max(2, (int) Math.ceil(maxRadius * quality) + 1);
+			this.radiusStep = Math.max(maxRadius, 1) / (this.radii - 1);
+			int outerAngles = Math.max(MIN_ANGLES, (int) Math.ceil(ImageMath.TWO_PI * maxRadius * quality));
+			int bands = 1;
+			while ((outerAngles >> bands) >= MIN_ANGLES && ((this.radii - 1) >> bands) >= 2) {
+				bands++;
+			}
+			// Round up so that every ray of a band continues a ray of the bands outside it
+			int multiple = 1 << (bands - 1);
+			outerAngles = (outerAngles + multiple - 1) / multiple * multiple;
+
+			this.bands = bands;
+			this.angles = new int[bands];
+			this.rayBase = new int[bands + 1];
+			this.bandOf = new int[this.radii];
+			for (int b = 0; b < bands; b++) {
+				int start = (b == bands - 1) ? 0 : ((this.radii - 1) >> (b + 1)) + 1;
+				int end = (b == 0) ? this.radii : ((this.radii - 1) >> b) + 1;
+				Arrays.fill(this.bandOf, start, end, b);
+				this.angles[b] = outerAngles >> b;
+				this.rayBase[b + 1] = this.rayBase[b] + this.angles[b];
+			}
+			this.rays = this.rayBase[bands];
+
+			// The resampling reads cells up to a cell's diagonal away from a pixel
+			float pad = 2 * this.radiusStep;
+			this.lo = new int[this.rays];
+			this.hi = new int[this.rays];
+			this.offsets = new int[this.rays];
+			long cells = 0;
+			for (int b = 0; b < bands; b++) {
+				int start = (b == bands - 1) ? 0 : ((this.radii - 1) >> (b + 1)) + 1;
+				int end = (b == 0) ? this.radii : ((this.radii - 1) >> b) + 1;
+				float angleStep = ImageMath.TWO_PI / this.angles[b];
+				for (int a = 0; a < this.angles[b]; a++) {
+					int ray = this.rayBase[b] + a;
+					float cos = (float) Math.cos(a * angleStep);
+					float sin = (float) Math.sin(a * angleStep);
+					float near = Math.max(enter(centreX, cos, -pad, width - 1 + pad),
+							enter(centreY, sin, -pad, height - 1 + pad));
+					float far = Math.min(leave(centreX, cos, -pad, width - 1 + pad),
+							leave(centreY, sin, -pad, height - 1 + pad));
+					int first = Math.max(start, (int) Math.ceil(Math.max(near, 0) / this.radiusStep));
+					int last = (far < near) ? first : (int) Math.min(end, Math.floor(far / this.radiusStep) + 1);
+					this.lo[ray] = first;
+					this.hi[ray] = Math.max(first, last);
+					this.offsets[ray] = (int) Math.min(cells, Integer.MAX_VALUE);
+					cells += this.hi[ray] - this.lo[ray];
+				}
+			}
+			this.cells = (int) Math.min(cells, Integer.MAX_VALUE);
+		}
+
+		// Lay out the grid for a quality, lowered as far as needed for the cells, and for the
+		// rays which grow with the distance of the centre, to stay within maxCells
+		static PolarGrid create(int width, int height, float centreX, float centreY, float quality, long maxCells) {
+			// There are about 4 pi maxRadius * quality rays
+			float maxRadius = maxRadius(width, height, centreX, centreY);
+			quality = Math.min(quality, maxCells / (4 * ImageMath.PI * Math.max(maxRadius, 1)));
+			PolarGrid grid = new PolarGrid(width, height, centreX, centreY, quality);
+			while (Math.max(grid.cells, grid.rays) > maxCells && grid.radii > 2) {
+				quality *= 0.95f * (float) Math.sqrt((double) maxCells / Math.max(grid.cells, grid.rays));
+				grid = new PolarGrid(width, height, centreX, centreY, quality);
+			}
+			return grid;
+		}
+
+		// The distance along a ray from origin in direction at which it enters [min, max] on
+		// one axis, or leaves it
+		private static float enter(float origin, float direction, float min, float max) {
+			if (direction == 0) {
+				return (origin < min || origin > max) ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+			}
+			return Math.min((min - origin) / direction, (max - origin) / direction);
+		}
+
+		private static float leave(float origin, float direction, float min, float max) {
+			if (direction == 0) {
+				return (origin < min || origin > max) ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+			}
+			return Math.max((min - origin) / direction, (max - origin) / direction);
+		}
+
+		// The index of the cell at a radius on a ray of a band, or -1 if the ray does not hold it
+		int cell(int band, int angle, int radius) {
+			int ray = this.rayBase[band] + angle;
+			if (radius < this.lo[ray] || radius >= this.hi[ray]) {
+				return -1;
+			}
+			return this.offsets[ray] + radius - this.lo[ray];
+		}
+
+		// The cell at a radius on a ray of a band, which in the bands further in is the nearest
+		// of their fewer rays
+		int rayCell(int band, int angle, int radius) {
+			int b = this.bandOf[radius];
+			if (b > band) {
+				int shift = b - band;
+				angle = ((angle + (1 << (shift - 1))) >> shift) % this.angles[b];
+			}
+			else if (b < band) {
+				angle <<= band - b;
+			}
+			return cell(b, angle, radius);
+		}
+
+		// Store the cells at a radius on either side of a turn, a fraction of the full circle,
+		// in cells[slot] and cells[slot + 2], and return how far the turn lies between them
+		float locate(int radius, float turn, int[] cells, int slot) {
+			int b = this.bandOf[radius];
+			int n = this.angles[b];
+			float a = turn * n;
+			int a0 = Math.min((int) a, n - 1);
+			int a1 = (a0 + 1 == n) ? 0 : a0 + 1;
+			cells[slot] = cell(b, a0, radius);
+			cells[slot + 2] = cell(b, a1, radius);
+			return a - a0;
+		}
+
+	}
+
+}
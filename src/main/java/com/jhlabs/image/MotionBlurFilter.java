@@ -9,7 +9,11 @@ import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 
 /**
- * A filter which produces motion blur the slow, but higher-quality way.
+ * A filter which produces motion blur the slow, but higher-quality way. In {@link #ANALYTIC}
+ * mode the blur is computed from prefix sums instead of sampling every pixel along its path,
+ * so that its cost no longer grows with the distance, zoom and rotation. Zoom and spin are
+ * then blurred on a polar resampling of the image whose density is set by the quality, and
+ * combined blurs are applied one after the other rather than along a single spiral path.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -37,12 +41,25 @@ public class MotionBlurFilter extends AbstractBufferedImageOp {
 	 */
 	public static final int ZOOM = 2;
 
+	/**
+	 * Blur by sampling the path of every pixel.
+	 */
+	public static final int SAMPLED = 0;
+
+	/**
+	 * Blur with box averages read from prefix sums, in constant time per pixel. Edges are
+	 * never wrapped in this mode.
+	 */
+	public static final int ANALYTIC = 1;
+
 	private float angle = 0.0f;
 	private final float falloff = 1.0f;
 	private float distance = 1.0f;
 	private float zoom = 0.0f;
 	private float rotation = 0.0f;
 	private boolean wrapEdges = false;
+	private int mode = SAMPLED;
+	private float quality = 1.0f;
 
 	/**
 	 * A filter that applies a motion blur effect to an image. Motion blur is simulated
@@ -101,6 +118,44 @@ public class MotionBlurFilter extends AbstractBufferedImageOp {
 		return this.wrapEdges;
 	}
 
+	/**
+	 * Set the blur engine.
+	 * @param mode the engine, one of {@link #SAMPLED} or {@link #ANALYTIC}
+	 * @see #getMode
+	 */
+	public void setMode(int mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * Get the blur engine.
+	 * @return the engine
+	 * @see #setMode
+	 */
+	public int getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Set the number of polar samples per pixel used for zoom and spin in {@link #ANALYTIC}
+	 * mode. Lower values are faster but softer. The quality is lowered where the polar grid
+	 * would otherwise hold more than two cells per pixel of the image.
+	 * @param quality the number of samples per pixel
+	 * @see #getQuality
+	 */
+	public void setQuality(float quality) {
+		this.quality = quality;
+	}
+
+	/**
+	 * Get the number of polar samples per pixel used for zoom and spin.
+	 * @return the number of samples per pixel
+	 * @see #setQuality
+	 */
+	public float getQuality() {
+		return this.quality;
+	}
+
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
 		int width = src.getWidth();
@@ -125,6 +180,12 @@ public class MotionBlurFilter extends AbstractBufferedImageOp {
 		float imageRadius = (float) Math.sqrt(cx * cx + cy * cy);
 		float translateX = (float) (this.distance * Math.cos(this.angle));
 		float translateY = (float) (this.distance * -Math.sin(this.angle));
+		if (this.mode == ANALYTIC && !this.wrapEdges) {
+			new MotionBlurEngine(this).blur(inPixels, outPixels, width, height, cx, cy, translateX, translateY,
+					this.zoom, this.rotation, this.quality);
+			setRGB(dst, 0, 0, width, height, outPixels);
+			return dst;
+		}
 		float maxDistance = this.distance + Math.abs(this.rotation * imageRadius) + this.zoom * imageRadius;
 		int repetitions = (int) maxDistance;
 		AffineTransform t = new AffineTransform();
@@ -16,18 +16,33 @@ import java.awt.image.BufferedImage;
  * zoom, and center of transformation.
  * <p>
  * This class extends {@link AbstractBufferedImageOp} and overrides the filter method to
- * implement the motion blur effect using a series of transformations.
+ * implement the motion blur effect using a series of transformations. In {@link #ANALYTIC} mode
+ * the blur is instead computed on pixel arrays from prefix sums, as by {@link MotionBlurFilter},
+ * which avoids the repeated compositing and resampling of the image.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
  */
 public class MotionBlurOp extends AbstractBufferedImageOp {
+
+	/**
+	 * Blur by compositing transformed copies of the image with Java2D.
+	 */
+	public static final int COMPOSITE = 0;
+
+	/**
+	 * Blur with box averages read from prefix sums, in constant time per pixel.
+	 */
+	public static final int ANALYTIC = 1;
+
 	private float centreX = 0.5f;
 	private float centreY = 0.5f;
 	private float distance;
 	private float angle;
 	private float rotation;
 	private float zoom;
+	private int mode = COMPOSITE;
+	private float quality = 1.0f;
 
 	public MotionBlurOp() {
 	}
@@ -96,6 +111,44 @@ public class MotionBlurOp extends AbstractBufferedImageOp {
 		return new Point2D.Float(this.centreX, this.centreY);
 	}
 
+	/**
+	 * Set the blur engine.
+	 * @param mode the engine, one of {@link #COMPOSITE} or {@link #ANALYTIC}
+	 * @see #getMode
+	 */
+	public void setMode(int mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * Get the blur engine.
+	 * @return the engine
+	 * @see #setMode
+	 */
+	public int getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Set the number of polar samples per pixel used for zoom and spin in {@link #ANALYTIC}
+	 * mode. Lower values are faster but softer. The quality is lowered where the polar grid
+	 * would otherwise hold more than two cells per pixel of the image.
+	 * @param quality the number of samples per pixel
+	 * @see #getQuality
+	 */
+	public void setQuality(float quality) {
+		this.quality = quality;
+	}
+
+	/**
+	 * Get the number of polar samples per pixel used for zoom and spin.
+	 * @return the number of samples per pixel
+	 * @see #setQuality
+	 */
+	public float getQuality() {
+		return this.quality;
+	}
+
 	private int log2(int n) {
 		int m = 1;
 		int log2n = 0;
@@ -112,6 +165,9 @@ public class MotionBlurOp extends AbstractBufferedImageOp {
 		if (dst == null) {
 			dst = createCompatibleDestImage(src, null);
 		}
+		if (this.mode == ANALYTIC) {
+			return filterAnalytic(src, dst);
+		}
 		BufferedImage tsrc = src;
 		float cx = (float) src.getWidth() * this.centreX;
 		float cy = (float) src.getHeight() * this.centreY;
@@ -165,6 +221,23 @@ public class MotionBlurOp extends AbstractBufferedImageOp {
 		return dst;
 	}
 
+	// Each composited copy shows the image moved by the translation, so a pixel collects the
+	// samples behind it rather than ahead as in MotionBlurFilter
+	private BufferedImage filterAnalytic(BufferedImage src, BufferedImage dst) {
+		int width = src.getWidth();
+		int height = src.getHeight();
+		int[] inPixels = acquireInts(width * height);
+		int[] outPixels = acquireInts(width * height);
+		getRGB(src, 0, 0, width, height, inPixels);
+		float translateX = (float) (this.distance * Math.cos(this.angle));
+		float translateY = (float) (this.distance * -Math.sin(this.angle));
+		new MotionBlurEngine(this).blur(inPixels, outPixels, width, height, width * this.centreX,
+				height * this.centreY, -translateX, -translateY, this.zoom, this.rotation, this.quality);
+		setRGB(dst, 0, 0, width, height, outPixels);
+		release(inPixels, outPixels);
+		return dst;
+	}
+
 	@Override
 	public String toString() {
 		return "Blur/Motion Blur...";
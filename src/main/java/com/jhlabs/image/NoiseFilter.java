@@ -4,7 +4,7 @@
 
 package com.jhlabs.image;
 
-import java.util.Random;
+import com.jhlabs.math.RandomStreams;
 
 /**
  * A filter which adds random noise into an image.
@@ -31,7 +31,7 @@ public class NoiseFilter extends PointFilter {
 	private int amount = 25;
 	private int distribution = UNIFORM;
 	private boolean monochrome = false;
-	private final Random randomNumbers = new Random();
+	private long seed = 0;
 
 	/**
 	 * Constructs a new NoiseFilter instance with default settings.
@@ -43,6 +43,8 @@ public class NoiseFilter extends PointFilter {
 	 * <p>
 	 * This filter can be applied to images to add random noise, either using
 	 * a Gaussian or uniform distribution, and optionally in monochrome or full color.
+	 * The noise of each pixel is hashed from the seed and the pixel position, so the result is
+	 * reproducible and the image can be filtered in parallel.
 	 */
 	public NoiseFilter() {
 		super();
@@ -72,8 +74,26 @@ public class NoiseFilter extends PointFilter {
 		return this.monochrome;
 	}
 
-	private int random(int x) {
-		x += (int) ((((this.distribution == GAUSSIAN) ? this.randomNumbers.nextGaussian() : ((2 * this.randomNumbers.nextFloat()) - 1))) * this.amount);
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	// Uniform noise takes draw n of the pixel's stream, and Gaussian noise draws 2n and 2n + 1
+	private int noise(long pixelSeed, int draw) {
+		if (this.distribution == GAUSSIAN) {
+			double u = ((RandomStreams.value(pixelSeed, 2 * draw) >>> 11) + 1) * 0x1.0p-53;
+			double v = (RandomStreams.value(pixelSeed, 2 * draw + 1) >>> 11) * 0x1.0p-53;
+			return (int) (Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v) * this.amount);
+		}
+		return (int) ((2 * ((RandomStreams.value(pixelSeed, draw) >>> 40) * 0x1.0p-24f) - 1) * this.amount);
+	}
+
+	private int random(long pixelSeed, int draw, int x) {
+		x += noise(pixelSeed, draw);
 		if (x < 0) {
 			x = 0;
 		}
@@ -89,16 +109,17 @@ public class NoiseFilter extends PointFilter {
 		int r = (rgb >> 16) & 0xff;
 		int g = (rgb >> 8) & 0xff;
 		int b = rgb & 0xff;
+		long pixelSeed = RandomStreams.seed(this.seed, x, y);
 		if (this.monochrome) {
-			int n = (int) ((((this.distribution == GAUSSIAN) ? this.randomNumbers.nextGaussian() : ((2 * this.randomNumbers.nextFloat()) - 1))) * this.amount);
+			int n = noise(pixelSeed, 0);
 			r = PixelUtils.clamp(r + n);
 			g = PixelUtils.clamp(g + n);
 			b = PixelUtils.clamp(b + n);
 		}
 		else {
-			r = random(r);
-			g = random(g);
-			b = random(b);
+			r = random(pixelSeed, 0, r);
+			g = random(pixelSeed, 1, g);
+			b = random(pixelSeed, 2, b);
 		}
 		return a | (r << 16) | (g << 8) | b;
 	}
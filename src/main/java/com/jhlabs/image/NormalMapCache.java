@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe cache of the normal planes derived from a bump source by {@link LightFilter},
+ * so that relighting the same surface skips softening the bumps and working out the normals.
+ * Entries are evicted least recently used first once they hold more than a fixed number of
+ * bytes, counting the normal planes and any copy of the source pixels kept in the key.
+ *
+ * @author Gunnar Hillert
+ */
+final class NormalMapCache {
+
+	private final Map<Key, float[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long maxBytes;
+
+	private long bytes;
+
+	synchronized long getMaxBytes() {
+		return this.maxBytes;
+	}
+
+	synchronized void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+		evict(0);
+	}
+
+	synchronized float[] get(Key key) {
+		return this.entries.get(key);
+	}
+
+	// Store normals unless they alone exceed the budget, evicting older entries to make room.
+	// A key which refers to the pixels of an image is stored with a copy of them
+	synchronized void put(Key key, float[] normals) {
+		key = key.withOwnPixels();
+		long entryBytes = size(key, normals);
+		if (entryBytes > this.maxBytes) {
+			return;
+		}
+		float[] previous = this.entries.remove(key);
+		if (previous != null) {
+			this.bytes -= size(key, previous);
+		}
+		evict(entryBytes);
+		this.entries.put(key, normals);
+		this.bytes += entryBytes;
+	}
+
+	synchronized void clear() {
+		this.entries.clear();
+		this.bytes = 0;
+	}
+
+	// Evict the least recently used entries until another entry of the given size fits
+	private void evict(long entryBytes) {
+		Iterator<Map.Entry<Key, float[]>> iterator = this.entries.entrySet().iterator();
+		while (this.bytes + entryBytes > this.maxBytes && iterator.hasNext()) {
+			Map.Entry<Key, float[]> entry = iterator.next();
+			this.bytes -= size(entry.getKey(), entry.getValue());
+			iterator.remove();
+		}
+	}
+
+	private static long size(Key key, float[] normals) {
+		return 4L * normals.length + ((key.pixels != null) ? 4L * key.pixels.length : 0);
+	}
+
+	/**
+	 * Everything the normals depend on. A bump map or normal evaluator is matched by identity,
+	 * bump pixels taken from the image by value. A key made for a lookup may refer to the pixels
+	 * of the image rather than a copy of them, so that a hit is found by comparing the pixels
+	 * with those of the stored key; the hash code only samples the pixels.
+	 */
+	static final class Key {
+
+		private static final int HASHED_PIXELS = 64;
+
+		private final int width;
+
+		private final int height;
+
+		private final int bumpSource;
+
+		private final float bumpHeight;
+
+		private final float bumpSoftness;
+
+		private final Object source;
+
+		private final int[] pixels;
+
+		private final int[] shape;
+
+		private final int hashCode;
+
+		/**
+		 * Create a key.
+		 * @param width        the width of the image
+		 * @param height       the height of the image
+		 * @param bumpSource   the bump source of the filter
+		 * @param bumpHeight   the bump height of the filter
+		 * @param bumpSoftness the bump softness of the filter
+		 * @param source       the bump function or normal evaluator, or null
+		 * @param pixels       the pixels the bumps are taken from, at least
+		 *                     {@code width * height} of them, or null
+		 * @param shape        the settings of the normal evaluator, or null
+		 */
+		Key(int width, int height, int bumpSource, float bumpHeight, float bumpSoftness, Object source, int[] pixels,
+				int[] shape) {
+			this.width = width;
+			this.height = height;
+			this.bumpSource = bumpSource;
+			this.bumpHeight = bumpHeight;
+			this.bumpSoftness = bumpSoftness;
+			this.source = source;
+			this.pixels = pixels;
+			this.shape = shape;
+			int hash = 31 * width + height;
+			hash = 31 * hash + bumpSource;
+			hash = 31 * hash + Float.hashCode(bumpHeight);
+			hash = 31 * hash + Float.hashCode(bumpSoftness);
+			hash = 31 * hash + System.identityHashCode(source);
+			hash = 31 * hash + hashPixels(pixels, width * height);
+			this.hashCode = 31 * hash + Arrays.hashCode(shape);
+		}
+
+		// A key which holds a copy of its pixels, so that the image may change afterwards
+		Key withOwnPixels() {
+			if (this.pixels == null) {
+				return this;
+			}
+			int[] copy = Arrays.copyOf(this.pixels, this.width * this.height);
+			return new Key(this.width, this.height, this.bumpSource, this.bumpHeight, this.bumpSoftness, this.source,
+					copy, this.shape);
+		}
+
+		private static int hashPixels(int[] pixels, int length) {
+			if (pixels == null) {
+				return 0;
+			}
+			int hash = 1;
+			int step = Math.max(1, length / HASHED_PIXELS);
+			for (int i = 0; i < length; i += step) {
+				hash = 31 * hash + pixels[i];
+			}
+			return hash;
+		}
+
+		private boolean samePixels(Key other) {
+			if (this.pixels == null || other.pixels == null) {
+				return this.pixels == other.pixels;
+			}
+			int length = this.width * this.height;
+			return Arrays.equals(this.pixels, 0, length, other.pixels, 0, length);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key other)) {
+				return false;
+			}
+			return this.width == other.width && this.height == other.height && this.bumpSource == other.bumpSource
+					&& Float.compare(this.bumpHeight, other.bumpHeight) == 0
+					&& Float.compare(this.bumpSoftness, other.bumpSoftness) == 0 && this.source == other.source
+					&& samePixels(other) && Arrays.equals(this.shape, other.shape);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+	}
+
+}
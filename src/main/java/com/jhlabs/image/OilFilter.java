@@ -25,7 +25,10 @@ import java.awt.Rectangle;
  * The filter modifies the whole image by iterating over its
  * pixels, calculating local histograms for RGB color channels
  * based on a neighborhood, and replacing each pixel's value
- * with a predominant aggregated intensity.
+ * with a predominant aggregated intensity. In {@link #SLIDING_WINDOW} mode,
+ * the default, the histograms are updated as the window slides across the
+ * image instead of being rebuilt for every pixel, so the cost per pixel
+ * grows linearly rather than quadratically with the range.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -34,8 +37,20 @@ public class OilFilter extends WholeImageFilter {
 
 	static final long serialVersionUID = 1722613531684653826L;
 
+	/**
+	 * Build the histograms of the whole window for every pixel.
+	 */
+	public static final int FULL_WINDOW = 0;
+
+	/**
+	 * Slide the window back and forth along the rows, adding the pixels entering it and
+	 * removing those leaving it.
+	 */
+	public static final int SLIDING_WINDOW = 1;
+
 	private int range = 3;
 	private int levels = 256;
+	private int mode = SLIDING_WINDOW;
 
 	public OilFilter() {
 	}
@@ -56,8 +71,32 @@ public class OilFilter extends WholeImageFilter {
 		return this.levels;
 	}
 
+	/**
+	 * Set how the histograms of the window are built.
+	 * @param mode the mode, one of {@link #FULL_WINDOW} or {@link #SLIDING_WINDOW}
+	 * @see #getMode
+	 */
+	public void setMode(int mode) {
+		if (mode != FULL_WINDOW && mode != SLIDING_WINDOW) {
+			throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		this.mode = mode;
+	}
+
+	/**
+	 * Get how the histograms of the window are built.
+	 * @return the mode
+	 * @see #setMode
+	 */
+	public int getMode() {
+		return this.mode;
+	}
+
 	@Override
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
+		if (this.mode == SLIDING_WINDOW) {
+			return slidingWindow(width, height, inPixels);
+		}
 		int index = 0;
 		int[] rHistogram = new int[this.levels];
 		int[] gHistogram = new int[this.levels];
@@ -120,17 +159,145 @@ public class OilFilter extends WholeImageFilter {
 				}
 				r = rTotal[r] / rHistogram[r];
 				g = gTotal[g] / gHistogram[g];
-				b = rTotal[b] / bHistogram[b];
+				b = bTotal[b] / bHistogram[b];
 				outPixels[index++] = 0xff000000 | (r << 16) | (g << 8) | b;
 			}
 		}
 		return outPixels;
 	}
 
+	// Each band runs its window along its rows in a serpentine. Each step within a row adds and
+	// removes a single column, and the step down at the end of a row a single row
+	private int[] slidingWindow(int width, int height, int[] inPixels) {
+		int[] outPixels = new int[width * height];
+		int area = (2 * this.range + 1) * (2 * this.range + 1);
+		int[] bins = new int[256];
+		for (int v = 0; v < 256; v++) {
+			bins[v] = v * this.levels / 256;
+		}
+		forEachBand(height, (startY, endY) -> {
+			Histogram[] histograms = new Histogram[3];
+			for (int c = 0; c < 3; c++) {
+				histograms[c] = new Histogram(this.levels, area);
+			}
+			update(histograms, bins, inPixels, width, height, 0, this.range, startY - this.range, startY + this.range,
+					1);
+			int x = 0;
+			for (int y = startY; y < endY; y++) {
+				int step = ((y - startY) % 2 == 0) ? 1 : -1;
+				int top = y - this.range;
+				int bottom = y + this.range;
+				while (true) {
+					int argb = 0xff000000;
+					for (int c = 0; c < 3; c++) {
+						argb |= histograms[c].mean() << (16 - 8 * c);
+					}
+					outPixels[y * width + x] = argb;
+					int next = x + step;
+					if (next < 0 || next >= width) {
+						break;
+					}
+					int leaving = x - step * this.range;
+					int entering = next + step * this.range;
+					update(histograms, bins, inPixels, width, height, leaving, leaving, top, bottom, -1);
+					update(histograms, bins, inPixels, width, height, entering, entering, top, bottom, 1);
+					x = next;
+				}
+				if (y + 1 < endY) {
+					int left = x - this.range;
+					int right = x + this.range;
+					update(histograms, bins, inPixels, width, height, left, right, top, top, -1);
+					update(histograms, bins, inPixels, width, height, left, right, bottom + 1, bottom + 1, 1);
+				}
+			}
+		});
+		return outPixels;
+	}
+
+	// Add (sign 1) or remove (sign -1) the pixels of a rectangle, clipped to the image
+	private static void update(Histogram[] histograms, int[] bins, int[] inPixels, int width, int height, int x0, int x1,
+			int y0, int y1, int sign) {
+		x0 = Math.max(x0, 0);
+		x1 = Math.min(x1, width - 1);
+		y0 = Math.max(y0, 0);
+		y1 = Math.min(y1, height - 1);
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				int rgb = inPixels[y * width + x];
+				for (int c = 0; c < 3; c++) {
+					int v = (rgb >> (16 - 8 * c)) & 0xff;
+					histograms[c].update(bins[v], v, sign);
+				}
+			}
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "Stylize/Oil...";
 	}
 
-}
+	// The histogram of one channel. For every count, a bit set records which bins hold it, so
+	// that the lowest of the most populated bins is read from the words of a single set
+	private static final class Histogram {
+
+		private final int[] counts;
+
+		private final int[] totals;
+
+		private final int words;
+
+		private final long[] binsByCount;
+
+		private int maximum;
 
+		Histogram(int levels, int area) {
+			this.counts = new int[levels];
+			this.totals = new int[levels];
+			this.words = (levels + 63) >> 6;
+			this.binsByCount = new long[(area + 1) * this.words];
+			for (int bin = 0; bin < levels; bin++) {
+				this.binsByCount[bin >> 6] |= 1L << bin;
+			}
+		}
+
+		void update(int bin, int value, int sign) {
+			int count = this.counts[bin];
+			int word = bin >> 6;
+			long bit = 1L << bin;
+			this.binsByCount[count * this.words + word] &= ~bit;
+			this.binsByCount[(count + sign) * this.words + word] |= bit;
+			this.counts[bin] = count + sign;
+			this.totals[bin] += sign * value;
+			if (count + sign > this.maximum) {
+				this.maximum = count + sign;
+			}
+			else if (count == this.maximum && isEmpty(count)) {
+				this.maximum = count - 1;
+			}
+		}
+
+		// The mean value of the first of the most populated bins
+		int mean() {
+			int offset = this.maximum * this.words;
+			int word = 0;
+			while (this.binsByCount[offset + word] == 0) {
+				word++;
+			}
+			int bin = (word << 6) + Long.numberOfTrailingZeros(this.binsByCount[offset + word]);
+			return this.totals[bin] / this.maximum;
+		}
+
+		private boolean isEmpty(int count) {
+			int offset = count * this.words;
+			for (int word = 0; word < this.words; word++) {
+				if (this.binsByCount[offset + word] != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for splitting an image into horizontal bands or rectangular tiles and processing
+ * them concurrently. Bands and tiles are disjoint and always cover the whole image, so filters
+ * whose per-pixel work is independent produce exactly the same output as a serial pass.
+ *
+ * @author Gunnar Hillert
+ */
+public final class ParallelSupport {
+
+	/**
+	 * The default minimum number of rows in a band.
+	 */
+	public static final int DEFAULT_MINIMUM_BAND_HEIGHT = 32;
+
+	/**
+	 * The default width and height of a tile.
+	 */
+	public static final int DEFAULT_TILE_SIZE = 64;
+
+	/**
+	 * The number of bands created per available worker, which gives the pool some
+	 * slack to balance uneven rows.
+	 */
+	private static final int BANDS_PER_WORKER = 4;
+
+	private ParallelSupport() {
+	}
+
+	/**
+	 * Process the rows {@code 0..height-1} in bands. One band is run on the calling thread,
+	 * the others are submitted to the executor, and the method only returns once every band
+	 * has completed. If only a single band results, the task is simply run inline.
+	 * @param executor          the executor to use, or null for the common fork-join pool
+	 * @param height            the number of rows
+	 * @param minimumBandHeight the minimum number of rows in a band
+	 * @param task              the task to run for each band
+	 */
+	public static void forEachBand(Executor executor, int height, int minimumBandHeight, BandTask task) {
+		if (executor == null) {
+			executor = ForkJoinPool.commonPool();
+		}
+		int bands = Math.min(height / Math.max(1, minimumBandHeight), getParallelism(executor) * BANDS_PER_WORKER);
+		if (bands <= 1) {
+			task.run(0, height);
+			return;
+		}
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[bands - 1];
+		for (int i = 0; i < bands - 1; i++) {
+			int startY = bandStart(i, bands, height);
+			int endY = bandStart(i + 1, bands, height);
+			futures[i] = CompletableFuture.runAsync(() -> task.run(startY, endY), executor);
+		}
+		task.run(bandStart(bands - 1, bands, height), height);
+		join(futures);
+	}
+
+	private static void join(CompletableFuture<?>[] futures) {
+		try {
+			CompletableFuture.allOf(futures).join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Process the rectangle {@code 0..width-1, 0..height-1} in tiles. A fixed number of workers,
+	 * one of which is the calling thread, repeatedly claim the next unprocessed tile until none
+	 * are left, so that expensive regions of the image are balanced dynamically. Each worker
+	 * obtains its own task from the factory, which lets the task hold scratch buffers without
+	 * sharing them between threads.
+	 * @param executor    the executor to use, or null for the common fork-join pool
+	 * @param width       the width of the area to process
+	 * @param height      the height of the area to process
+	 * @param tileSize    the width and height of a tile
+	 * @param taskFactory creates the task for each worker
+	 */
+	public static void forEachTile(Executor executor, int width, int height, int tileSize, Supplier<TileTask> taskFactory) {
+		if (executor == null) {
+			executor = ForkJoinPool.commonPool();
+		}
+		int tileSizeToUse = Math.max(1, tileSize);
+		int tilesX = (width + tileSizeToUse - 1) / tileSizeToUse;
+		int tilesY = (height + tileSizeToUse - 1) / tileSizeToUse;
+		int tiles = tilesX * tilesY;
+		int workers = Math.min(tiles, getParallelism(executor));
+		if (workers <= 1) {
+			taskFactory.get().run(0, 0, width, height);
+			return;
+		}
+		AtomicInteger nextTile = new AtomicInteger();
+		Runnable worker = () -> {
+			TileTask task = taskFactory.get();
+			int tile;
+			while ((tile = nextTile.getAndIncrement()) < tiles) {
+				int startX = (tile % tilesX) * tileSizeToUse;
+				int startY = (tile / tilesX) * tileSizeToUse;
+				task.run(startX, startY, Math.min(startX + tileSizeToUse, width), Math.min(startY + tileSizeToUse, height));
+			}
+		};
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[workers - 1];
+		for (int i = 0; i < workers - 1; i++) {
+			futures[i] = CompletableFuture.runAsync(worker, executor);
+		}
+		worker.run();
+		join(futures);
+	}
+
+	/**
+	 * Get the number of workers an executor is expected to run concurrently.
+	 * @param executor the executor
+	 * @return the parallelism of a fork-join pool, otherwise the number of processors
+	 */
+	public static int getParallelism(Executor executor) {
+		if (executor instanceof ForkJoinPool forkJoinPool) {
+			return forkJoinPool.getParallelism();
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	private static int bandStart(int band, int bands, int height) {
+		return (int) ((long) band * height / bands);
+	}
+
+	/**
+	 * A unit of work covering a range of rows.
+	 */
+	@FunctionalInterface
+	public interface BandTask {
+
+		/**
+		 * Process a band of rows.
+		 * @param startY the first row (inclusive)
+		 * @param endY   the last row (exclusive)
+		 */
+		void run(int startY, int endY);
+
+	}
+
+	/**
+	 * A unit of work covering a rectangular tile.
+	 */
+	@FunctionalInterface
+	public interface TileTask {
+
+		/**
+		 * Process a tile.
+		 * @param startX the first column (inclusive)
+		 * @param startY the first row (inclusive)
+		 * @param endX   the last column (exclusive)
+		 * @param endY   the last row (exclusive)
+		 */
+		void run(int startX, int startY, int endX, int endY);
+
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+/**
+ * A source of scratch pixel buffers for filters. Filters acquire their intermediate arrays
+ * from a pool and release them once the result has been written, so that repeated filtering
+ * of large images does not produce a full set of garbage arrays on every call.
+ * <p>
+ * Buffers which a pool may retain are handed out in size classes, so an acquired buffer may be
+ * longer than requested and its contents are undefined; callers must only rely on the first
+ * {@code size} elements and must not use the buffer after releasing it. Pooled buffers must
+ * therefore stay within the filter that acquired them rather than be passed to code which
+ * expects an exact length.
+ *
+ * @author Gunnar Hillert
+ * @see AbstractBufferedImageOp#setBufferPool
+ */
+public interface PixelBufferPool {
+
+	/**
+	 * A pool which retains nothing: every buffer is freshly allocated with exactly the requested
+	 * length and released buffers are left to the garbage collector. This is the default.
+	 */
+	PixelBufferPool NONE = new BoundedPixelBufferPool(0);
+
+	/**
+	 * Acquire an int buffer.
+	 * @param size the minimum length of the buffer
+	 * @return a buffer of at least the given length, with undefined contents
+	 */
+	int[] acquireInts(int size);
+
+	/**
+	 * Acquire a float buffer.
+	 * @param size the minimum length of the buffer
+	 * @return a buffer of at least the given length, with undefined contents
+	 */
+	float[] acquireFloats(int size);
+
+	/**
+	 * Return an int buffer to the pool.
+	 * @param buffer the buffer, which may be null
+	 */
+	void release(int[] buffer);
+
+	/**
+	 * Return a float buffer to the pool.
+	 * @param buffer the buffer, which may be null
+	 */
+	void release(float[] buffer);
+
+	/**
+	 * Get a snapshot of the pool's counters.
+	 * @return the statistics
+	 */
+	Statistics getStatistics();
+
+	/**
+	 * A snapshot of the counters of a {@link PixelBufferPool}.
+	 */
+	final class Statistics {
+
+		private final long acquisitions;
+
+		private final long hits;
+
+		private final long releases;
+
+		private final long discards;
+
+		private final long retainedBytes;
+
+		/**
+		 * Create a snapshot.
+		 * @param acquisitions  the number of buffers acquired
+		 * @param hits          the number of acquisitions served by a retained buffer
+		 * @param releases      the number of buffers released
+		 * @param discards      the number of released buffers which were not retained
+		 * @param retainedBytes the number of bytes currently held by the pool
+		 */
+		public Statistics(long acquisitions, long hits, long releases, long discards, long retainedBytes) {
+			this.acquisitions = acquisitions;
+			this.hits = hits;
+			this.releases = releases;
+			this.discards = discards;
+			this.retainedBytes = retainedBytes;
+		}
+
+		/**
+		 * Get the number of buffers acquired.
+		 * @return the number of acquisitions
+		 */
+		public long getAcquisitions() {
+			return this.acquisitions;
+		}
+
+		/**
+		 * Get the number of acquisitions which were served by a retained buffer.
+		 * @return the number of hits
+		 */
+		public long getHits() {
+			return this.hits;
+		}
+
+		/**
+		 * Get the number of acquisitions which had to allocate a new buffer.
+		 * @return the number of misses
+		 */
+		public long getMisses() {
+			return this.acquisitions - this.hits;
+		}
+
+		/**
+		 * Get the number of buffers released.
+		 * @return the number of releases
+		 */
+		public long getReleases() {
+			return this.releases;
+		}
+
+		/**
+		 * Get the number of released buffers which were not retained, because the pool was
+		 * full or the buffer was not of a pooled size.
+		 * @return the number of discards
+		 */
+		public long getDiscards() {
+			return this.discards;
+		}
+
+		/**
+		 * Get the number of bytes currently held by the pool.
+		 * @return the retained bytes
+		 */
+		public long getRetainedBytes() {
+			return this.retainedBytes;
+		}
+
+		/**
+		 * Get the fraction of acquisitions which were served by a retained buffer.
+		 * @return the hit rate between 0 and 1
+		 */
+		public double getHitRate() {
+			return (this.acquisitions == 0) ? 0 : (double) this.hits / this.acquisitions;
+		}
+
+		@Override
+		public String toString() {
+			return "acquisitions=" + this.acquisitions + ", hits=" + this.hits + ", releases=" + this.releases
+					+ ", discards=" + this.discards + ", retainedBytes=" + this.retainedBytes;
+		}
+	}
+}
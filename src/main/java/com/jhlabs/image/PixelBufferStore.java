@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The retained buffers of a pool, grouped by size class. Size classes are the powers of two
+ * and the midpoints between them, so a buffer is at most a third larger than requested. This
+ * class is not thread-safe; the pools guard or confine it.
+ *
+ * @author Gunnar Hillert
+ */
+final class PixelBufferStore {
+
+	/**
+	 * The smallest size class; smaller requests are rounded up to it.
+	 */
+	static final int MINIMUM_SIZE = 1024;
+
+	/**
+	 * The largest size class; larger requests are allocated exactly and never retained.
+	 */
+	static final int MAXIMUM_SIZE = 1 << 30;
+
+	private final long maxRetainedBytes;
+
+	private final Map<Integer, ArrayDeque<int[]>> intBuffers = new HashMap<>();
+
+	private final Map<Integer, ArrayDeque<float[]>> floatBuffers = new HashMap<>();
+
+	private long retainedBytes;
+
+	PixelBufferStore(long maxRetainedBytes) {
+		this.maxRetainedBytes = maxRetainedBytes;
+	}
+
+	/**
+	 * Round a requested size up to its size class.
+	 * @param size the requested size
+	 * @return the length of buffers of that class, or the size itself if it is too large to pool
+	 */
+	static int sizeClass(int size) {
+		if (size <= MINIMUM_SIZE) {
+			return MINIMUM_SIZE;
+		}
+		if (size > MAXIMUM_SIZE) {
+			return size;
+		}
+		int power = Integer.highestOneBit(size - 1) << 1;
+		int midpoint = (power >> 1) + (power >> 2);
+		return (size <= midpoint) ? midpoint : power;
+	}
+
+	/**
+	 * Get the length of the buffer to hand out for a requested size. Sizes whose class could
+	 * never be retained are allocated exactly.
+	 * @param size the requested size
+	 * @return the length of the buffer
+	 */
+	int lengthFor(int size) {
+		int length = sizeClass(size);
+		return (4L * length <= this.maxRetainedBytes) ? length : size;
+	}
+
+	int[] pollInts(int length) {
+		ArrayDeque<int[]> buffers = this.intBuffers.get(length);
+		int[] buffer = (buffers != null) ? buffers.pollLast() : null;
+		if (buffer != null) {
+			this.retainedBytes -= 4L * length;
+		}
+		return buffer;
+	}
+
+	float[] pollFloats(int length) {
+		ArrayDeque<float[]> buffers = this.floatBuffers.get(length);
+		float[] buffer = (buffers != null) ? buffers.pollLast() : null;
+		if (buffer != null) {
+			this.retainedBytes -= 4L * length;
+		}
+		return buffer;
+	}
+
+	boolean offer(int[] buffer) {
+		if (!canRetain(buffer.length)) {
+			return false;
+		}
+		this.intBuffers.computeIfAbsent(buffer.length, (length) -> new ArrayDeque<>()).addLast(buffer);
+		this.retainedBytes += 4L * buffer.length;
+		return true;
+	}
+
+	boolean offer(float[] buffer) {
+		if (!canRetain(buffer.length)) {
+			return false;
+		}
+		this.floatBuffers.computeIfAbsent(buffer.length, (length) -> new ArrayDeque<>()).addLast(buffer);
+		this.retainedBytes += 4L * buffer.length;
+		return true;
+	}
+
+	long getRetainedBytes() {
+		return this.retainedBytes;
+	}
+
+	private boolean canRetain(int length) {
+		return length <= MAXIMUM_SIZE && sizeClass(length) == length && this.retainedBytes + 4L * length <= this.maxRetainedBytes;
+	}
+}
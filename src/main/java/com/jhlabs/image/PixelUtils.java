@@ -5,7 +5,7 @@
 package com.jhlabs.image;
 
 import java.awt.Color;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Some more useful math functions for image processing.
@@ -175,8 +175,6 @@ public class PixelUtils {
 	 */
 	public static final int ALPHA_TO_GRAY = 20;
 
-	private static final Random randomGenerator = new Random();
-
 	/**
 	 * Clamp a value to the range 0..255.
 	 * @param c the value to clamp
@@ -222,9 +220,6 @@ public class PixelUtils {
 		return Math.abs(r1 - r2) <= tolerance && Math.abs(g1 - g2) <= tolerance && Math.abs(b1 - b2) <= tolerance;
 	}
 
-	private static final float[] hsb1 = new float[3]; //FIXME-not thread safe
-	private static final float[] hsb2 = new float[3]; //FIXME-not thread safe
-
 	// Return rgb1 painted onto rgb2
 	public static int combinePixels(int rgb1, int rgb2, int op) {
 		return combinePixels(rgb1, rgb2, op, 0xff);
@@ -281,7 +276,7 @@ public class PixelUtils {
 				b1 = clamp(b1 * b2 / 255);
 				break;
 			case DISSOLVE:
-				if ((randomGenerator.nextInt() & 0xff) <= a1) {
+				if ((ThreadLocalRandom.current().nextInt() & 0xff) <= a1) {
 					r1 = r2;
 					g1 = g2;
 					b1 = b2;
@@ -296,8 +291,8 @@ public class PixelUtils {
 			case SATURATION:
 			case VALUE:
 			case COLOR:
-				Color.RGBtoHSB(r1, g1, b1, hsb1);
-				Color.RGBtoHSB(r2, g2, b2, hsb2);
+				float[] hsb1 = Color.RGBtoHSB(r1, g1, b1, null);
+				float[] hsb2 = Color.RGBtoHSB(r2, g2, b2, null);
 				switch (op) {
 					case HUE:
 						hsb2[0] = hsb1[0];
@@ -30,12 +30,11 @@ public class PlasmaFilter extends WholeImageFilter implements java.io.Serializab
 	private float turbulence = 1.0f;
 	private float scaling = 0.0f;
 	private Colormap colormap = new LinearColormap();
-	private final Random randomGenerator;
+	private Random randomGenerator;
 	private long seed = 567;
 	private boolean useImageColors = false;
 
 	public PlasmaFilter() {
-		this.randomGenerator = new Random();
 	}
 
 	public void setTurbulence(float turbulence) {
@@ -70,6 +69,14 @@ public class PlasmaFilter extends WholeImageFilter implements java.io.Serializab
 		return this.useImageColors;
 	}
 
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
 	public void randomize() {
 		this.seed = new Date().getTime();
 	}
@@ -184,7 +191,7 @@ public class PlasmaFilter extends WholeImageFilter implements java.io.Serializab
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
 		int[] outPixels = new int[width * height];
 
-		this.randomGenerator.setSeed(this.seed);
+		this.randomGenerator = new Random(this.seed);
 
 		int w1 = width - 1;
 		int h1 = height - 1;
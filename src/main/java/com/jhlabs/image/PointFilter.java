@@ -5,10 +5,16 @@
 package com.jhlabs.image;
 
 import java.awt.image.BufferedImage;
-import java.awt.image.WritableRaster;
+import java.awt.image.IndexColorModel;
 
 /**
  * An abstract superclass for point filters. The interface is the same as the old RGBImageFilter.
+ * <p>
+ * As {@link #filterRGB} only depends on its arguments, point filters can process the image in
+ * parallel bands, see {@link #setParallel}. {@link #setDimensions} is always called once on the
+ * calling thread before any band is filtered, so subclasses may prepare lookup tables there.
+ * Both are called on a {@link #snapshot} of this filter, so the fields written by
+ * {@link #setDimensions} are private to one invocation.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -17,42 +23,67 @@ public abstract class PointFilter extends AbstractBufferedImageOp {
 
 	protected boolean canFilterIndexColorModel = false;
 
+	/**
+	 * Whether {@link #filter} does nothing beyond calling {@link #setDimensions} and then
+	 * {@link #filterRGB} for every pixel, which allows a {@link FilterChain} to fuse this filter
+	 * with neighbouring point filters into a single pass. Subclasses whose filter method does
+	 * additional work clear this flag.
+	 */
+	protected boolean canFuse = true;
+
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
 		int width = src.getWidth();
 		int height = src.getHeight();
-		int type = src.getType();
-		WritableRaster srcRaster = src.getRaster();
 
 		if (dst == null) {
 			dst = createCompatibleDestImage(src, null);
 		}
-		WritableRaster dstRaster = dst.getRaster();
+		BufferedImage target = dst;
 
-		setDimensions(width, height);
+		PointFilter filter = (PointFilter) snapshot();
+		filter.setDimensions(width, height);
 
-		int[] inPixels = new int[width];
-		for (int y = 0; y < height; y++) {
-			// We try to avoid calling getRGB on images as it causes them to become unmanaged, causing horrible performance problems.
-			if (type == BufferedImage.TYPE_INT_ARGB) {
-				srcRaster.getDataElements(0, y, width, 1, inPixels);
-				for (int x = 0; x < width; x++) {
-					inPixels[x] = filterRGB(x, y, inPixels[x]);
-				}
-				dstRaster.setDataElements(0, y, width, 1, inPixels);
-			}
-			else {
-				src.getRGB(0, y, width, 1, inPixels, 0, width);
-				for (int x = 0; x < width; x++) {
-					inPixels[x] = filterRGB(x, y, inPixels[x]);
-				}
-				dst.setRGB(0, y, width, 1, inPixels, 0, width);
-			}
+		// Indexed images share a lookup cache in their color model, so keep them on one thread
+		if (target.getColorModel() instanceof IndexColorModel) {
+			filter.filterRows(src, target, 0, height);
+		}
+		else {
+			filter.forEachBand(height, (startY, endY) -> filter.filterRows(src, target, startY, endY));
 		}
 
 		return dst;
 	}
 
+	/**
+	 * Filter a band of rows from the source into the destination image.
+	 * @param src    the source image
+	 * @param dst    the destination image
+	 * @param startY the first row (inclusive)
+	 * @param endY   the last row (exclusive)
+	 */
+	protected void filterRows(BufferedImage src, BufferedImage dst, int startY, int endY) {
+		int width = src.getWidth();
+
+		int[] inPixels = new int[width];
+		for (int y = startY; y < endY; y++) {
+			RasterAccess.getRGB(src, 0, y, width, 1, inPixels);
+			for (int x = 0; x < width; x++) {
+				inPixels[x] = filterRGB(x, y, inPixels[x]);
+			}
+			RasterAccess.setRGB(dst, 0, y, width, 1, inPixels);
+		}
+	}
+
+	/**
+	 * Called with the size of the image on the calling thread before any pixel is filtered.
+	 * Subclasses should build their lookup tables here rather than lazily from
+	 * {@link #filterRGB}, which may run on several threads. Tables which only depend on the
+	 * configuration are better built on this filter before its {@link #snapshot} is taken, as
+	 * {@link TransferFilter} does, so that they are not rebuilt by every call.
+	 * @param width  the width of the image
+	 * @param height the height of the image
+	 */
 	public void setDimensions(int width, int height) {
 	}
 
@@ -57,6 +57,12 @@ public class PointillizeFilter extends CellularFilter {
 		return this.fuzziness;
 	}
 
+	@Override
+	protected int getFeatureCount() {
+		// Faded edges mix the colors of the two nearest feature points
+		return (this.fadeEdges) ? Math.max(super.getFeatureCount(), 2) : super.getFeatureCount();
+	}
+
 	@Override
 	public int getPixel(int x, int y, int[] inPixels, int width, int height) {
 		float nx = this.m00 * x + this.m01 * y;
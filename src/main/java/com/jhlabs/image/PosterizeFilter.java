@@ -47,11 +47,30 @@ public class PosterizeFilter extends PointFilter implements java.io.Serializable
 		}
 	}
 
+	private synchronized void ensureInitialized() {
+		if (!this.initialized) {
+			initialize();
+			this.initialized = true;
+		}
+	}
+
+	@Override
+	protected AbstractBufferedImageOp snapshot() {
+		// Build the tables on this filter, so that every call made with it shares them
+		ensureInitialized();
+		return super.snapshot();
+	}
+
+	@Override
+	public void setDimensions(int width, int height) {
+		ensureInitialized();
+		super.setDimensions(width, height);
+	}
+
 	@Override
 	public int filterRGB(int x, int y, int rgb) {
 		if (!this.initialized) {
-			this.initialized = true;
-			initialize();
+			ensureInitialized();
 		}
 		int a = rgb & 0xff000000;
 		int r = (rgb >> 16) & 0xff;
@@ -22,7 +22,6 @@ import java.util.Random;
  */
 public class QuiltFilter extends WholeImageFilter implements java.io.Serializable {
 
-	private final Random randomGenerator;
 	private long seed = 567;
 	private int iterations = 25000;
 	private float a = -0.59f;
@@ -33,17 +32,29 @@ public class QuiltFilter extends WholeImageFilter implements java.io.Serializabl
 	private Colormap colormap = new LinearColormap();
 
 	public QuiltFilter() {
-		this.randomGenerator = new Random();
 	}
 
 	public void randomize() {
-		this.seed = new Date().getTime();
-		this.randomGenerator.setSeed(this.seed);
-		this.a = this.randomGenerator.nextFloat();
-		this.b = this.randomGenerator.nextFloat();
-		this.c = this.randomGenerator.nextFloat();
-		this.d = this.randomGenerator.nextFloat();
-		this.k = this.randomGenerator.nextInt() % 20 - 10;
+		randomize(new Date().getTime());
+	}
+
+	/**
+	 * Choose the parameters of the pattern from the given seed, so that a pattern can be
+	 * reproduced.
+	 * @param seed the seed
+	 */
+	public void randomize(long seed) {
+		this.seed = seed;
+		Random randomGenerator = new Random(seed);
+		this.a = randomGenerator.nextFloat();
+		this.b = randomGenerator.nextFloat();
+		this.c = randomGenerator.nextFloat();
+		this.d = randomGenerator.nextFloat();
+		this.k = randomGenerator.nextInt() % 20 - 10;
+	}
+
+	public long getSeed() {
+		return this.seed;
 	}
 
 	public void setIterations(int iterations) {
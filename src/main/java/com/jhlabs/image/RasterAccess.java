@@ -0,0 +1,335 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Fast conversion between the rasters of common image types and packed, non-premultiplied
+ * ARGB pixels. {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)} goes through
+ * the color model one pixel at a time; for the types below the data elements are read from
+ * the raster a row at a time and converted inline instead. The results are identical to
+ * {@code getRGB}/{@code setRGB}, including the rounding used for premultiplied alpha. Other
+ * image types fall back to the {@link BufferedImage} methods.
+ * <ul>
+ * <li>{@code TYPE_INT_ARGB}, {@code TYPE_INT_ARGB_PRE}, {@code TYPE_INT_RGB}, {@code TYPE_INT_BGR}</li>
+ * <li>{@code TYPE_3BYTE_BGR}, {@code TYPE_4BYTE_ABGR}, {@code TYPE_BYTE_GRAY}</li>
+ * </ul>
+ * The rasters are accessed through their data elements rather than by taking the backing
+ * array of the data buffer, so neither image loses hardware acceleration.
+ *
+ * @author Gunnar Hillert
+ */
+public final class RasterAccess {
+
+	private static final ColorModel GRAY_COLOR_MODEL = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY).getColorModel();
+
+	/**
+	 * Lookup table from gray levels to ARGB. The gray color space is linear, so this is not the
+	 * identity mapping.
+	 */
+	private static final int[] GRAY_TO_RGB = new int[256];
+
+	static {
+		byte[] gray = new byte[1];
+		for (int i = 0; i < 256; i++) {
+			gray[0] = (byte) i;
+			GRAY_TO_RGB[i] = GRAY_COLOR_MODEL.getRGB(gray);
+		}
+	}
+
+	private RasterAccess() {
+	}
+
+	/**
+	 * Determine whether pixels of the given image type are converted directly.
+	 * @param type the image type
+	 * @return true if the type is handled without going through the color model
+	 */
+	public static boolean isSupportedType(int type) {
+		switch (type) {
+			case BufferedImage.TYPE_INT_ARGB:
+			case BufferedImage.TYPE_INT_ARGB_PRE:
+			case BufferedImage.TYPE_INT_RGB:
+			case BufferedImage.TYPE_INT_BGR:
+			case BufferedImage.TYPE_3BYTE_BGR:
+			case BufferedImage.TYPE_4BYTE_ABGR:
+			case BufferedImage.TYPE_BYTE_GRAY:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Get ARGB pixels from an image, packed without gaps.
+	 * @param image  the image to read
+	 * @param x      the x coordinate of the upper-left pixel
+	 * @param y      the y coordinate of the upper-left pixel
+	 * @param width  the width of the pixel rectangle
+	 * @param height the height of the pixel rectangle
+	 * @param pixels an array to hold the pixels, or null to allocate one
+	 * @return an array of ARGB pixels
+	 */
+	public static int[] getRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels) {
+		return getRGB(image, x, y, width, height, pixels, 0, width);
+	}
+
+	/**
+	 * Get ARGB pixels from an image. The arguments have the same meaning as for
+	 * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+	 * @param image    the image to read
+	 * @param x        the x coordinate of the upper-left pixel
+	 * @param y        the y coordinate of the upper-left pixel
+	 * @param width    the width of the pixel rectangle
+	 * @param height   the height of the pixel rectangle
+	 * @param pixels   an array to hold the pixels, or null to allocate one
+	 * @param offset   the index of the first pixel in the array
+	 * @param scansize the distance between rows in the array
+	 * @return an array of ARGB pixels
+	 */
+	public static int[] getRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels, int offset, int scansize) {
+		int type = image.getType();
+		if (!isSupportedType(type)) {
+			return image.getRGB(x, y, width, height, pixels, offset, scansize);
+		}
+		if (pixels == null) {
+			pixels = new int[offset + height * scansize];
+		}
+		WritableRaster raster = image.getRaster();
+		if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_BGR) {
+			if (offset == 0 && scansize == width) {
+				raster.getDataElements(x, y, width, height, pixels);
+				intToRGB(type, pixels, 0, pixels, 0, width * height);
+			}
+			else {
+				int[] row = new int[width];
+				for (int j = 0; j < height; j++) {
+					raster.getDataElements(x, y + j, width, 1, row);
+					intToRGB(type, row, 0, pixels, offset + j * scansize, width);
+				}
+			}
+		}
+		else {
+			byte[] row = new byte[width * raster.getNumDataElements()];
+			for (int j = 0; j < height; j++) {
+				raster.getDataElements(x, y + j, width, 1, row);
+				byteToRGB(type, row, pixels, offset + j * scansize, width);
+			}
+		}
+		return pixels;
+	}
+
+	/**
+	 * Set ARGB pixels in an image, packed without gaps.
+	 * @param image  the image to modify
+	 * @param x      the x coordinate of the upper left corner
+	 * @param y      the y coordinate of the upper left corner
+	 * @param width  the width of the rectangle to modify
+	 * @param height the height of the rectangle to modify
+	 * @param pixels the array of ARGB pixels to set
+	 */
+	public static void setRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels) {
+		setRGB(image, x, y, width, height, pixels, 0, width);
+	}
+
+	/**
+	 * Set ARGB pixels in an image. The arguments have the same meaning as for
+	 * {@link BufferedImage#setRGB(int, int, int, int, int[], int, int)}.
+	 * @param image    the image to modify
+	 * @param x        the x coordinate of the upper left corner
+	 * @param y        the y coordinate of the upper left corner
+	 * @param width    the width of the rectangle to modify
+	 * @param height   the height of the rectangle to modify
+	 * @param pixels   the array of ARGB pixels to set
+	 * @param offset   the index of the first pixel in the array
+	 * @param scansize the distance between rows in the array
+	 */
+	public static void setRGB(BufferedImage image, int x, int y, int width, int height, int[] pixels, int offset, int scansize) {
+		int type = image.getType();
+		if (!isSupportedType(type)) {
+			image.setRGB(x, y, width, height, pixels, offset, scansize);
+			return;
+		}
+		WritableRaster raster = image.getRaster();
+		if (type == BufferedImage.TYPE_INT_ARGB && offset == 0 && scansize == width) {
+			raster.setDataElements(x, y, width, height, pixels);
+		}
+		else if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_BGR) {
+			int[] row = new int[width];
+			for (int j = 0; j < height; j++) {
+				rgbToInt(type, pixels, offset + j * scansize, row, width);
+				raster.setDataElements(x, y + j, width, 1, row);
+			}
+		}
+		else {
+			byte[] row = new byte[width * raster.getNumDataElements()];
+			for (int j = 0; j < height; j++) {
+				rgbToByte(type, pixels, offset + j * scansize, row, width);
+				raster.setDataElements(x, y + j, width, 1, row);
+			}
+		}
+	}
+
+	private static void intToRGB(int type, int[] in, int inOffset, int[] out, int outOffset, int count) {
+		switch (type) {
+			case BufferedImage.TYPE_INT_ARGB:
+				if (in != out || inOffset != outOffset) {
+					System.arraycopy(in, inOffset, out, outOffset, count);
+				}
+				break;
+			case BufferedImage.TYPE_INT_RGB:
+				for (int i = 0; i < count; i++) {
+					out[outOffset + i] = 0xff000000 | in[inOffset + i];
+				}
+				break;
+			case BufferedImage.TYPE_INT_BGR:
+				for (int i = 0; i < count; i++) {
+					int p = in[inOffset + i];
+					out[outOffset + i] = 0xff000000 | ((p & 0xff) << 16) | (p & 0xff00) | ((p >> 16) & 0xff);
+				}
+				break;
+			default:
+				for (int i = 0; i < count; i++) {
+					out[outOffset + i] = unpremultiply(in[inOffset + i]);
+				}
+				break;
+		}
+	}
+
+	private static void rgbToInt(int type, int[] in, int inOffset, int[] out, int count) {
+		switch (type) {
+			case BufferedImage.TYPE_INT_ARGB:
+				System.arraycopy(in, inOffset, out, 0, count);
+				break;
+			case BufferedImage.TYPE_INT_RGB:
+				for (int i = 0; i < count; i++) {
+					out[i] = in[inOffset + i] & 0xffffff;
+				}
+				break;
+			case BufferedImage.TYPE_INT_BGR:
+				for (int i = 0; i < count; i++) {
+					int p = in[inOffset + i];
+					out[i] = ((p & 0xff) << 16) | (p & 0xff00) | ((p >> 16) & 0xff);
+				}
+				break;
+			default:
+				for (int i = 0; i < count; i++) {
+					out[i] = premultiply(in[inOffset + i]);
+				}
+				break;
+		}
+	}
+
+	private static void byteToRGB(int type, byte[] in, int[] out, int outOffset, int count) {
+		// Data elements are returned in band order, which is R, G, B (, A) for the interleaved types
+		switch (type) {
+			case BufferedImage.TYPE_3BYTE_BGR:
+				for (int i = 0, j = 0; i < count; i++, j += 3) {
+					out[outOffset + i] = 0xff000000 | ((in[j] & 0xff) << 16) | ((in[j + 1] & 0xff) << 8) | (in[j + 2] & 0xff);
+				}
+				break;
+			case BufferedImage.TYPE_4BYTE_ABGR:
+				for (int i = 0, j = 0; i < count; i++, j += 4) {
+					out[outOffset + i] = ((in[j + 3] & 0xff) << 24) | ((in[j] & 0xff) << 16) | ((in[j + 1] & 0xff) << 8) | (in[j + 2] & 0xff);
+				}
+				break;
+			default:
+				for (int i = 0; i < count; i++) {
+					out[outOffset + i] = GRAY_TO_RGB[in[i] & 0xff];
+				}
+				break;
+		}
+	}
+
+	private static void rgbToByte(int type, int[] in, int inOffset, byte[] out, int count) {
+		switch (type) {
+			case BufferedImage.TYPE_3BYTE_BGR:
+				for (int i = 0, j = 0; i < count; i++, j += 3) {
+					int p = in[inOffset + i];
+					out[j] = (byte) (p >> 16);
+					out[j + 1] = (byte) (p >> 8);
+					out[j + 2] = (byte) p;
+				}
+				break;
+			case BufferedImage.TYPE_4BYTE_ABGR:
+				for (int i = 0, j = 0; i < count; i++, j += 4) {
+					int p = in[inOffset + i];
+					out[j] = (byte) (p >> 16);
+					out[j + 1] = (byte) (p >> 8);
+					out[j + 2] = (byte) p;
+					out[j + 3] = (byte) (p >>> 24);
+				}
+				break;
+			default:
+				// Converting to linear gray depends on all three channels, so defer to the color model
+				byte[] gray = new byte[1];
+				for (int i = 0; i < count; i++) {
+					GRAY_COLOR_MODEL.getDataElements(in[inOffset + i], gray);
+					out[i] = gray[0];
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Convert a premultiplied pixel to non-premultiplied ARGB, rounding exactly as
+	 * {@link java.awt.image.DirectColorModel#getRGB(int)} does.
+	 * @param pixel the premultiplied pixel
+	 * @return the ARGB pixel
+	 */
+	private static int unpremultiply(int pixel) {
+		int a = (pixel >>> 24) & 0xff;
+		if (a == 0) {
+			return 0;
+		}
+		if (a == 255) {
+			return pixel;
+		}
+		float fa = a;
+		int r = (int) ((((pixel >> 16) & 0xff) * 255.0f / fa) + 0.5f);
+		int g = (int) ((((pixel >> 8) & 0xff) * 255.0f / fa) + 0.5f);
+		int b = (int) (((pixel & 0xff) * 255.0f / fa) + 0.5f);
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	/**
+	 * Convert an ARGB pixel to premultiplied form, rounding exactly as
+	 * {@link java.awt.image.DirectColorModel#getDataElements(int, Object)} does.
+	 * @param rgb the ARGB pixel
+	 * @return the premultiplied pixel
+	 */
+	private static int premultiply(int rgb) {
+		int a = (rgb >>> 24) & 0xff;
+		float factor = (1.0f / 255.0f) * (a * (1.0f / 255.0f));
+		int r = (int) ((((rgb >> 16) & 0xff) * factor * 255) + 0.5f);
+		int g = (int) ((((rgb >> 8) & 0xff) * factor * 255) + 0.5f);
+		int b = (int) (((rgb & 0xff) * factor * 255) + 0.5f);
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+/**
+ * The inner loop of the planar convolution engine of {@link ConvolveFilter}: adds a scaled
+ * run of one float plane to another. The Vector API implementation is loaded reflectively, so
+ * the library still runs on runtimes where the incubator module {@code jdk.incubator.vector}
+ * is not enabled.
+ *
+ * @author Gunnar Hillert
+ */
+interface RowAccumulator {
+
+	/**
+	 * The portable implementation.
+	 */
+	RowAccumulator SCALAR = (f, src, srcOffset, dst, dstOffset, length) -> {
+		for (int i = 0; i < length; i++) {
+			dst[dstOffset + i] += f * src[srcOffset + i];
+		}
+	};
+
+	/**
+	 * Compute {@code dst[dstOffset + i] += f * src[srcOffset + i]} for {@code i} in
+	 * {@code 0..length-1}.
+	 * @param f         the factor
+	 * @param src       the source values
+	 * @param srcOffset the index of the first source value
+	 * @param dst       the accumulated values
+	 * @param dstOffset the index of the first accumulated value
+	 * @param length    the number of values
+	 */
+	void accumulate(float f, float[] src, int srcOffset, float[] dst, int dstOffset, int length);
+
+	/**
+	 * Get the Vector API implementation.
+	 * @return the implementation, or null if the Vector API is not available
+	 */
+	static RowAccumulator getVector() {
+		return VectorHolder.VECTOR;
+	}
+
+	/**
+	 * Defers loading the Vector API implementation until it is first asked for.
+	 */
+	final class VectorHolder {
+
+		static final RowAccumulator VECTOR = load();
+
+		private VectorHolder() {
+		}
+
+		private static RowAccumulator load() {
+			if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+				return null;
+			}
+			try {
+				Class<?> type = Class.forName("com.jhlabs.image.VectorRowAccumulator");
+				return (RowAccumulator) type.getDeclaredConstructor().newInstance();
+			}
+			catch (ReflectiveOperationException | LinkageError ex) {
+				return null;
+			}
+		}
+	}
+}
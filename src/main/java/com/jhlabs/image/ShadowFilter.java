@@ -135,7 +135,10 @@ public class ShadowFilter extends AbstractBufferedImageOp {
 		};
 		BufferedImage shadow = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 		new BandCombineOp(extractAlpha, null).filter(src.getRaster(), shadow.getRaster());
-		shadow = new GaussianFilter(this.radius).filter(shadow, null);
+		// The shadow is soft anyway, so let large radii take the recursive engine
+		GaussianFilter blur = new GaussianFilter(this.radius);
+		blur.setMode(GaussianFilter.AUTO);
+		shadow = blur.filter(shadow, null);
 
 		float xOffset = this.distance * (float) Math.cos(this.angle);
 		float yOffset = -this.distance * (float) Math.sin(this.angle);
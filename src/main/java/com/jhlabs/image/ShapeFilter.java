@@ -5,6 +5,7 @@
 package com.jhlabs.image;
 
 import java.awt.Rectangle;
+import java.util.Arrays;
 
 // original code Copyright (C) Jerry Huxtable 1998
 //
@@ -40,12 +41,25 @@ public class ShapeFilter extends WholeImageFilter {
 	 */
 	public static final int SMOOTH = 3;
 
+	/**
+	 * Measure distances with a fast chamfer approximation, which overestimates diagonal
+	 * distances by up to a few percent.
+	 */
+	public static final int CHAMFER = 0;
+
+	/**
+	 * Measure exact Euclidean distances with a {@link DistanceTransform}. As with
+	 * {@link #CHAMFER}, no pixel counts as further in than its alpha or brightness.
+	 */
+	public static final int EUCLIDEAN = 1;
+
 	private float factor = 1.0f;
 	protected Colormap colormap;
 	private boolean useAlpha = true;
 	private boolean invert = false;
 	private boolean merge = false;
 	private int type;
+	private int distanceMode = CHAMFER;
 
 	private static final int one = 41;
 	private static final int sqrt2 = (int) (41 * Math.sqrt(2));
@@ -87,6 +101,27 @@ public class ShapeFilter extends WholeImageFilter {
 		return this.type;
 	}
 
+	/**
+	 * Set how the distances to the edge of the shape are measured.
+	 * @param distanceMode the distance mode, {@link #CHAMFER} or {@link #EUCLIDEAN}
+	 * @see #getDistanceMode
+	 */
+	public void setDistanceMode(int distanceMode) {
+		if (distanceMode != CHAMFER && distanceMode != EUCLIDEAN) {
+			throw new IllegalArgumentException("Unknown distance mode: " + distanceMode);
+		}
+		this.distanceMode = distanceMode;
+	}
+
+	/**
+	 * Get how the distances to the edge of the shape are measured.
+	 * @return the distance mode
+	 * @see #setDistanceMode
+	 */
+	public int getDistanceMode() {
+		return this.distanceMode;
+	}
+
 	public void setInvert(boolean invert) {
 		this.invert = invert;
 	}
@@ -110,6 +145,11 @@ public class ShapeFilter extends WholeImageFilter {
 			float max = gddistanceMap(inPixels, map, width, height);
 			applyMap(map, inPixels, width, height, max);
 		}
+		else if (this.distanceMode == EUCLIDEAN) {
+			int[] map = new int[width * height];
+			int max = euclideanDistanceMap(inPixels, map, width, height);
+			applyMap(map, inPixels, width, height, max);
+		}
 		else {
 			int[] map = new int[width * height];
 			makeMap(inPixels, map, width, height);
@@ -161,6 +201,47 @@ public class ShapeFilter extends WholeImageFilter {
 		return max;
 	}
 
+	// Fill the map with the exact distances to the nearest transparent pixel, in the units of
+	// the chamfer map. As there, the pixels outside the image count as transparent, and no
+	// pixel lies further in than its own alpha or brightness, which seeds the chamfer map
+	private int euclideanDistanceMap(int[] pixels, int[] map, int width, int height) {
+		int paddedWidth = width + 2;
+		int paddedHeight = height + 2;
+		float[] f = new float[paddedWidth * paddedHeight];
+		Arrays.fill(f, Float.POSITIVE_INFINITY);
+		for (int y = 0; y < paddedHeight; y++) {
+			for (int x = 0; x < paddedWidth; x++) {
+				if (x == 0 || y == 0 || x == paddedWidth - 1 || y == paddedHeight - 1) {
+					f[y * paddedWidth + x] = 0;
+				}
+				else {
+					int offset = (x - 1) + (y - 1) * width;
+					int b = this.useAlpha ? (pixels[offset] >> 24) & 0xff : PixelUtils.brightness(pixels[offset]);
+					if (b == 0) {
+						f[y * paddedWidth + x] = 0;
+					}
+				}
+			}
+		}
+
+		forEachBand(paddedHeight, (startY, endY) -> DistanceTransform.transformRows(f, paddedWidth, paddedHeight, startY, endY));
+		forEachBand(paddedWidth, (startX, endX) -> DistanceTransform.transformColumns(f, paddedWidth, paddedHeight, startX, endX));
+
+		int max = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int offset = x + y * width;
+				int b = this.useAlpha ? (pixels[offset] >> 24) & 0xff : PixelUtils.brightness(pixels[offset]);
+				int v = Math.min(Math.round((float) Math.sqrt(f[(y + 1) * paddedWidth + x + 1]) * one), b * one);
+				map[offset] = v;
+				if (v > max) {
+					max = v;
+				}
+			}
+		}
+		return max;
+	}
+
 	private void makeMap(int[] pixels, int[] map, int width, int height) {
 		for (int y = 0; y < height; y++) {
 			for (int x = 0; x < width; x++) {
@@ -171,11 +252,38 @@ public class ShapeFilter extends WholeImageFilter {
 		}
 	}
 
+	// Map a distance to a level in 0..1 with the profile of the shape
+	private float level(int m, float max) {
+		float v = ImageMath.clamp(this.factor * m / max, 0, 1);
+		switch (this.type) {
+			case CIRCLE_UP:
+				v = (ImageMath.circleUp(v));
+				break;
+			case CIRCLE_DOWN:
+				v = (ImageMath.circleDown(v));
+				break;
+			case SMOOTH:
+				v = (ImageMath.smoothStep(0, 1, v));
+				break;
+		}
+		return v;
+	}
+
 	private void applyMap(int[] map, int[] pixels, int width, int height, int max) {
 		if (max == 0) {
 			max = 1;
 		}
+		float[] levels = new float[width];
+		int[] colors = new int[width];
 		for (int y = 0; y < height; y++) {
+			// Work out the levels of the row first, so the colormap can convert them in one batch
+			for (int x = 0; x < width; x++) {
+				int m = map[x + y * width];
+				levels[x] = (m == 0) ? 0 : level(m, max);
+			}
+			if (this.colormap != null) {
+				this.colormap.getColors(levels, colors, width);
+			}
 			for (int x = 0; x < width; x++) {
 				int offset = x + y * width;
 				int m = map[offset];
@@ -194,18 +302,7 @@ public class ShapeFilter extends WholeImageFilter {
 				}
 				else {
 					// get V from map
-					v = ImageMath.clamp(this.factor * m / max, 0, 1);
-					switch (this.type) {
-						case CIRCLE_UP:
-							v = (ImageMath.circleUp(v));
-							break;
-						case CIRCLE_DOWN:
-							v = (ImageMath.circleDown(v));
-							break;
-						case SMOOTH:
-							v = (ImageMath.smoothStep(0, 1, v));
-							break;
-					}
+					v = levels[x];
 
 					if (this.colormap == null) {
 						int shade = (int) (v * 255);
@@ -214,7 +311,7 @@ public class ShapeFilter extends WholeImageFilter {
 						sb = shade;
 					}
 					else {
-						int c = (this.colormap.getColor(v));
+						int c = colors[x];
 
 						sr = (c >> 16) & 0xFF;
 						sg = (c >> 8) & 0xFF;
@@ -606,7 +703,17 @@ public class ShapeFilter extends WholeImageFilter {
 		if (max == 0) {
 			max = 1;
 		}
+		float[] levels = new float[width];
+		int[] colors = new int[width];
 		for (int y = 0; y < height; y++) {
+			// Work out the levels of the row first, so the colormap can convert them in one batch
+			for (int x = 0; x < width; x++) {
+				int m = (int) map[x + y * width];
+				levels[x] = (m == 0) ? 0 : level(m, max);
+			}
+			if (this.colormap != null) {
+				this.colormap.getColors(levels, colors, width);
+			}
 			for (int x = 0; x < width; x++) {
 				int offset = x + y * width;
 				int m = (int) map[offset];
@@ -625,18 +732,7 @@ public class ShapeFilter extends WholeImageFilter {
 				}
 				else {
 					// get V from map
-					v = ImageMath.clamp(this.factor * m / max, 0, 1);
-					switch (this.type) {
-						case CIRCLE_UP:
-							v = (ImageMath.circleUp(v));
-							break;
-						case CIRCLE_DOWN:
-							v = (ImageMath.circleDown(v));
-							break;
-						case SMOOTH:
-							v = (ImageMath.smoothStep(0, 1, v));
-							break;
-					}
+					v = levels[x];
 
 					if (this.colormap == null) {
 						int shade = (int) (v * 255);
@@ -645,7 +741,7 @@ public class ShapeFilter extends WholeImageFilter {
 						sb = shade;
 					}
 					else {
-						int c = (this.colormap.getColor(v));
+						int c = colors[x];
 
 						sr = (c >> 16) & 0xFF;
 						sg = (c >> 8) & 0xFF;
@@ -0,0 +1,262 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.Arrays;
+
+/**
+ * A sliding-window histogram of 8-bit keys which finds the median of a rectangular window in
+ * constant time per pixel, after Perreault and Hébert, "Median Filtering in Constant Time".
+ * <p>
+ * A histogram is kept for every column, covering the rows of the window. Moving the window
+ * down a row updates each column histogram by one pixel. Moving it right adds the histogram of
+ * the entering column and subtracts that of the leaving column. Histograms are split into 16
+ * coarse bins, which are always kept up to date, and 256 fine bins, of which only the segment
+ * holding the median is brought up to date, lazily. Optionally, the sums of further channels
+ * are kept per key, so that the mean of the pixels with the median key can be computed.
+ * <p>
+ * The window is clipped to the image, so near the edges it holds fewer pixels. Column counts
+ * are kept as shorts, which limits the radius to {@link #MAXIMUM_RADIUS}.
+ *
+ * @author Gunnar Hillert
+ */
+final class SlidingMedianHistogram {
+
+	/**
+	 * The largest supported radius.
+	 */
+	static final int MAXIMUM_RADIUS = Short.MAX_VALUE / 2;
+
+	private static final int BINS = 256;
+
+	private static final int COARSE_BINS = 16;
+
+	private static final int SEGMENT = BINS / COARSE_BINS;
+
+	private final int width;
+
+	private final int radius;
+
+	private final int payloads;
+
+	private final short[] columnCoarse;
+
+	private final short[] columnFine;
+
+	private final AbstractBufferedImageOp op;
+
+	private final int[][] columnSums;
+
+	private final int[] coarse = new int[COARSE_BINS];
+
+	private final int[] fine = new int[BINS];
+
+	private final long[][] sums;
+
+	private final int[] segmentStart = new int[COARSE_BINS];
+
+	private final int[] segmentEnd = new int[COARSE_BINS];
+
+	private int windowStart;
+
+	private int windowEnd;
+
+	/**
+	 * Create a histogram. The column sums of the payload channels are drawn from the buffer
+	 * pool of the filter, and must be returned with {@link #release}.
+	 * @param op       the filter whose buffer pool provides the column sums
+	 * @param width    the width of the image
+	 * @param radius   the horizontal and vertical radius of the window
+	 * @param payloads the number of channels whose sums are kept per key
+	 */
+	SlidingMedianHistogram(AbstractBufferedImageOp op, int width, int radius, int payloads) {
+		if (radius > MAXIMUM_RADIUS) {
+			throw new IllegalArgumentException("radius must be at most " + MAXIMUM_RADIUS);
+		}
+		this.op = op;
+		this.width = width;
+		this.radius = radius;
+		this.payloads = payloads;
+		this.columnCoarse = new short[width * COARSE_BINS];
+		this.columnFine = new short[width * BINS];
+		// A column holds at most 2 * MAXIMUM_RADIUS + 1 pixels, so its sums fit in an int
+		this.columnSums = new int[payloads][];
+		for (int p = 0; p < payloads; p++) {
+			this.columnSums[p] = op.acquireInts(width * BINS);
+			Arrays.fill(this.columnSums[p], 0, width * BINS, 0);
+		}
+		this.sums = new long[payloads][BINS];
+	}
+
+	/**
+	 * Return the column sums to the buffer pool. The histogram must not be used afterwards.
+	 */
+	void release() {
+		this.op.release(this.columnSums);
+	}
+
+	/**
+	 * Add a pixel to, or remove it from, the histogram of its column.
+	 * @param x       the column of the pixel
+	 * @param key     the key of the pixel, between 0 and 255
+	 * @param payload the values of the payload channels, or null if there are none
+	 * @param sign    1 to add the pixel, -1 to remove it
+	 */
+	void updateColumn(int x, int key, int[] payload, int sign) {
+		this.columnCoarse[x * COARSE_BINS + key / SEGMENT] += sign;
+		int bin = x * BINS + key;
+		this.columnFine[bin] += sign;
+		for (int p = 0; p < this.payloads; p++) {
+			this.columnSums[p][bin] += sign * payload[p];
+		}
+	}
+
+	/**
+	 * Start a new row, with an empty window at the left edge.
+	 */
+	void startRow() {
+		Arrays.fill(this.coarse, 0);
+		Arrays.fill(this.segmentStart, 0);
+		Arrays.fill(this.segmentEnd, -1);
+		Arrays.fill(this.fine, 0);
+		for (long[] sum : this.sums) {
+			Arrays.fill(sum, 0);
+		}
+		this.windowStart = 0;
+		this.windowEnd = -1;
+	}
+
+	/**
+	 * Move the window so that it is centred on the given column. Columns must be visited from
+	 * left to right.
+	 * @param x the column
+	 */
+	void moveTo(int x) {
+		int end = Math.min(this.width - 1, x + this.radius);
+		int start = Math.max(0, x - this.radius);
+		while (this.windowEnd < end) {
+			this.windowEnd++;
+			addCoarse(this.windowEnd, 1);
+		}
+		while (this.windowStart < start) {
+			addCoarse(this.windowStart, -1);
+			this.windowStart++;
+		}
+	}
+
+	/**
+	 * Find the key of the given rank in the current window.
+	 * @param rank the zero-based rank, less than the number of pixels in the window
+	 * @return the key
+	 */
+	int find(int rank) {
+		int count = 0;
+		int segment = 0;
+		while (count + this.coarse[segment] <= rank) {
+			count += this.coarse[segment];
+			segment++;
+		}
+		updateSegment(segment);
+		int key = segment * SEGMENT;
+		while (count + this.fine[key] <= rank) {
+			count += this.fine[key];
+			key++;
+		}
+		return key;
+	}
+
+	/**
+	 * Get the number of pixels with a key in the current window. The key must have been
+	 * returned by the last call to {@link #find}.
+	 * @param key the key
+	 * @return the number of pixels
+	 */
+	int getCount(int key) {
+		return this.fine[key];
+	}
+
+	/**
+	 * Get the sum of a payload channel over the pixels with a key in the current window. The
+	 * key must have been returned by the last call to {@link #find}.
+	 * @param payload the payload channel
+	 * @param key     the key
+	 * @return the sum
+	 */
+	long getSum(int payload, int key) {
+		return this.sums[payload][key];
+	}
+
+	private void addCoarse(int x, int sign) {
+		int offset = x * COARSE_BINS;
+		for (int i = 0; i < COARSE_BINS; i++) {
+			this.coarse[i] += sign * this.columnCoarse[offset + i];
+		}
+	}
+
+	/**
+	 * Bring the fine bins of a segment up to date with the current window, by adding the
+	 * columns which entered and subtracting those which left since it was last used.
+	 * @param segment the coarse bin
+	 */
+	private void updateSegment(int segment) {
+		if (this.segmentEnd[segment] < this.windowStart) {
+			clearSegment(segment);
+			this.segmentStart[segment] = this.windowStart;
+			this.segmentEnd[segment] = this.windowStart - 1;
+		}
+		while (this.segmentEnd[segment] < this.windowEnd) {
+			this.segmentEnd[segment]++;
+			addFine(this.segmentEnd[segment], segment, 1);
+		}
+		while (this.segmentStart[segment] < this.windowStart) {
+			addFine(this.segmentStart[segment], segment, -1);
+			this.segmentStart[segment]++;
+		}
+	}
+
+	private void clearSegment(int segment) {
+		int from = segment * SEGMENT;
+		Arrays.fill(this.fine, from, from + SEGMENT, 0);
+		for (long[] sum : this.sums) {
+			Arrays.fill(sum, from, from + SEGMENT, 0);
+		}
+	}
+
+	private void addFine(int x, int segment, int sign) {
+		int from = segment * SEGMENT;
+		int offset = x * BINS + from;
+		for (int i = 0; i < SEGMENT; i++) {
+			this.fine[from + i] += sign * this.columnFine[offset + i];
+		}
+		for (int p = 0; p < this.payloads; p++) {
+			long[] sum = this.sums[p];
+			int[] columnSum = this.columnSums[p];
+			for (int i = 0; i < SEGMENT; i++) {
+				sum[from + i] += sign * columnSum[offset + i];
+			}
+		}
+	}
+
+}
@@ -22,8 +22,8 @@ public class SmartBlurFilter extends AbstractBufferedImageOp {
 			dst = createCompatibleDestImage(src, null);
 		}
 
-		int[] inPixels = new int[width * height];
-		int[] outPixels = new int[width * height];
+		int[] inPixels = acquireInts(width * height);
+		int[] outPixels = acquireInts(width * height);
 		getRGB(src, 0, 0, width, height, inPixels);
 
 		Kernel kernel = GaussianFilter.makeKernel(this.hRadius);
@@ -31,6 +31,7 @@ public class SmartBlurFilter extends AbstractBufferedImageOp {
 		thresholdBlur(kernel, outPixels, inPixels, height, width, true);
 
 		setRGB(dst, 0, 0, width, height, inPixels);
+		release(inPixels, outPixels);
 		return dst;
 	}
 
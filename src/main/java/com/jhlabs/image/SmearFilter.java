@@ -43,7 +43,7 @@ public class SmearFilter extends WholeImageFilter implements java.io.Serializabl
 	private float density = 0.5f;
 	private float scatter = 0.0f;
 	private int distance = 8;
-	private final Random randomGenerator;
+	private Random randomGenerator;
 	private long seed = 567;
 	private int shape = LINES;
 	private float mix = 0.5f;
@@ -51,7 +51,6 @@ public class SmearFilter extends WholeImageFilter implements java.io.Serializabl
 	private boolean background = false;
 
 	public SmearFilter() {
-		this.randomGenerator = new Random();
 	}
 
 	public void setShape(int shape) {
@@ -118,6 +117,14 @@ public class SmearFilter extends WholeImageFilter implements java.io.Serializabl
 		return this.background;
 	}
 
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
 	public void randomize() {
 		this.seed = new Date().getTime();
 	}
@@ -130,7 +137,7 @@ public class SmearFilter extends WholeImageFilter implements java.io.Serializabl
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
 		int[] outPixels = new int[width * height];
 
-		this.randomGenerator.setSeed(this.seed);
+		this.randomGenerator = new Random(this.seed);
 		float sinAngle = (float) Math.sin(this.angle);
 		float cosAngle = (float) Math.cos(this.angle);
 
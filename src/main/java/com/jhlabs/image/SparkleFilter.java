@@ -19,9 +19,8 @@ public class SparkleFilter extends PointFilter implements java.io.Serializable {
 	private int height;
 	private int centreX;
 	private int centreY;
-	private final long seed = 371;
+	private long seed = 371;
 	private float[] rayLengths;
-	private final Random randomNumbers = new Random();
 
 	public SparkleFilter() {
 	}
@@ -66,6 +65,14 @@ public class SparkleFilter extends PointFilter implements java.io.Serializable {
 		return this.radius;
 	}
 
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
 	@Override
 	public void setDimensions(int width, int height) {
 		this.width = width;
@@ -73,10 +80,10 @@ public class SparkleFilter extends PointFilter implements java.io.Serializable {
 		this.centreX = width / 2;
 		this.centreY = height / 2;
 		super.setDimensions(width, height);
-		this.randomNumbers.setSeed(this.seed);
+		Random randomNumbers = new Random(this.seed);
 		this.rayLengths = new float[this.rays];
 		for (int i = 0; i < this.rays; i++) {
-			this.rayLengths[i] = this.radius + this.randomness / 100.0f * this.radius * (float) this.randomNumbers.nextGaussian();
+			this.rayLengths[i] = this.radius + this.randomness / 100.0f * this.radius * (float) randomNumbers.nextGaussian();
 		}
 	}
 
@@ -22,6 +22,8 @@ public class StampFilter extends PointFilter {
 
 	public StampFilter(float threshold) {
 		setThreshold(threshold);
+		// The source is blurred before the thresholds are applied
+		this.canFuse = false;
 	}
 
 	public void setRadius(float radius) {
@@ -67,9 +69,14 @@ public class StampFilter extends PointFilter {
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
 		dst = new GaussianFilter((int) this.radius).filter(src, null);
+		return super.filter(dst, dst);
+	}
+
+	@Override
+	public void setDimensions(int width, int height) {
 		this.lowerThreshold3 = 255 * 3 * (this.threshold - this.softness * 0.5f);
 		this.upperThreshold3 = 255 * 3 * (this.threshold + this.softness * 0.5f);
-		return super.filter(dst, dst);
+		super.setDimensions(width, height);
 	}
 
 	@Override
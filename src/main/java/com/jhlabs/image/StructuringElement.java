@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.io.Serializable;
+
+/**
+ * The flat structuring element of the morphology filters: a rectangle of
+ * {@code 2 * hRadius + 1} by {@code 2 * vRadius + 1} pixels, or a disc of the pixels within
+ * {@code hRadius} of the centre.
+ * <p>
+ * {@link MinimumFilter}, {@link MaximumFilter}, {@link ErodeFilter} and {@link DilateFilter}
+ * each hold one and expose it through their radius and shape properties. Instances are
+ * immutable, so a filter and its clones may share one.
+ *
+ * @author Gunnar Hillert
+ */
+final class StructuringElement implements Serializable {
+
+	static final long serialVersionUID = 3203719823568201844L;
+
+	static final int RECTANGLE = 0;
+
+	static final int DISC = 1;
+
+	/**
+	 * The empty element, which leaves every pixel as it is.
+	 */
+	static final StructuringElement NONE = new StructuringElement(0, 0, RECTANGLE);
+
+	/**
+	 * The 3x3 square.
+	 */
+	static final StructuringElement SQUARE = new StructuringElement(1, 1, RECTANGLE);
+
+	final int hRadius;
+
+	final int vRadius;
+
+	final int shape;
+
+	private StructuringElement(int hRadius, int vRadius, int shape) {
+		this.hRadius = hRadius;
+		this.vRadius = vRadius;
+		this.shape = shape;
+	}
+
+	StructuringElement withHRadius(int hRadius) {
+		if (hRadius < 0) {
+			throw new IllegalArgumentException("hRadius must not be negative");
+		}
+		return new StructuringElement(hRadius, this.vRadius, this.shape);
+	}
+
+	StructuringElement withVRadius(int vRadius) {
+		if (vRadius < 0) {
+			throw new IllegalArgumentException("vRadius must not be negative");
+		}
+		return new StructuringElement(this.hRadius, vRadius, this.shape);
+	}
+
+	StructuringElement withRadius(int radius) {
+		return withHRadius(radius).withVRadius(radius);
+	}
+
+	StructuringElement withShape(int shape) {
+		return new StructuringElement(this.hRadius, this.vRadius, shape);
+	}
+
+	boolean isEmpty() {
+		return this.hRadius == 0 && this.vRadius == 0;
+	}
+
+	/**
+	 * Erode values by this element.
+	 * @param op     the filter whose buffer pool provides intermediate buffers
+	 * @param in     the input values
+	 * @param out    the output values, which may be the input
+	 * @param width  the width of the image
+	 * @param height the height of the image
+	 * @see Morphology#erode
+	 */
+	void erode(AbstractBufferedImageOp op, int[] in, int[] out, int width, int height) {
+		Morphology.erode(op, in, out, width, height, this.hRadius, this.vRadius, this.shape == DISC);
+	}
+
+	/**
+	 * Erode the color channels of packed pixels by this element, or dilate them. The result is
+	 * opaque.
+	 * @param op        the filter whose buffer pool provides intermediate buffers
+	 * @param inPixels  the input pixels
+	 * @param outPixels the output pixels
+	 * @param width     the width of the image
+	 * @param height    the height of the image
+	 * @param dilate    whether to dilate rather than erode
+	 * @see Morphology#erodeChannels
+	 */
+	void erodeChannels(AbstractBufferedImageOp op, int[] inPixels, int[] outPixels, int width, int height,
+			boolean dilate) {
+		Morphology.erodeChannels(op, inPixels, outPixels, width, height, this.hRadius, this.vRadius,
+				this.shape == DISC, dilate);
+	}
+
+}
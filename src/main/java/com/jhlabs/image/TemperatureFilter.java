@@ -4,8 +4,6 @@
 
 package com.jhlabs.image;
 
-import java.awt.image.BufferedImage;
-
 public class TemperatureFilter extends PointFilter {
 
 	private float temperature = 6650f;
@@ -27,7 +25,7 @@ public class TemperatureFilter extends PointFilter {
 	}
 
 	@Override
-	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+	public void setDimensions(int width, int height) {
 		this.temperature = Math.max(1000, Math.min(10000, this.temperature));
 
 		int t = 3 * (int) ((this.temperature - 1000) / 100.0f);
@@ -41,7 +39,7 @@ public class TemperatureFilter extends PointFilter {
 		this.gFactor /= m;
 		this.bFactor /= m;
 
-		return super.filter(src, dst);
+		super.setDimensions(width, height);
 	}
 
 	// Black body table from http://www.vendian.org/mncharity/dir3/blackbody/UnstableURLs/bbr_color.html
@@ -4,6 +4,7 @@
 
 package com.jhlabs.image;
 
+import java.awt.image.BufferedImage;
 import java.io.Serial;
 
 import com.jhlabs.math.Function2D;
@@ -127,14 +128,63 @@ public class TextureFilter extends PointFilter implements java.io.Serializable {
 		nx /= this.scale;
 		ny /= this.scale * this.stretch;
 		float f = (this.turbulence == 1.0) ? Noise.noise2(nx, ny) : Noise.turbulence2(nx, ny, this.turbulence);
+		f = level(f);
+		return shade(rgb, f, (this.colormap != null) ? this.colormap.getColor(f) : 0);
+	}
+
+	@Override
+	protected void filterRows(BufferedImage src, BufferedImage dst, int startY, int endY) {
+		if (!TextureRows.inheritsFilterRGB(this, TextureFilter.class)) {
+			super.filterRows(src, dst, startY, endY);
+			return;
+		}
+		new TextureRows(this.m00, this.m01, this.m10, this.m11, this.scale, this.scale * this.stretch, this.colormap) {
+			@Override
+			void evaluate(float[] nxs, float[] nys, boolean straight, float[] values, int width) {
+				float turbulence = TextureFilter.this.turbulence;
+				if (straight) {
+					if (turbulence == 1.0) {
+						Noise.noise2Row(nxs, nys[0], values, width);
+					}
+					else {
+						Noise.turbulence2Row(nxs, nys[0], turbulence, values, width);
+					}
+				}
+				else if (turbulence == 1.0) {
+					Noise.noise2(nxs, nys, values, width);
+				}
+				else {
+					Noise.turbulence2(nxs, nys, turbulence, values, width);
+				}
+			}
+
+			@Override
+			float level(float nx, float ny, float noise) {
+				return TextureFilter.this.level(noise);
+			}
+
+			@Override
+			int shade(int rgb, float nx, float ny, float level, int color) {
+				return TextureFilter.this.shade(rgb, level, color);
+			}
+		}.filter(src, dst, startY, endY);
+	}
+
+	// Map a raw noise value to a level, shared by filterRGB and filterRows
+	private float level(float f) {
 		f = (f * 0.5f) + 0.5f;
 		f = ImageMath.gain(f, this.gain);
 		f = ImageMath.bias(f, this.bias);
 		f *= this.amount;
+		return f;
+	}
+
+	// Color a pixel at a level, using the colormap color when there is a colormap
+	private int shade(int rgb, float f, int color) {
 		int a = rgb & 0xff000000;
 		int v;
 		if (this.colormap != null) {
-			v = this.colormap.getColor(f);
+			v = color;
 		}
 		else {
 			v = PixelUtils.clamp((int) (f * 255));
@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The row loop of the texture filters which evaluate their noise a whole row at a time,
+ * {@link FBMFilter}, {@link TextureFilter} and {@link MarbleTexFilter}. Each row is read, its
+ * points are mapped into noise space, the noise is evaluated for the whole row and mapped to
+ * levels, the levels are looked up in the colormap in one batch, and the pixels are shaded in
+ * place. Applied to a single pixel, the same steps must give what the filter's
+ * {@link PointFilter#filterRGB} gives.
+ *
+ * @author Gunnar Hillert
+ */
+abstract class TextureRows {
+
+	private static final ClassValue<Class<?>> FILTER_RGB_OWNER = new ClassValue<>() {
+		@Override
+		protected Class<?> computeValue(Class<?> type) {
+			try {
+				return type.getMethod("filterRGB", int.class, int.class, int.class).getDeclaringClass();
+			}
+			catch (NoSuchMethodException ex) {
+				return PointFilter.class;
+			}
+		}
+	};
+
+	private final float m00;
+
+	private final float m01;
+
+	private final float m10;
+
+	private final float m11;
+
+	private final float xScale;
+
+	private final float yScale;
+
+	private final Colormap colormap;
+
+	/**
+	 * Construct the row loop for a filter. A point is mapped into noise space by the matrix and
+	 * then divided by the scales.
+	 * @param m00      the x coefficient of x
+	 * @param m01      the y coefficient of x
+	 * @param m10      the x coefficient of y
+	 * @param m11      the y coefficient of y
+	 * @param xScale   the scale of x
+	 * @param yScale   the scale of y
+	 * @param colormap the colormap, or null to shade without colors
+	 */
+	TextureRows(float m00, float m01, float m10, float m11, float xScale, float yScale, Colormap colormap) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.xScale = xScale;
+		this.yScale = yScale;
+		this.colormap = colormap;
+	}
+
+	/**
+	 * Whether a filter may be run through the row loop of the class which declares it. A
+	 * subclass which overrides {@code filterRGB} must have its own pixels, so it is filtered a
+	 * pixel at a time instead.
+	 * @param filter the filter
+	 * @param owner  the class whose row loop is considered
+	 * @return true if the {@code filterRGB} of the filter is the one declared by the owner
+	 */
+	static boolean inheritsFilterRGB(PointFilter filter, Class<? extends PointFilter> owner) {
+		return FILTER_RGB_OWNER.get(filter.getClass()) == owner;
+	}
+
+	/**
+	 * Filter a band of rows from the source into the destination image.
+	 * @param src    the source image
+	 * @param dst    the destination image
+	 * @param startY the first row (inclusive)
+	 * @param endY   the last row (exclusive)
+	 */
+	void filter(BufferedImage src, BufferedImage dst, int startY, int endY) {
+		int width = src.getWidth();
+
+		int[] pixels = new int[width];
+		float[] nxs = new float[width];
+		float[] nys = new float[width];
+		float[] values = new float[width];
+		int[] colors = new int[width];
+		for (int y = startY; y < endY; y++) {
+			RasterAccess.getRGB(src, 0, y, width, 1, pixels);
+			for (int x = 0; x < width; x++) {
+				float nx = this.m00 * x + this.m01 * y;
+				float ny = this.m10 * x + this.m11 * y;
+				nxs[x] = nx / this.xScale;
+				nys[x] = ny / this.yScale;
+			}
+			// Without rotation the row keeps one y in noise space
+			evaluate(nxs, nys, this.m10 == 0, values, width);
+			for (int x = 0; x < width; x++) {
+				values[x] = level(nxs[x], nys[x], values[x]);
+			}
+			if (this.colormap != null) {
+				this.colormap.getColors(values, colors, width);
+			}
+			for (int x = 0; x < width; x++) {
+				pixels[x] = shade(pixels[x], nxs[x], nys[x], values[x], colors[x]);
+			}
+			RasterAccess.setRGB(dst, 0, y, width, 1, pixels);
+		}
+	}
+
+	/**
+	 * Evaluate the noise at a row of points.
+	 * @param nxs      the x coordinates of the points in noise space
+	 * @param nys      the y coordinates of the points in noise space
+	 * @param straight whether all points share the y coordinate {@code nys[0]}
+	 * @param values   receives the noise
+	 * @param width    the number of points
+	 */
+	abstract void evaluate(float[] nxs, float[] nys, boolean straight, float[] values, int width);
+
+	/**
+	 * Map the noise at a point to the level which is looked up in the colormap.
+	 * @param nx    the x coordinate of the point in noise space
+	 * @param ny    the y coordinate of the point in noise space
+	 * @param noise the noise at the point
+	 * @return the level
+	 */
+	abstract float level(float nx, float ny, float noise);
+
+	/**
+	 * Shade a pixel.
+	 * @param rgb   the source pixel
+	 * @param nx    the x coordinate of the point in noise space
+	 * @param ny    the y coordinate of the point in noise space
+	 * @param level the level at the point
+	 * @param color the colormap color for the level, if there is a colormap
+	 * @return the filtered pixel
+	 */
+	abstract int shade(int rgb, float nx, float ny, float level, int color);
+
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link PixelBufferPool} which keeps a separate set of buffers for each thread, so
+ * acquiring and releasing never contend. Each thread retains released buffers up to a fixed
+ * number of bytes. A buffer released on another thread than it was acquired on simply moves
+ * to that thread's set. The statistics are summed over all threads.
+ *
+ * @author Gunnar Hillert
+ */
+public class ThreadLocalPixelBufferPool implements PixelBufferPool {
+
+	private final ThreadLocal<PixelBufferStore> stores;
+
+	private final LongAdder acquisitions = new LongAdder();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder releases = new LongAdder();
+
+	private final LongAdder discards = new LongAdder();
+
+	private final AtomicLong retainedBytes = new AtomicLong();
+
+	/**
+	 * Create a pool.
+	 * @param maxRetainedBytesPerThread the maximum number of bytes held by released buffers on
+	 * each thread
+	 */
+	public ThreadLocalPixelBufferPool(long maxRetainedBytesPerThread) {
+		if (maxRetainedBytesPerThread < 0) {
+			throw new IllegalArgumentException("maxRetainedBytesPerThread must not be negative");
+		}
+		this.stores = ThreadLocal.withInitial(() -> new PixelBufferStore(maxRetainedBytesPerThread));
+	}
+
+	@Override
+	public int[] acquireInts(int size) {
+		PixelBufferStore store = this.stores.get();
+		int length = store.lengthFor(size);
+		this.acquisitions.increment();
+		int[] buffer = store.pollInts(length);
+		if (buffer == null) {
+			return new int[length];
+		}
+		this.hits.increment();
+		this.retainedBytes.addAndGet(-4L * length);
+		return buffer;
+	}
+
+	@Override
+	public float[] acquireFloats(int size) {
+		PixelBufferStore store = this.stores.get();
+		int length = store.lengthFor(size);
+		this.acquisitions.increment();
+		float[] buffer = store.pollFloats(length);
+		if (buffer == null) {
+			return new float[length];
+		}
+		this.hits.increment();
+		this.retainedBytes.addAndGet(-4L * length);
+		return buffer;
+	}
+
+	@Override
+	public void release(int[] buffer) {
+		if (buffer != null) {
+			this.releases.increment();
+			if (this.stores.get().offer(buffer)) {
+				this.retainedBytes.addAndGet(4L * buffer.length);
+			}
+			else {
+				this.discards.increment();
+			}
+		}
+	}
+
+	@Override
+	public void release(float[] buffer) {
+		if (buffer != null) {
+			this.releases.increment();
+			if (this.stores.get().offer(buffer)) {
+				this.retainedBytes.addAndGet(4L * buffer.length);
+			}
+			else {
+				this.discards.increment();
+			}
+		}
+	}
+
+	@Override
+	public Statistics getStatistics() {
+		return new Statistics(this.acquisitions.sum(), this.hits.sum(), this.releases.sum(), this.discards.sum(), this.retainedBytes.get());
+	}
+
+	@Override
+	public String toString() {
+		return "ThreadLocalPixelBufferPool[" + getStatistics() + "]";
+	}
+}
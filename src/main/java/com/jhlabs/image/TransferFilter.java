@@ -5,7 +5,17 @@
 package com.jhlabs.image;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 
+/**
+ * An abstract superclass for filters which map each color channel independently through a
+ * lookup table. Several transfer filters can be folded into one with {@link #compose}. Images
+ * of type {@code TYPE_3BYTE_BGR} and {@code TYPE_4BYTE_ABGR} are filtered band by band
+ * without packing the samples into ARGB pixels.
+ *
+ * @author Jerry Huxtable
+ * @author Gunnar Hillert
+ */
 public abstract class TransferFilter extends PointFilter {
 
 	protected int[] rTable;
@@ -29,13 +39,62 @@ public abstract class TransferFilter extends PointFilter {
 		return a | (r << 16) | (g << 8) | b;
 	}
 
+	/**
+	 * Create a filter which applies the given transfer filters one after the other in a single
+	 * pass, by composing their lookup tables. The result is exactly the same as applying them
+	 * in turn.
+	 * @param filters the filters to apply, in order
+	 * @return the composite filter
+	 */
+	public static TransferFilter compose(TransferFilter... filters) {
+		return new CompositeTransferFilter(filters);
+	}
+
 	@Override
-	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+	public void setDimensions(int width, int height) {
+		ensureInitialized();
+		super.setDimensions(width, height);
+	}
+
+	/**
+	 * Build the lookup tables if the parameters have changed since they were last built.
+	 */
+	protected synchronized void ensureInitialized() {
 		if (!this.initialized) {
 			initialize();
 			this.initialized = true;
 		}
-		return super.filter(src, dst);
+	}
+
+	@Override
+	protected AbstractBufferedImageOp snapshot() {
+		// Build the tables on this filter, so that every call made with it shares them
+		ensureInitialized();
+		return super.snapshot();
+	}
+
+	@Override
+	protected void filterRows(BufferedImage src, BufferedImage dst, int startY, int endY) {
+		int type = src.getType();
+		if (type != dst.getType() || (type != BufferedImage.TYPE_3BYTE_BGR && type != BufferedImage.TYPE_4BYTE_ABGR)) {
+			super.filterRows(src, dst, startY, endY);
+			return;
+		}
+		// The data elements are in band order R, G, B (, A), so the tables can be applied in place
+		int width = src.getWidth();
+		int bands = src.getRaster().getNumDataElements();
+		WritableRaster srcRaster = src.getRaster();
+		WritableRaster dstRaster = dst.getRaster();
+		byte[] row = new byte[width * bands];
+		for (int y = startY; y < endY; y++) {
+			srcRaster.getDataElements(0, y, width, 1, row);
+			for (int i = 0; i < row.length; i += bands) {
+				row[i] = (byte) this.rTable[row[i] & 0xff];
+				row[i + 1] = (byte) this.gTable[row[i + 1] & 0xff];
+				row[i + 2] = (byte) this.bTable[row[i + 2] & 0xff];
+			}
+			dstRaster.setDataElements(0, y, width, 1, row);
+		}
 	}
 
 	protected void initialize() {
@@ -9,6 +9,9 @@ import java.awt.Rectangle;
 /**
  * An abstract superclass for filters which distort images in some way. The subclass only needs to override
  * two methods to provide the mapping between source and destination pixels.
+ * <p>
+ * As every output pixel is mapped independently, the output can be divided into tiles which are
+ * transformed concurrently when {@link #setParallel parallel execution} is enabled.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -51,6 +54,8 @@ public abstract class TransformFilter extends WholeImageFilter {
 
 	protected int edgeAction = ZERO;
 
+	private int tileSize = ParallelSupport.DEFAULT_TILE_SIZE;
+
 	public void setEdgeAction(int edgeAction) {
 		this.edgeAction = edgeAction;
 	}
@@ -59,6 +64,34 @@ public abstract class TransformFilter extends WholeImageFilter {
 		return this.edgeAction;
 	}
 
+	/**
+	 * Set the size of the square tiles the output is divided into when filtering in parallel.
+	 * Each tile is mapped independently, so smaller tiles balance uneven distortions better
+	 * at the cost of more scheduling.
+	 * @param tileSize the width and height of a tile in pixels
+	 * @see #getTileSize
+	 */
+	public void setTileSize(int tileSize) {
+		this.tileSize = tileSize;
+	}
+
+	/**
+	 * Get the size of the tiles used when filtering in parallel.
+	 * @return the width and height of a tile in pixels
+	 * @see #setTileSize
+	 */
+	public int getTileSize() {
+		return this.tileSize;
+	}
+
+	/**
+	 * Compute the source coordinates of an output pixel. This may be called concurrently for
+	 * different pixels when filtering in parallel, so implementations must only write to
+	 * {@code out}.
+	 * @param x   the x coordinate of the output pixel
+	 * @param y   the y coordinate of the output pixel
+	 * @param out receives the source x and y coordinates
+	 */
 	protected abstract void transformInverse(int x, int y, float[] out);
 
 	@Override
@@ -67,24 +100,40 @@ public abstract class TransformFilter extends WholeImageFilter {
 
 	@Override
 	protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
-		int srcWidth = width;
-		int srcHeight = height;
+		int[] outPixels = new int[transformedSpace.width * transformedSpace.height];
+		forEachTile(transformedSpace.width, transformedSpace.height, this.tileSize, () -> {
+			int[] rgb = new int[4];
+			float[] out = new float[2];
+			return (startX, startY, endX, endY) -> transformTile(width, height, inPixels, transformedSpace, outPixels, startX, startY, endX, endY, rgb, out);
+		});
+		return outPixels;
+	}
+
+	/**
+	 * Transform a tile of the output image by inverse mapping each of its pixels into the source.
+	 * @param srcWidth         the width of the source image
+	 * @param srcHeight        the height of the source image
+	 * @param inPixels         the source pixels
+	 * @param transformedSpace the bounds of the output image
+	 * @param outPixels        the output pixels
+	 * @param startX           the first output column of the tile (inclusive)
+	 * @param startY           the first output row of the tile (inclusive)
+	 * @param endX             the last output column of the tile (exclusive)
+	 * @param endY             the last output row of the tile (exclusive)
+	 * @param rgb              scratch space for the four interpolated pixels
+	 * @param out              scratch space for the inverse transformed coordinates
+	 */
+	protected void transformTile(int srcWidth, int srcHeight, int[] inPixels, Rectangle transformedSpace, int[] outPixels,
+			int startX, int startY, int endX, int endY, int[] rgb, float[] out) {
 		int outWidth = transformedSpace.width;
-		int outHeight = transformedSpace.height;
-		int outX;
-		int outY;
+		int outX = transformedSpace.x;
+		int outY = transformedSpace.y;
 		int srcX;
 		int srcY;
-		int index = 0;
-		int[] outPixels = new int[outWidth * outHeight];
-
-		outX = transformedSpace.x;
-		outY = transformedSpace.y;
-		int[] rgb = new int[4];
-		float[] out = new float[2];
 
-		for (int y = 0; y < outHeight; y++) {
-			for (int x = 0; x < outWidth; x++) {
+		for (int y = startY; y < endY; y++) {
+			int index = y * outWidth + startX;
+			for (int x = startX; x < endX; x++) {
 				transformInverse(outX + x, outY + y, out);
 				srcX = (int) out[0];
 				srcY = (int) out[1];
@@ -119,8 +168,6 @@ public abstract class TransformFilter extends WholeImageFilter {
 				}
 			}
 		}
-		return outPixels;
 	}
 
 }
-
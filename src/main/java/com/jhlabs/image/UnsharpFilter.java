@@ -47,16 +47,13 @@ public class UnsharpFilter extends GaussianFilter {
 			dst = createCompatibleDestImage(src, null);
 		}
 
-		int[] inPixels = new int[width * height];
-		int[] outPixels = new int[width * height];
-		src.getRGB(0, 0, width, height, inPixels, 0, width);
+		int[] inPixels = acquireInts(width * height);
+		int[] outPixels = acquireInts(width * height);
+		getRGB(src, 0, 0, width, height, inPixels);
 
-		if (this.radius > 0) {
-			convolveAndTranspose(this.kernel, inPixels, outPixels, width, height, this.isAlpha(), CLAMP_EDGES);
-			convolveAndTranspose(this.kernel, outPixels, inPixels, height, width, this.isAlpha(), CLAMP_EDGES);
-		}
+		blur(inPixels, outPixels, width, height);
 
-		src.getRGB(0, 0, width, height, outPixels, 0, width);
+		getRGB(src, 0, 0, width, height, outPixels);
 
 		float a = 4 * this.amount;
 
@@ -88,7 +85,8 @@ public class UnsharpFilter extends GaussianFilter {
 			}
 		}
 
-		dst.setRGB(0, 0, width, height, inPixels, 0, width);
+		setRGB(dst, 0, 0, width, height, inPixels);
+		release(inPixels, outPixels);
 		return dst;
 	}
 
@@ -9,14 +9,35 @@ import java.awt.RenderingHints;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-
+import java.util.Arrays;
+
+/**
+ * A box blur whose radius varies over the image, either with a blur mask or with
+ * {@link #blurRadiusAt}.
+ *
+ * @author Jerry Huxtable
+ * @author Gunnar Hillert
+ */
 public class VariableBlurFilter extends AbstractBufferedImageOp {
 
+	/**
+	 * Blur with a horizontal and then a vertical pass of a sliding accumulator. Each pass uses
+	 * the radius of the pixel it writes, and the edges are extended.
+	 */
+	public static final int SEPARABLE = 0;
+
+	/**
+	 * Blur with a summed-area table, which averages the two-dimensional box around every pixel
+	 * with four lookups per channel whatever its size. The box is clipped at the edges of the
+	 * image, which suits depth-of-field style masks whose radius changes quickly.
+	 */
+	public static final int SUMMED_AREA = 1;
+
 	private int hRadius = 1;
 	private int vRadius = 1;
 	private int iterations = 1;
 	private BufferedImage blurMask;
+	private int mode = SEPARABLE;
 
 	@Override
 	public BufferedImage filter(BufferedImage src, BufferedImage dst) {
@@ -27,27 +48,34 @@ public class VariableBlurFilter extends AbstractBufferedImageOp {
 			dst = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 		}
 
-		int[] inPixels = new int[width * height];
-		int[] outPixels = new int[width * height];
+		int[] inPixels = acquireInts(width * height);
+		int[] outPixels = acquireInts(width * height);
 		getRGB(src, 0, 0, width, height, inPixels);
 
+		// The radii only depend on the position, so they are worked out once for all iterations
+		boolean summedArea = this.mode == SUMMED_AREA;
+		int[] hRadii = acquireInts(width * height);
+		int[] vRadii = acquireInts(width * height);
+		radii(width, height, hRadii, vRadii, !summedArea);
+
 		for (int i = 0; i < this.iterations; i++) {
-			blur(inPixels, outPixels, width, height, this.hRadius, 1);
-			blur(outPixels, inPixels, height, width, this.vRadius, 2);
+			if (summedArea) {
+				blurSummedArea(inPixels, outPixels, width, height, hRadii, vRadii);
+				int[] t = inPixels;
+				inPixels = outPixels;
+				outPixels = t;
+			}
+			else {
+				blurRows(inPixels, outPixels, width, height, hRadii);
+				blurRows(outPixels, inPixels, height, width, vRadii);
+			}
 		}
 
 		setRGB(dst, 0, 0, width, height, inPixels);
+		release(inPixels, outPixels, hRadii, vRadii);
 		return dst;
 	}
 
-	@Override
-	public BufferedImage createCompatibleDestImage(BufferedImage src, ColorModel dstCM) {
-		if (dstCM == null) {
-			dstCM = src.getColorModel();
-		}
-		return new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(src.getWidth(), src.getHeight()), dstCM.isAlphaPremultiplied(), null);
-	}
-
 	@Override
 	public Rectangle2D getBounds2D(BufferedImage src) {
 		return new Rectangle(0, 0, src.getWidth(), src.getHeight());
@@ -67,97 +95,163 @@ public class VariableBlurFilter extends AbstractBufferedImageOp {
 		return null;
 	}
 
-	public void blur(int[] in, int[] out, int width, int height, int radius, int pass) {
-		int widthMinus1 = width - 1;
-		int[] r = new int[width];
-		int[] g = new int[width];
-		int[] b = new int[width];
-		int[] a = new int[width];
-		int[] mask = new int[width];
-
-		int inIndex = 0;
-
+	// Work out the horizontal and vertical radius of every pixel, decoding the mask once
+	// instead of a row or a column per pass. The vertical radii are stored in column order for
+	// the transposed vertical pass if asked to
+	private void radii(int width, int height, int[] hRadii, int[] vRadii, boolean transposeVertical) {
+		int[] mask = null;
+		if (this.blurMask != null) {
+			mask = acquireInts(width * height);
+			getRGB(this.blurMask, 0, 0, width, height, mask);
+		}
 		for (int y = 0; y < height; y++) {
-			int outIndex = y;
-
-			if (this.blurMask != null) {
-				if (pass == 1) {
-					getRGB(this.blurMask, 0, y, width, 1, mask);
+			for (int x = 0; x < width; x++) {
+				int index = y * width + x;
+				int vIndex = (transposeVertical) ? x * height + y : index;
+				if (mask != null) {
+					hRadii[index] = (int) ((mask[index] & 0xff) * this.hRadius / 255f);
+					vRadii[vIndex] = (int) ((mask[index] & 0xff) * this.vRadius / 255f);
 				}
 				else {
-					getRGB(this.blurMask, y, 0, 1, width, mask);
+					hRadii[index] = (int) (blurRadiusAt(x, y, width, height) * this.hRadius);
+					vRadii[vIndex] = (int) (blurRadiusAt(x, y, width, height) * this.vRadius);
 				}
 			}
+		}
+		if (mask != null) {
+			release(mask);
+		}
+	}
 
-			for (int x = 0; x < width; x++) {
-				int argb = in[inIndex + x];
-				a[x] = (argb >> 24) & 0xff;
-				r[x] = (argb >> 16) & 0xff;
-				g[x] = (argb >> 8) & 0xff;
-				b[x] = argb & 0xff;
-				if (x != 0) {
-					a[x] += a[x - 1];
-					r[x] += r[x - 1];
-					g[x] += g[x - 1];
-					b[x] += b[x - 1];
-				}
-			}
+	/**
+	 * Blur one pass of the separable engine, writing the result transposed.
+	 * @param in     the pixels to blur
+	 * @param out    receives the blurred pixels, transposed
+	 * @param width  the width of the rows to blur
+	 * @param height the number of rows to blur
+	 * @param radius the maximum radius
+	 * @param pass   1 for the horizontal pass over an image, 2 for the vertical pass over the
+	 *               transposed result of the first pass
+	 */
+	public void blur(int[] in, int[] out, int width, int height, int radius, int pass) {
+		int[] hRadii = new int[width * height];
+		int[] vRadii = new int[width * height];
+		if (pass == 1) {
+			radii(width, height, hRadii, vRadii, true);
+			blurRows(in, out, width, height, hRadii);
+		}
+		else {
+			radii(height, width, hRadii, vRadii, true);
+			blurRows(in, out, width, height, vRadii);
+		}
+	}
 
-			for (int x = 0; x < width; x++) {
-				// Get the blur radius at x, y
-				int ra;
-				if (this.blurMask != null) {
-					if (pass == 1) {
-						ra = (int) ((mask[x] & 0xff) * this.hRadius / 255f);
-					}
-					else {
-						ra = (int) ((mask[x] & 0xff) * this.vRadius / 255f);
+	// Blur the rows with a sliding accumulator, radii in row order, writing the result transposed
+	private void blurRows(int[] in, int[] out, int width, int height, int[] radii) {
+		forEachBand(height, (startY, endY) -> {
+			int widthMinus1 = width - 1;
+			int[] r = new int[width];
+			int[] g = new int[width];
+			int[] b = new int[width];
+			int[] a = new int[width];
+
+			int inIndex = startY * width;
+
+			for (int y = startY; y < endY; y++) {
+				int outIndex = y;
+
+				for (int x = 0; x < width; x++) {
+					int argb = in[inIndex + x];
+					a[x] = (argb >> 24) & 0xff;
+					r[x] = (argb >> 16) & 0xff;
+					g[x] = (argb >> 8) & 0xff;
+					b[x] = argb & 0xff;
+					if (x != 0) {
+						a[x] += a[x - 1];
+						r[x] += r[x - 1];
+						g[x] += g[x - 1];
+						b[x] += b[x - 1];
 					}
 				}
-				else {
-					if (pass == 1) {
-						ra = (int) (blurRadiusAt(x, y, width, height) * this.hRadius);
+
+				for (int x = 0; x < width; x++) {
+					// Get the blur radius at x, y
+					int ra = radii[inIndex + x];
+
+					int divisor = 2 * ra + 1;
+					int ta = 0;
+					int tr = 0;
+					int tg = 0;
+					int tb = 0;
+					int i1 = x + ra;
+					if (i1 > widthMinus1) {
+						int f = i1 - widthMinus1;
+						int l = widthMinus1;
+						ta += (a[l] - a[l - 1]) * f;
+						tr += (r[l] - r[l - 1]) * f;
+						tg += (g[l] - g[l - 1]) * f;
+						tb += (b[l] - b[l - 1]) * f;
+						i1 = widthMinus1;
 					}
-					else {
-						ra = (int) (blurRadiusAt(y, x, height, width) * this.vRadius);
+					int i2 = x - ra - 1;
+					if (i2 < 0) {
+						ta -= a[0] * i2;
+						tr -= r[0] * i2;
+						tg -= g[0] * i2;
+						tb -= b[0] * i2;
+						i2 = 0;
 					}
-				}
 
-				int divisor = 2 * ra + 1;
-				int ta = 0;
-				int tr = 0;
-				int tg = 0;
-				int tb = 0;
-				int i1 = x + ra;
-				if (i1 > widthMinus1) {
-					int f = i1 - widthMinus1;
-					int l = widthMinus1;
-					ta += (a[l] - a[l - 1]) * f;
-					tr += (r[l] - r[l - 1]) * f;
-					tg += (g[l] - g[l - 1]) * f;
-					tb += (b[l] - b[l - 1]) * f;
-					i1 = widthMinus1;
-				}
-				int i2 = x - ra - 1;
-				if (i2 < 0) {
-					ta -= a[0] * i2;
-					tr -= r[0] * i2;
-					tg -= g[0] * i2;
-					tb -= b[0] * i2;
-					i2 = 0;
-				}
+					ta += a[i1] - a[i2];
+					tr += r[i1] - r[i2];
+					tg += g[i1] - g[i2];
+					tb += b[i1] - b[i2];
+					out[outIndex] = ((ta / divisor) << 24) | ((tr / divisor) << 16) | ((tg / divisor) << 8) | (tb / divisor);
 
-				ta += a[i1] - a[i2];
-				tr += r[i1] - r[i2];
-				tg += g[i1] - g[i2];
-				tb += b[i1] - b[i2];
-//if ( y == 0 && pass == 1 )System.out.println(x+": "+i1+" "+i2+" "+r[i1]+" "+r[i2]+" "+tr);
-				out[outIndex] = ((ta / divisor) << 24) | ((tr / divisor) << 16) | ((tg / divisor) << 8) | (tb / divisor);
+					outIndex += height;
+				}
+				inIndex += width;
+			}
+		});
+	}
 
-				outIndex += height;
+	// Average the box around every pixel with a summed-area table, one channel at a time so a
+	// single table is needed. The sums are allowed to wrap, since the differences of the four
+	// corners are exact as long as a box sum fits in an int
+	private void blurSummedArea(int[] in, int[] out, int width, int height, int[] hRadii, int[] vRadii) {
+		int tableWidth = width + 1;
+		int[] table = acquireInts(tableWidth * (height + 1));
+		Arrays.fill(table, 0, tableWidth, 0);
+		Arrays.fill(out, 0, width * height, 0);
+		for (int shift = 0; shift < 32; shift += 8) {
+			for (int y = 0; y < height; y++) {
+				int row = (y + 1) * tableWidth;
+				int sum = 0;
+				table[row] = 0;
+				for (int x = 0; x < width; x++) {
+					sum += (in[y * width + x] >>> shift) & 0xff;
+					table[row + x + 1] = table[row - tableWidth + x + 1] + sum;
+				}
 			}
-			inIndex += width;
+			int channelShift = shift;
+			forEachBand(height, (startY, endY) -> {
+				for (int y = startY; y < endY; y++) {
+					for (int x = 0; x < width; x++) {
+						int index = y * width + x;
+						int x0 = Math.max(0, x - hRadii[index]);
+						int x1 = Math.min(width, x + hRadii[index] + 1);
+						int y0 = Math.max(0, y - vRadii[index]);
+						int y1 = Math.min(height, y + vRadii[index] + 1);
+						int top = y0 * tableWidth;
+						int bottom = y1 * tableWidth;
+						int sum = table[bottom + x1] - table[top + x1] - table[bottom + x0] + table[top + x0];
+						int area = (x1 - x0) * (y1 - y0);
+						out[index] |= (sum / area) << channelShift;
+					}
+				}
+			});
 		}
+		release(table);
 	}
 
 	// Override this to get a different blur radius
@@ -198,6 +292,27 @@ public class VariableBlurFilter extends AbstractBufferedImageOp {
 		return this.iterations;
 	}
 
+	/**
+	 * Set the blur engine.
+	 * @param mode the engine, {@link #SEPARABLE} or {@link #SUMMED_AREA}
+	 * @see #getMode
+	 */
+	public void setMode(int mode) {
+		if (mode != SEPARABLE && mode != SUMMED_AREA) {
+			throw new IllegalArgumentException("Unknown mode: " + mode);
+		}
+		this.mode = mode;
+	}
+
+	/**
+	 * Get the blur engine.
+	 * @return the engine
+	 * @see #setMode
+	 */
+	public int getMode() {
+		return this.mode;
+	}
+
 	public void setBlurMask(BufferedImage blurMask) {
 		this.blurMask = blurMask;
 	}
@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.image;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link RowAccumulator} which processes as many values per instruction as the preferred
+ * vector shape of the platform allows. Each lane performs the same multiply and add as the
+ * scalar loop, so results are bit-identical. Only loaded when the {@code jdk.incubator.vector}
+ * module is present, see {@link RowAccumulator#getVector}.
+ *
+ * @author Gunnar Hillert
+ */
+final class VectorRowAccumulator implements RowAccumulator {
+
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+	@Override
+	public void accumulate(float f, float[] src, int srcOffset, float[] dst, int dstOffset, int length) {
+		int i = 0;
+		int upperBound = SPECIES.loopBound(length);
+		for (; i < upperBound; i += SPECIES.length()) {
+			FloatVector s = FloatVector.fromArray(SPECIES, src, srcOffset + i);
+			FloatVector d = FloatVector.fromArray(SPECIES, dst, dstOffset + i);
+			d.add(s.mul(f)).intoArray(dst, dstOffset + i);
+		}
+		for (; i < length; i++) {
+			dst[dstOffset + i] += f * src[srcOffset + i];
+		}
+	}
+
+}
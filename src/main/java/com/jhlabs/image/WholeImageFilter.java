@@ -5,13 +5,16 @@
 package com.jhlabs.image;
 
 import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
 import java.awt.image.WritableRaster;
 
 /**
  * A filter which acts as a superclass for filters which need to have the whole image in memory
  * to do their stuff.
+ * <p>
+ * {@link #transformSpace} and {@link #filterPixels} are called on a {@link #snapshot} of this
+ * filter, so subclasses may keep the state of one invocation in fields.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
@@ -34,26 +37,43 @@ public abstract class WholeImageFilter extends AbstractBufferedImageOp implement
 		int type = src.getType();
 		WritableRaster srcRaster = src.getRaster();
 
-		this.originalSpace = new Rectangle(0, 0, width, height);
-		this.transformedSpace = new Rectangle(0, 0, width, height);
-		transformSpace(this.transformedSpace);
+		WholeImageFilter filter = (WholeImageFilter) snapshot();
+		filter.originalSpace = new Rectangle(0, 0, width, height);
+		filter.transformedSpace = new Rectangle(0, 0, width, height);
+		filter.transformSpace(filter.transformedSpace);
 
 		if (dst == null) {
-			ColorModel dstCM = src.getColorModel();
-			dst = new BufferedImage(dstCM, dstCM.createCompatibleWritableRaster(this.transformedSpace.width, this.transformedSpace.height), dstCM.isAlphaPremultiplied(), null);
+			dst = createCompatibleDestImage(src, filter.transformedSpace.width, filter.transformedSpace.height);
 		}
 		WritableRaster dstRaster = dst.getRaster();
 
 		int[] inPixels = getRGB(src, 0, 0, width, height, null);
-		inPixels = filterPixels(width, height, inPixels, this.transformedSpace);
-		setRGB(dst, 0, 0, this.transformedSpace.width, this.transformedSpace.height, inPixels);
+		int[] outPixels = filter.filterPixels(width, height, inPixels, filter.transformedSpace);
+		setRGB(dst, 0, 0, filter.transformedSpace.width, filter.transformedSpace.height, outPixels);
 
 		return dst;
 	}
 
+	@Override
+	public Rectangle2D getBounds2D(BufferedImage src) {
+		Rectangle rect = new Rectangle(0, 0, src.getWidth(), src.getHeight());
+		((WholeImageFilter) snapshot()).transformSpace(rect);
+		return new Rectangle(0, 0, rect.width, rect.height);
+	}
+
 	protected void transformSpace(Rectangle rect) {
 	}
 
+	/**
+	 * Filter the pixels of the whole image. The input array holds exactly {@code width * height}
+	 * pixels and belongs to the filter, which may modify it or return it. Neither array is
+	 * returned to the buffer pool, so filters must not return buffers acquired from it.
+	 * @param width            the width of the source image
+	 * @param height           the height of the source image
+	 * @param inPixels         the source pixels
+	 * @param transformedSpace the bounds of the destination
+	 * @return the destination pixels
+	 */
 	protected abstract int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace);
 }
 
@@ -15,16 +15,19 @@ import java.util.Random;
  * <p>
  * This class is designed to be used as a generator for spatially varying values
  * based on cellular noise principles, often useful in procedural texture generation.
+ * <p>
+ * Evaluation keeps the nearest points found in fields, so an instance must not be evaluated by
+ * several threads at once; give each thread its own {@link #clone}.
  *
  * @author Jerry Huxtable
  * @author Gunnar Hillert
  */
-public class CellularFunction2D implements Function2D {
+public class CellularFunction2D implements Function2D, Cloneable {
 
 	private static final float distancePower = 2;
 	private static final boolean angular = false;
-	private final float[] coefficients = {1, 0, 0, 0};
-	private final Random random = new Random();
+	private float[] coefficients = {1, 0, 0, 0};
+	private Random random = new Random();
 	private Point[] results = null;
 
 	/**
@@ -33,10 +36,15 @@ public class CellularFunction2D implements Function2D {
 	 * Each Point object in the array is initialized to a new instance with default field values.
 	 */
 	public CellularFunction2D() {
-		this.results = new Point[2];
-		for (int j = 0; j < this.results.length; j++) {
-			this.results[j] = new Point();
+		this.results = newResults();
+	}
+
+	private static Point[] newResults() {
+		Point[] results = new Point[2];
+		for (int j = 0; j < results.length; j++) {
+			results[j] = new Point();
 		}
+		return results;
 	}
 
 	public void setCoefficient(int c, float v) {
@@ -141,6 +149,25 @@ public class CellularFunction2D implements Function2D {
 		return t;
 	}
 
+	/**
+	 * Create a copy of this function with its own scratch space, so that the copy can be
+	 * evaluated concurrently with this function.
+	 * @return the copy
+	 */
+	@Override
+	public CellularFunction2D clone() {
+		try {
+			CellularFunction2D copy = (CellularFunction2D) super.clone();
+			copy.coefficients = this.coefficients.clone();
+			copy.random = new Random();
+			copy.results = newResults();
+			return copy;
+		}
+		catch (CloneNotSupportedException ex) {
+			return null;
+		}
+	}
+
 	static class Point {
 		int index;
 		float x;
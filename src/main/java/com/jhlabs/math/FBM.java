@@ -62,4 +62,68 @@ public class FBM implements Function2D {
 		return value;
 	}
 
+	@Override
+	public void evaluate(float[] x, float[] y, float[] out, int count) {
+		float[] xs = new float[count];
+		float[] ys = new float[count];
+		float[] values = new float[count];
+		int i;
+
+		for (int n = 0; n < count; n++) {
+			xs[n] = x[n] + 371;
+			ys[n] = y[n] + 529;
+			out[n] = 0.0f;
+		}
+		for (i = 0; i < (int) this.octaves; i++) {
+			this.basis.evaluate(xs, ys, values, count);
+			float exponent = this.exponents[i];
+			for (int n = 0; n < count; n++) {
+				out[n] += values[n] * exponent;
+				xs[n] *= this.lacunarity;
+				ys[n] *= this.lacunarity;
+			}
+		}
+
+		float remainder = this.octaves - (int) this.octaves;
+		if (remainder != 0) {
+			this.basis.evaluate(xs, ys, values, count);
+			float exponent = this.exponents[i];
+			for (int n = 0; n < count; n++) {
+				out[n] += remainder * values[n] * exponent;
+			}
+		}
+	}
+
+	@Override
+	public void evaluateRow(float[] x, float y, float[] out, int count) {
+		float[] xs = new float[count];
+		float[] values = new float[count];
+		int i;
+
+		for (int n = 0; n < count; n++) {
+			xs[n] = x[n] + 371;
+			out[n] = 0.0f;
+		}
+		y += 529;
+		// The row stays a row at every octave, so the basis can evaluate it as one
+		for (i = 0; i < (int) this.octaves; i++) {
+			this.basis.evaluateRow(xs, y, values, count);
+			float exponent = this.exponents[i];
+			for (int n = 0; n < count; n++) {
+				out[n] += values[n] * exponent;
+				xs[n] *= this.lacunarity;
+			}
+			y *= this.lacunarity;
+		}
+
+		float remainder = this.octaves - (int) this.octaves;
+		if (remainder != 0) {
+			this.basis.evaluateRow(xs, y, values, count);
+			float exponent = this.exponents[i];
+			for (int n = 0; n < count; n++) {
+				out[n] += remainder * values[n] * exponent;
+			}
+		}
+	}
+
 }
@@ -4,143 +4,701 @@
 
 package com.jhlabs.math;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import com.jhlabs.image.ParallelSupport;
+
+/**
+ * A fast Fourier transform of complex data held in separate arrays of real and imaginary parts.
+ * Inverse transforms are scaled by the reciprocal of the length.
+ * <p>
+ * Lengths which are powers of two are transformed in place with radix-4 butterflies, preceded
+ * by a single radix-2 stage for odd powers. Other lengths are split into factors of 4, 2, 3, 5
+ * and any remaining primes, and transformed with the self-sorting Stockham algorithm, which is fast
+ * for lengths with small factors only, see {@link #nextFastLength}. The twiddle factors
+ * for each length are computed once, in double precision, and kept by the instance.
+ * <p>
+ * Two dimensional transforms process the rows and then the columns. Columns are copied in
+ * blocks into contiguous lines, so that memory is always read along rows. Both passes can be
+ * split between threads, see {@link #setParallel}. Real data, such as image channels, can be
+ * transformed with {@link #realTransform2D}, which packs pairs of rows into one complex row and
+ * keeps only the half of the spectrum which is not redundant.
+ * <p>
+ * Instances may be shared between threads.
+ *
+ * @author Jerry Huxtable
+ * @author Gunnar Hillert
+ */
 public class FFT {
 
-	// Weighting factors
-	protected float[] w1;
-	protected float[] w2;
-	protected float[] w3;
+	// The number of columns copied into contiguous lines at a time
+	private static final int COLUMN_BLOCK = 16;
+
+	// The minimum number of rows transformed by one thread
+	private static final int MINIMUM_BAND_HEIGHT = 16;
+
+	private final Map<Integer, Plan> plans = new ConcurrentHashMap<>();
+
+	private boolean parallel = false;
+
+	private Executor executor;
 
+	public FFT() {
+	}
+
+	/**
+	 * Construct an FFT, preparing the tables for the length {@code 2^logN}. Tables for other
+	 * lengths are prepared when first needed.
+	 * @param logN the base 2 logarithm of the expected length
+	 */
 	public FFT(int logN) {
-		// Prepare the weighting factors
-		this.w1 = new float[logN];
-		this.w2 = new float[logN];
-		this.w3 = new float[logN];
-		int N = 1;
-		for (int k = 0; k < logN; k++) {
-			N <<= 1;
-			double angle = -2.0 * Math.PI / N;
-			this.w1[k] = (float) Math.sin(0.5 * angle);
-			this.w2[k] = -2.0f * this.w1[k] * this.w1[k];
-			this.w3[k] = (float) Math.sin(angle);
-		}
+		getPlan(1 << logN);
+	}
+
+	/**
+	 * Set whether two dimensional transforms split their row and column passes between
+	 * threads.
+	 * @param parallel true to enable parallel execution
+	 * @see #isParallel
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Get whether parallel execution is enabled.
+	 * @return true if parallel execution is enabled
+	 * @see #setParallel
+	 */
+	public boolean isParallel() {
+		return this.parallel;
 	}
 
-	private void scramble(int n, float[] real, float[] imag) {
-		int j = 0;
+	/**
+	 * Set the executor used for parallel execution.
+	 * @param executor the executor, or null for the common fork-join pool
+	 * @see #getExecutor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Get the executor used for parallel execution.
+	 * @return the executor, or null for the common fork-join pool
+	 * @see #setExecutor
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
 
-		for (int i = 0; i < n; i++) {
-			if (i > j) {
-				float t;
-				t = real[j];
-				real[j] = real[i];
-				real[i] = t;
-				t = imag[j];
-				imag[j] = imag[i];
-				imag[i] = t;
+	/**
+	 * Return the smallest length of at least {@code n} whose only prime factors are 2, 3 and 5,
+	 * which this FFT transforms efficiently.
+	 * @param n the minimum length
+	 * @return the length
+	 */
+	public static int nextFastLength(int n) {
+		int length = Math.max(1, n);
+		while (true) {
+			int m = length;
+			for (int factor = 2; factor <= 5; factor++) {
+				while (m % factor == 0) {
+					m /= factor;
+				}
 			}
-			int m = n >> 1;
-			while (j >= m && m >= 2) {
-				j -= m;
-				m >>= 1;
+			if (m == 1) {
+				return length;
 			}
-			j += m;
+			length++;
 		}
 	}
 
-	private void butterflies(int n, int logN, int direction, float[] real, float[] imag) {
-		int N = 1;
-
-		for (int k = 0; k < logN; k++) {
-			float w_re;
-			float w_im;
-			float wp_re;
-			float wp_im;
-			float temp_re;
-			float temp_im;
-			float wt;
-			int half_N = N;
-			N <<= 1;
-			wt = direction * this.w1[k];
-			wp_re = this.w2[k];
-			wp_im = direction * this.w3[k];
-			w_re = 1.0f;
-			w_im = 0.0f;
-			for (int offset = 0; offset < half_N; offset++) {
-				for (int i = offset; i < n; i += N) {
-					int j = i + half_N;
-					float re = real[j];
-					float im = imag[j];
-					temp_re = (w_re * re) - (w_im * im);
-					temp_im = (w_im * re) + (w_re * im);
-					real[j] = real[i] - temp_re;
-					real[i] += temp_re;
-					imag[j] = imag[i] - temp_im;
-					imag[i] += temp_im;
-				}
-				wt = w_re;
-				w_re = wt * wp_re - w_im * wp_im + w_re;
-				w_im = w_im * wp_re + wt * wp_im + w_im;
+	public void transform1D(float[] real, float[] imag, int logN, int n, boolean forward) {
+		transform1D(real, imag, n, forward);
+	}
+
+	/**
+	 * Transform the first {@code n} values in place.
+	 * @param real    the real parts
+	 * @param imag    the imaginary parts
+	 * @param n       the length, which need not be a power of two
+	 * @param forward true for the forward transform, false for the inverse
+	 */
+	public void transform1D(float[] real, float[] imag, int n, boolean forward) {
+		Plan plan = getPlan(n);
+		plan.transform(real, imag, 0, forward, plan.createScratch(), plan.createScratch());
+	}
+
+	/**
+	 * Transform a two dimensional array, stored by rows, in place.
+	 * @param real    the real parts
+	 * @param imag    the imaginary parts
+	 * @param cols    the number of columns
+	 * @param rows    the number of rows
+	 * @param forward true for the forward transform, false for the inverse
+	 */
+	public void transform2D(float[] real, float[] imag, int cols, int rows, boolean forward) {
+		Plan rowPlan = getPlan(cols);
+		forEachBand(rows, MINIMUM_BAND_HEIGHT, (startY, endY) -> {
+			float[] scratchRe = rowPlan.createScratch();
+			float[] scratchIm = rowPlan.createScratch();
+			for (int y = startY; y < endY; y++) {
+				rowPlan.transform(real, imag, y * cols, forward, scratchRe, scratchIm);
 			}
-		}
-		if (direction == -1) {
-			float nr = 1.0f / n;
-			for (int i = 0; i < n; i++) {
-				real[i] *= nr;
-				imag[i] *= nr;
+		});
+		transformColumns(real, imag, cols, rows, forward);
+	}
+
+	/**
+	 * Transform a two dimensional array of real values. As the spectrum of real values is
+	 * conjugate symmetric, only its columns {@code 0..cols/2} are computed.
+	 * @param input the real values, stored by rows, which are left unchanged
+	 * @param real  receives the real parts of the spectrum, {@code cols / 2 + 1} values per row
+	 * @param imag  receives the imaginary parts of the spectrum, {@code cols / 2 + 1} values per
+	 * row
+	 * @param cols  the number of columns
+	 * @param rows  the number of rows
+	 * @see #inverseRealTransform2D
+	 */
+	public void realTransform2D(float[] input, float[] real, float[] imag, int cols, int rows) {
+		int half = cols / 2 + 1;
+		Plan rowPlan = getPlan(cols);
+		forEachBand((rows + 1) / 2, MINIMUM_BAND_HEIGHT / 2, (startPair, endPair) -> {
+			float[] lineRe = new float[cols];
+			float[] lineIm = new float[cols];
+			float[] scratchRe = rowPlan.createScratch();
+			float[] scratchIm = rowPlan.createScratch();
+			for (int pair = startPair; pair < endPair; pair++) {
+				// Transform two rows at once, as the real and imaginary parts of one complex row
+				int y = 2 * pair;
+				boolean second = y + 1 < rows;
+				System.arraycopy(input, y * cols, lineRe, 0, cols);
+				if (second) {
+					System.arraycopy(input, (y + 1) * cols, lineIm, 0, cols);
+				}
+				else {
+					Arrays.fill(lineIm, 0);
+				}
+				rowPlan.transform(lineRe, lineIm, 0, true, scratchRe, scratchIm);
+
+				// Separate the spectra of the two rows using their conjugate symmetry
+				int index = y * half;
+				for (int k = 0; k < half; k++) {
+					int mirror = (k == 0) ? 0 : cols - k;
+					float ar = lineRe[k];
+					float ai = lineIm[k];
+					float br = lineRe[mirror];
+					float bi = lineIm[mirror];
+					real[index + k] = 0.5f * (ar + br);
+					imag[index + k] = 0.5f * (ai - bi);
+					if (second) {
+						real[index + half + k] = 0.5f * (ai + bi);
+						imag[index + half + k] = 0.5f * (br - ar);
+					}
+				}
+			}
+		});
+		transformColumns(real, imag, half, rows, true);
+	}
+
+	/**
+	 * Inverse transform the half spectrum of a two dimensional array of real values, as computed
+	 * by {@link #realTransform2D}.
+	 * @param real   the real parts of the spectrum, which are overwritten
+	 * @param imag   the imaginary parts of the spectrum, which are overwritten
+	 * @param output receives the real values, stored by rows
+	 * @param cols   the number of columns of the output
+	 * @param rows   the number of rows of the output
+	 */
+	public void inverseRealTransform2D(float[] real, float[] imag, float[] output, int cols, int rows) {
+		int half = cols / 2 + 1;
+		Plan rowPlan = getPlan(cols);
+		transformColumns(real, imag, half, rows, false);
+		forEachBand((rows + 1) / 2, MINIMUM_BAND_HEIGHT / 2, (startPair, endPair) -> {
+			float[] lineRe = new float[cols];
+			float[] lineIm = new float[cols];
+			float[] scratchRe = rowPlan.createScratch();
+			float[] scratchIm = rowPlan.createScratch();
+			for (int pair = startPair; pair < endPair; pair++) {
+				// Rebuild the full spectra of two rows and combine them into one complex row
+				int y = 2 * pair;
+				boolean second = y + 1 < rows;
+				int index = y * half;
+				for (int k = 0; k < cols; k++) {
+					int i = index + ((k < half) ? k : cols - k);
+					float conjugate = (k < half) ? 1 : -1;
+					float ar = real[i];
+					float ai = conjugate * imag[i];
+					float br = (second) ? real[i + half] : 0;
+					float bi = (second) ? conjugate * imag[i + half] : 0;
+					lineRe[k] = ar - bi;
+					lineIm[k] = ai + br;
+				}
+				rowPlan.transform(lineRe, lineIm, 0, false, scratchRe, scratchIm);
+				System.arraycopy(lineRe, 0, output, y * cols, cols);
+				if (second) {
+					System.arraycopy(lineIm, 0, output, (y + 1) * cols, cols);
+				}
+			}
+		});
+	}
+
+	private void transformColumns(float[] real, float[] imag, int cols, int rows, boolean forward) {
+		Plan columnPlan = getPlan(rows);
+		int blocks = (cols + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+		forEachBand(blocks, 1, (startBlock, endBlock) -> {
+			float[] linesRe = new float[COLUMN_BLOCK * rows];
+			float[] linesIm = new float[COLUMN_BLOCK * rows];
+			float[] scratchRe = columnPlan.createScratch();
+			float[] scratchIm = columnPlan.createScratch();
+			for (int block = startBlock; block < endBlock; block++) {
+				int x0 = block * COLUMN_BLOCK;
+				int width = Math.min(COLUMN_BLOCK, cols - x0);
+				for (int y = 0; y < rows; y++) {
+					int index = y * cols + x0;
+					for (int x = 0; x < width; x++) {
+						linesRe[x * rows + y] = real[index + x];
+						linesIm[x * rows + y] = imag[index + x];
+					}
+				}
+				for (int x = 0; x < width; x++) {
+					columnPlan.transform(linesRe, linesIm, x * rows, forward, scratchRe, scratchIm);
+				}
+				for (int y = 0; y < rows; y++) {
+					int index = y * cols + x0;
+					for (int x = 0; x < width; x++) {
+						real[index + x] = linesRe[x * rows + y];
+						imag[index + x] = linesIm[x * rows + y];
+					}
+				}
 			}
+		});
+	}
+
+	private void forEachBand(int count, int minimumBandHeight, ParallelSupport.BandTask task) {
+		if (this.parallel) {
+			ParallelSupport.forEachBand(this.executor, count, minimumBandHeight, task);
+		}
+		else {
+			task.run(0, count);
 		}
 	}
 
-	public void transform1D(float[] real, float[] imag, int logN, int n, boolean forward) {
-		scramble(n, real, imag);
-		butterflies(n, logN, forward ? 1 : -1, real, imag);
+	private Plan getPlan(int n) {
+		if (n < 1) {
+			throw new IllegalArgumentException("length must be at least 1");
+		}
+		return this.plans.computeIfAbsent(n, Plan::new);
 	}
 
-	public void transform2D(float[] real, float[] imag, int cols, int rows, boolean forward) {
-		int log2cols = log2(cols);
-		int log2rows = log2(rows);
-		int n = Math.max(rows, cols);
-		float[] rtemp = new float[n];
-		float[] itemp = new float[n];
-
-		// FFT the rows
-		for (int y = 0; y < rows; y++) {
-			int offset = y * cols;
-			System.arraycopy(real, offset, rtemp, 0, cols);
-			System.arraycopy(imag, offset, itemp, 0, cols);
-			transform1D(rtemp, itemp, log2cols, cols, forward);
-			System.arraycopy(rtemp, 0, real, offset, cols);
-			System.arraycopy(itemp, 0, imag, offset, cols);
+	/**
+	 * The tables for transforming one length.
+	 */
+	private static final class Plan {
+
+		private final int n;
+
+		// cos(2 pi j / n) and sin(2 pi j / n)
+		private final float[] cos;
+
+		private final float[] sin;
+
+		// For powers of two, the bit reversal permutation, otherwise null
+		private final int[] reversed;
+
+		// For other lengths, the radices of the Stockham stages
+		private final int[] factors;
+
+		Plan(int n) {
+			this.n = n;
+			this.cos = new float[n];
+			this.sin = new float[n];
+			for (int j = 0; j < n; j++) {
+				double angle = 2.0 * Math.PI * j / n;
+				this.cos[j] = (float) Math.cos(angle);
+				this.sin[j] = (float) Math.sin(angle);
+			}
+			if ((n & (n - 1)) == 0) {
+				int bits = Integer.numberOfTrailingZeros(n);
+				this.reversed = new int[n];
+				for (int i = 1; i < n; i++) {
+					this.reversed[i] = Integer.reverse(i) >>> (32 - bits);
+				}
+				this.factors = null;
+			}
+			else {
+				this.reversed = null;
+				this.factors = factorize(n);
+			}
 		}
 
-		// FFT the columns
-		for (int x = 0; x < cols; x++) {
-			int index = x;
-			for (int y = 0; y < rows; y++) {
-				rtemp[y] = real[index];
-				itemp[y] = imag[index];
-				index += cols;
-			}
-			transform1D(rtemp, itemp, log2rows, rows, forward);
-			index = x;
-			for (int y = 0; y < rows; y++) {
-				real[index] = rtemp[y];
-				imag[index] = itemp[y];
-				index += cols;
+		private static int[] factorize(int n) {
+			int[] factors = new int[32];
+			int count = 0;
+			while (n % 4 == 0) {
+				factors[count++] = 4;
+				n /= 4;
+			}
+			if (n % 2 == 0) {
+				factors[count++] = 2;
+				n /= 2;
+			}
+			for (int p = 3; n > 1; p += 2) {
+				if (p * p > n) {
+					p = n;
+				}
+				while (n % p == 0) {
+					factors[count++] = p;
+					n /= p;
+				}
+			}
+			return Arrays.copyOf(factors, count);
+		}
+
+		float[] createScratch() {
+			return (this.reversed != null) ? null : new float[this.n];
+		}
+
+		void transform(float[] re, float[] im, int offset, boolean forward, float[] scratchRe, float[] scratchIm) {
+			if (this.reversed != null) {
+				radix4(re, im, offset, forward);
+			}
+			else {
+				stockham(re, im, offset, forward, scratchRe, scratchIm);
+			}
+			if (!forward) {
+				float scale = 1.0f / this.n;
+				for (int i = offset; i < offset + this.n; i++) {
+					re[i] *= scale;
+					im[i] *= scale;
+				}
 			}
 		}
-	}
 
-	private int log2(int n) {
-		int m = 1;
-		int log2n = 0;
+		private void radix4(float[] re, float[] im, int offset, boolean forward) {
+			int n = this.n;
+			for (int i = 1; i < n; i++) {
+				int j = this.reversed[i];
+				if (i < j) {
+					float t = re[offset + i];
+					re[offset + i] = re[offset + j];
+					re[offset + j] = t;
+					t = im[offset + i];
+					im[offset + i] = im[offset + j];
+					im[offset + j] = t;
+				}
+			}
+
+			int m = 1;
+			if ((Integer.numberOfTrailingZeros(n) & 1) != 0) {
+				for (int i = offset; i < offset + n; i += 2) {
+					float r = re[i + 1];
+					float s = im[i + 1];
+					re[i + 1] = re[i] - r;
+					im[i + 1] = im[i] - s;
+					re[i] += r;
+					im[i] += s;
+				}
+				m = 2;
+			}
 
-		while (m < n) {
-			m *= 2;
-			log2n++;
+			// Each stage combines four transforms of length m into one of length 4m
+			float sign = (forward) ? -1 : 1;
+			for (; m < n; m *= 4) {
+				int length = 4 * m;
+				int stride = n / length;
+				for (int k = 0; k < m; k++) {
+					int t = k * stride;
+					float w1r = this.cos[t];
+					float w1i = sign * this.sin[t];
+					float w2r = this.cos[2 * t];
+					float w2i = sign * this.sin[2 * t];
+					float w3r = this.cos[3 * t];
+					float w3i = sign * this.sin[3 * t];
+					for (int i0 = offset + k; i0 < offset + n; i0 += length) {
+						int i1 = i0 + m;
+						int i2 = i1 + m;
+						int i3 = i2 + m;
+						float t1r = w2r * re[i1] - w2i * im[i1];
+						float t1i = w2r * im[i1] + w2i * re[i1];
+						float t2r = w1r * re[i2] - w1i * im[i2];
+						float t2i = w1r * im[i2] + w1i * re[i2];
+						float t3r = w3r * re[i3] - w3i * im[i3];
+						float t3i = w3r * im[i3] + w3i * re[i3];
+						float s0r = re[i0] + t1r;
+						float s0i = im[i0] + t1i;
+						float d0r = re[i0] - t1r;
+						float d0i = im[i0] - t1i;
+						float s1r = t2r + t3r;
+						float s1i = t2i + t3i;
+						float d1r = t2r - t3r;
+						float d1i = t2i - t3i;
+						re[i0] = s0r + s1r;
+						im[i0] = s0i + s1i;
+						re[i2] = s0r - s1r;
+						im[i2] = s0i - s1i;
+						re[i1] = d0r - sign * d1i;
+						im[i1] = d0i + sign * d1r;
+						re[i3] = d0r + sign * d1i;
+						im[i3] = d0i - sign * d1r;
+					}
+				}
+			}
 		}
-		return (m == n) ? log2n : -1;
+
+		private void stockham(float[] re, float[] im, int offset, boolean forward, float[] scratchRe,
+				float[] scratchIm) {
+			int n = this.n;
+			float sign = (forward) ? -1 : 1;
+			float[] xr = re;
+			float[] xi = im;
+			int xo = offset;
+			float[] yr = scratchRe;
+			float[] yi = scratchIm;
+			int yo = 0;
+			int s = 1;
+			for (int p : this.factors) {
+				int m = n / (s * p);
+				if (p == 2) {
+					radix2Stage(xr, xi, xo, yr, yi, yo, s, m, sign);
+				}
+				else if (p == 3) {
+					radix3Stage(xr, xi, xo, yr, yi, yo, s, m, sign);
+				}
+				else if (p == 4) {
+					radix4Stage(xr, xi, xo, yr, yi, yo, s, m, sign);
+				}
+				else if (p == 5) {
+					radix5Stage(xr, xi, xo, yr, yi, yo, s, m, sign);
+				}
+				else {
+					genericStage(xr, xi, xo, yr, yi, yo, s, m, p, sign);
+				}
+				float[] t = xr;
+				xr = yr;
+				yr = t;
+				t = xi;
+				xi = yi;
+				yi = t;
+				int to = xo;
+				xo = yo;
+				yo = to;
+				s *= p;
+			}
+			if (xr != re) {
+				System.arraycopy(xr, xo, re, offset, n);
+				System.arraycopy(xi, xo, im, offset, n);
+			}
+		}
+
+		// A stage reads the p inputs x[t + s * (q + m * r)] and writes their transform, multiplied
+		// by the twiddle factors, to y[t + s * (p * q + u)]
+		private void radix2Stage(float[] xr, float[] xi, int xo, float[] yr, float[] yi, int yo, int s, int m,
+				float sign) {
+			for (int q = 0; q < m; q++) {
+				float wr = this.cos[q * s];
+				float wi = sign * this.sin[q * s];
+				for (int t = 0; t < s; t++) {
+					int a = xo + t + s * q;
+					int b = a + s * m;
+					int out = yo + t + s * 2 * q;
+					float ar = xr[a];
+					float ai = xi[a];
+					float br = xr[b];
+					float bi = xi[b];
+					yr[out] = ar + br;
+					yi[out] = ai + bi;
+					float dr = ar - br;
+					float di = ai - bi;
+					yr[out + s] = dr * wr - di * wi;
+					yi[out + s] = dr * wi + di * wr;
+				}
+			}
+		}
+
+		private void radix3Stage(float[] xr, float[] xi, int xo, float[] yr, float[] yi, int yo, int s, int m,
+				float sign) {
+			float rotation = sign * (float) (Math.sqrt(3) / 2);
+			for (int q = 0; q < m; q++) {
+				float w1r = this.cos[q * s];
+				float w1i = sign * this.sin[q * s];
+				float w2r = this.cos[2 * q * s];
+				float w2i = sign * this.sin[2 * q * s];
+				for (int t = 0; t < s; t++) {
+					int a0 = xo + t + s * q;
+					int a1 = a0 + s * m;
+					int a2 = a1 + s * m;
+					float sr = xr[a1] + xr[a2];
+					float si = xi[a1] + xi[a2];
+					float mr = xr[a0] - 0.5f * sr;
+					float mi = xi[a0] - 0.5f * si;
+					float rr = -rotation * (xi[a1] - xi[a2]);
+					float ri = rotation * (xr[a1] - xr[a2]);
+					int out = yo + t + s * 3 * q;
+					yr[out] = xr[a0] + sr;
+					yi[out] = xi[a0] + si;
+					float br = mr + rr;
+					float bi = mi + ri;
+					out += s;
+					yr[out] = br * w1r - bi * w1i;
+					yi[out] = br * w1i + bi * w1r;
+					br = mr - rr;
+					bi = mi - ri;
+					out += s;
+					yr[out] = br * w2r - bi * w2i;
+					yi[out] = br * w2i + bi * w2r;
+				}
+			}
+		}
+
+		private void radix4Stage(float[] xr, float[] xi, int xo, float[] yr, float[] yi, int yo, int s, int m,
+				float sign) {
+			for (int q = 0; q < m; q++) {
+				float w1r = this.cos[q * s];
+				float w1i = sign * this.sin[q * s];
+				float w2r = this.cos[2 * q * s];
+				float w2i = sign * this.sin[2 * q * s];
+				float w3r = this.cos[3 * q * s];
+				float w3i = sign * this.sin[3 * q * s];
+				for (int t = 0; t < s; t++) {
+					int a0 = xo + t + s * q;
+					int a1 = a0 + s * m;
+					int a2 = a1 + s * m;
+					int a3 = a2 + s * m;
+					float s0r = xr[a0] + xr[a2];
+					float s0i = xi[a0] + xi[a2];
+					float d0r = xr[a0] - xr[a2];
+					float d0i = xi[a0] - xi[a2];
+					float s1r = xr[a1] + xr[a3];
+					float s1i = xi[a1] + xi[a3];
+					float d1r = xr[a1] - xr[a3];
+					float d1i = xi[a1] - xi[a3];
+					int out = yo + t + s * 4 * q;
+					yr[out] = s0r + s1r;
+					yi[out] = s0i + s1i;
+					float br = d0r - sign * d1i;
+					float bi = d0i + sign * d1r;
+					out += s;
+					yr[out] = br * w1r - bi * w1i;
+					yi[out] = br * w1i + bi * w1r;
+					br = s0r - s1r;
+					bi = s0i - s1i;
+					out += s;
+					yr[out] = br * w2r - bi * w2i;
+					yi[out] = br * w2i + bi * w2r;
+					br = d0r + sign * d1i;
+					bi = d0i - sign * d1r;
+					out += s;
+					yr[out] = br * w3r - bi * w3i;
+					yi[out] = br * w3i + bi * w3r;
+				}
+			}
+		}
+
+		private void radix5Stage(float[] xr, float[] xi, int xo, float[] yr, float[] yi, int yo, int s, int m,
+				float sign) {
+			float c1 = (float) Math.cos(2 * Math.PI / 5);
+			float c2 = (float) Math.cos(4 * Math.PI / 5);
+			float s1 = sign * (float) Math.sin(2 * Math.PI / 5);
+			float s2 = sign * (float) Math.sin(4 * Math.PI / 5);
+			float[] wr = new float[5];
+			float[] wi = new float[5];
+			float[] br = new float[5];
+			float[] bi = new float[5];
+			for (int q = 0; q < m; q++) {
+				for (int u = 1; u < 5; u++) {
+					wr[u] = this.cos[u * q * s];
+					wi[u] = sign * this.sin[u * q * s];
+				}
+				for (int t = 0; t < s; t++) {
+					int a0 = xo + t + s * q;
+					int a1 = a0 + s * m;
+					int a2 = a1 + s * m;
+					int a3 = a2 + s * m;
+					int a4 = a3 + s * m;
+					float t1r = xr[a1] + xr[a4];
+					float t1i = xi[a1] + xi[a4];
+					float t2r = xr[a2] + xr[a3];
+					float t2i = xi[a2] + xi[a3];
+					float d1r = xr[a1] - xr[a4];
+					float d1i = xi[a1] - xi[a4];
+					float d2r = xr[a2] - xr[a3];
+					float d2i = xi[a2] - xi[a3];
+					float m1r = xr[a0] + c1 * t1r + c2 * t2r;
+					float m1i = xi[a0] + c1 * t1i + c2 * t2i;
+					float m2r = xr[a0] + c2 * t1r + c1 * t2r;
+					float m2i = xi[a0] + c2 * t1i + c1 * t2i;
+					float n1r = -(s1 * d1i + s2 * d2i);
+					float n1i = s1 * d1r + s2 * d2r;
+					float n2r = -(s2 * d1i - s1 * d2i);
+					float n2i = s2 * d1r - s1 * d2r;
+					br[1] = m1r + n1r;
+					bi[1] = m1i + n1i;
+					br[4] = m1r - n1r;
+					bi[4] = m1i - n1i;
+					br[2] = m2r + n2r;
+					bi[2] = m2i + n2i;
+					br[3] = m2r - n2r;
+					bi[3] = m2i - n2i;
+					int out = yo + t + s * 5 * q;
+					yr[out] = xr[a0] + t1r + t2r;
+					yi[out] = xi[a0] + t1i + t2i;
+					for (int u = 1; u < 5; u++) {
+						out += s;
+						yr[out] = br[u] * wr[u] - bi[u] * wi[u];
+						yi[out] = br[u] * wi[u] + bi[u] * wr[u];
+					}
+				}
+			}
+		}
+
+		private void genericStage(float[] xr, float[] xi, int xo, float[] yr, float[] yi, int yo, int s, int m, int p,
+				float sign) {
+			int rootStep = this.n / p;
+			float[] rootRe = new float[p];
+			float[] rootIm = new float[p];
+			for (int k = 0; k < p; k++) {
+				rootRe[k] = this.cos[k * rootStep];
+				rootIm[k] = sign * this.sin[k * rootStep];
+			}
+			float[] ar = new float[p];
+			float[] ai = new float[p];
+			for (int q = 0; q < m; q++) {
+				for (int t = 0; t < s; t++) {
+					for (int r = 0; r < p; r++) {
+						int a = xo + t + s * (q + m * r);
+						ar[r] = xr[a];
+						ai[r] = xi[a];
+					}
+					for (int u = 0; u < p; u++) {
+						float br = ar[0];
+						float bi = ai[0];
+						int root = u;
+						for (int r = 1; r < p; r++) {
+							float wr = rootRe[root];
+							float wi = rootIm[root];
+							br += ar[r] * wr - ai[r] * wi;
+							bi += ar[r] * wi + ai[r] * wr;
+							root += u;
+							if (root >= p) {
+								root -= p;
+							}
+						}
+						int twiddle = q * u * s;
+						float wr = this.cos[twiddle];
+						float wi = sign * this.sin[twiddle];
+						int out = yo + t + s * (p * q + u);
+						yr[out] = br * wr - bi * wi;
+						yi[out] = br * wi + bi * wr;
+					}
+				}
+			}
+		}
+
 	}
 
 }
@@ -4,7 +4,55 @@
 
 package com.jhlabs.math;
 
+import java.util.Arrays;
+
 public interface Function2D {
 	float evaluate(float x, float y);
-}
 
+	/**
+	 * Evaluate the function for a batch of points, which lets implementations share work
+	 * between points and avoid a call per point. The results must be the same as those of
+	 * {@link #evaluate(float, float)}.
+	 * @param x     the x coordinates
+	 * @param y     the y coordinates
+	 * @param out   the array which receives the values
+	 * @param count the number of points
+	 */
+	default void evaluate(float[] x, float[] y, float[] out, int count) {
+		for (int i = 0; i < count; i++) {
+			out[i] = evaluate(x[i], y[i]);
+		}
+	}
+
+	/**
+	 * Evaluate the function at points along a row, at {@code (x[i], y)} for each {@code i} below
+	 * {@code count}. Implementations can do the work which only depends on y once per row. The
+	 * results must be the same as those of {@link #evaluate(float, float)}.
+	 * @param x     the x coordinates
+	 * @param y     the y coordinate of the row
+	 * @param out   the array which receives the values
+	 * @param count the number of points
+	 */
+	default void evaluateRow(float[] x, float y, float[] out, int count) {
+		float[] ys = new float[count];
+		Arrays.fill(ys, y);
+		evaluate(x, ys, out, count);
+	}
+
+	/**
+	 * Evaluate the function along a row, at {@code (x0 + i * dx, y)} for each {@code i} below
+	 * {@code count}. The results must be the same as those of {@link #evaluate(float, float)}.
+	 * @param y     the y coordinate of the row
+	 * @param x0    the x coordinate of the first point
+	 * @param dx    the distance between points
+	 * @param out   the array which receives the values
+	 * @param count the number of points
+	 */
+	default void evaluateRow(float y, float x0, float dx, float[] out, int count) {
+		float[] xs = new float[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = x0 + i * dx;
+		}
+		evaluateRow(xs, y, out, count);
+	}
+}
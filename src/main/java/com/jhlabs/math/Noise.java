@@ -4,6 +4,7 @@
 
 package com.jhlabs.math;
 
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -14,7 +15,8 @@ import java.util.Random;
  */
 public class Noise implements Function1D, Function2D, Function3D {
 
-	private static final Random randomGenerator = new Random();
+	// A fixed seed, so that the noise tables and every texture built on them are the same in every run
+	private static final Random randomGenerator = new Random(0);
 
 	@Override
 	public float evaluate(float x) {
@@ -31,6 +33,16 @@ public class Noise implements Function1D, Function2D, Function3D {
 		return noise3(x, y, z);
 	}
 
+	@Override
+	public void evaluate(float[] x, float[] y, float[] out, int count) {
+		noise2(x, y, out, count);
+	}
+
+	@Override
+	public void evaluateRow(float[] x, float y, float[] out, int count) {
+		noise2Row(x, y, out, count);
+	}
+
 	/**
 	 * Compute turbulence using Perlin noise.
 	 * @param x       the x value
@@ -47,6 +59,50 @@ public class Noise implements Function1D, Function2D, Function3D {
 		return t;
 	}
 
+	/**
+	 * Compute turbulence using Perlin noise for a batch of points. The results are the same as
+	 * those of {@link #turbulence2(float, float, float)} for each point.
+	 * @param x       the x values
+	 * @param y       the y values
+	 * @param octaves number of octaves of turbulence
+	 * @param out     the array which receives the turbulence values
+	 * @param count   the number of points
+	 */
+	public static void turbulence2(float[] x, float[] y, float octaves, float[] out, int count) {
+		Arrays.fill(out, 0, count, 0.0f);
+		for (float f = 1.0f; f <= octaves; f *= 2) {
+			for (int i = 0; i < count; i++) {
+				out[i] += Math.abs(noise2(f * x[i], f * y[i])) / f;
+			}
+		}
+	}
+
+	/**
+	 * Compute turbulence using Perlin noise at points along a row, at {@code (x[i], y)} for each
+	 * {@code i} below {@code count}. The results are the same as those of
+	 * {@link #turbulence2(float, float, float)} for each point, but every octave is computed
+	 * with {@link #noise2Row(float[], float, float[], int)}.
+	 * @param x       the x values
+	 * @param y       the y value of the row
+	 * @param octaves number of octaves of turbulence
+	 * @param out     the array which receives the turbulence values
+	 * @param count   the number of points
+	 */
+	public static void turbulence2Row(float[] x, float y, float octaves, float[] out, int count) {
+		float[] xs = new float[count];
+		float[] values = new float[count];
+		Arrays.fill(out, 0, count, 0.0f);
+		for (float f = 1.0f; f <= octaves; f *= 2) {
+			for (int i = 0; i < count; i++) {
+				xs[i] = f * x[i];
+			}
+			noise2Row(xs, f * y, values, count);
+			for (int i = 0; i < count; i++) {
+				out[i] += Math.abs(values[i]) / f;
+			}
+		}
+	}
+
 	/**
 	 * Compute turbulence using Perlin noise.
 	 * @param x       the x value
@@ -68,11 +124,16 @@ public class Noise implements Function1D, Function2D, Function3D {
 	private static final int BM = 0xff;
 	private static final int N = 0x1000;
 
+	// The gradients are stored flat, two or three floats per lattice point, to save an indirection per lookup
 	static int[] p = new int[B + B + 2];
-	static float[][] g3 = new float[B + B + 2][3];
-	static float[][] g2 = new float[B + B + 2][2];
+	static float[] g3 = new float[(B + B + 2) * 3];
+	static float[] g2 = new float[(B + B + 2) * 2];
 	static float[] g1 = new float[B + B + 2];
-	static boolean start = true;
+
+	static {
+		// Initialize eagerly so that concurrent callers never see partially built tables
+		init();
+	}
 
 	private static float sCurve(float t) {
 		return t * t * (3.0f - 2.0f * t);
@@ -93,11 +154,6 @@ public class Noise implements Function1D, Function2D, Function3D {
 		float u;
 		float v;
 
-		if (start) {
-			start = false;
-			init();
-		}
-
 		t = x + N;
 		bx0 = ((int) t) & BM;
 		bx1 = (bx0 + 1) & BM;
@@ -130,7 +186,6 @@ public class Noise implements Function1D, Function2D, Function3D {
 		float rx1;
 		float ry0;
 		float ry1;
-		float[] q;
 		float sx;
 		float sy;
 		float a;
@@ -141,11 +196,6 @@ public class Noise implements Function1D, Function2D, Function3D {
 		int i;
 		int j;
 
-		if (start) {
-			start = false;
-			init();
-		}
-
 		t = x + N;
 		bx0 = ((int) t) & BM;
 		bx1 = (bx0 + 1) & BM;
@@ -161,29 +211,117 @@ public class Noise implements Function1D, Function2D, Function3D {
 		i = p[bx0];
 		j = p[bx1];
 
-		b00 = p[i + by0];
-		b10 = p[j + by0];
-		b01 = p[i + by1];
-		b11 = p[j + by1];
+		b00 = p[i + by0] << 1;
+		b10 = p[j + by0] << 1;
+		b01 = p[i + by1] << 1;
+		b11 = p[j + by1] << 1;
 
 		sx = sCurve(rx0);
 		sy = sCurve(ry0);
 
-		q = g2[b00];
-		u = rx0 * q[0] + ry0 * q[1];
-		q = g2[b10];
-		v = rx1 * q[0] + ry0 * q[1];
+		u = rx0 * g2[b00] + ry0 * g2[b00 + 1];
+		v = rx1 * g2[b10] + ry0 * g2[b10 + 1];
 		a = lerp(sx, u, v);
 
-		q = g2[b01];
-		u = rx0 * q[0] + ry1 * q[1];
-		q = g2[b11];
-		v = rx1 * q[0] + ry1 * q[1];
+		u = rx0 * g2[b01] + ry1 * g2[b01 + 1];
+		v = rx1 * g2[b11] + ry1 * g2[b11 + 1];
 		b = lerp(sx, u, v);
 
 		return 1.5f * lerp(sy, a, b);
 	}
 
+	/**
+	 * Compute 2-dimensional Perlin noise for a batch of points. The results are the same as
+	 * those of {@link #noise2(float, float)} for each point.
+	 * @param x     the x coordinates
+	 * @param y     the y coordinates
+	 * @param out   the array which receives the noise values
+	 * @param count the number of points
+	 */
+	public static void noise2(float[] x, float[] y, float[] out, int count) {
+		for (int i = 0; i < count; i++) {
+			out[i] = noise2(x[i], y[i]);
+		}
+	}
+
+	/**
+	 * Compute 2-dimensional Perlin noise along a row, at {@code (x0 + i * dx, y)} for each
+	 * {@code i} below {@code count}. The results are the same as those of
+	 * {@link #noise2(float, float)}.
+	 * @param y     the y coordinate of the row
+	 * @param x0    the x coordinate of the first point
+	 * @param dx    the distance between points
+	 * @param out   the array which receives the noise values
+	 * @param count the number of points
+	 * @see #noise2Row(float[], float, float[], int)
+	 */
+	public static void noise2Row(float y, float x0, float dx, float[] out, int count) {
+		float[] xs = new float[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = x0 + i * dx;
+		}
+		noise2Row(xs, y, out, count);
+	}
+
+	/**
+	 * Compute 2-dimensional Perlin noise at points along a row, at {@code (x[i], y)} for each
+	 * {@code i} below {@code count}. The results are the same as those of
+	 * {@link #noise2(float, float)}, but the lattice lookups which only depend on y are done
+	 * once per row, and the gradients of a lattice cell are only looked up when a point falls in
+	 * another cell than the one before it.
+	 * @param x     the x coordinates
+	 * @param y     the y coordinate of the row
+	 * @param out   the array which receives the noise values
+	 * @param count the number of points
+	 */
+	public static void noise2Row(float[] x, float y, float[] out, int count) {
+		float t = y + N;
+		int by0 = ((int) t) & BM;
+		int by1 = (by0 + 1) & BM;
+		float ry0 = t - (int) t;
+		float ry1 = ry0 - 1.0f;
+		float sy = sCurve(ry0);
+
+		int cell = 0;
+		float g00x = 0;
+		float g00y = 0;
+		float g10x = 0;
+		float g10y = 0;
+		float g01x = 0;
+		float g01y = 0;
+		float g11x = 0;
+		float g11y = 0;
+		for (int n = 0; n < count; n++) {
+			t = x[n] + N;
+			int it = (int) t;
+			if (n == 0 || it != cell) {
+				cell = it;
+				int bx0 = it & BM;
+				int bx1 = (bx0 + 1) & BM;
+				int i = p[bx0];
+				int j = p[bx1];
+				int b00 = p[i + by0] << 1;
+				int b10 = p[j + by0] << 1;
+				int b01 = p[i + by1] << 1;
+				int b11 = p[j + by1] << 1;
+				g00x = g2[b00];
+				g00y = g2[b00 + 1];
+				g10x = g2[b10];
+				g10y = g2[b10 + 1];
+				g01x = g2[b01];
+				g01y = g2[b01 + 1];
+				g11x = g2[b11];
+				g11y = g2[b11 + 1];
+			}
+			float rx0 = t - it;
+			float rx1 = rx0 - 1.0f;
+			float sx = sCurve(rx0);
+			float a = lerp(sx, rx0 * g00x + ry0 * g00y, rx1 * g10x + ry0 * g10y);
+			float b = lerp(sx, rx0 * g01x + ry1 * g01y, rx1 * g11x + ry1 * g11y);
+			out[n] = 1.5f * lerp(sy, a, b);
+		}
+	}
+
 	/**
 	 * Compute 3-dimensional Perlin noise.
 	 * @param x the x coordinate
@@ -208,7 +346,6 @@ public class Noise implements Function1D, Function2D, Function3D {
 		float ry1;
 		float rz0;
 		float rz1;
-		float[] q;
 		float sy;
 		float sz;
 		float a;
@@ -220,11 +357,7 @@ public class Noise implements Function1D, Function2D, Function3D {
 		float v;
 		int i;
 		int j;
-
-		if (start) {
-			start = false;
-			init();
-		}
+		int k;
 
 		t = x + N;
 		bx0 = ((int) t) & BM;
@@ -256,30 +389,30 @@ public class Noise implements Function1D, Function2D, Function3D {
 		sy = sCurve(ry0);
 		sz = sCurve(rz0);
 
-		q = g3[b00 + bz0];
-		u = rx0 * q[0] + ry0 * q[1] + rz0 * q[2];
-		q = g3[b10 + bz0];
-		v = rx1 * q[0] + ry0 * q[1] + rz0 * q[2];
+		k = (b00 + bz0) * 3;
+		u = rx0 * g3[k] + ry0 * g3[k + 1] + rz0 * g3[k + 2];
+		k = (b10 + bz0) * 3;
+		v = rx1 * g3[k] + ry0 * g3[k + 1] + rz0 * g3[k + 2];
 		a = lerp(t, u, v);
 
-		q = g3[b01 + bz0];
-		u = rx0 * q[0] + ry1 * q[1] + rz0 * q[2];
-		q = g3[b11 + bz0];
-		v = rx1 * q[0] + ry1 * q[1] + rz0 * q[2];
+		k = (b01 + bz0) * 3;
+		u = rx0 * g3[k] + ry1 * g3[k + 1] + rz0 * g3[k + 2];
+		k = (b11 + bz0) * 3;
+		v = rx1 * g3[k] + ry1 * g3[k + 1] + rz0 * g3[k + 2];
 		b = lerp(t, u, v);
 
 		c = lerp(sy, a, b);
 
-		q = g3[b00 + bz1];
-		u = rx0 * q[0] + ry0 * q[1] + rz1 * q[2];
-		q = g3[b10 + bz1];
-		v = rx1 * q[0] + ry0 * q[1] + rz1 * q[2];
+		k = (b00 + bz1) * 3;
+		u = rx0 * g3[k] + ry0 * g3[k + 1] + rz1 * g3[k + 2];
+		k = (b10 + bz1) * 3;
+		v = rx1 * g3[k] + ry0 * g3[k + 1] + rz1 * g3[k + 2];
 		a = lerp(t, u, v);
 
-		q = g3[b01 + bz1];
-		u = rx0 * q[0] + ry1 * q[1] + rz1 * q[2];
-		q = g3[b11 + bz1];
-		v = rx1 * q[0] + ry1 * q[1] + rz1 * q[2];
+		k = (b01 + bz1) * 3;
+		u = rx0 * g3[k] + ry1 * g3[k + 1] + rz1 * g3[k + 2];
+		k = (b11 + bz1) * 3;
+		v = rx1 * g3[k] + ry1 * g3[k + 1] + rz1 * g3[k + 2];
 		b = lerp(t, u, v);
 
 		d = lerp(sy, a, b);
@@ -318,15 +451,18 @@ public class Noise implements Function1D, Function2D, Function3D {
 
 			g1[i] = (float) ((random() % (B + B)) - B) / B;
 
+			float[] v = new float[3];
 			for (j = 0; j < 2; j++) {
-				g2[i][j] = (float) ((random() % (B + B)) - B) / B;
+				v[j] = (float) ((random() % (B + B)) - B) / B;
 			}
-			normalize2(g2[i]);
+			normalize2(v);
+			System.arraycopy(v, 0, g2, i * 2, 2);
 
 			for (j = 0; j < 3; j++) {
-				g3[i][j] = (float) ((random() % (B + B)) - B) / B;
+				v[j] = (float) ((random() % (B + B)) - B) / B;
 			}
-			normalize3(g3[i]);
+			normalize3(v);
+			System.arraycopy(v, 0, g3, i * 3, 3);
 		}
 
 		for (i = B - 1; i >= 0; i--) {
@@ -339,12 +475,8 @@ public class Noise implements Function1D, Function2D, Function3D {
 		for (i = 0; i < B + 2; i++) {
 			p[B + i] = p[i];
 			g1[B + i] = g1[i];
-			for (j = 0; j < 2; j++) {
-				g2[B + i][j] = g2[i][j];
-			}
-			for (j = 0; j < 3; j++) {
-				g3[B + i][j] = g3[i][j];
-			}
+			System.arraycopy(g2, i * 2, g2, (B + i) * 2, 2);
+			System.arraycopy(g3, i * 3, g3, (B + i) * 3, 3);
 		}
 	}
 
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.jhlabs.math;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded random number streams for procedural filters. Rather than consuming a single
+ * sequence in pixel order, a filter derives an independent stream from its seed and the
+ * position it is working on, such as a pixel, a row or a tile. The output then depends only on
+ * the seed, so it is reproducible and the same whether the image is rendered serially or in
+ * parallel bands, and no random number generator is shared between threads.
+ *
+ * @author Gunnar Hillert
+ */
+public final class RandomStreams {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private RandomStreams() {
+	}
+
+	/**
+	 * Derive the seed of the stream for a position. Nearby positions and seeds give unrelated
+	 * values.
+	 * @param seed the seed of the filter
+	 * @param x    the first coordinate of the position
+	 * @param y    the second coordinate of the position
+	 * @return the seed of the stream
+	 */
+	public static long seed(long seed, int x, int y) {
+		long h = mix(seed + GOLDEN_GAMMA);
+		h = mix(h + GOLDEN_GAMMA * (x + 1L));
+		return mix(h + GOLDEN_GAMMA * (y + 1L));
+	}
+
+	/**
+	 * Create the stream for a position.
+	 * @param seed the seed of the filter
+	 * @param x    the first coordinate of the position
+	 * @param y    the second coordinate of the position
+	 * @return a new random number generator
+	 */
+	public static SplittableRandom stream(long seed, int x, int y) {
+		return new SplittableRandom(seed(seed, x, y));
+	}
+
+	/**
+	 * Get a value of a stream without creating it. The value equals what the
+	 * {@code index + 1}th call to {@link SplittableRandom#nextLong} on
+	 * {@code new SplittableRandom(streamSeed)} returns, so a filter can hash the few values it
+	 * needs per pixel instead of allocating a generator for each.
+	 * @param streamSeed the seed of the stream, see {@link #seed}
+	 * @param index      the zero-based index of the value in the stream
+	 * @return the value
+	 */
+	public static long value(long streamSeed, int index) {
+		return mix(streamSeed + GOLDEN_GAMMA * (index + 1L));
+	}
+
+	// The finalizer of SplitMix64, a bijection which spreads every input bit over the output
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -11,4 +11,20 @@ public class RidgedFBM implements Function2D {
 		return 1 - Math.abs(Noise.noise2(x, y));
 	}
 
+	@Override
+	public void evaluate(float[] x, float[] y, float[] out, int count) {
+		Noise.noise2(x, y, out, count);
+		for (int i = 0; i < count; i++) {
+			out[i] = 1 - Math.abs(out[i]);
+		}
+	}
+
+	@Override
+	public void evaluateRow(float[] x, float y, float[] out, int count) {
+		Noise.noise2Row(x, y, out, count);
+		for (int i = 0; i < count; i++) {
+			out[i] = 1 - Math.abs(out[i]);
+		}
+	}
+
 }
@@ -14,7 +14,6 @@ import java.util.Random;
  */
 public class SCNoise implements Function1D, Function2D, Function3D {
 
-	private static Random randomGenerator = new Random();
 
 	@Override
 	public float evaluate(float x) {
@@ -37,10 +36,6 @@ public class SCNoise implements Function1D, Function2D, Function3D {
 		float dy;
 		float distsq;
 
-		if (impulseTab == null) {
-			impulseTab = impulseTabInit(665);
-		}
-
 		ix = floor(x);
 		fx = x - ix;
 		iy = floor(y);
@@ -86,10 +81,6 @@ public class SCNoise implements Function1D, Function2D, Function3D {
 		float dz;
 		float distsq;
 
-		if (impulseTab == null) {
-			impulseTab = impulseTabInit(665);
-		}
-
 		ix = floor(x);
 		fx = x - ix;
 		iy = floor(y);
@@ -144,7 +135,7 @@ public class SCNoise implements Function1D, Function2D, Function3D {
 	private static final int TABMASK = (TABSIZE - 1);
 	private static final int NIMPULSES = 3;
 
-	private static float[] impulseTab;
+	private static final float[] impulseTab = impulseTabInit(665);
 
 	public static int floor(float x) {
 		int ix = (int) x;
@@ -156,30 +147,15 @@ public class SCNoise implements Function1D, Function2D, Function3D {
 
 	private static final int SAMPRATE = 100;  /* table entries per unit distance */
 	private static final int NENTRIES = (4 * SAMPRATE + 1);
-	private static float[] table;
+	private static final float[] table = catromTable();
 
 	public float catrom2(float d) {
-		float x;
 		int i;
 
 		if (d >= 4) {
 			return 0;
 		}
 
-		if (table == null) {
-			table = new float[NENTRIES];
-			for (i = 0; i < NENTRIES; i++) {
-				x = i / (float) SAMPRATE;
-				x = (float) Math.sqrt(x);
-				if (x < 1) {
-					table[i] = 0.5f * (2 + x * x * (-5 + x * 3));
-				}
-				else {
-					table[i] = 0.5f * (4 + x * (-8 + x * (5 - x)));
-				}
-			}
-		}
-
 		d = d * SAMPRATE + 0.5f;
 		i = floor(d);
 		if (i >= NENTRIES) {
@@ -188,10 +164,25 @@ public class SCNoise implements Function1D, Function2D, Function3D {
 		return table[i];
 	}
 
+	private static float[] catromTable() {
+		float[] table = new float[NENTRIES];
+		for (int i = 0; i < NENTRIES; i++) {
+			float x = i / (float) SAMPRATE;
+			x = (float) Math.sqrt(x);
+			if (x < 1) {
+				table[i] = 0.5f * (2 + x * x * (-5 + x * 3));
+			}
+			else {
+				table[i] = 0.5f * (4 + x * (-8 + x * (5 - x)));
+			}
+		}
+		return table;
+	}
+
 	static float[] impulseTabInit(int seed) {
 		float[] impulseTab = new float[TABSIZE * 4];
 
-		randomGenerator = new Random(seed); /* Set random number generator seed. */
+		Random randomGenerator = new Random(seed); /* Set random number generator seed. */
 		for (int i = 0; i < TABSIZE; i++) {
 			impulseTab[i++] = randomGenerator.nextFloat();
 			impulseTab[i++] = randomGenerator.nextFloat();
@@ -4,6 +4,8 @@
 
 package com.jhlabs.math;
 
+import java.util.Arrays;
+
 public class TurbulenceFunction extends CompoundFunction2D {
 
 	private float octaves;
@@ -31,4 +33,40 @@ public class TurbulenceFunction extends CompoundFunction2D {
 		return t;
 	}
 
+	@Override
+	public void evaluate(float[] x, float[] y, float[] out, int count) {
+		float[] xs = new float[count];
+		float[] ys = new float[count];
+		float[] values = new float[count];
+
+		Arrays.fill(out, 0, count, 0.0f);
+		for (float f = 1.0f; f <= this.octaves; f *= 2) {
+			for (int n = 0; n < count; n++) {
+				xs[n] = f * x[n];
+				ys[n] = f * y[n];
+			}
+			this.basis.evaluate(xs, ys, values, count);
+			for (int n = 0; n < count; n++) {
+				out[n] += Math.abs(values[n]) / f;
+			}
+		}
+	}
+
+	@Override
+	public void evaluateRow(float[] x, float y, float[] out, int count) {
+		float[] xs = new float[count];
+		float[] values = new float[count];
+
+		Arrays.fill(out, 0, count, 0.0f);
+		for (float f = 1.0f; f <= this.octaves; f *= 2) {
+			for (int n = 0; n < count; n++) {
+				xs[n] = f * x[n];
+			}
+			this.basis.evaluateRow(xs, f * y, values, count);
+			for (int n = 0; n < count; n++) {
+				out[n] += Math.abs(values[n]) / f;
+			}
+		}
+	}
+
 }
@@ -25,9 +25,12 @@
 package com.hillert.image.filters;
 
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 import com.hillert.image.filters.support.ImageTestUtils;
 import com.jhlabs.image.CellularFilter;
+import com.jhlabs.image.CrystallizeFilter;
+import com.jhlabs.image.PointillizeFilter;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -71,6 +74,141 @@ public class CellularFilterTests {
 		assertThat(pixelChanged).isTrue();
 	}
 
+	/**
+	 * Verifies that the crystallize and pointillize filters, which color their pixels
+	 * themselves, give the pixels of their own {@code getPixel} rather than the row coloring.
+	 */
+	@Test
+	void crystallizeAndPointillizeMatchPerPixelPath() {
+		final BufferedImage source = ImageTestUtils.randomImage(47, 31);
+		final int width = source.getWidth();
+		final int height = source.getHeight();
+		final int[] inPixels = source.getRGB(0, 0, width, height, null, 0, width);
+		final PointillizeFilter fadedPointillize = new PointillizeFilter();
+		fadedPointillize.setFadeEdges(true);
+		for (final CellularFilter filter : new CellularFilter[] { new CrystallizeFilter(), new PointillizeFilter(), fadedPointillize }) {
+			filter.setScale(7);
+
+			final BufferedImage result = filter.filter(source, null);
+
+			assertMatchesPixels(result, filter, inPixels);
+		}
+	}
+
+	/**
+	 * Verifies that a subclass which overrides {@code getPixel} but not
+	 * {@code canColorRows} still has its own pixels, even with a colormap set.
+	 */
+	@Test
+	void overriddenGetPixelIsUsedWithColormap() {
+		final BufferedImage source = ImageTestUtils.randomImage(29, 23);
+		final int width = source.getWidth();
+		final int height = source.getHeight();
+		final int[] inPixels = source.getRGB(0, 0, width, height, null, 0, width);
+		final CellularFilter filter = new CellularFilter() {
+			@Override
+			public int getPixel(int x, int y, int[] inPixels, int width, int height) {
+				return super.getPixel(x, y, inPixels, width, height) ^ 0x00ff00ff;
+			}
+		};
+		filter.setScale(6);
+
+		final BufferedImage result = filter.filter(source, null);
+
+		assertMatchesPixels(result, filter, inPixels);
+	}
+
+	/**
+	 * Verifies that filtering with the feature points generated once per render gives the
+	 * pixels which are found by generating the feature points for every pixel.
+	 */
+	@Test
+	void featureGridMatchesGeneratedPoints() {
+		final BufferedImage source = ImageTestUtils.randomImage(67, 45);
+		final int width = source.getWidth();
+		final int height = source.getHeight();
+		final int[] inPixels = source.getRGB(0, 0, width, height, null, 0, width);
+		for (int gridType = CellularFilter.RANDOM; gridType <= CellularFilter.TRIANGULAR; gridType++) {
+			for (final float randomness : new float[] { 0, 0.6f }) {
+				final CellularFilter cellular = new CellularFilter();
+				cellular.setCoefficient(1, 0.5f);
+				final CrystallizeFilter crystallize = new CrystallizeFilter();
+				final PointillizeFilter pointillize = new PointillizeFilter();
+				pointillize.setFadeEdges(true);
+				for (final CellularFilter filter : new CellularFilter[] { cellular, crystallize, pointillize }) {
+					filter.setGridType(gridType);
+					filter.setRandomness(randomness);
+					filter.setScale(9);
+					filter.setAngle(0.3f);
+					filter.setSeed(11);
+
+					final BufferedImage result = filter.filter(source, null);
+
+					assertMatchesPixels(result, filter, inPixels);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that stopping the search for feature points at the last one the coefficients
+	 * use gives the values of the full search for the three nearest feature points, for
+	 * every grid type and for several distance powers and coefficient sets.
+	 */
+	@Test
+	void prunedSearchMatchesFullSearch() {
+		final float[][] coefficientSets = { { 1, 0, 0, 0 }, { -1, 1, 0, 0 }, { 0.5f, 0, 1, 0 }, { 1, 0, 0, 1 },
+				{ 0.2f, -0.4f, 0.3f, 0.6f } };
+		for (int gridType = CellularFilter.RANDOM; gridType <= CellularFilter.TRIANGULAR; gridType++) {
+			for (final float distancePower : new float[] { 0.5f, 1, 2, 3 }) {
+				for (final float[] coefficients : coefficientSets) {
+					final CellularFilter pruned = new CellularFilter();
+					final CellularFilter full = new CellularFilter() {
+						@Override
+						protected int getFeatureCount() {
+							return 3;
+						}
+					};
+					configure(pruned, gridType, distancePower, coefficients);
+					configure(full, gridType, distancePower, coefficients);
+
+					assertMatchesEvaluation(pruned, full, Arrays.toString(coefficients));
+				}
+			}
+		}
+	}
+
+	private static void configure(final CellularFilter filter, final int gridType, final float distancePower, final float[] coefficients) {
+		filter.setGridType(gridType);
+		filter.setRandomness((gridType == CellularFilter.SQUARE) ? 0.8f : 0);
+		filter.setDistancePower(distancePower);
+		filter.setSeed(5);
+		for (int i = 0; i < coefficients.length; i++) {
+			filter.setCoefficient(i, coefficients[i]);
+		}
+	}
+
+	private static void assertMatchesEvaluation(final CellularFilter actual, final CellularFilter expected, final String coefficients) {
+		for (float y = 0; y < 6; y += 0.13f) {
+			for (float x = 0; x < 6; x += 0.17f) {
+				assertThat(actual.evaluate(1000 + x, 1000 + y))
+					.as("grid %d power %s coefficients %s at %s,%s", actual.getGridType(), actual.getDistancePower(), coefficients, x, y)
+					.isEqualTo(expected.evaluate(1000 + x, 1000 + y));
+			}
+		}
+	}
+
+	private static void assertMatchesPixels(final BufferedImage result, final CellularFilter filter, final int[] inPixels) {
+		final int width = result.getWidth();
+		final int height = result.getHeight();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertThat(result.getRGB(x, y)).as("%s grid %d randomness %s at %d,%d", filter, filter.getGridType(), filter.getRandomness(), x, y)
+					.isEqualTo(filter.getPixel(x, y, inPixels, width, height));
+			}
+		}
+	}
+
 	private static int alpha(final int argb) {
 		return (argb >>> 24) & 0xff;
 	}
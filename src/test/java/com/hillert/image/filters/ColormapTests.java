@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import com.jhlabs.image.ArrayColormap;
+import com.jhlabs.image.Colormap;
+import com.jhlabs.image.Gradient;
+import com.jhlabs.image.LinearColormap;
+import com.jhlabs.image.SpectrumColormap;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the batch color lookup of the {@link Colormap} implementations.
+ *
+ * @author Gunnar Hillert
+ */
+public class ColormapTests {
+
+	/**
+	 * Verifies that converting a batch of values gives the colors of single conversions,
+	 * including values outside of 0..1.
+	 */
+	@Test
+	void batchColorsMatchSingleColors() {
+		final Colormap[] colormaps = { new ArrayColormap(), new Gradient(new int[] { 0xff000000, 0xffff8000, 0xff00ffff }),
+				new LinearColormap(0xff102030, 0xffc0a080), new SpectrumColormap() };
+		final int count = 101;
+		final float[] values = new float[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = -0.2f + i * 0.014f;
+		}
+		final int[] colors = new int[count];
+		for (final Colormap colormap : colormaps) {
+			colormap.getColors(values, colors, count);
+			for (int i = 0; i < count; i++) {
+				assertThat(colors[i]).as("%s at %s", colormap, values[i]).isEqualTo(colormap.getColor(values[i]));
+			}
+		}
+	}
+}
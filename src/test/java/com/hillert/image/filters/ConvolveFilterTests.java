@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Kernel;
+import java.util.Random;
+
+import com.hillert.image.filters.support.BaselineConvolution;
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.BlurFilter;
+import com.jhlabs.image.ConvolveFilter;
+import com.jhlabs.image.GaussianFilter;
+import com.jhlabs.image.SharpenFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the engines of the {@link ConvolveFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class ConvolveFilterTests {
+
+	/**
+	 * Verifies that the planar engine produces the same pixels as the scalar engine, for
+	 * general kernels and every edge action. A kernel which is only nearly the outer product of
+	 * two vectors must not be split into row and column passes, so it too must match exactly.
+	 */
+	@Test
+	void planarEngineMatchesScalarEngine() {
+		final BufferedImage source = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final float[] nearlySeparable = binomialMatrix();
+		nearlySeparable[0] += 0.001f;
+		final Kernel[] kernels = { new SharpenFilter().getKernel(), new BlurFilter().getKernel(),
+				new Kernel(5, 3, new float[] { 0.1f, -0.2f, 0.3f, 0, 0.5f, 0.05f, 0.2f, 0, 0.1f, -0.1f, 0, 0.2f, 0.1f, 0, 0.05f }),
+				new Kernel(5, 5, nearlySeparable) };
+		for (final Kernel kernel : kernels) {
+			for (int edgeAction = ConvolveFilter.ZERO_EDGES; edgeAction <= ConvolveFilter.WRAP_EDGES; edgeAction++) {
+				assertThat(ImageTestUtils.pixels(filter(kernel, ConvolveFilter.VECTOR_ENGINE, edgeAction, source)))
+					.as("%dx%d kernel, edge action %d", kernel.getWidth(), kernel.getHeight(), edgeAction)
+					.isEqualTo(ImageTestUtils.pixels(filter(kernel, ConvolveFilter.SCALAR_ENGINE, edgeAction, source)));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the planar engine, which splits a separable kernel into a row and a column
+	 * pass, stays within one level of the scalar engine for every edge action. The passes sum
+	 * in a different order, so the result need not be identical.
+	 */
+	@Test
+	void separableKernelFollowsScalarEngine() {
+		final BufferedImage source = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final Kernel kernel = new Kernel(5, 5, binomialMatrix());
+		for (int edgeAction = ConvolveFilter.ZERO_EDGES; edgeAction <= ConvolveFilter.WRAP_EDGES; edgeAction++) {
+			assertThat(ImageTestUtils.maximumDifference(filter(kernel, ConvolveFilter.SCALAR_ENGINE, edgeAction, source),
+					filter(kernel, ConvolveFilter.VECTOR_ENGINE, edgeAction, source)))
+				.as("edge action %d", edgeAction)
+				.isLessThanOrEqualTo(1);
+		}
+	}
+
+	private static BufferedImage filter(final Kernel kernel, final int engine, final int edgeAction,
+			final BufferedImage source) {
+		final ConvolveFilter filter = new ConvolveFilter(kernel);
+		filter.setEngine(engine);
+		filter.setEdgeAction(edgeAction);
+		filter.setParallel(engine == ConvolveFilter.VECTOR_ENGINE);
+		return filter.filter(source, null);
+	}
+
+	/**
+	 * The 5x5 binomial kernel, the outer product of {1, 4, 6, 4, 1} with itself over 256.
+	 */
+	private static float[] binomialMatrix() {
+		final float[] weights = { 1, 4, 6, 4, 1 };
+		final float[] matrix = new float[25];
+		for (int row = 0; row < 5; row++) {
+			for (int col = 0; col < 5; col++) {
+				matrix[row * 5 + col] = weights[row] * weights[col] / 256;
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * Verifies that the scalar convolution, which splits the image into a border tested against
+	 * the edge action and an interior summed without tests, gives the same pixels as the
+	 * baseline which tests every tap. Images both smaller and larger than the kernels are
+	 * covered, with every edge action. Even-sized kernels are rejected by the baseline, and must
+	 * be rejected in the same way.
+	 */
+	@Test
+	void splitConvolutionMatchesBaseline() {
+		final Random random = new Random(42);
+		final int[][] sizes = { { 1, 1 }, { 2, 3 }, { 4, 2 }, { 5, 5 }, { 6, 9 }, { 37, 23 } };
+		final int[][] kernelSizes = { { 3, 3 }, { 5, 5 }, { 7, 3 }, { 3, 5 }, { 1, 5 }, { 9, 1 }, { 1, 1 }, { 2, 2 },
+				{ 4, 3 }, { 1, 4 }, { 6, 1 } };
+		for (final int[] kernelSize : kernelSizes) {
+			final Kernel kernel = randomKernel(random, kernelSize[0], kernelSize[1]);
+			for (final int[] size : sizes) {
+				final int width = size[0];
+				final int height = size[1];
+				final int[] inPixels = random.ints(width * height).toArray();
+				for (int edgeAction = ConvolveFilter.ZERO_EDGES; edgeAction <= ConvolveFilter.WRAP_EDGES; edgeAction++) {
+					for (final boolean alpha : new boolean[] { true, false }) {
+						assertSplitMatchesBaseline(kernel, inPixels, width, height, alpha, edgeAction);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the transposing row convolution of {@link GaussianFilter}, which shares the
+	 * split border and interior loops, gives exactly the pixels of the baseline. Gaussian and
+	 * random kernels are run on images both smaller and larger than the kernels, with every edge
+	 * action, with and without alpha, on straight and on premultiplied pixels.
+	 */
+	@Test
+	void transposedConvolutionMatchesBaseline() {
+		final Random random = new Random(7);
+		final Kernel[] kernels = { GaussianFilter.makeKernel(1), GaussianFilter.makeKernel(4.5f),
+				GaussianFilter.makeKernel(12), randomKernel(random, 5, 1), randomKernel(random, 1, 1),
+				randomKernel(random, 4, 1) };
+		final int[][] sizes = { { 1, 1 }, { 2, 3 }, { 5, 5 }, { 9, 6 }, { 37, 23 }, { 80, 3 } };
+		for (final Kernel kernel : kernels) {
+			for (final int[] size : sizes) {
+				final int width = size[0];
+				final int height = size[1];
+				final int[] straight = random.ints(width * height).toArray();
+				final int[] premultiplied = premultiply(straight);
+				for (int edgeAction = ConvolveFilter.ZERO_EDGES; edgeAction <= ConvolveFilter.WRAP_EDGES; edgeAction++) {
+					for (final boolean alpha : new boolean[] { true, false }) {
+						assertTransposeMatchesBaseline(kernel, straight, width, height, alpha, edgeAction);
+						assertTransposeMatchesBaseline(kernel, premultiplied, width, height, alpha, edgeAction);
+					}
+				}
+			}
+		}
+	}
+
+	private static void assertTransposeMatchesBaseline(final Kernel kernel, final int[] inPixels, final int width,
+			final int height, final boolean alpha, final int edgeAction) {
+		final String description = String.format("%d tap kernel on %dx%d image, edge action %d, alpha %b",
+				kernel.getWidth(), width, height, edgeAction, alpha);
+		final int[] expected = new int[width * height];
+		final int[] actual = new int[width * height];
+		try {
+			BaselineConvolution.convolveAndTranspose(kernel, inPixels, expected, width, height, alpha, edgeAction);
+		}
+		catch (RuntimeException ex) {
+			assertThatThrownBy(() -> GaussianFilter.convolveAndTranspose(kernel, inPixels, actual, width, height, alpha, edgeAction))
+				.as(description)
+				.isInstanceOf(ex.getClass());
+			return;
+		}
+		GaussianFilter.convolveAndTranspose(kernel, inPixels, actual, width, height, alpha, edgeAction);
+		assertThat(actual).as(description).isEqualTo(expected);
+	}
+
+	private static int[] premultiply(final int[] pixels) {
+		final int[] result = new int[pixels.length];
+		for (int i = 0; i < pixels.length; i++) {
+			final int a = pixels[i] >>> 24;
+			final int r = ((pixels[i] >> 16) & 0xff) * a / 255;
+			final int g = ((pixels[i] >> 8) & 0xff) * a / 255;
+			final int b = (pixels[i] & 0xff) * a / 255;
+			result[i] = (a << 24) | (r << 16) | (g << 8) | b;
+		}
+		return result;
+	}
+
+	private static void assertSplitMatchesBaseline(final Kernel kernel, final int[] inPixels, final int width,
+			final int height, final boolean alpha, final int edgeAction) {
+		final String description = String.format("%dx%d kernel on %dx%d image, edge action %d, alpha %b",
+				kernel.getWidth(), kernel.getHeight(), width, height, edgeAction, alpha);
+		final int[] expected = new int[width * height];
+		final int[] actual = new int[width * height];
+		try {
+			BaselineConvolution.convolve(kernel, inPixels, expected, width, height, alpha, edgeAction);
+		}
+		catch (RuntimeException ex) {
+			assertThatThrownBy(() -> ConvolveFilter.convolve(kernel, inPixels, actual, width, height, alpha, edgeAction))
+				.as(description)
+				.isInstanceOf(ex.getClass());
+			return;
+		}
+		ConvolveFilter.convolve(kernel, inPixels, actual, width, height, alpha, edgeAction);
+		assertThat(actual).as(description).isEqualTo(expected);
+	}
+
+	private static Kernel randomKernel(final Random random, final int width, final int height) {
+		final float[] matrix = new float[width * height];
+		for (int i = 0; i < matrix.length; i++) {
+			matrix[i] = (random.nextInt(4) == 0) ? 0 : random.nextFloat() - 0.3f;
+		}
+		return new Kernel(width, height, matrix);
+	}
+}
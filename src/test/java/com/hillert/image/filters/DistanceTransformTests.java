@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import com.jhlabs.image.DistanceTransform;
+import com.jhlabs.image.ShapeFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for the {@link DistanceTransform} class and the Euclidean mode of the
+ * {@link ShapeFilter}.
+ *
+ * @author Gunnar Hillert
+ */
+public class DistanceTransformTests {
+
+	/**
+	 * Verifies that the transform gives the distance to the nearest feature found by
+	 * comparing all pairs of pixels, for sparse and dense features.
+	 */
+	@Test
+	void distancesMatchBruteForce() {
+		final int width = 41;
+		final int height = 29;
+		final Random random = new Random(3);
+		for (final float density : new float[] { 0.002f, 0.05f, 0.5f }) {
+			final boolean[] features = new boolean[width * height];
+			for (int i = 0; i < features.length; i++) {
+				features[i] = random.nextFloat() < density;
+			}
+			features[random.nextInt(features.length)] = true;
+
+			final float[] distances = DistanceTransform.distances(features, width, height);
+
+			for (int i = 0; i < features.length; i++) {
+				assertThat(distances[i]).as("density %s at %d", density, i).isEqualTo(nearestFeature(features, width, i));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that an image without features stays infinitely far away from them.
+	 */
+	@Test
+	void noFeaturesGiveInfiniteDistances() {
+		final float[] distances = DistanceTransform.distances(new boolean[12], 4, 3);
+
+		assertThat(distances).containsOnly(Float.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Verifies that the Euclidean shape shades every pixel by its exact distance to the nearest
+	 * transparent pixel or to the outside of the image.
+	 */
+	@Test
+	void euclideanShapeUsesExactDistances() {
+		final int width = 37;
+		final int height = 23;
+		final BufferedImage source = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final boolean[] transparent = new boolean[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final boolean hole = (x - 25) * (x - 25) + (y - 9) * (y - 9) < 12;
+				transparent[y * width + x] = hole;
+				source.setRGB(x, y, (hole) ? 0 : 0xff808080);
+			}
+		}
+		final ShapeFilter filter = new ShapeFilter();
+		filter.setDistanceMode(ShapeFilter.EUCLIDEAN);
+		filter.setColormap(null);
+
+		final BufferedImage result = filter.filter(source, null);
+
+		final int[] map = new int[width * height];
+		int max = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int i = y * width + x;
+				final float edge = Math.min(Math.min(x + 1, width - x), Math.min(y + 1, height - y));
+				map[i] = Math.round(Math.min(edge, nearestFeature(transparent, width, i)) * 41);
+				max = Math.max(max, map[i]);
+			}
+		}
+		for (int i = 0; i < map.length; i++) {
+			final int shade = (transparent[i]) ? 0 : (int) (Math.min(1.0f, (float) map[i] / max) * 255);
+			assertThat(result.getRGB(i % width, i / width) & 0xff).as("pixel %d", i).isEqualTo(shade);
+		}
+	}
+
+	/**
+	 * Verifies that on an alpha ramp, where the alpha rather than the distance to a transparent
+	 * pixel limits how far in a pixel lies, the Euclidean shape follows the chamfer shape to
+	 * within 24 of 255 levels.
+	 */
+	@Test
+	void euclideanShapeFollowsChamferOnAlphaRamp() {
+		final int width = 90;
+		final int height = 60;
+		final BufferedImage source = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				source.setRGB(x, y, ((x / 3) << 24) | 0x808080);
+			}
+		}
+		final ShapeFilter chamfer = new ShapeFilter();
+		chamfer.setColormap(null);
+		final ShapeFilter euclidean = new ShapeFilter();
+		euclidean.setColormap(null);
+		euclidean.setDistanceMode(ShapeFilter.EUCLIDEAN);
+
+		final BufferedImage expected = chamfer.filter(source, null);
+		final BufferedImage actual = euclidean.filter(source, null);
+
+		int maximumDifference = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				maximumDifference = Math.max(maximumDifference, Math.abs((actual.getRGB(x, y) & 0xff) - (expected.getRGB(x, y) & 0xff)));
+			}
+		}
+		// The chamfer map does not hold a pixel to its own alpha, so it runs up to two steps
+		// above it at the end of each alpha plateau, about 21 levels here, while distances
+		// which ignore the alpha differ by more than 100 levels
+		assertThat(maximumDifference).isLessThanOrEqualTo(24);
+	}
+
+	/**
+	 * Verifies that unknown distance modes are rejected.
+	 */
+	@Test
+	void unknownDistanceModeIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ShapeFilter().setDistanceMode(7));
+	}
+
+	private static float nearestFeature(final boolean[] features, final int width, final int index) {
+		final int x = index % width;
+		final int y = index / width;
+		float nearest = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < features.length; i++) {
+			if (features[i]) {
+				final int dx = i % width - x;
+				final int dy = i / width - y;
+				nearest = Math.min(nearest, (float) Math.sqrt(dx * dx + dy * dy));
+			}
+		}
+		return nearest;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.util.Random;
+
+import com.jhlabs.math.FFT;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for the {@link FFT} class, against a direct evaluation of the discrete Fourier
+ * transform.
+ *
+ * @author Gunnar Hillert
+ */
+public class FFTTests {
+
+	/**
+	 * Verifies forward and inverse transforms of powers of two, of lengths with factors of 3 and
+	 * 5 and of prime lengths.
+	 */
+	@Test
+	void transform1DMatchesDirectTransform() {
+		final FFT fft = new FFT();
+		final Random random = new Random(42);
+		for (final int n : new int[] { 1, 2, 8, 32, 64, 6, 12, 15, 60, 7, 77 }) {
+			for (final boolean forward : new boolean[] { true, false }) {
+				final float[] real = new float[n];
+				final float[] imag = new float[n];
+				for (int i = 0; i < n; i++) {
+					real[i] = random.nextFloat() - 0.5f;
+					imag[i] = random.nextFloat() - 0.5f;
+				}
+				final double[][] expected = directTransform(real, imag, n, forward);
+
+				fft.transform1D(real, imag, n, forward);
+
+				for (int k = 0; k < n; k++) {
+					assertThat(real[k]).as("n %d forward %s at %d", n, forward, k).isCloseTo((float) expected[0][k], within(1e-4f));
+					assertThat(imag[k]).as("n %d forward %s at %d", n, forward, k).isCloseTo((float) expected[1][k], within(1e-4f));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the half spectrum of real data equals the left half of the complex transform
+	 * and that the inverse restores the data.
+	 */
+	@Test
+	void realTransform2DMatchesComplexTransform() {
+		final FFT fft = new FFT();
+		fft.setParallel(true);
+		final Random random = new Random(42);
+		for (final int[] size : new int[][] { { 64, 32 }, { 30, 18 }, { 7, 5 } }) {
+			final int cols = size[0];
+			final int rows = size[1];
+			final int half = cols / 2 + 1;
+			final float[] input = new float[cols * rows];
+			final float[] real = new float[cols * rows];
+			final float[] imag = new float[cols * rows];
+			for (int i = 0; i < input.length; i++) {
+				input[i] = random.nextFloat();
+				real[i] = input[i];
+			}
+			final float[] halfReal = new float[half * rows];
+			final float[] halfImag = new float[half * rows];
+			final float[] output = new float[cols * rows];
+
+			fft.transform2D(real, imag, cols, rows, true);
+			fft.realTransform2D(input, halfReal, halfImag, cols, rows);
+			for (int y = 0; y < rows; y++) {
+				for (int x = 0; x < half; x++) {
+					assertThat(halfReal[y * half + x]).isCloseTo(real[y * cols + x], within(1e-3f));
+					assertThat(halfImag[y * half + x]).isCloseTo(imag[y * cols + x], within(1e-3f));
+				}
+			}
+			fft.inverseRealTransform2D(halfReal, halfImag, output, cols, rows);
+			for (int i = 0; i < input.length; i++) {
+				assertThat(output[i]).as("%dx%d at %d", cols, rows, i).isCloseTo(input[i], within(1e-5f));
+			}
+		}
+	}
+
+	private static double[][] directTransform(final float[] real, final float[] imag, final int n, final boolean forward) {
+		final double[][] result = new double[2][n];
+		final double sign = (forward) ? -1 : 1;
+		for (int k = 0; k < n; k++) {
+			double sumRe = 0;
+			double sumIm = 0;
+			for (int j = 0; j < n; j++) {
+				final double angle = sign * 2 * Math.PI * ((long) j * k % n) / n;
+				sumRe += real[j] * Math.cos(angle) - imag[j] * Math.sin(angle);
+				sumIm += real[j] * Math.sin(angle) + imag[j] * Math.cos(angle);
+			}
+			result[0][k] = (forward) ? sumRe : sumRe / n;
+			result[1][k] = (forward) ? sumIm : sumIm / n;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.AffineTransformOp;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.ContrastFilter;
+import com.jhlabs.image.ExposureFilter;
+import com.jhlabs.image.FilterChain;
+import com.jhlabs.image.GammaFilter;
+import com.jhlabs.image.GaussianFilter;
+import com.jhlabs.image.HSBAdjustFilter;
+import com.jhlabs.image.OpacityFilter;
+import com.jhlabs.image.RotateFilter;
+import com.jhlabs.image.SepiaFilter;
+import com.jhlabs.image.StampFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that verify that a {@link FilterChain} produces the same output as applying
+ * its filters one after the other.
+ *
+ * @author Gunnar Hillert
+ */
+public class FilterChainTests {
+
+	/**
+	 * Runs a typical recipe of point filters interleaved with other filters on the
+	 * sample image, which has no alpha channel.
+	 */
+	@Test
+	void chainMatchesSequentialApplicationForOpaqueImage() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+
+		assertChainMatchesSequential(original, recipe());
+	}
+
+	/**
+	 * Runs the same recipe on a translucent image, where alpha is carried between the
+	 * fused filters.
+	 */
+	@Test
+	void chainMatchesSequentialApplicationForTranslucentImage() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final BufferedImage argb = new BufferedImage(original.getWidth(), original.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		argb.getGraphics().drawImage(original, 0, 0, null);
+
+		assertChainMatchesSequential(argb, recipe());
+	}
+
+	/**
+	 * Measures a chain whose first filter doubles the size of the image, so that the
+	 * bounds of the later filters must be taken from its output rather than the source.
+	 */
+	@Test
+	void boundsFollowSizeChangesThroughTheChain() {
+		final BufferedImage source = new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB);
+		final AffineTransformOp scale = new AffineTransformOp(AffineTransform.getScaleInstance(2, 2),
+				AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
+		final FilterChain chain = new FilterChain(scale, new GammaFilter(1.2f), new SepiaFilter());
+
+		final Rectangle2D bounds = chain.getBounds2D(source);
+		final BufferedImage filtered = chain.filter(source, null);
+
+		assertThat(bounds.getWidth()).isEqualTo(80);
+		assertThat(bounds.getHeight()).isEqualTo(60);
+		assertThat(filtered.getWidth()).isEqualTo(80);
+		assertThat(filtered.getHeight()).isEqualTo(60);
+	}
+
+	private static BufferedImageOp[] recipe() {
+		final ContrastFilter contrast = new ContrastFilter();
+		contrast.setContrast(1.3f);
+		contrast.setBrightness(0.9f);
+		final ExposureFilter exposure = new ExposureFilter();
+		exposure.setExposure(1.4f);
+		return new BufferedImageOp[] { contrast, new HSBAdjustFilter(0.1f, 0.2f, 0.0f), new GammaFilter(1.2f), exposure,
+				new GaussianFilter(3), new SepiaFilter(), new OpacityFilter(200), new StampFilter(0.4f),
+				new RotateFilter(0.2f), new GammaFilter(0.8f), new SepiaFilter() };
+	}
+
+	private static void assertChainMatchesSequential(final BufferedImage source, final BufferedImageOp[] filters) {
+		BufferedImage expected = source;
+		for (final BufferedImageOp filter : filters) {
+			expected = filter.filter(expected, null);
+		}
+
+		final BufferedImage actual = new FilterChain(filters).filter(source, null);
+
+		assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+		assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+		assertThat(ImageTestUtils.pixels(actual)).isEqualTo(ImageTestUtils.pixels(expected));
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.BrushedMetalFilter;
+import com.jhlabs.image.ContrastFilter;
+import com.jhlabs.image.CrystallizeFilter;
+import com.jhlabs.image.DisplaceFilter;
+import com.jhlabs.image.DitherFilter;
+import com.jhlabs.image.EqualizeFilter;
+import com.jhlabs.image.FBMFilter;
+import com.jhlabs.image.FilterChain;
+import com.jhlabs.image.GammaFilter;
+import com.jhlabs.image.GradientFilter;
+import com.jhlabs.image.InvertFilter;
+import com.jhlabs.image.LevelsFilter;
+import com.jhlabs.image.LightFilter;
+import com.jhlabs.image.NoiseFilter;
+import com.jhlabs.image.OffsetFilter;
+import com.jhlabs.image.PlasmaFilter;
+import com.jhlabs.image.PolarFilter;
+import com.jhlabs.image.PosterizeFilter;
+import com.jhlabs.image.ShearFilter;
+import com.jhlabs.image.SmearFilter;
+import com.jhlabs.image.SparkleFilter;
+import com.jhlabs.image.SphereFilter;
+import com.jhlabs.image.StampFilter;
+import com.jhlabs.image.TwirlFilter;
+import com.jhlabs.image.WaterFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress tests which share one configured instance of each filter between several threads
+ * and verify that every invocation produces the same result as a serial run.
+ *
+ * @author Gunnar Hillert
+ */
+public class FilterThreadSafetyTests {
+
+	private static final int THREADS = 8;
+
+	private static final int ROUNDS = 4;
+
+	/**
+	 * Verifies that filters which keep per-invocation state in fields give the serial result
+	 * when one instance filters images of different sizes on several threads at once.
+	 * @throws Exception if a worker fails
+	 */
+	@Test
+	void sharedFiltersMatchSerialResults() throws Exception {
+		final List<BufferedImageOp> filters = sharedFilters();
+		final List<BufferedImage> images = List.of(ImageTestUtils.randomImage(31, 17, 1),
+				ImageTestUtils.randomImage(64, 48, 2), ImageTestUtils.randomImage(40, 71, 3));
+		final List<int[]> expected = new ArrayList<>();
+		for (final BufferedImageOp filter : filters) {
+			for (final BufferedImage image : images) {
+				expected.add(ImageTestUtils.pixels(filter.filter(image, null)));
+			}
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Future<List<String>>> results = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				final long seed = t;
+				results.add(executor.submit(() -> {
+					final List<Integer> order = new ArrayList<>();
+					for (int i = 0; i < expected.size(); i++) {
+						order.add(i);
+					}
+					final List<String> failures = new ArrayList<>();
+					start.await();
+					for (int round = 0; round < ROUNDS; round++) {
+						Collections.shuffle(order, new Random(seed * ROUNDS + round));
+						for (final int i : order) {
+							final BufferedImageOp filter = filters.get(i / images.size());
+							final BufferedImage image = images.get(i % images.size());
+							if (!Arrays.equals(ImageTestUtils.pixels(filter.filter(image, null)), expected.get(i))) {
+								failures.add(filter + " on " + image.getWidth() + "x" + image.getHeight());
+							}
+						}
+					}
+					return failures;
+				}));
+			}
+			start.countDown();
+			for (final Future<List<String>> result : results) {
+				assertThat(result.get()).isEmpty();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Verifies that filtering leaves the configuration alone, even where a filter derives
+	 * defaults from the image size.
+	 */
+	@Test
+	void filteringKeepsConfiguration() {
+		final BufferedImage image = ImageTestUtils.randomImage(20, 10, 4);
+		final TwirlFilter twirl = new TwirlFilter();
+		final OffsetFilter offset = new OffsetFilter(-7, -3, true);
+
+		twirl.filter(image, null);
+		offset.filter(image, null);
+
+		assertThat(twirl.getRadius()).isEqualTo(0);
+		assertThat(offset.getXOffset()).isEqualTo(-7);
+		assertThat(offset.getYOffset()).isEqualTo(-3);
+	}
+
+	private static List<BufferedImageOp> sharedFilters() {
+		final List<BufferedImageOp> filters = new ArrayList<>();
+		final GammaFilter gamma = new GammaFilter(1.4f);
+		final ContrastFilter contrast = new ContrastFilter();
+		contrast.setContrast(1.3f);
+		filters.add(new FilterChain(gamma, contrast, new InvertFilter(), new PosterizeFilter()));
+		filters.add(new DitherFilter());
+		filters.add(new LevelsFilter());
+		filters.add(new EqualizeFilter());
+		final TwirlFilter twirl = new TwirlFilter();
+		twirl.setAngle(1.5f);
+		filters.add(twirl);
+		final WaterFilter water = new WaterFilter();
+		water.setAmplitude(3.0f);
+		filters.add(water);
+		filters.add(new OffsetFilter(-5, -9, true));
+		filters.add(new PolarFilter());
+		filters.add(new SphereFilter());
+		final ShearFilter shear = new ShearFilter();
+		shear.setXAngle(0.3f);
+		filters.add(shear);
+		final DisplaceFilter displace = new DisplaceFilter();
+		displace.setAmount(0.2f);
+		filters.add(displace);
+		filters.add(new GradientFilter(new Point(3, 4), new Point(30, 20), 0xff102030, 0xffe0d0c0, false, GradientFilter.LINEAR, GradientFilter.INT_SMOOTH));
+		filters.add(new BrushedMetalFilter());
+		final CrystallizeFilter crystallize = new CrystallizeFilter();
+		crystallize.setScale(8.0f);
+		filters.add(crystallize);
+		final FBMFilter fbm = new FBMFilter();
+		fbm.setBasisType(FBMFilter.CELLULAR);
+		filters.add(fbm);
+		filters.add(new LightFilter());
+		filters.add(new StampFilter());
+		filters.add(new NoiseFilter());
+		filters.add(new SparkleFilter());
+		filters.add(new SmearFilter());
+		filters.add(new PlasmaFilter());
+		return filters;
+	}
+}
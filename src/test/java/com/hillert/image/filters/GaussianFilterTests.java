@@ -77,6 +77,26 @@ public class GaussianFilterTests {
 		assertThat(result.getRGB(1, 1)).isEqualTo(color);
 	}
 
+	/**
+	 * Verifies that the recursive engine stays within the documented error of the exact kernel
+	 * for a range of radii.
+	 */
+	@Test
+	void recursiveModeApproximatesExactKernel() {
+		final BufferedImage source = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		for (final float radius : new float[] { 1.5f, 3.0f, 8.0f, 25.0f }) {
+			final GaussianFilter exact = new GaussianFilter(radius);
+			exact.setMode(GaussianFilter.EXACT);
+			final GaussianFilter recursive = new GaussianFilter(radius);
+			recursive.setMode(GaussianFilter.RECURSIVE);
+
+			final BufferedImage expected = exact.filter(source, null);
+			final BufferedImage actual = recursive.filter(source, null);
+
+			assertThat(ImageTestUtils.maximumDifference(expected, actual)).as("radius %s", radius).isLessThanOrEqualTo(2);
+		}
+	}
+
 	/**
 	 * Entry point for the program, which demonstrates the application of a {@link GaussianFilter} on an image and
 	 * displays the original and processed images side by side.
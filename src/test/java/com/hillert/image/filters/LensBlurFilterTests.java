@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.ImageMath;
+import com.jhlabs.image.LensBlurFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the tiled FFT engine of the {@link LensBlurFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class LensBlurFilterTests {
+
+	/**
+	 * Blurs the sample image serially and in parallel tiles, with radii that need one and
+	 * several tile sizes, and compares every pixel.
+	 */
+	@Test
+	void parallelOutputMatchesSerialOutput() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		for (final float radius : new float[] { 5, 40 }) {
+			final LensBlurFilter serial = new LensBlurFilter();
+			serial.setRadius(radius);
+			final LensBlurFilter parallel = new LensBlurFilter();
+			parallel.setRadius(radius);
+			parallel.setParallel(true);
+			parallel.setExecutor(ImageTestUtils.parallelPool());
+
+			final BufferedImage expected = serial.filter(original, null);
+			final BufferedImage actual = parallel.filter(original, null);
+
+			for (int y = 0; y < expected.getHeight(); y++) {
+				for (int x = 0; x < expected.getWidth(); x++) {
+					assertThat(actual.getRGB(x, y)).as("radius %s at %d,%d", radius, x, y)
+						.isEqualTo(expected.getRGB(x, y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a solid image keeps its color up to rounding, including images which are
+	 * narrower than a tile and radii which are large relative to the image.
+	 */
+	@Test
+	void filterKeepsSolidImageStable() {
+		final int color = new Color(80, 120, 160, 255).getRGB();
+		final int[][] sizes = { { 100, 20, 5 }, { 513, 257, 40 }, { 300, 200, 70 } };
+		for (final int[] size : sizes) {
+			final BufferedImage source = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_ARGB);
+			for (int y = 0; y < source.getHeight(); y++) {
+				for (int x = 0; x < source.getWidth(); x++) {
+					source.setRGB(x, y, color);
+				}
+			}
+			final LensBlurFilter filter = new LensBlurFilter();
+			filter.setRadius(size[2]);
+
+			final BufferedImage result = filter.filter(source, null);
+
+			for (int y = 0; y < result.getHeight(); y++) {
+				for (int x = 0; x < result.getWidth(); x++) {
+					final int rgb = result.getRGB(x, y);
+					for (int shift = 0; shift < 32; shift += 8) {
+						assertThat(Math.abs(((rgb >> shift) & 0xff) - ((color >> shift) & 0xff)))
+							.as("%dx%d radius %d at %d,%d", size[0], size[1], size[2], x, y)
+							.isLessThanOrEqualTo(1);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the tiled FFT blur, which keeps only half of the aperture's spectrum and
+	 * mirrors the conjugate for the other half, matches a direct convolution with the aperture.
+	 * A pentagon is not symmetric under a half turn, so mixing up the mirrored half would turn
+	 * it round. The image is larger than a tile and its edges are clamped, as in the filter,
+	 * whose sums are truncated.
+	 */
+	@Test
+	void spectrumMultiplyMatchesDirectConvolution() {
+		final BufferedImage source = ImageTestUtils.randomImage(300, 200);
+		final float radius = 9;
+		final LensBlurFilter filter = new LensBlurFilter();
+		filter.setRadius(radius);
+		filter.setSides(5);
+		filter.setBloom(1);
+
+		final BufferedImage result = filter.filter(source, null);
+
+		final int iradius = (int) Math.ceil(radius);
+		final float[][] aperture = pentagon(radius, iradius);
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				final float[] expected = convolve(source, aperture, iradius, x, y);
+				final int rgb = result.getRGB(x, y);
+				for (int c = 0; c < 4; c++) {
+					assertThat(Math.abs(((rgb >> (24 - 8 * c)) & 0xff) - (int) expected[c]))
+						.as("channel %d at %d,%d", c, x, y)
+						.isLessThanOrEqualTo(1);
+				}
+			}
+		}
+	}
+
+	// The normalized mask of a five-sided aperture, indexed by the offset plus the radius,
+	// built the same way as the filter builds it
+	private static float[][] pentagon(final float radius, final int iradius) {
+		final double polyAngle = Math.PI / 5;
+		final double polyScale = 1.0 / Math.cos(polyAngle);
+		final float[][] mask = new float[2 * iradius + 1][2 * iradius + 1];
+		float total = 0;
+		for (int dy = -iradius; dy <= iradius; dy++) {
+			for (int dx = -iradius; dx <= iradius; dx++) {
+				final double r = Math.sqrt(dx * dx + dy * dy);
+				if (r < radius) {
+					final double a = ImageMath.mod(Math.atan2(dy, dx), polyAngle * 2) - polyAngle;
+					if (Math.cos(a) * polyScale * r < radius) {
+						mask[dy + iradius][dx + iradius] = 1;
+						total++;
+					}
+				}
+			}
+		}
+		for (final float[] row : mask) {
+			for (int i = 0; i < row.length; i++) {
+				row[i] /= total;
+			}
+		}
+		return mask;
+	}
+
+	// The alpha, red, green and blue sums of the aperture about x, y, clamping at the edges
+	private static float[] convolve(final BufferedImage source, final float[][] aperture, final int iradius,
+			final int x, final int y) {
+		final float[] sums = new float[4];
+		for (int dy = -iradius; dy <= iradius; dy++) {
+			final int sy = Math.min(Math.max(y - dy, 0), source.getHeight() - 1);
+			for (int dx = -iradius; dx <= iradius; dx++) {
+				final float f = aperture[dy + iradius][dx + iradius];
+				if (f != 0) {
+					final int rgb = source.getRGB(Math.min(Math.max(x - dx, 0), source.getWidth() - 1), sy);
+					for (int c = 0; c < 4; c++) {
+						sums[c] += f * ((rgb >> (24 - 8 * c)) & 0xff);
+					}
+				}
+			}
+		}
+		return sums;
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.LightFilter;
+import com.jhlabs.math.ImageFunction2D;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for the shading engines of the {@link LightFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class LightFilterTests {
+
+	/**
+	 * Verifies that shading from planes stays within one level of shading pixel by pixel for
+	 * image and bevel bumps, inverted bumps and every type of light.
+	 */
+	@Test
+	void planesMatchPerPixelShading() {
+		final BufferedImage source = ImageTestUtils.randomImage(53, 41);
+		for (int variant = 0; variant < 4; variant++) {
+			final BufferedImage expected = createFilter(variant, LightFilter.SHADE_PIXELS).filter(source, null);
+			final BufferedImage actual = createFilter(variant, LightFilter.SHADE_PLANES).filter(source, null);
+
+			assertThat(ImageTestUtils.maximumDifference(expected, actual)).as("variant %d", variant).isLessThanOrEqualTo(1);
+		}
+	}
+
+	/**
+	 * Verifies that cached normals are reused when only the lights change and rebuilt when the
+	 * bumps change, giving the same result as a filter without a cache.
+	 */
+	@Test
+	void cachedNormalsMatchUncachedShading() {
+		final BufferedImage source = ImageTestUtils.randomImage(37, 29);
+		final LightFilter cached = createFilter(0, LightFilter.SHADE_PLANES);
+		cached.setNormalCacheBytes(1 << 20);
+		final LightFilter uncached = createFilter(0, LightFilter.SHADE_PLANES);
+		for (final float bumpHeight : new float[] { 1, 1, -3 }) {
+			for (final float azimuth : new float[] { 0.5f, 2.5f }) {
+				cached.setBumpHeight(bumpHeight);
+				uncached.setBumpHeight(bumpHeight);
+				((LightFilter.Light) cached.getLights().get(0)).setAzimuth(azimuth);
+				((LightFilter.Light) uncached.getLights().get(0)).setAzimuth(azimuth);
+
+				assertThat(ImageTestUtils.maximumDifference(uncached.filter(source, null), cached.filter(source, null)))
+					.as("bump height %s, azimuth %s", bumpHeight, azimuth).isZero();
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a change to a single pixel of the image, which the key hash may not sample,
+	 * still misses the cache.
+	 */
+	@Test
+	void changedPixelMissesNormalCache() {
+		final BufferedImage source = ImageTestUtils.randomImage(37, 29);
+		final LightFilter cached = createFilter(0, LightFilter.SHADE_PLANES);
+		cached.setNormalCacheBytes(1 << 20);
+		final LightFilter uncached = createFilter(0, LightFilter.SHADE_PLANES);
+		cached.filter(source, null);
+
+		source.setRGB(1, 0, ~source.getRGB(1, 0) | 0xff000000);
+
+		assertThat(ImageTestUtils.maximumDifference(uncached.filter(source, null), cached.filter(source, null))).isZero();
+	}
+
+	/**
+	 * Verifies that a bump map changed in place is only picked up after invalidating the cache.
+	 */
+	@Test
+	void invalidateNormalCacheRebuildsNormals() {
+		final BufferedImage source = ImageTestUtils.randomImage(31, 23);
+		final int[] mapPixels = new int[31 * 23];
+		final LightFilter filter = createFilter(0, LightFilter.SHADE_PLANES);
+		filter.setBumpSource(LightFilter.BUMPS_FROM_MAP);
+		filter.setBumpFunction(new ImageFunction2D(mapPixels, 31, 23, ImageFunction2D.CLAMP, false));
+		filter.setNormalCacheBytes(1 << 20);
+		final BufferedImage flat = filter.filter(source, null);
+
+		for (int i = 0; i < mapPixels.length; i++) {
+			mapPixels[i] = (i % 3 == 0) ? 0xffffffff : 0xff000000;
+		}
+
+		assertThat(ImageTestUtils.maximumDifference(flat, filter.filter(source, null))).isZero();
+		filter.invalidateNormalCache();
+		assertThat(ImageTestUtils.maximumDifference(flat, filter.filter(source, null))).isPositive();
+	}
+
+	/**
+	 * Verifies that unknown shading engines are rejected.
+	 */
+	@Test
+	void unknownShadingModeIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new LightFilter().setShadingMode(7));
+	}
+
+	private static LightFilter createFilter(final int variant, final int shadingMode) {
+		final LightFilter filter = new LightFilter();
+		filter.setShadingMode(shadingMode);
+		filter.setParallel(true);
+		filter.setMinimumBandHeight(8);
+		if (variant == 1) {
+			filter.setBumpSource(LightFilter.BUMPS_FROM_IMAGE_ALPHA);
+			filter.setBumpHeight(-2);
+			filter.setBumpSoftness(0);
+		}
+		else if (variant == 2) {
+			filter.setBumpSource(LightFilter.BUMPS_FROM_BEVEL);
+			filter.setColorSource(LightFilter.COLORS_CONSTANT);
+		}
+		else if (variant == 3) {
+			final LightFilter.Light spotLight = filter.new SpotLight();
+			spotLight.setDistance(60);
+			filter.addLight(spotLight);
+			filter.addLight(filter.new PointLight());
+			filter.addLight(filter.new AmbientLight());
+		}
+		return filter;
+	}
+}
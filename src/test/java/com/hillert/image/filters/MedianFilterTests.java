@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.BoundedPixelBufferPool;
+import com.jhlabs.image.MedianFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for the sliding histogram modes of the {@link MedianFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class MedianFilterTests {
+
+	/**
+	 * Verifies that the per-channel median equals the median of each channel found by sorting
+	 * the window, including windows clipped at the edges.
+	 */
+	@Test
+	void channelMedianMatchesSortedWindow() {
+		final BufferedImage source = ImageTestUtils.randomImage(37, 23);
+		for (final int radius : new int[] { 1, 4, 15 }) {
+			final MedianFilter filter = new MedianFilter();
+			filter.setMode(MedianFilter.CHANNEL_MEDIAN);
+			filter.setRadius(radius);
+
+			final BufferedImage result = filter.filter(source, null);
+
+			for (int y = 0; y < source.getHeight(); y++) {
+				for (int x = 0; x < source.getWidth(); x++) {
+					assertThat(result.getRGB(x, y)).as("radius %d at %d,%d", radius, x, y)
+						.isEqualTo(sortedMedian(source, x, y, radius));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the luminance median keeps a color of the window when the pixel with the
+	 * median luminance is unique.
+	 */
+	@Test
+	void luminanceMedianPicksColorOfWindow() {
+		final BufferedImage source = new BufferedImage(3, 1, BufferedImage.TYPE_INT_ARGB);
+		source.setRGB(0, 0, 0xff102030);
+		source.setRGB(1, 0, 0xffc08040);
+		source.setRGB(2, 0, 0xfff0f0f0);
+		final MedianFilter filter = new MedianFilter();
+		filter.setMode(MedianFilter.LUMINANCE_MEDIAN);
+
+		final BufferedImage result = filter.filter(source, null);
+
+		assertThat(result.getRGB(1, 0)).isEqualTo(0xffc08040);
+	}
+
+	/**
+	 * Verifies that the luminance median gives the same result when its column sums are drawn
+	 * from a pool which hands back the buffers of an earlier call.
+	 */
+	@Test
+	void luminanceMedianWithPoolMatchesWithoutPool() {
+		final BufferedImage source = ImageTestUtils.randomImage(37, 23);
+		final MedianFilter unpooled = new MedianFilter();
+		unpooled.setMode(MedianFilter.LUMINANCE_MEDIAN);
+		unpooled.setRadius(3);
+		final MedianFilter pooled = new MedianFilter();
+		pooled.setMode(MedianFilter.LUMINANCE_MEDIAN);
+		pooled.setRadius(3);
+		pooled.setBufferPool(new BoundedPixelBufferPool(16L << 20));
+
+		final BufferedImage expected = unpooled.filter(source, null);
+		pooled.filter(ImageTestUtils.randomImage(37, 23), null);
+		final BufferedImage actual = pooled.filter(source, null);
+
+		assertThat(pooled.getBufferPool().getStatistics().getHits()).isEqualTo(4);
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				assertThat(actual.getRGB(x, y)).as("at %d,%d", x, y).isEqualTo(expected.getRGB(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that unknown median modes are rejected.
+	 */
+	@Test
+	void unknownModeIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new MedianFilter().setMode(7));
+	}
+
+	private static int sortedMedian(final BufferedImage image, final int x, final int y, final int radius) {
+		final int minX = Math.max(0, x - radius);
+		final int maxX = Math.min(image.getWidth() - 1, x + radius);
+		final int minY = Math.max(0, y - radius);
+		final int maxY = Math.min(image.getHeight() - 1, y + radius);
+		final int count = (maxX - minX + 1) * (maxY - minY + 1);
+		int argb = 0;
+		for (int shift = 0; shift < 32; shift += 8) {
+			final int[] values = new int[count];
+			int i = 0;
+			for (int wy = minY; wy <= maxY; wy++) {
+				for (int wx = minX; wx <= maxX; wx++) {
+					values[i++] = (image.getRGB(wx, wy) >> shift) & 0xff;
+				}
+			}
+			Arrays.sort(values);
+			argb |= values[(count - 1) / 2] << shift;
+		}
+		return argb;
+	}
+}
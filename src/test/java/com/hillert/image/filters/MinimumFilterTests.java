@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.DilateFilter;
+import com.jhlabs.image.ErodeFilter;
+import com.jhlabs.image.MaximumFilter;
+import com.jhlabs.image.MinimumFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the radius-parameterized morphology of the {@link MinimumFilter},
+ * {@link MaximumFilter}, {@link ErodeFilter} and {@link DilateFilter} classes.
+ *
+ * @author Gunnar Hillert
+ */
+public class MinimumFilterTests {
+
+	/**
+	 * Verifies that the minimum and maximum equal those found by visiting every pixel of
+	 * rectangular and disc shaped neighbourhoods, including neighbourhoods clipped at the edges.
+	 */
+	@Test
+	void minimumAndMaximumMatchNeighbourhood() {
+		final BufferedImage source = ImageTestUtils.randomImage(37, 23);
+		final int[][] cases = { { 1, 1, MinimumFilter.RECTANGLE }, { 0, 3, MinimumFilter.RECTANGLE },
+				{ 7, 2, MinimumFilter.RECTANGLE }, { 1, 1, MinimumFilter.DISC }, { 6, 6, MinimumFilter.DISC } };
+		for (final int[] c : cases) {
+			final MinimumFilter minimum = new MinimumFilter();
+			minimum.setHRadius(c[0]);
+			minimum.setVRadius(c[1]);
+			minimum.setShape(c[2]);
+			final MaximumFilter maximum = new MaximumFilter();
+			maximum.setHRadius(c[0]);
+			maximum.setVRadius(c[1]);
+			maximum.setShape(c[2]);
+
+			final BufferedImage minimumResult = minimum.filter(source, null);
+			final BufferedImage maximumResult = maximum.filter(source, null);
+
+			for (int y = 0; y < source.getHeight(); y++) {
+				for (int x = 0; x < source.getWidth(); x++) {
+					assertThat(minimumResult.getRGB(x, y)).as("minimum %d,%d,%d at %d,%d", c[0], c[1], c[2], x, y)
+						.isEqualTo(extremum(source, x, y, c[0], c[1], c[2] == MinimumFilter.DISC, false));
+					assertThat(maximumResult.getRGB(x, y)).as("maximum %d,%d,%d at %d,%d", c[0], c[1], c[2], x, y)
+						.isEqualTo(extremum(source, x, y, c[0], c[1], c[2] == MinimumFilter.DISC, true));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a square structuring element gives the same result as iterating the
+	 * neighbour count with a threshold of 1 as many times as its radius.
+	 */
+	@Test
+	void structuringElementMatchesIterations() {
+		final BufferedImage source = new BufferedImage(41, 29, BufferedImage.TYPE_INT_ARGB);
+		final Random random = new Random(7);
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				source.setRGB(x, y, (random.nextInt(3) == 0) ? 0xffffffff : 0xff000000);
+			}
+		}
+		for (int radius = 1; radius <= 3; radius++) {
+			final ErodeFilter iteratedErode = new ErodeFilter();
+			iteratedErode.setThreshold(1);
+			iteratedErode.setIterations(radius);
+			final ErodeFilter erode = new ErodeFilter();
+			erode.setRadius(radius);
+			final DilateFilter iteratedDilate = new DilateFilter();
+			iteratedDilate.setThreshold(1);
+			iteratedDilate.setIterations(radius);
+			final DilateFilter dilate = new DilateFilter();
+			dilate.setRadius(radius);
+
+			assertThat(ImageTestUtils.pixels(erode.filter(source, null))).as("erode radius %d", radius)
+				.isEqualTo(ImageTestUtils.pixels(iteratedErode.filter(source, null)));
+			assertThat(ImageTestUtils.pixels(dilate.filter(source, null))).as("dilate radius %d", radius)
+				.isEqualTo(ImageTestUtils.pixels(iteratedDilate.filter(source, null)));
+		}
+	}
+
+	private static int extremum(final BufferedImage image, final int x, final int y, final int hRadius,
+			final int vRadius, final boolean disc, final boolean maximum) {
+		int argb = 0xff000000;
+		for (int shift = 0; shift < 24; shift += 8) {
+			int value = (maximum) ? 0 : 255;
+			for (int dy = -vRadius; dy <= vRadius; dy++) {
+				for (int dx = -hRadius; dx <= hRadius; dx++) {
+					final int ix = x + dx;
+					final int iy = y + dy;
+					final boolean inside = !disc || dx * dx + dy * dy <= hRadius * hRadius;
+					if (inside && ix >= 0 && ix < image.getWidth() && iy >= 0 && iy < image.getHeight()) {
+						final int channel = (image.getRGB(ix, iy) >> shift) & 0xff;
+						value = (maximum) ? Math.max(value, channel) : Math.min(value, channel);
+					}
+				}
+			}
+			argb |= value << shift;
+		}
+		return argb;
+	}
+}
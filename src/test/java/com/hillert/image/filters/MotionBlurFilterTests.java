@@ -0,0 +1,254 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.MotionBlurFilter;
+import com.jhlabs.image.MotionBlurOp;
+import com.jhlabs.image.PixelBufferPool;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the analytic modes of the {@link MotionBlurFilter} and {@link MotionBlurOp} classes.
+ *
+ * @author Gunnar Hillert
+ */
+public class MotionBlurFilterTests {
+
+	/**
+	 * Verifies that a horizontal analytic blur averages the run of pixels in the direction of
+	 * motion, clipped at the edge of the image.
+	 */
+	@Test
+	void linearBlurAveragesRunOfPixels() {
+		final BufferedImage source = ImageTestUtils.randomImage(41, 7);
+		for (final int direction : new int[] { 1, -1 }) {
+			final MotionBlurFilter filter = new MotionBlurFilter();
+			filter.setMode(MotionBlurFilter.ANALYTIC);
+			filter.setDistance(9);
+			filter.setAngle((direction > 0) ? 0 : (float) Math.PI);
+
+			final BufferedImage result = filter.filter(source, null);
+
+			for (int y = 0; y < source.getHeight(); y++) {
+				for (int x = 0; x < source.getWidth(); x++) {
+					assertThat(result.getRGB(x, y)).as("direction %d at %d,%d", direction, x, y)
+						.isEqualTo(runAverage(source, x, y, direction, 9));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the analytic engines keep a solid image unchanged for linear, zoom, spin
+	 * and combined motion.
+	 */
+	@Test
+	void analyticBlurKeepsSolidImageStable() {
+		final int color = 0xff5078c8;
+		final BufferedImage source = new BufferedImage(60, 45, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				source.setRGB(x, y, color);
+			}
+		}
+		final float[][] motions = { { 12, 0.7f, 0, 0 }, { 0, 0, 0.3f, 0 }, { 0, 0, 0, 0.4f }, { 10, 2, 0.1f, 0.2f } };
+		for (final float[] motion : motions) {
+			final MotionBlurFilter filter = new MotionBlurFilter();
+			filter.setMode(MotionBlurFilter.ANALYTIC);
+			filter.setDistance(motion[0]);
+			filter.setAngle(motion[1]);
+			filter.setZoom(motion[2]);
+			filter.setRotation(motion[3]);
+			final MotionBlurOp op = new MotionBlurOp(motion[0], motion[1], motion[3], motion[2]);
+			op.setMode(MotionBlurOp.ANALYTIC);
+
+			assertSolid(filter.filter(source, null), color);
+			assertSolid(op.filter(source, null), color);
+		}
+	}
+
+	/**
+	 * Verifies that the analytic engine leaves the image unchanged without any motion.
+	 */
+	@Test
+	void analyticBlurWithoutMotionIsIdentity() {
+		final BufferedImage source = ImageTestUtils.randomImage(23, 17);
+		final MotionBlurFilter filter = new MotionBlurFilter();
+		filter.setMode(MotionBlurFilter.ANALYTIC);
+		filter.setDistance(0);
+
+		final BufferedImage result = filter.filter(source, null);
+
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				assertThat(result.getRGB(x, y)).isEqualTo(source.getRGB(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the analytic engine follows the sampled engine on a smooth texture for a
+	 * zoom, a spin and a diagonal linear blur. The sampled engine truncates its sample
+	 * positions and the analytic one interpolates them, so the pixels are compared on average,
+	 * within 6 of 255 levels, away from the edges where the two clip paths differently. The
+	 * unblurred texture is about 20 levels away from the sampled blur, and a blur in the
+	 * opposite direction more than 35.
+	 */
+	@Test
+	void analyticBlurFollowsSampledBlurOnTexture() {
+		final BufferedImage source = texturedImage(96, 72);
+		final float[][] motions = { { 0, 0, 0.25f, 0 }, { 0, 0, 0, 0.3f }, { 14, (float) Math.PI / 4, 0, 0 } };
+		for (final float[] motion : motions) {
+			final MotionBlurFilter sampled = new MotionBlurFilter();
+			final MotionBlurFilter analytic = new MotionBlurFilter();
+			for (final MotionBlurFilter filter : new MotionBlurFilter[] { sampled, analytic }) {
+				filter.setDistance(motion[0]);
+				filter.setAngle(motion[1]);
+				filter.setZoom(motion[2]);
+				filter.setRotation(motion[3]);
+			}
+			analytic.setMode(MotionBlurFilter.ANALYTIC);
+
+			final double difference = meanDifference(analytic.filter(source, null), sampled.filter(source, null), 12);
+
+			assertThat(difference).as("motion %s", Arrays.toString(motion)).isLessThanOrEqualTo(6);
+		}
+	}
+
+	/**
+	 * Verifies that a spin about a centre far outside the image keeps its polar grid within
+	 * two cells per pixel, where a full circle of cells would take hundreds.
+	 */
+	@Test
+	void polarGridAboutDistantCentreStaysSmall() {
+		final BufferedImage source = texturedImage(96, 72);
+		final LargestBufferPool pool = new LargestBufferPool();
+		final MotionBlurOp op = new MotionBlurOp(0, 0, 0.05f, 0);
+		op.setMode(MotionBlurOp.ANALYTIC);
+		op.setCentre(new Point2D.Float(6, 0.5f));
+		op.setBufferPool(pool);
+
+		final BufferedImage result = op.filter(source, null);
+
+		assertThat(pool.largest).isLessThanOrEqualTo(2 * 96 * 72);
+		assertThat(meanDifference(result, source, 12)).isGreaterThan(5);
+	}
+
+	private static void assertSolid(final BufferedImage image, final int color) {
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				assertThat(image.getRGB(x, y)).as("at %d,%d", x, y).isEqualTo(color);
+			}
+		}
+	}
+
+	// A smooth color texture, so that where the engines sample matters less than what they average
+	private static BufferedImage texturedImage(final int width, final int height) {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int r = (int) (127.5 + 127.5 * Math.sin(x / 9.0) * Math.cos(y / 11.0));
+				final int g = (int) (127.5 + 127.5 * Math.sin((x + y) / 13.0));
+				final int b = (int) (127.5 + 127.5 * Math.cos(Math.hypot(x - 30, y - 20) / 7.0));
+				image.setRGB(x, y, 0xff000000 | (r << 16) | (g << 8) | b);
+			}
+		}
+		return image;
+	}
+
+	// The mean difference of the color channels of the pixels at least margin away from the edges
+	private static double meanDifference(final BufferedImage actual, final BufferedImage expected, final int margin) {
+		long sum = 0;
+		int count = 0;
+		for (int y = margin; y < actual.getHeight() - margin; y++) {
+			for (int x = margin; x < actual.getWidth() - margin; x++) {
+				final int a = actual.getRGB(x, y);
+				final int e = expected.getRGB(x, y);
+				for (int shift = 0; shift < 24; shift += 8) {
+					sum += Math.abs(((a >> shift) & 0xff) - ((e >> shift) & 0xff));
+					count++;
+				}
+			}
+		}
+		return (double) sum / count;
+	}
+
+	private static int runAverage(final BufferedImage image, final int x, final int y, final int direction,
+			final int length) {
+		int argb = 0;
+		for (int shift = 0; shift < 32; shift += 8) {
+			int sum = 0;
+			int count = 0;
+			for (int i = 0; i < length; i++) {
+				final int sx = x + direction * i;
+				if (sx < 0 || sx >= image.getWidth()) {
+					break;
+				}
+				sum += (image.getRGB(sx, y) >>> shift) & 0xff;
+				count++;
+			}
+			argb |= (sum / count) << shift;
+		}
+		return argb;
+	}
+
+	// A pool which allocates every buffer afresh and remembers the longest int buffer asked for
+	private static final class LargestBufferPool implements PixelBufferPool {
+
+		private int largest;
+
+		@Override
+		public synchronized int[] acquireInts(final int size) {
+			this.largest = Math.max(this.largest, size);
+			return new int[size];
+		}
+
+		@Override
+		public float[] acquireFloats(final int size) {
+			return new float[size];
+		}
+
+		@Override
+		public void release(final int[] buffer) {
+		}
+
+		@Override
+		public void release(final float[] buffer) {
+		}
+
+		@Override
+		public Statistics getStatistics() {
+			return new Statistics(0, 0, 0, 0, 0);
+		}
+
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.NoiseFilter;
+import com.jhlabs.math.RandomStreams;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the seeded noise of the {@link NoiseFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class NoiseFilterTests {
+
+	/**
+	 * Verifies that the same seed reproduces the noise and that another seed changes it.
+	 */
+	@Test
+	void seedDeterminesNoise() {
+		final BufferedImage source = grayImage(40, 30);
+		final NoiseFilter filter = new NoiseFilter();
+		filter.setDistribution(NoiseFilter.GAUSSIAN);
+		filter.setSeed(7);
+
+		final int[] first = ImageTestUtils.pixels(filter.filter(source, null));
+		final NoiseFilter copy = new NoiseFilter();
+		copy.setDistribution(NoiseFilter.GAUSSIAN);
+		copy.setSeed(7);
+		final int[] second = ImageTestUtils.pixels(copy.filter(source, null));
+		filter.setSeed(8);
+		final int[] other = ImageTestUtils.pixels(filter.filter(source, null));
+
+		assertThat(second).isEqualTo(first);
+		assertThat(other).isNotEqualTo(first);
+	}
+
+	/**
+	 * Verifies that filtering in parallel bands gives the same noise as filtering serially.
+	 */
+	@Test
+	void parallelNoiseMatchesSerialNoise() {
+		final BufferedImage source = grayImage(64, 53);
+		for (final boolean monochrome : new boolean[] { false, true }) {
+			final NoiseFilter filter = new NoiseFilter();
+			filter.setMonochrome(monochrome);
+			final int[] serial = ImageTestUtils.pixels(filter.filter(source, null));
+
+			filter.setParallel(true);
+			filter.setExecutor(ImageTestUtils.parallelPool());
+			filter.setMinimumBandHeight(5);
+
+			assertThat(ImageTestUtils.pixels(filter.filter(source, null))).as("monochrome %s", monochrome).isEqualTo(serial);
+		}
+	}
+
+	/**
+	 * Verifies that the values hashed for a position are those of the stream for it.
+	 */
+	@Test
+	void streamValuesMatchSplittableRandom() {
+		final long streamSeed = RandomStreams.seed(7, 12, 34);
+		final SplittableRandom randomNumbers = RandomStreams.stream(7, 12, 34);
+		for (int index = 0; index < 8; index++) {
+			assertThat(RandomStreams.value(streamSeed, index)).isEqualTo(randomNumbers.nextLong());
+		}
+	}
+
+	/**
+	 * Verifies that the noise is centred on the input and spread as its distribution requires:
+	 * a standard deviation of the amount for Gaussian noise, and of the amount divided by the
+	 * square root of 3 for uniform noise.
+	 */
+	@Test
+	void noiseHasSpreadOfDistribution() {
+		final BufferedImage source = grayImage(200, 200);
+		final NoiseFilter filter = new NoiseFilter();
+		filter.setAmount(25);
+		filter.setDistribution(NoiseFilter.GAUSSIAN);
+		assertSpread(ImageTestUtils.pixels(filter.filter(source, null)), 25);
+		filter.setDistribution(NoiseFilter.UNIFORM);
+		assertSpread(ImageTestUtils.pixels(filter.filter(source, null)), 25 / Math.sqrt(3));
+	}
+
+	private static void assertSpread(final int[] pixels, final double deviation) {
+		for (int shift = 0; shift < 24; shift += 8) {
+			double sum = 0;
+			double squares = 0;
+			for (final int rgb : pixels) {
+				final int n = ((rgb >> shift) & 0xff) - 0x80;
+				sum += n;
+				squares += n * n;
+			}
+			final double mean = sum / pixels.length;
+			assertThat(mean).isBetween(-0.5, 0.5);
+			assertThat(Math.sqrt(squares / pixels.length - mean * mean)).isBetween(0.95 * deviation, 1.05 * deviation);
+		}
+	}
+
+	private static BufferedImage grayImage(final int width, final int height) {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, 0xff808080);
+			}
+		}
+		return image;
+	}
+}
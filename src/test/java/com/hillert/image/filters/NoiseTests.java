@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.FBMFilter;
+import com.jhlabs.image.LinearColormap;
+import com.jhlabs.image.MarbleTexFilter;
+import com.jhlabs.image.PixelUtils;
+import com.jhlabs.image.PointFilter;
+import com.jhlabs.image.TextureFilter;
+import com.jhlabs.math.FBM;
+import com.jhlabs.math.Function2D;
+import com.jhlabs.math.Noise;
+import com.jhlabs.math.RidgedFBM;
+import com.jhlabs.math.TurbulenceFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the batch evaluation of {@link Noise} and the functions built on it.
+ *
+ * @author Gunnar Hillert
+ */
+public class NoiseTests {
+
+	/**
+	 * Verifies that the batch and row versions of {@link Noise#noise2(float, float)} give exactly
+	 * the scalar results, including rows which run backwards and cross many lattice cells.
+	 */
+	@Test
+	void batchNoiseMatchesScalarNoise() {
+		final Random random = new Random(5);
+		final int count = 300;
+		final float[] x = new float[count];
+		final float[] y = new float[count];
+		final float[] out = new float[count];
+		for (int i = 0; i < count; i++) {
+			x[i] = (random.nextFloat() - 0.5f) * 100;
+			y[i] = (random.nextFloat() - 0.5f) * 100;
+		}
+
+		Noise.noise2(x, y, out, count);
+		for (int i = 0; i < count; i++) {
+			assertThat(out[i]).isEqualTo(Noise.noise2(x[i], y[i]));
+		}
+
+		Noise.turbulence2(x, y, 5.5f, out, count);
+		for (int i = 0; i < count; i++) {
+			assertThat(out[i]).isEqualTo(Noise.turbulence2(x[i], y[i], 5.5f));
+		}
+
+		Noise.noise2Row(x, -7.3f, out, count);
+		for (int i = 0; i < count; i++) {
+			assertThat(out[i]).isEqualTo(Noise.noise2(x[i], -7.3f));
+		}
+
+		Noise.turbulence2Row(x, 4.6f, 5.5f, out, count);
+		for (int i = 0; i < count; i++) {
+			assertThat(out[i]).isEqualTo(Noise.turbulence2(x[i], 4.6f, 5.5f));
+		}
+
+		for (final float dx : new float[] { 0.01f, 0.37f, 3.0f, -0.2f }) {
+			Noise.noise2Row(-7.3f, -12.25f, dx, out, count);
+			for (int i = 0; i < count; i++) {
+				assertThat(out[i]).as("dx %s at %d", dx, i).isEqualTo(Noise.noise2(-12.25f + i * dx, -7.3f));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that {@link FBM} and {@link TurbulenceFunction} evaluate batches and rows exactly
+	 * like single points, with whole and fractional octaves.
+	 */
+	@Test
+	void batchFunctionsMatchScalarFunctions() {
+		final Function2D[] functions = { new FBM(1.0f, 2.0f, 4.0f), new FBM(0.5f, 1.7f, 3.4f),
+				new TurbulenceFunction(new Noise(), 6.0f), new FBM(1.0f, 2.0f, 2.5f, new TurbulenceFunction(new Noise(), 3.0f)),
+				new FBM(1.0f, 2.0f, 3.0f, new RidgedFBM()) };
+		final int count = 129;
+		final float[] out = new float[count];
+		for (final Function2D function : functions) {
+			function.evaluateRow(3.1f, -1.5f, 0.05f, out, count);
+			for (int i = 0; i < count; i++) {
+				assertThat(out[i]).as("%s at %d", function, i).isEqualTo(function.evaluate(-1.5f + i * 0.05f, 3.1f));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the row passes of the noise filters give exactly the pixels of their per
+	 * pixel {@code filterRGB} methods.
+	 */
+	@Test
+	void rowFilteringMatchesPixelFiltering() {
+		final BufferedImage source = ImageTestUtils.randomImage(61, 37);
+
+		final FBMFilter fbm = new FBMFilter();
+		fbm.setAngle(0.4f);
+		fbm.setOperation(PixelUtils.ADD);
+		fbm.setColormap(new LinearColormap(0xff000000, 0xff80ff40));
+		final BufferedImage fbmResult = fbm.filter(source, null);
+		fbm.setDimensions(source.getWidth(), source.getHeight());
+
+		final TextureFilter texture = new TextureFilter();
+		texture.setTurbulence(3.0f);
+		texture.setAngle(1.1f);
+		final BufferedImage textureResult = texture.filter(source, null);
+
+		final FBMFilter straightFbm = new FBMFilter();
+		straightFbm.setBasisType(FBMFilter.RIDGED);
+		final BufferedImage straightFbmResult = straightFbm.filter(source, null);
+		straightFbm.setDimensions(source.getWidth(), source.getHeight());
+
+		final TextureFilter straightTexture = new TextureFilter();
+		final BufferedImage straightTextureResult = straightTexture.filter(source, null);
+		final TextureFilter straightTurbulence = new TextureFilter();
+		straightTurbulence.setTurbulence(2.5f);
+		final BufferedImage straightTurbulenceResult = straightTurbulence.filter(source, null);
+
+		final MarbleTexFilter marble = new MarbleTexFilter();
+		final BufferedImage marbleResult = marble.filter(source, null);
+		final MarbleTexFilter coloredMarble = new MarbleTexFilter();
+		coloredMarble.setColormap(new LinearColormap(0xff204060, 0xfff0e0d0));
+		final BufferedImage coloredMarbleResult = coloredMarble.filter(source, null);
+
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				assertThat(fbmResult.getRGB(x, y)).isEqualTo(fbm.filterRGB(x, y, source.getRGB(x, y)));
+				assertThat(textureResult.getRGB(x, y)).isEqualTo(texture.filterRGB(x, y, source.getRGB(x, y)));
+				assertThat(straightFbmResult.getRGB(x, y)).isEqualTo(straightFbm.filterRGB(x, y, source.getRGB(x, y)));
+				assertThat(straightTextureResult.getRGB(x, y))
+					.isEqualTo(straightTexture.filterRGB(x, y, source.getRGB(x, y)));
+				assertThat(straightTurbulenceResult.getRGB(x, y))
+					.isEqualTo(straightTurbulence.filterRGB(x, y, source.getRGB(x, y)));
+				assertThat(marbleResult.getRGB(x, y)).isEqualTo(marble.filterRGB(x, y, source.getRGB(x, y)));
+				assertThat(coloredMarbleResult.getRGB(x, y)).isEqualTo(coloredMarble.filterRGB(x, y, source.getRGB(x, y)));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that subclasses of the noise filters which override {@code filterRGB} have
+	 * their own pixels, rather than those of the row passes.
+	 */
+	@Test
+	void overriddenFilterRGBIsUsed() {
+		final BufferedImage source = ImageTestUtils.randomImage(41, 29);
+		final PointFilter[] filters = { new FBMFilter() {
+			@Override
+			public int filterRGB(int x, int y, int rgb) {
+				return super.filterRGB(x, y, rgb) ^ 0x00ff00ff;
+			}
+		}, new TextureFilter() {
+			@Override
+			public int filterRGB(int x, int y, int rgb) {
+				return super.filterRGB(x, y, rgb) ^ 0x00ff00ff;
+			}
+		}, new MarbleTexFilter() {
+			@Override
+			public int filterRGB(int x, int y, int rgb) {
+				return super.filterRGB(x, y, rgb) ^ 0x00ff00ff;
+			}
+		} };
+		for (final PointFilter filter : filters) {
+			final BufferedImage result = filter.filter(source, null);
+			filter.setDimensions(source.getWidth(), source.getHeight());
+
+			for (int y = 0; y < source.getHeight(); y++) {
+				for (int x = 0; x < source.getWidth(); x++) {
+					assertThat(result.getRGB(x, y)).as("%s at %d,%d", filter, x, y)
+						.isEqualTo(filter.filterRGB(x, y, source.getRGB(x, y)));
+				}
+			}
+		}
+	}
+
+}
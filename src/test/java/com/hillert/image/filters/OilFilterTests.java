@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.OilFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for the {@link OilFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class OilFilterTests {
+
+	/**
+	 * Verifies that the sliding window, serial and parallel, produces the same output as
+	 * building the histograms of the full window for every pixel.
+	 */
+	@Test
+	void slidingWindowMatchesFullWindow() {
+		final BufferedImage source = ImageTestUtils.randomImage(45, 38);
+		for (final int range : new int[] { 1, 3, 7 }) {
+			for (final int levels : new int[] { 256, 100, 12 }) {
+				final OilFilter full = new OilFilter();
+				full.setMode(OilFilter.FULL_WINDOW);
+				full.setRange(range);
+				full.setLevels(levels);
+				final OilFilter sliding = new OilFilter();
+				sliding.setRange(range);
+				sliding.setLevels(levels);
+				sliding.setParallel(true);
+				sliding.setMinimumBandHeight(5);
+
+				assertSameImage(full.filter(source, null), sliding.filter(source, null), range, levels);
+			}
+		}
+	}
+
+	/**
+	 * Verifies that a solid image keeps its color in both modes.
+	 */
+	@Test
+	void filterKeepsSolidImageStable() {
+		final int color = 0xff5078c8;
+		final BufferedImage source = new BufferedImage(9, 9, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < source.getHeight(); y++) {
+			for (int x = 0; x < source.getWidth(); x++) {
+				source.setRGB(x, y, color);
+			}
+		}
+		for (final int mode : new int[] { OilFilter.FULL_WINDOW, OilFilter.SLIDING_WINDOW }) {
+			final OilFilter filter = new OilFilter();
+			filter.setMode(mode);
+
+			assertThat(filter.filter(source, null).getRGB(4, 4)).as("mode %d", mode).isEqualTo(color);
+		}
+	}
+
+	/**
+	 * Verifies that unknown histogram modes are rejected.
+	 */
+	@Test
+	void unknownModeIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new OilFilter().setMode(7));
+	}
+
+	private static void assertSameImage(final BufferedImage expected, final BufferedImage actual, final int range,
+			final int levels) {
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertThat(actual.getRGB(x, y)).as("range %d, levels %d at %d,%d", range, levels, x, y)
+					.isEqualTo(expected.getRGB(x, y));
+			}
+		}
+	}
+}
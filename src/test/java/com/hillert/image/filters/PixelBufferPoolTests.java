@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.BoundedPixelBufferPool;
+import com.jhlabs.image.EmbossFilter;
+import com.jhlabs.image.GaussianFilter;
+import com.jhlabs.image.PixelBufferPool;
+import com.jhlabs.image.ThreadLocalPixelBufferPool;
+import com.jhlabs.image.WholeImageFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@link PixelBufferPool} implementations and their use by filters.
+ *
+ * @author Gunnar Hillert
+ */
+public class PixelBufferPoolTests {
+
+	/**
+	 * Verifies that a released buffer is handed out again for a request of the same size
+	 * class, and that the statistics count the hit.
+	 */
+	@Test
+	void releasedBufferIsReused() {
+		final PixelBufferPool pool = new BoundedPixelBufferPool(1 << 20);
+
+		final int[] buffer = pool.acquireInts(1000);
+		pool.release(buffer);
+		final int[] reused = pool.acquireInts(900);
+
+		assertThat(buffer.length).isGreaterThanOrEqualTo(1000);
+		assertThat(reused).isSameAs(buffer);
+		final PixelBufferPool.Statistics statistics = pool.getStatistics();
+		assertThat(statistics.getAcquisitions()).isEqualTo(2);
+		assertThat(statistics.getHits()).isEqualTo(1);
+		assertThat(statistics.getRetainedBytes()).isZero();
+	}
+
+	/**
+	 * Verifies that buffers released beyond the retained bytes cap are discarded.
+	 */
+	@Test
+	void poolRespectsRetainedBytesCap() {
+		final PixelBufferPool pool = new ThreadLocalPixelBufferPool(3 * 4096);
+
+		final float[] first = pool.acquireFloats(3000);
+		final float[] second = pool.acquireFloats(3000);
+		pool.release(first);
+		pool.release(second);
+
+		final PixelBufferPool.Statistics statistics = pool.getStatistics();
+		assertThat(statistics.getReleases()).isEqualTo(2);
+		assertThat(statistics.getDiscards()).isEqualTo(1);
+		assertThat(statistics.getRetainedBytes()).isEqualTo(4L * first.length);
+	}
+
+	/**
+	 * Verifies that a filter drawing its buffers from a pool produces the same output as one
+	 * allocating them, and reuses the buffers on the second call.
+	 */
+	@Test
+	void pooledFilterMatchesUnpooledFilter() {
+		final BufferedImage source = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final PixelBufferPool pool = new BoundedPixelBufferPool(64L << 20);
+		final GaussianFilter pooled = new GaussianFilter(5);
+		pooled.setBufferPool(pool);
+
+		final BufferedImage expected = new GaussianFilter(5).filter(source, null);
+		pooled.filter(source, null);
+		final BufferedImage actual = pooled.filter(source, null);
+
+		assertThat(ImageTestUtils.pixels(actual)).isEqualTo(ImageTestUtils.pixels(expected));
+		assertThat(pool.getStatistics().getHits()).isEqualTo(2);
+	}
+
+	/**
+	 * Verifies that the default pool, which retains nothing, allocates buffers of exactly the
+	 * requested length.
+	 */
+	@Test
+	void noPoolAllocatesExactLengths() {
+		assertThat(PixelBufferPool.NONE.acquireInts(1000)).hasSize(1000);
+		assertThat(PixelBufferPool.NONE.acquireFloats(3000)).hasSize(3000);
+	}
+
+	/**
+	 * Verifies that a whole image filter receives an exact-length input array even when it uses
+	 * a pool, and that neither its input nor its result is released to the pool.
+	 */
+	@Test
+	void wholeImageFilterDoesNotPoolAcrossFilterPixels() {
+		final BufferedImage source = new BufferedImage(30, 20, BufferedImage.TYPE_INT_ARGB);
+		final PixelBufferPool pool = new BoundedPixelBufferPool(64L << 20);
+		final int[] lengths = new int[1];
+		final WholeImageFilter filter = new WholeImageFilter() {
+			@Override
+			protected int[] filterPixels(int width, int height, int[] inPixels, Rectangle transformedSpace) {
+				lengths[0] = inPixels.length;
+				return inPixels;
+			}
+		};
+		filter.setBufferPool(pool);
+
+		filter.filter(source, null);
+
+		assertThat(lengths[0]).isEqualTo(30 * 20);
+		assertThat(pool.getStatistics().getReleases()).isZero();
+	}
+
+	/**
+	 * Verifies that the emboss filter reads only the first {@code width * height} input pixels,
+	 * so an input array rounded up to a size class gives the same result.
+	 */
+	@Test
+	void embossIgnoresInputBeyondImage() {
+		final int width = 30;
+		final int height = 20;
+		final int[] pixels = ImageTestUtils.pixels(ImageTestUtils.randomImage(width, height));
+		final int[] oversized = Arrays.copyOf(pixels, 1024);
+		final ExposedEmbossFilter filter = new ExposedEmbossFilter();
+
+		assertThat(filter.filterPixels(width, height, oversized)).containsExactly(filter.filterPixels(width, height, pixels));
+	}
+
+	private static final class ExposedEmbossFilter extends EmbossFilter {
+
+		int[] filterPixels(int width, int height, int[] inPixels) {
+			return filterPixels(width, height, inPixels, new Rectangle(0, 0, width, height));
+		}
+
+	}
+
+}
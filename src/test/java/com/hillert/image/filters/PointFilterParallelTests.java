@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.ContrastFilter;
+import com.jhlabs.image.DitherFilter;
+import com.jhlabs.image.GrayscaleFilter;
+import com.jhlabs.image.HSBAdjustFilter;
+import com.jhlabs.image.PointFilter;
+import com.jhlabs.image.SepiaFilter;
+import com.jhlabs.image.TextureFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that verify that {@link PointFilter} subclasses produce identical output
+ * whether the image is filtered serially or in parallel bands.
+ *
+ * @author Gunnar Hillert
+ */
+public class PointFilterParallelTests {
+
+	/**
+	 * Filters the sample image (a byte-backed BGR image) serially and in parallel and
+	 * compares every pixel.
+	 */
+	@Test
+	void parallelOutputMatchesSerialOutput() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+
+		assertParallelMatchesSerial(new GrayscaleFilter(), original);
+		assertParallelMatchesSerial(new SepiaFilter(), original);
+		assertParallelMatchesSerial(new HSBAdjustFilter(0.3f, 0.2f, -0.1f), original);
+		assertParallelMatchesSerial(new DitherFilter(), original);
+		assertParallelMatchesSerial(new ContrastFilter(), original);
+		assertParallelMatchesSerial(new TextureFilter(), original);
+	}
+
+	/**
+	 * Verifies the {@code TYPE_INT_ARGB} fast path with band heights which do not divide
+	 * the image height evenly.
+	 */
+	@Test
+	void parallelOutputMatchesSerialOutputForIntArgbImages() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final BufferedImage argb = new BufferedImage(original.getWidth(), original.getHeight() - 3, BufferedImage.TYPE_INT_ARGB);
+		argb.getGraphics().drawImage(original, 0, 0, null);
+
+		assertParallelMatchesSerial(new HSBAdjustFilter(0.1f, 0.0f, 0.2f), argb);
+		assertParallelMatchesSerial(new DitherFilter(), argb);
+	}
+
+	private static void assertParallelMatchesSerial(final PointFilter filter, final BufferedImage source) {
+		final BufferedImage serial = filter.filter(source, null);
+
+		filter.setParallel(true);
+		filter.setExecutor(ImageTestUtils.parallelPool());
+		filter.setMinimumBandHeight(7);
+		final BufferedImage parallel = filter.filter(source, null);
+
+		assertThat(ImageTestUtils.pixels(parallel)).as(filter.toString()).isEqualTo(ImageTestUtils.pixels(serial));
+	}
+
+}
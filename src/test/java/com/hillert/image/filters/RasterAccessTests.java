@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import com.jhlabs.image.RasterAccess;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that verify that {@link RasterAccess} reads and writes exactly the same pixels as
+ * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)} and
+ * {@link BufferedImage#setRGB(int, int, int, int, int[], int, int)}.
+ *
+ * @author Gunnar Hillert
+ */
+public class RasterAccessTests {
+
+	private static final int[] TYPES = { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+			BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR,
+			BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_565_RGB };
+
+	private static final int WIDTH = 37;
+
+	private static final int HEIGHT = 23;
+
+	/**
+	 * Reads random pixels, including translucent ones, and compares them with the
+	 * values reported by the image itself.
+	 */
+	@Test
+	void readsSamePixelsAsBufferedImage() {
+		for (final int type : TYPES) {
+			assertReadsSamePixels(type);
+		}
+	}
+
+	private static void assertReadsSamePixels(final int type) {
+		final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+		image.setRGB(0, 0, WIDTH, HEIGHT, randomPixels(1L), 0, WIDTH);
+
+		final int[] expected = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+		assertThat(RasterAccess.getRGB(image, 0, 0, WIDTH, HEIGHT, null)).as("type %d", type).isEqualTo(expected);
+
+		final int[] expectedRegion = new int[5 + 7 * 20];
+		final int[] actualRegion = new int[5 + 7 * 20];
+		image.getRGB(3, 4, 11, 7, expectedRegion, 5, 20);
+		RasterAccess.getRGB(image, 3, 4, 11, 7, actualRegion, 5, 20);
+		assertThat(actualRegion).as("type %d", type).isEqualTo(expectedRegion);
+	}
+
+	/**
+	 * Writes random pixels, including translucent ones, and compares the resulting
+	 * raster with one written by the image itself.
+	 */
+	@Test
+	void writesSamePixelsAsBufferedImage() {
+		for (final int type : TYPES) {
+			assertWritesSamePixels(type);
+		}
+	}
+
+	private static void assertWritesSamePixels(final int type) {
+		final int[] pixels = randomPixels(2L);
+		final BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, type);
+		final BufferedImage actual = new BufferedImage(WIDTH, HEIGHT, type);
+
+		expected.setRGB(0, 0, WIDTH, HEIGHT, pixels, 0, WIDTH);
+		RasterAccess.setRGB(actual, 0, 0, WIDTH, HEIGHT, pixels);
+		assertThat(dataElements(actual)).as("type %d", type).isEqualTo(dataElements(expected));
+
+		expected.setRGB(2, 3, 9, 6, pixels, 4, 12);
+		RasterAccess.setRGB(actual, 2, 3, 9, 6, pixels, 4, 12);
+		assertThat(dataElements(actual)).as("type %d", type).isEqualTo(dataElements(expected));
+	}
+
+	private static int[] randomPixels(final long seed) {
+		final Random random = new Random(seed);
+		final int[] pixels = new int[WIDTH * HEIGHT];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = random.nextInt();
+		}
+		// Make sure the fully transparent and fully opaque cases are covered
+		pixels[0] &= 0x00ffffff;
+		pixels[1] |= 0xff000000;
+		return pixels;
+	}
+
+	private static int[] dataElements(final BufferedImage image) {
+		return image.getRaster().getPixels(0, 0, WIDTH, HEIGHT, (int[]) null);
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.ContrastFilter;
+import com.jhlabs.image.ExposureFilter;
+import com.jhlabs.image.GainFilter;
+import com.jhlabs.image.GammaFilter;
+import com.jhlabs.image.SolarizeFilter;
+import com.jhlabs.image.TransferFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that verify composing {@link TransferFilter}s and the byte raster path.
+ *
+ * @author Gunnar Hillert
+ */
+public class TransferFilterTests {
+
+	/**
+	 * Composes several transfer filters and compares the result with applying them in turn,
+	 * both for the byte-backed sample image and for an int-backed copy.
+	 */
+	@Test
+	void composedFilterMatchesSequentialApplication() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final TransferFilter[] filters = filters();
+
+		for (final BufferedImage source : new BufferedImage[] { original, convert(original, BufferedImage.TYPE_INT_ARGB) }) {
+			BufferedImage expected = source;
+			for (final TransferFilter filter : filters) {
+				expected = filter.filter(expected, null);
+			}
+			final BufferedImage actual = TransferFilter.compose(filters).filter(source, null);
+
+			assertThat(ImageTestUtils.pixels(actual)).isEqualTo(ImageTestUtils.pixels(expected));
+		}
+	}
+
+	/**
+	 * Verifies that filtering byte-backed rasters band by band gives the same result as
+	 * filtering packed ARGB pixels, including translucent ones.
+	 */
+	@Test
+	void byteRasterPathMatchesPackedPath() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+		final BufferedImage abgr = convert(original, BufferedImage.TYPE_4BYTE_ABGR);
+		for (int y = 0; y < abgr.getHeight(); y++) {
+			for (int x = 0; x < abgr.getWidth(); x++) {
+				abgr.setRGB(x, y, (abgr.getRGB(x, y) & 0x00ffffff) | ((x & 0xff) << 24));
+			}
+		}
+		final TransferFilter filter = TransferFilter.compose(filters());
+
+		final BufferedImage expected = filter.filter(convert(abgr, BufferedImage.TYPE_INT_ARGB), null);
+		final BufferedImage actual = filter.filter(abgr, null);
+
+		assertThat(actual.getType()).isEqualTo(BufferedImage.TYPE_4BYTE_ABGR);
+		assertThat(ImageTestUtils.pixels(actual)).isEqualTo(ImageTestUtils.pixels(expected));
+	}
+
+	/**
+	 * Verifies that the lookup tables are built once on the configured filter and reused by
+	 * later calls, and built again once a parameter changes.
+	 */
+	@Test
+	void tablesAreBuiltOncePerConfiguration() {
+		final BufferedImage source = ImageTestUtils.randomImage(16, 8);
+		final CountingGammaFilter filter = new CountingGammaFilter();
+
+		final int[] first = ImageTestUtils.pixels(filter.filter(source, null));
+		final int[] second = ImageTestUtils.pixels(filter.filter(source, null));
+		assertThat(second).isEqualTo(first);
+		assertThat(filter.builds).isEqualTo(1);
+
+		filter.setGamma(0.5f);
+		filter.filter(source, null);
+		filter.filter(source, null);
+		assertThat(filter.builds).isEqualTo(2);
+	}
+
+	private static TransferFilter[] filters() {
+		final ContrastFilter contrast = new ContrastFilter();
+		contrast.setContrast(1.4f);
+		final ExposureFilter exposure = new ExposureFilter();
+		exposure.setExposure(0.8f);
+		final GainFilter gain = new GainFilter();
+		gain.setGain(0.7f);
+		return new TransferFilter[] { contrast, new GammaFilter(1.3f, 0.9f, 1.1f), exposure, gain, new SolarizeFilter() };
+	}
+
+	private static BufferedImage convert(final BufferedImage image, final int type) {
+		final BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+		converted.setRGB(0, 0, image.getWidth(), image.getHeight(), ImageTestUtils.pixels(image), 0, image.getWidth());
+		return converted;
+	}
+
+	private static final class CountingGammaFilter extends GammaFilter {
+
+		private int builds;
+
+		@Override
+		protected void initialize() {
+			this.builds++;
+			super.initialize();
+		}
+
+	}
+
+}
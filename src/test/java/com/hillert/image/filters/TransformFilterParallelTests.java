@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.PerspectiveFilter;
+import com.jhlabs.image.PolarFilter;
+import com.jhlabs.image.RippleFilter;
+import com.jhlabs.image.RotateFilter;
+import com.jhlabs.image.SphereFilter;
+import com.jhlabs.image.TransformFilter;
+import com.jhlabs.image.TwirlFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that verify that {@link TransformFilter} subclasses produce identical output
+ * whether the output is transformed serially or in parallel tiles.
+ *
+ * @author Gunnar Hillert
+ */
+public class TransformFilterParallelTests {
+
+	/**
+	 * Transforms the sample image serially and in parallel using a tile size which does not
+	 * divide the image evenly, and compares every pixel.
+	 */
+	@Test
+	void parallelOutputMatchesSerialOutput() {
+		final BufferedImage original = ImageTestUtils.loadImage(ImageTestUtils.TEST_IMAGE_RESOURCE);
+
+		final TwirlFilter twirl = new TwirlFilter();
+		twirl.setAngle(2.0f);
+		twirl.setRadius(200);
+		assertParallelMatchesSerial(twirl, original);
+
+		final RippleFilter ripple = new RippleFilter();
+		ripple.setEdgeAction(TransformFilter.WRAP);
+		assertParallelMatchesSerial(ripple, original);
+
+		assertParallelMatchesSerial(new PolarFilter(), original);
+		assertParallelMatchesSerial(new SphereFilter(), original);
+
+		final PerspectiveFilter perspective = new PerspectiveFilter();
+		perspective.setCorners(0, 0, 1200, 40, 1100, 600, 80, 640);
+		assertParallelMatchesSerial(perspective, original);
+
+		final RotateFilter rotate = new RotateFilter(0.3f);
+		rotate.setEdgeAction(TransformFilter.CLAMP);
+		assertParallelMatchesSerial(rotate, original);
+	}
+
+	private static void assertParallelMatchesSerial(final TransformFilter filter, final BufferedImage source) {
+		final BufferedImage serial = filter.filter(source, null);
+
+		filter.setParallel(true);
+		filter.setExecutor(ImageTestUtils.parallelPool());
+		filter.setTileSize(47);
+		final BufferedImage parallel = filter.filter(source, null);
+
+		assertThat(parallel.getWidth()).isEqualTo(serial.getWidth());
+		assertThat(parallel.getHeight()).isEqualTo(serial.getHeight());
+		assertThat(ImageTestUtils.pixels(parallel)).as(filter.toString()).isEqualTo(ImageTestUtils.pixels(serial));
+	}
+
+}
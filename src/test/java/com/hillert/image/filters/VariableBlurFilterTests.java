@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters;
+
+import java.awt.image.BufferedImage;
+
+import com.hillert.image.filters.support.ImageTestUtils;
+import com.jhlabs.image.VariableBlurFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for the engines of the {@link VariableBlurFilter} class.
+ *
+ * @author Gunnar Hillert
+ */
+public class VariableBlurFilterTests {
+
+	/**
+	 * Verifies that the summed-area engine averages the box given by the mask around every
+	 * pixel, clipped at the edges of the image.
+	 */
+	@Test
+	void summedAreaAveragesMaskedBox() {
+		final int width = 31;
+		final int height = 19;
+		final BufferedImage source = ImageTestUtils.randomImage(width, height, 42);
+		final BufferedImage mask = ImageTestUtils.randomImage(width, height, 7);
+		final VariableBlurFilter filter = new VariableBlurFilter();
+		filter.setMode(VariableBlurFilter.SUMMED_AREA);
+		filter.setHRadius(6);
+		filter.setVRadius(3);
+		filter.setBlurMask(mask);
+
+		final BufferedImage result = filter.filter(source, null);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int m = mask.getRGB(x, y) & 0xff;
+				final int hRadius = (int) (m * 6 / 255f);
+				final int vRadius = (int) (m * 3 / 255f);
+				assertThat(result.getRGB(x, y)).as("at %d,%d", x, y).isEqualTo(boxAverage(source, x, y, hRadius, vRadius));
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the two public passes of the separable engine give the result of the
+	 * filter.
+	 */
+	@Test
+	void separablePassesMatchFilter() {
+		final int width = 27;
+		final int height = 22;
+		final BufferedImage source = ImageTestUtils.randomImage(width, height, 42);
+		for (final BufferedImage mask : new BufferedImage[] { null, ImageTestUtils.randomImage(width, height, 9) }) {
+			final VariableBlurFilter filter = new VariableBlurFilter();
+			filter.setRadius(5);
+			filter.setBlurMask(mask);
+			final int[] in = source.getRGB(0, 0, width, height, null, 0, width);
+			final int[] out = new int[width * height];
+
+			filter.blur(in, out, width, height, 5, 1);
+			filter.blur(out, in, height, width, 5, 2);
+			final BufferedImage result = filter.filter(source, null);
+
+			assertThat(result.getRGB(0, 0, width, height, null, 0, width)).isEqualTo(in);
+		}
+	}
+
+	/**
+	 * Verifies that unknown blur engines are rejected.
+	 */
+	@Test
+	void unknownModeIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new VariableBlurFilter().setMode(7));
+	}
+
+	private static int boxAverage(final BufferedImage image, final int x, final int y, final int hRadius, final int vRadius) {
+		final int x0 = Math.max(0, x - hRadius);
+		final int x1 = Math.min(image.getWidth() - 1, x + hRadius);
+		final int y0 = Math.max(0, y - vRadius);
+		final int y1 = Math.min(image.getHeight() - 1, y + vRadius);
+		final int area = (x1 - x0 + 1) * (y1 - y0 + 1);
+		int argb = 0;
+		for (int shift = 0; shift < 32; shift += 8) {
+			int sum = 0;
+			for (int by = y0; by <= y1; by++) {
+				for (int bx = x0; bx <= x1; bx++) {
+					sum += (image.getRGB(bx, by) >>> shift) & 0xff;
+				}
+			}
+			argb |= (sum / area) << shift;
+		}
+		return argb;
+	}
+}
@@ -0,0 +1,363 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2026 Gunnar Hillert
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.hillert.image.filters.support;
+
+import java.awt.image.Kernel;
+
+import com.jhlabs.image.ConvolveFilter;
+import com.jhlabs.image.GaussianFilter;
+import com.jhlabs.image.PixelUtils;
+
+/**
+ * The scalar convolution of {@link ConvolveFilter}, and the transposing row convolution of
+ * {@link GaussianFilter}, as they were before the interior of the image was split from its
+ * border, which tests the edge action for every tap of every pixel. Used as the reference for
+ * the split implementations. Like them, it skips taps outside the image when edges are zero,
+ * in the one-dimensional loops as well as the two-dimensional one.
+ *
+ * @author Gunnar Hillert
+ */
+public final class BaselineConvolution {
+
+	private BaselineConvolution() {
+	}
+
+	/**
+	 * Convolve with the kernel, choosing the one- or two-dimensional loop like
+	 * {@link ConvolveFilter#convolve(Kernel, int[], int[], int, int, boolean, int)}.
+	 * @param kernel     the convolution kernel
+	 * @param inPixels   the input pixel array
+	 * @param outPixels  the output pixel array
+	 * @param width      the width of the image
+	 * @param height     the height of the image
+	 * @param alpha      whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 */
+	public static void convolve(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height, boolean alpha,
+			int edgeAction) {
+		if (kernel.getHeight() == 1) {
+			convolveH(kernel, inPixels, outPixels, width, height, alpha, edgeAction);
+		}
+		else if (kernel.getWidth() == 1) {
+			convolveV(kernel, inPixels, outPixels, width, height, alpha, edgeAction);
+		}
+		else {
+			convolveHV(kernel, inPixels, outPixels, width, height, alpha, edgeAction);
+		}
+	}
+
+	/**
+	 * Convolve each row with a kernel consisting of one row, writing the result transposed,
+	 * like {@link GaussianFilter#convolveAndTranspose}.
+	 * @param kernel     the convolution kernel
+	 * @param inPixels   the input pixel array
+	 * @param outPixels  receives the transposed output pixels
+	 * @param width      the width of the input
+	 * @param height     the height of the input
+	 * @param alpha      whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 */
+	public static void convolveAndTranspose(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height,
+			boolean alpha, int edgeAction) {
+		float[] matrix = kernel.getKernelData(null);
+		int cols = kernel.getWidth();
+		int cols2 = cols / 2;
+
+		for (int y = 0; y < height; y++) {
+			int index = y;
+			int ioffset = y * width;
+			for (int x = 0; x < width; x++) {
+				float r = 0;
+				float g = 0;
+				float b = 0;
+				float a = 0;
+				int moffset = cols2;
+				for (int col = -cols2; col <= cols2; col++) {
+					float f = matrix[moffset + col];
+
+					if (f != 0) {
+						int ix = x + col;
+						if (ix < 0) {
+							if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+								ix = 0;
+							}
+							else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+								ix = (x + width) % width;
+							}
+							else {
+								continue;
+							}
+						}
+						else if (ix >= width) {
+							if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+								ix = width - 1;
+							}
+							else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+								ix = (x + width) % width;
+							}
+							else {
+								continue;
+							}
+						}
+						int rgb = inPixels[ioffset + ix];
+						a += f * ((rgb >> 24) & 0xff);
+						r += f * ((rgb >> 16) & 0xff);
+						g += f * ((rgb >> 8) & 0xff);
+						b += f * (rgb & 0xff);
+					}
+				}
+				int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
+				int ir = PixelUtils.clamp((int) (r + 0.5));
+				int ig = PixelUtils.clamp((int) (g + 0.5));
+				int ib = PixelUtils.clamp((int) (b + 0.5));
+				outPixels[index] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
+				index += height;
+			}
+		}
+	}
+
+	private static void convolveHV(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height,
+			boolean alpha, int edgeAction) {
+		int index = 0;
+		float[] matrix = kernel.getKernelData(null);
+		int rows = kernel.getHeight();
+		int cols = kernel.getWidth();
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				outPixels[index++] = convolvePixel(matrix, rows, cols, inPixels, width, height, x, y, alpha, edgeAction);
+			}
+		}
+	}
+
+	/**
+	 * Convolve a single pixel with a 2D kernel.
+	 * @param matrix     the kernel elements, row by row
+	 * @param rows       the number of rows of the kernel
+	 * @param cols       the number of columns of the kernel
+	 * @param inPixels   the input pixel array
+	 * @param width      the width of the image
+	 * @param height     the height of the image
+	 * @param x          the x coordinate of the pixel
+	 * @param y          the y coordinate of the pixel
+	 * @param alpha      whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 * @return the convolved pixel
+	 */
+	private static int convolvePixel(float[] matrix, int rows, int cols, int[] inPixels, int width, int height, int x,
+			int y, boolean alpha, int edgeAction) {
+		int rows2 = rows / 2;
+		int cols2 = cols / 2;
+		float r = 0;
+		float g = 0;
+		float b = 0;
+		float a = 0;
+
+		for (int row = -rows2; row <= rows2; row++) {
+			int iy = y + row;
+			int ioffset;
+			if (0 <= iy && iy < height) {
+				ioffset = iy * width;
+			}
+			else if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+				ioffset = y * width;
+			}
+			else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+				ioffset = ((iy + height) % height) * width;
+			}
+			else {
+				continue;
+			}
+			int moffset = cols * (row + rows2) + cols2;
+			for (int col = -cols2; col <= cols2; col++) {
+				float f = matrix[moffset + col];
+
+				if (f != 0) {
+					int ix = x + col;
+					if (!(0 <= ix && ix < width)) {
+						if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+							ix = x;
+						}
+						else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+							ix = (x + width) % width;
+						}
+						else {
+							continue;
+						}
+					}
+					int rgb = inPixels[ioffset + ix];
+					a += f * ((rgb >> 24) & 0xff);
+					r += f * ((rgb >> 16) & 0xff);
+					g += f * ((rgb >> 8) & 0xff);
+					b += f * (rgb & 0xff);
+				}
+			}
+		}
+		int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
+		int ir = PixelUtils.clamp((int) (r + 0.5));
+		int ig = PixelUtils.clamp((int) (g + 0.5));
+		int ib = PixelUtils.clamp((int) (b + 0.5));
+		return (ia << 24) | (ir << 16) | (ig << 8) | ib;
+	}
+
+	/**
+	 * Convolve with a kernel consisting of one row.
+	 * @param kernel the convolution kernel
+	 * @param inPixels the input pixel array
+	 * @param outPixels the output pixel array
+	 * @param width the width of the image
+	 * @param height the height of the image
+	 * @param alpha whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 */
+	private static void convolveH(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height,
+			boolean alpha, int edgeAction) {
+		int index = 0;
+		float[] matrix = kernel.getKernelData(null);
+		int cols = kernel.getWidth();
+		int cols2 = cols / 2;
+
+		for (int y = 0; y < height; y++) {
+			int ioffset = y * width;
+			for (int x = 0; x < width; x++) {
+				float r = 0;
+				float g = 0;
+				float b = 0;
+				float a = 0;
+				int moffset = cols2;
+				for (int col = -cols2; col <= cols2; col++) {
+					float f = matrix[moffset + col];
+
+					if (f != 0) {
+						int ix = x + col;
+						if (ix < 0) {
+							if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+								ix = 0;
+							}
+							else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+								ix = (x + width) % width;
+							}
+							else {
+								continue;
+							}
+						}
+						else if (ix >= width) {
+							if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+								ix = width - 1;
+							}
+							else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+								ix = (x + width) % width;
+							}
+							else {
+								continue;
+							}
+						}
+						int rgb = inPixels[ioffset + ix];
+						a += f * ((rgb >> 24) & 0xff);
+						r += f * ((rgb >> 16) & 0xff);
+						g += f * ((rgb >> 8) & 0xff);
+						b += f * (rgb & 0xff);
+					}
+				}
+				int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
+				int ir = PixelUtils.clamp((int) (r + 0.5));
+				int ig = PixelUtils.clamp((int) (g + 0.5));
+				int ib = PixelUtils.clamp((int) (b + 0.5));
+				outPixels[index++] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
+			}
+		}
+	}
+
+	/**
+	 * Convolve with a kernel consisting of one column.
+	 * @param kernel the convolution kernel
+	 * @param inPixels the input pixel array
+	 * @param outPixels the output pixel array
+	 * @param width the width of the image
+	 * @param height the height of the image
+	 * @param alpha whether to process the alpha channel
+	 * @param edgeAction the edge action to use
+	 */
+	private static void convolveV(Kernel kernel, int[] inPixels, int[] outPixels, int width, int height,
+			boolean alpha, int edgeAction) {
+		int index = 0;
+		float[] matrix = kernel.getKernelData(null);
+		int rows = kernel.getHeight();
+		int rows2 = rows / 2;
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				float r = 0;
+				float g = 0;
+				float b = 0;
+				float a = 0;
+
+				for (int row = -rows2; row <= rows2; row++) {
+					float f = matrix[row + rows2];
+					int iy = y + row;
+					int ioffset;
+					if (iy < 0) {
+						if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+							ioffset = 0;
+						}
+						else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+							ioffset = ((y + height) % height) * width;
+						}
+						else {
+							continue;
+						}
+					}
+					else if (iy >= height) {
+						if (edgeAction == ConvolveFilter.CLAMP_EDGES) {
+							ioffset = (height - 1) * width;
+						}
+						else if (edgeAction == ConvolveFilter.WRAP_EDGES) {
+							ioffset = ((y + height) % height) * width;
+						}
+						else {
+							continue;
+						}
+					}
+					else {
+						ioffset = iy * width;
+					}
+
+					if (f != 0) {
+						int rgb = inPixels[ioffset + x];
+						a += f * ((rgb >> 24) & 0xff);
+						r += f * ((rgb >> 16) & 0xff);
+						g += f * ((rgb >> 8) & 0xff);
+						b += f * (rgb & 0xff);
+					}
+				}
+				int ia = alpha ? PixelUtils.clamp((int) (a + 0.5)) : 0xff;
+				int ir = PixelUtils.clamp((int) (r + 0.5));
+				int ig = PixelUtils.clamp((int) (g + 0.5));
+				int ib = PixelUtils.clamp((int) (b + 0.5));
+				outPixels[index++] = (ia << 24) | (ir << 16) | (ig << 8) | ib;
+			}
+		}
+	}
+}
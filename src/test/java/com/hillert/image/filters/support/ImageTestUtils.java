@@ -29,6 +29,8 @@ import java.awt.GridLayout;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
@@ -46,6 +48,8 @@ public final class ImageTestUtils {
 
 	public static final String TEST_IMAGE_RESOURCE = "images/image-filters-4j.png";
 
+	private static final ForkJoinPool PARALLEL_POOL = new ForkJoinPool(4);
+
 	/**
 	 * Loads an image from the specified resource path.
 	 * The method locates the image resource using the context class loader and reads it into a {@link BufferedImage}.
@@ -67,6 +71,73 @@ public final class ImageTestUtils {
 		}
 	}
 
+	/**
+	 * Returns the pixels of an image as packed ARGB values, row by row.
+	 * @param image the image to read
+	 * @return the pixels of the whole image
+	 */
+	public static int[] pixels(final BufferedImage image) {
+		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+	}
+
+	/**
+	 * Creates an ARGB image of random pixels, the same for every call with the same size.
+	 * @param width the width of the image
+	 * @param height the height of the image
+	 * @return the image
+	 */
+	public static BufferedImage randomImage(final int width, final int height) {
+		return randomImage(width, height, 42);
+	}
+
+	/**
+	 * Creates an ARGB image of random pixels drawn from the given seed.
+	 * @param width the width of the image
+	 * @param height the height of the image
+	 * @param seed the seed of the random pixels
+	 * @return the image
+	 */
+	public static BufferedImage randomImage(final int width, final int height, final long seed) {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final Random random = new Random(seed);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Returns the largest difference between two images of the same size in any channel,
+	 * including alpha.
+	 * @param expected the first image
+	 * @param actual the second image
+	 * @return the largest difference in levels, 0 if the images are identical
+	 */
+	public static int maximumDifference(final BufferedImage expected, final BufferedImage actual) {
+		int maximum = 0;
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				final int rgb1 = expected.getRGB(x, y);
+				final int rgb2 = actual.getRGB(x, y);
+				for (int shift = 0; shift < 32; shift += 8) {
+					maximum = Math.max(maximum, Math.abs(((rgb1 >> shift) & 0xff) - ((rgb2 >> shift) & 0xff)));
+				}
+			}
+		}
+		return maximum;
+	}
+
+	/**
+	 * Returns a pool of four threads for running filters in parallel, shared by all tests.
+	 * Its threads are daemon threads, so it is never shut down.
+	 * @return the pool
+	 */
+	public static ForkJoinPool parallelPool() {
+		return PARALLEL_POOL;
+	}
+
 	/**
 	 * Displays two images side by side in a Swing UI with a specified title.
 	 * @param originalImage the original image to display